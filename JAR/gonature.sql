@@ -64,7 +64,8 @@ CREATE TABLE `occasionalvisits` (
   `Amount` int DEFAULT NULL,
   `Price` double DEFAULT NULL,
   PRIMARY KEY (`OrderId`),
-  KEY `ParkId` (`ParkId`),
+  KEY `idx_occasional_park_enter` (`ParkId`,`EnterDate`,`OrderStatus`,`Amount`),
+  KEY `idx_occasional_status` (`OrderStatus`),
   CONSTRAINT `occasionalvisits_ibfk_1` FOREIGN KEY (`ParkId`) REFERENCES `parks` (`ParkId`)
 ) ENGINE=InnoDB AUTO_INCREMENT=107 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -260,7 +261,10 @@ CREATE TABLE `preorders` (
   `Amount` int DEFAULT NULL,
   `Price` double DEFAULT NULL,
   PRIMARY KEY (`OrderId`),
-  KEY `ParkId` (`ParkId`),
+  KEY `idx_preorders_park_enter` (`ParkId`,`EnterDate`,`OrderStatus`,`Amount`),
+  KEY `idx_preorders_park_exit` (`ParkId`,`ExitDate`,`OrderStatus`,`EnterDate`,`Amount`),
+  KEY `idx_preorders_owner_status` (`OwnerId`,`OrderStatus`),
+  KEY `idx_preorders_status_enter` (`OrderStatus`,`EnterDate`),
   CONSTRAINT `preorders_ibfk_1` FOREIGN KEY (`ParkId`) REFERENCES `parks` (`ParkId`)
 ) ENGINE=InnoDB AUTO_INCREMENT=655 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -0,0 +1,84 @@
+-- GoNature query plan check: the hot order queries must read the orders through an index, not scan the tables.
+--
+-- Run after gonature_indexes.sql, and again whenever one of these queries in jdbc.query is changed or a new query on
+-- preorders or occasionalvisits is added (add it here as well, with example values for its parameters):
+--   mysql -u root -p gonature < gonature_explain_check.sql
+--
+-- Every row of the result must say OK. FULL SCAN means that the query has a condition the DB can't use an index for,
+-- usually a function around a column such as DATE(EnterDate) or MONTH(EnterDate); compare the column with a range of
+-- values instead (EnterDate >= ? AND EnterDate < ?). Requires MySQL 8.0.32 or later, for EXPLAIN ... INTO.
+
+DROP TEMPORARY TABLE IF EXISTS `explain_check`;
+CREATE TEMPORARY TABLE `explain_check` (`QueryName` varchar(64) NOT NULL, `Plan` json NOT NULL);
+
+-- OrderQueries.checkAvailableSpotInParkAtSpecificHour
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT (SELECT SUM(Amount) FROM preorders WHERE EnterDate <= '2024-03-20 10:00:00' AND ExitDate > '2024-03-20 10:00:00'
+  AND (OrderStatus = 'Wait Notify' OR OrderStatus = 'Notified Waiting List' OR OrderStatus = 'Notified'
+  OR OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND parkId = 1) AS Count, p.MaxCapacity, p.ReservedSpots
+FROM parks p WHERE p.parkId = 1;
+INSERT INTO `explain_check` VALUES ('capacity of a park', @plan);
+
+-- OrderQueries.importAllOrdersForToday
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT OrderId, Amount, EnterDate, OrderStatus FROM occasionalvisits
+WHERE EnterDate >= CURDATE() AND EnterDate < CURDATE() + INTERVAL 1 DAY
+  AND (OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND ParkId = 1
+UNION ALL
+SELECT OrderId, Amount, EnterDate, OrderStatus FROM preorders
+WHERE EnterDate >= CURDATE() AND EnterDate < CURDATE() + INTERVAL 1 DAY
+  AND (OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND ParkId = 1;
+INSERT INTO `explain_check` VALUES ('orders of the day', @plan);
+
+-- OrderQueries.fetchOrderByOwnerID and CustomerQueries.searchAccessForVisitor
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT * FROM preorders WHERE OwnerId = 123456789 AND OrderStatus != 'Cancelled';
+INSERT INTO `explain_check` VALUES ('orders of a customer', @plan);
+
+-- OrderQueries.searchForNotifiedOrdersOfSpecificClient
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT OrderId, ParkId, EnterDate, PayStatus, Amount, OrderStatus FROM preorders
+WHERE (OrderStatus = 'Notified' OR OrderStatus = 'Notified Waiting List') AND OwnerId = 123456789;
+INSERT INTO `explain_check` VALUES ('notifications of a customer', @plan);
+
+-- OrderQueries.notifyTheNextOrdersInWaitingList
+-- (only the orders, waitinglist is read by its primary key or, being small, scanned.)
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT p.OrderId, p.ParkId, p.EnterDate, p.Amount FROM preorders p
+WHERE p.ParkId = 1 AND p.EnterDate = '2024-03-20 10:00:00' AND p.OrderStatus = 'In Waiting List';
+INSERT INTO `explain_check` VALUES ('waiting list of a park', @plan);
+
+-- NotificationQueries.CheckAllOrdersAndChangeToCancelledIfNeeded
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT OrderId, ParkId, OwnerId, Amount, EnterDate FROM preorders
+WHERE OrderStatus = 'Notified' AND EnterDate <= '2024-03-20 10:00:00';
+INSERT INTO `explain_check` VALUES ('notified orders past the deadline', @plan);
+
+-- ReportsQueries.getParkDailySummariesOfMonth
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT DAY(EnterDate) AS Day, COUNT(CASE WHEN OrderStatus = 'Cancelled' THEN 1 END) AS CanceledOrders,
+  COUNT(*) AS TotalOrders FROM preorders
+WHERE ParkId = 1 AND EnterDate >= '2024-03-01 00:00:00' AND EnterDate < '2024-04-01 00:00:00'
+GROUP BY DAY(EnterDate);
+INSERT INTO `explain_check` VALUES ('cancellations report', @plan);
+
+-- ReportsQueries.getParkVisitsSummaryByEnterTime
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT EnterDate, ExitDate, Amount, OrderType FROM occasionalvisits
+WHERE parkId = 1 AND EnterDate >= '2024-03-01 00:00:00' AND EnterDate < '2024-04-01 00:00:00'
+UNION ALL
+SELECT EnterDate, ExitDate, Amount, OrderType FROM preorders
+WHERE parkId = 1 AND EnterDate >= '2024-03-01 00:00:00' AND EnterDate < '2024-04-01 00:00:00';
+INSERT INTO `explain_check` VALUES ('visits report', @plan);
+
+-- OccasionalQueries.ReturnTotalOccasionalVisitsInPark
+EXPLAIN FORMAT=JSON INTO @plan
+SELECT COUNT(*) AS OccasionalInPark FROM occasionalvisits WHERE OrderStatus = 'In Park';
+INSERT INTO `explain_check` VALUES ('occasional visitors in the parks', @plan);
+
+-- a table which is read with the access type ALL is scanned.
+SELECT `QueryName`,
+  IF(JSON_SEARCH(`Plan`, 'one', 'ALL', NULL, '$**.access_type') IS NULL, 'OK', 'FULL SCAN') AS `Result`
+FROM `explain_check`;
+
+DROP TEMPORARY TABLE `explain_check`;
@@ -0,0 +1,42 @@
+-- GoNature schema migration: indexes for the hot order queries.
+--
+-- Run once on a database which was created from an older gonature.sql (a database created from the current dump
+-- already has these indexes):
+--   mysql -u root -p gonature < gonature_indexes.sql
+--
+-- The composite indexes start with ParkId, so they also serve the foreign keys to `parks`, and the single column
+-- ParkId indexes are dropped instead of being kept up to date on every insert for nothing.
+-- After the migration run gonature_explain_check.sql to see that the hot queries use the indexes.
+
+--
+-- preorders:
+--   idx_preorders_park_enter   - the reports, the orders of the day at the park entrance and the waiting list of a
+--                                park at an hour (ParkId = ? AND EnterDate in a range or equal).
+--   idx_preorders_park_exit    - the capacity checks (ParkId = ? AND ExitDate > ? AND EnterDate < ?), covering the
+--                                statuses and the amounts so the orders themselves are not read.
+--   idx_preorders_owner_status - the orders and the notifications of a customer (OwnerId = ? AND OrderStatus ...).
+--   idx_preorders_status_enter - the notifications and deadlines (OrderStatus = ? AND EnterDate <= ?) and the counts
+--                                of orders by status.
+--
+
+ALTER TABLE `preorders`
+  ADD KEY `idx_preorders_park_enter` (`ParkId`,`EnterDate`,`OrderStatus`,`Amount`),
+  ADD KEY `idx_preorders_park_exit` (`ParkId`,`ExitDate`,`OrderStatus`,`EnterDate`,`Amount`),
+  ADD KEY `idx_preorders_owner_status` (`OwnerId`,`OrderStatus`),
+  ADD KEY `idx_preorders_status_enter` (`OrderStatus`,`EnterDate`);
+
+ALTER TABLE `preorders` DROP KEY `ParkId`;
+
+--
+-- occasionalvisits:
+--   idx_occasional_park_enter - the reports and the visits of the day at the park entrance.
+--   idx_occasional_status     - the count of the occasional visitors in the parks.
+--
+
+ALTER TABLE `occasionalvisits`
+  ADD KEY `idx_occasional_park_enter` (`ParkId`,`EnterDate`,`OrderStatus`,`Amount`),
+  ADD KEY `idx_occasional_status` (`OrderStatus`);
+
+ALTER TABLE `occasionalvisits` DROP KEY `ParkId`;
+
+ANALYZE TABLE `preorders`, `occasionalvisits`;
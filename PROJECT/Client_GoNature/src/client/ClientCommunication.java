@@ -1,18 +1,31 @@
 package client;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import javafx.application.Platform;
 import logic.ClientRequestDataContainer;
 import logic.ServerResponseBackToClient;
 import ocsf.AbstractClient;
 import ocsf.ChatIF;
+import utils.codec.BinaryMessageCodec;
 import utils.enums.ServerResponse;
 
 /**
  * The ClientCommunication class represents the client-side communication logic.
  * It extends the AbstractClient class and handles communication between the
  * client and the server.
+ * Every request is given an ID which the server copies into its response, so several requests may wait for their
+ * responses at the same time: {@link #sendRequest(ClientRequestDataContainer)} returns a future which is completed
+ * when the matching response arrives. Messages the server sends on its own (with no request ID) are passed to the
+ * server message listeners. A request may also be answered by parts (the chunks of a report, for example) before
+ * its response, which are passed to the request's partial response listener.
+ * A request which gets no response within {@link #RESPONSE_TIMEOUT_SECONDS} fails with a TimeoutException.
  */
 public class ClientCommunication extends AbstractClient {
 	// Instance variables **********************************************
@@ -26,10 +39,17 @@ public class ClientCommunication extends AbstractClient {
 	ChatIF clientUI;
 //	private Object ServerResponseHandler;
 
-	/** Flag indicating whether a response from the server is awaited. */
-	public static boolean awaitResponse = false;
-	/** The response received from the server. */
-	public static ServerResponseBackToClient responseFromServer;
+	/** The time a request waits for its response, a request answered by parts (a report download) has no limit. */
+	public static final long RESPONSE_TIMEOUT_SECONDS = 30;
+
+	/** The ID given to the next request. */
+	private final AtomicLong nextRequestId = new AtomicLong(1);
+	/** The requests which wait for their responses, by request ID. */
+	private final ConcurrentHashMap<Long, CompletableFuture<ServerResponseBackToClient>> pendingRequests = new ConcurrentHashMap<>();
+	/** The listeners to the parts of the responses, by request ID. */
+	private final ConcurrentHashMap<Long, Consumer<ServerResponseBackToClient>> partialResponseListeners = new ConcurrentHashMap<>();
+	/** The listeners to messages the server sends without a request. */
+	private final CopyOnWriteArrayList<Consumer<ServerResponseBackToClient>> serverMessageListeners = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Constructs a new instance of ClientCommunication.
@@ -42,45 +62,137 @@ public class ClientCommunication extends AbstractClient {
 	public ClientCommunication(String host, int port, ChatIF clientUI) throws IOException {
 		super(host, port); // Call the superclass constructor
 		this.clientUI = clientUI;
+		// framed messages let a server with a non-blocking transport serve this client without a thread of its own.
+		setFramedTransport(true);
+		// the binary codec writes the requests and the entities in a fraction of the bytes of Java serialization,
+		// a server which doesn't know it answers with Java serialization.
+		setMessageCodec(new BinaryMessageCodec());
 		openConnection();
 	}
 
 	/**
-	 * Handles the message received from the server.
+	 * Handles the message received from the server. A part of a response is passed to the request's partial
+	 * response listener, a response to a request completes the request's future, any other message is passed to the
+	 * server message listeners.
 	 *
 	 * @param msg The message from the server.
 	 */
 	public void handleMessageFromServer(Object msg) {
-		awaitResponse = false;
-		responseFromServer = (ServerResponseBackToClient) msg;
-		if (responseFromServer.getRensponse() == ServerResponse.Server_Disconnected)
+		ServerResponseBackToClient response = (ServerResponseBackToClient) msg;
+		if (response.getRensponse() == ServerResponse.Report_Chunk) {
+			Consumer<ServerResponseBackToClient> partialResponseListener = partialResponseListeners
+					.get(response.getRequestId());
+			if (partialResponseListener != null)
+				partialResponseListener.accept(response);
+			return;
+		}
+		if (response.getRequestId() != 0) {
+			partialResponseListeners.remove(response.getRequestId());
+			CompletableFuture<ServerResponseBackToClient> pendingRequest = pendingRequests
+					.remove(response.getRequestId());
+			// a response which arrives after its request timed out is dropped.
+			if (pendingRequest != null)
+				pendingRequest.complete(response);
+			return;
+		}
+
+		if (response.getRensponse() == ServerResponse.Server_Disconnected) {
+			failPendingRequests(new IOException("Server disconnected"));
 			Platform.runLater(() -> ClientApplication.runningController.onServerCrashed());
+		}
+		for (Consumer<ServerResponseBackToClient> listener : serverMessageListeners)
+			listener.accept(response);
+	}
 
+	/**
+	 * Sends a request to the server without waiting for the response.
+	 *
+	 * @param message The request to send.
+	 * @return A future which is completed with the server's response, or completed exceptionally if the request could
+	 *         not be sent or the connection was lost.
+	 */
+	public CompletableFuture<ServerResponseBackToClient> sendRequest(ClientRequestDataContainer message) {
+		return sendRequest(message, null);
 	}
 
 	/**
-	 * Sends a message from the client to the server and awaits response.
+	 * Sends a request to the server which may be answered by parts before its response, without waiting for the
+	 * response.
 	 *
-	 * @param message The message to send.
+	 * @param message                 The request to send.
+	 * @param partialResponseListener The listener to the parts of the response, called on the connection's reader
+	 *                                thread in the order they arrive and before the future is completed. May be null.
+	 * @return A future which is completed with the server's response, or completed exceptionally if the request could
+	 *         not be sent or the connection was lost.
 	 */
-	public void handleMessageFromClientUI(ClientRequestDataContainer message) {
+	public CompletableFuture<ServerResponseBackToClient> sendRequest(ClientRequestDataContainer message,
+			Consumer<ServerResponseBackToClient> partialResponseListener) {
+		long requestId = nextRequestId.getAndIncrement();
+		message.setRequestId(requestId);
+		CompletableFuture<ServerResponseBackToClient> response = new CompletableFuture<>();
+		pendingRequests.put(requestId, response);
+		if (partialResponseListener != null)
+			partialResponseListeners.put(requestId, partialResponseListener);
+		else
+			response.orTimeout(RESPONSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		response.whenComplete((result, exception) -> {
+			pendingRequests.remove(requestId, response);
+			partialResponseListeners.remove(requestId);
+		});
 		try {
 			openConnection();// in order to send more than one message
-			awaitResponse = true;
-
 			sendToServer(message);
-			// wait for response
-			while (awaitResponse) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
 		} catch (IOException e) {
-			e.printStackTrace();
-			clientUI.display("Could not send message to server: Terminating client." + e);
-			quit();
+			pendingRequests.remove(requestId);
+			partialResponseListeners.remove(requestId);
+			response.completeExceptionally(e);
+		}
+		return response;
+	}
+
+	/**
+	 * Registers a listener to the messages the server sends without a request, such as updates pushed to the client.
+	 * The listener is called on the connection's reader thread.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addServerMessageListener(Consumer<ServerResponseBackToClient> listener) {
+		serverMessageListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener which was registered with {@link #addServerMessageListener(Consumer)}.
+	 *
+	 * @param listener The listener to remove.
+	 */
+	public void removeServerMessageListener(Consumer<ServerResponseBackToClient> listener) {
+		serverMessageListeners.remove(listener);
+	}
+
+	/**
+	 * Fails the requests which are waiting for responses when the connection is closed.
+	 */
+	@Override
+	protected void connectionClosed() {
+		failPendingRequests(new IOException("Connection to server closed"));
+	}
+
+	/**
+	 * Fails the requests which are waiting for responses when the connection is lost.
+	 *
+	 * @param exception The exception which closed the connection.
+	 */
+	@Override
+	protected void connectionException(Exception exception) {
+		failPendingRequests(exception);
+	}
+
+	private void failPendingRequests(Exception cause) {
+		partialResponseListeners.clear();
+		for (Long requestId : pendingRequests.keySet()) {
+			CompletableFuture<ServerResponseBackToClient> pendingRequest = pendingRequests.remove(requestId);
+			if (pendingRequest != null)
+				pendingRequest.completeExceptionally(cause);
 		}
 	}
 
@@ -1,9 +1,14 @@
 package client;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import javafx.scene.control.Alert.AlertType;
 import logic.ClientRequestDataContainer;
+import logic.ServerResponseBackToClient;
 import ocsf.ChatIF;
+import utils.AlertPopUp;
 
 /**
  * The ClientMainControl class represents the main control logic for the client
@@ -43,12 +48,41 @@ public class ClientMainControl implements ChatIF {
 	}
 
 	/**
-	 * Sends a request message to the server through the client communication.
+	 * Sends a request message to the server without waiting for the response. It may be called on the JavaFX thread
+	 * without blocking it, and several requests may wait for their responses at the same time.
 	 *
 	 * @param message The request message to send.
+	 * @return A future which is completed with the server's response (on the connection's thread, use
+	 *         Platform.runLater to update the UI), or completed exceptionally if the connection was lost or the
+	 *         server did not answer in time.
 	 */
-	public void accept(ClientRequestDataContainer message) {
-		client.handleMessageFromClientUI(message);
+	public CompletableFuture<ServerResponseBackToClient> request(ClientRequestDataContainer message) {
+		return client.sendRequest(message);
+	}
+
+	/**
+	 * Sends a request message to the server which may be answered by parts before its response (the chunks of a
+	 * report), without waiting for the response.
+	 *
+	 * @param message                 The request message to send.
+	 * @param partialResponseListener The listener to the parts of the response, called on the connection's thread
+	 *                                before the future is completed.
+	 * @return A future which is completed with the server's response (on the connection's thread, use
+	 *         Platform.runLater to update the UI).
+	 */
+	public CompletableFuture<ServerResponseBackToClient> request(ClientRequestDataContainer message,
+			Consumer<ServerResponseBackToClient> partialResponseListener) {
+		return client.sendRequest(message, partialResponseListener);
+	}
+
+	/**
+	 * Tells the user that a request failed, because the connection was lost or the server did not answer in time.
+	 * Must be called on the JavaFX Application Thread.
+	 */
+	public static void showRequestFailed() {
+		AlertPopUp alert = new AlertPopUp(AlertType.ERROR, "Error", "No Response From Server",
+				"The server did not answer, please try again.");
+		alert.showAndWait();
 	}
 
 	/**
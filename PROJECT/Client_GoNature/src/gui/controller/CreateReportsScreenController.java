@@ -2,9 +2,11 @@ package gui.controller;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 import client.ClientApplication;
 import client.ClientCommunication;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -20,6 +22,7 @@ import logic.CancellationsReport;
 import logic.ClientRequestDataContainer;
 import logic.Employee;
 import logic.Report;
+import logic.ReportJob;
 import logic.ServerResponseBackToClient;
 import logic.UsageReport;
 import logic.VisitsReport;
@@ -29,6 +32,7 @@ import utils.enums.ClientRequest;
 import utils.enums.EmployeeTypeEnum;
 import utils.enums.ParkNameEnum;
 import utils.enums.ReportType;
+import utils.enums.ServerResponse;
 
 /**
  * Controller class responsible for managing the UI interactions related to
@@ -53,6 +57,10 @@ public class CreateReportsScreenController implements Initializable {
 	@FXML
 	public Label errorMessageLabel;
 
+	// shows the result of every report job of this client, shared by all the
+	// instances of the screen so it is registered once.
+	private static final Consumer<ServerResponseBackToClient> reportJobListener = CreateReportsScreenController::onReportJobCompleted;
+
 	@SuppressWarnings("unused")
 	private ObservableList<ReportType> reportsList = FXCollections.observableArrayList(ReportType.UsageReport,
 			ReportType.VisitsReports, ReportType.CancellationsReport, ReportType.TotalVisitorsReport);
@@ -176,12 +184,12 @@ public class CreateReportsScreenController implements Initializable {
 
 	/**
 	 * Event handler invoked when the user clicks the "Generate Report" button.
-	 * Initiates the generation of the selected report.
+	 * Submits the selected report to the server, which generates it in the
+	 * background. The user may keep working, and is told when the report is ready
+	 * (see {@link #onReportJobCompleted(ServerResponseBackToClient)}).
 	 */
-	@SuppressWarnings("incomplete-switch")
 	public void onGenerateReportClicked() {
 		Report report;
-		ClientRequest reportRequest;
 		if (!validateGuiFields()) {
 			return;
 		}
@@ -189,34 +197,56 @@ public class CreateReportsScreenController implements Initializable {
 		if (selectedReportType == ReportType.CancellationsReport) {
 			report = new CancellationsReport(Integer.parseInt(selectedMonth), Integer.parseInt(selectedYear),
 					selectedPark);
-			reportRequest = ClientRequest.Create_Cancellations_Report;
 		} else if (selectedReportType == ReportType.VisitsReports) {
 			report = new VisitsReport(Integer.parseInt(selectedMonth), Integer.parseInt(selectedYear), selectedPark);
-			reportRequest = ClientRequest.Create_Visits_Report;
 		} else if (selectedReportType == ReportType.TotalVisitorsReport) {
 			report = new AmountDivisionReport(Integer.parseInt(selectedMonth), Integer.parseInt(selectedYear),
 					selectedPark);
-			reportRequest = ClientRequest.Create_Total_Visitors_Report;
 		} else {
 			report = new UsageReport(Integer.parseInt(selectedMonth), Integer.parseInt(selectedYear), selectedPark);
-			reportRequest = ClientRequest.Create_Usage_Report;
 		}
 
-		ClientRequestDataContainer request = new ClientRequestDataContainer(reportRequest, report);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		AlertPopUp alert;
+		// registered before the job is submitted, a short job may complete before
+		// the response to the submission arrives.
+		ClientCommunication client = ClientApplication.client.getClient();
+		client.removeServerMessageListener(reportJobListener);
+		client.addServerMessageListener(reportJobListener);
+		ClientApplication.client.request(new ClientRequestDataContainer(ClientRequest.Submit_Report_Job, report))
+				.whenComplete((response, exception) -> Platform.runLater(() -> {
+					if (exception != null) {
+						showErrorMessage("Failed to submit the report");
+					} else if (response.getRensponse() == ServerResponse.Report_Job_Rejected) {
+						showErrorMessage("The server is busy generating reports, try again later");
+					} else {
+						AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Report Submitted",
+								"The report is being generated",
+								"You will be notified when the report is ready, you may keep working.");
+						alert.show();
+					}
+				}));
+	}
 
-		switch (response.getRensponse()) {
-		case Report_Generated_Successfully:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Success", "Report generated successfully", "...");
-			alert.showAndWait();
-			break;
-		case Report_Failed_Generate:
-			alert = new AlertPopUp(AlertType.ERROR, "FAIL", "fail", "fail");
-			alert.showAndWait();
-			break;
-		}
+	/**
+	 * Receives the report jobs the server pushes to the client, on the
+	 * connection's thread, and tells the user about a job which was completed on
+	 * the JavaFX Application Thread.
+	 * 
+	 * @param response The message pushed by the server.
+	 */
+	private static void onReportJobCompleted(ServerResponseBackToClient response) {
+		if (response.getRensponse() != ServerResponse.Report_Job_Completed)
+			return;
+		ReportJob job = (ReportJob) response.getMessage();
+		Platform.runLater(() -> {
+			AlertPopUp alert;
+			if (job.isSuccessful())
+				alert = new AlertPopUp(AlertType.INFORMATION, "Success", "Report generated successfully",
+						job.getDescription());
+			else
+				alert = new AlertPopUp(AlertType.ERROR, "FAIL", "Report failed to generate",
+						String.join("\n", job.getFailedReports()));
+			alert.show();
+		});
 	}
 
 	/**
@@ -266,7 +296,6 @@ public class CreateReportsScreenController implements Initializable {
 	 * 
 	 * @param error The error message to be displayed.
 	 */
-	@SuppressWarnings("unused")
 	private void showErrorMessage(String error) {
 		errorSection.setVisible(true);
 		errorMessageLabel.setText(error);
@@ -6,7 +6,7 @@ import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -23,7 +23,6 @@ import logic.Guide;
 import logic.ICustomer;
 import logic.Order;
 import logic.SceneLoaderHelper;
-import logic.ServerResponseBackToClient;
 import logic.Visitor;
 import utils.AlertPopUp;
 import utils.CurrentWindow;
@@ -189,7 +188,7 @@ public class CustomerScreenController implements Initializable, IScreenControlle
 	 */
 	public void onLogoutClicked() {
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Logout, customer);
-		ClientApplication.client.accept(request);
+		ClientApplication.client.request(request);
 		SceneLoaderHelper.getInstance().setScreenAfterLogoutOrBack();
 	}
 
@@ -219,39 +218,42 @@ public class CustomerScreenController implements Initializable, IScreenControlle
 	public void onNotificationButtonClicked() {
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Search_For_Notified_Orders,
 				customerDetails);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		AlertPopUp alert;
-
-		switch (response.getRensponse()) {
-		case No_Notifications_Found:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "There is no Notifications", "");
-			alert.showAndWait();
-			return;
-
-		case Notifications_Found:
-			StringBuilder sb = new StringBuilder();
-			@SuppressWarnings("unchecked")
-			ArrayList<Order> ordersWithNotification = (ArrayList<Order>) response.getMessage();
-			int line = 1;
-			for (Order order : ordersWithNotification) {
-				if (order.getStatus() == OrderStatusEnum.Notified_Waiting_List) {
-					sb.append(String.format(
-							"%d. Order : %d, to %s at %s of %d, have available spot from waiting list. wait for confirmation\n",
-							line++, order.getOrderId(), order.getParkName().name(), order.getEnterDate().toString(),
-							order.getNumberOfVisitors()));
-				} else
-					// OrderId,ParkId,EnterDate,PayStatus,Amount
-					sb.append(String.format("%d. Order : %d, to %s at %s of %d participants wait for confirmation.\n",
-							line++, order.getOrderId(), order.getParkName().name(), order.getEnterDate().toString(),
-							order.getNumberOfVisitors()));
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
 			}
+			AlertPopUp alert;
 
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "You have new Notification", sb.toString());
-			alert.showAndWait();
-			return;
-		}
+			switch (response.getRensponse()) {
+			case No_Notifications_Found:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "There is no Notifications", "");
+				alert.showAndWait();
+				return;
 
+			case Notifications_Found:
+				StringBuilder sb = new StringBuilder();
+				@SuppressWarnings("unchecked")
+				ArrayList<Order> ordersWithNotification = (ArrayList<Order>) response.getMessage();
+				int line = 1;
+				for (Order order : ordersWithNotification) {
+					if (order.getStatus() == OrderStatusEnum.Notified_Waiting_List) {
+						sb.append(String.format(
+								"%d. Order : %d, to %s at %s of %d, have available spot from waiting list. wait for confirmation\n",
+								line++, order.getOrderId(), order.getParkName().name(), order.getEnterDate().toString(),
+								order.getNumberOfVisitors()));
+					} else
+						// OrderId,ParkId,EnterDate,PayStatus,Amount
+						sb.append(String.format("%d. Order : %d, to %s at %s of %d participants wait for confirmation.\n",
+								line++, order.getOrderId(), order.getParkName().name(), order.getEnterDate().toString(),
+								order.getNumberOfVisitors()));
+				}
+
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "You have new Notification", sb.toString());
+				alert.showAndWait();
+				return;
+			}
+		}));
 	}
 
 	/**
@@ -262,11 +264,13 @@ public class CustomerScreenController implements Initializable, IScreenControlle
 	@Override
 	public void onCloseApplication() {
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Logout, customer);
-		ClientApplication.client.accept(request);
-		try {
-			ClientApplication.client.getClient().closeConnection();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// the connection is closed once the logout was answered, or failed.
+		ClientApplication.client.request(request).whenComplete((response, exception) -> {
+			try {
+				ClientApplication.client.getClient().closeConnection();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		});
 	}
 }
@@ -148,7 +148,7 @@ public class EmployeeScreenController implements Initializable, IScreenControlle
 	 */
 	public void onLogoutClicked() {
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Logout, employee);
-		ClientApplication.client.accept(request);
+		ClientApplication.client.request(request);
 		SceneLoaderHelper.getInstance().setScreenAfterLogoutOrBack();
 
 	}
@@ -270,12 +270,14 @@ public class EmployeeScreenController implements Initializable, IScreenControlle
 	@Override
 	public void onCloseApplication() {
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Logout, employee);
-		ClientApplication.client.accept(request);
-		try {
-			ClientApplication.client.getClient().closeConnection();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		// the connection is closed once the logout was answered, or failed.
+		ClientApplication.client.request(request).whenComplete((response, exception) -> {
+			try {
+				ClientApplication.client.getClient().closeConnection();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		});
 	}
 
 }
@@ -7,8 +7,9 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -28,7 +29,6 @@ import logic.Employee;
 import logic.EntitiesContainer;
 import logic.Order;
 import logic.SceneLoaderHelper;
-import logic.ServerResponseBackToClient;
 import utils.AlertPopUp;
 import utils.CurrentDateAndTime;
 import utils.EntranceDiscount;
@@ -122,19 +122,29 @@ public class HandleOccasionalVisitorScreenController implements Initializable {
 		}
 
 		Order order = createOrderFromFields();
-		AlertPopUp alert;
 		ClientRequestDataContainer requestMessage = new ClientRequestDataContainer(
 				ClientRequest.Prepare_New_Occasional_Order, order);
-		ClientApplication.client.accept(requestMessage);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		if(response.getRensponse()==ServerResponse.Park_Is_Full_For_Such_Occasional_Order) {
-			alert = new AlertPopUp(AlertType.WARNING,"Warning","Can't create Occasional Order","Can't make such order, you exceed the park max capacity");
-			alert.showAndWait();
-			return;
-		}
-		
-		order = (Order) response.getMessage();
+		ClientApplication.client.request(requestMessage).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			if(response.getRensponse()==ServerResponse.Park_Is_Full_For_Such_Occasional_Order) {
+				AlertPopUp alert = new AlertPopUp(AlertType.WARNING,"Warning","Can't create Occasional Order","Can't make such order, you exceed the park max capacity");
+				alert.showAndWait();
+				return;
+			}
+			payForOccasionalOrder((Order) response.getMessage());
+		}));
+	}
 
+	/**
+	 * Shows the payment of an occasional order prepared by the server, adds the
+	 * visit to the park if it was paid, and goes back to the park entrance screen.
+	 * 
+	 * @param order The occasional order prepared by the server.
+	 */
+	private void payForOccasionalOrder(Order order) {
 		ButtonType payNow = new ButtonType("Pay Now");
 		double price = calculatePriceByOrderType(order);
 		Duration duration = Duration.between(order.getEnterDate(), order.getExitDate());
@@ -144,17 +154,29 @@ public class HandleOccasionalVisitorScreenController implements Initializable {
 				order.getOrderType(), order.getFirstName(), order.getLastName(), order.getNumberOfVisitors(), price,
 				estimatedVisitTime);
 
-		alert = new AlertPopUp(AlertType.CONFIRMATION, "Payment Notification", "Pay Now", paymentReceipt,
+		AlertPopUp alert = new AlertPopUp(AlertType.CONFIRMATION, "Payment Notification", "Pay Now", paymentReceipt,
 				payNow, ButtonType.CLOSE);
 		Optional<ButtonType> result = alert.showAndWait();
 
 		if (result.isPresent() && result.get() == payNow) {
 			order.setPrice(price);
-			requestMessage = new ClientRequestDataContainer(ClientRequest.Add_Occasional_Visit_As_In_Park, order);
-			ClientApplication.client.accept(requestMessage);
-			response = ClientCommunication.responseFromServer;
+			ClientRequestDataContainer requestMessage = new ClientRequestDataContainer(
+					ClientRequest.Add_Occasional_Visit_As_In_Park, order);
+			// the park entrance screen is loaded once the visit was added, so the visit is in its table.
+			ClientApplication.client.request(requestMessage).whenComplete((response, exception) -> Platform.runLater(() -> {
+				if (exception != null)
+					ClientMainControl.showRequestFailed();
+				showParkEntranceScreen();
+			}));
+			return;
 		}
+		showParkEntranceScreen();
+	}
 
+	/**
+	 * Goes back to the park entrance screen.
+	 */
+	private void showParkEntranceScreen() {
 		AnchorPane dashboard = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
 				"/gui/view/ParkEntranceScreen.fxml", ApplicationViewType.Park_Entrance_Screen,
 				new EntitiesContainer(employee));
@@ -7,8 +7,9 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -31,7 +32,6 @@ import logic.Guide;
 import logic.ICustomer;
 import logic.Order;
 import logic.SceneLoaderHelper;
-import logic.ServerResponseBackToClient;
 import logic.Visitor;
 import utils.AlertPopUp;
 import utils.CurrentDateAndTime;
@@ -340,9 +340,9 @@ public class HandleOrderScreenController implements Initializable {
 	 */
 	@SuppressWarnings("incomplete-switch")
 	public void onCancelClicked() {
-		AlertPopUp alert = new AlertPopUp(AlertType.CONFIRMATION, "Manage Order", "Cancel Order", "Are you sure?",
+		AlertPopUp question = new AlertPopUp(AlertType.CONFIRMATION, "Manage Order", "Cancel Order", "Are you sure?",
 				ButtonType.YES, ButtonType.CLOSE);
-		Optional<ButtonType> result = alert.showAndWait();
+		Optional<ButtonType> result = question.showAndWait();
 
 		if (result.isPresent() && result.get() == ButtonType.CLOSE) {
 			return;
@@ -350,24 +350,28 @@ public class HandleOrderScreenController implements Initializable {
 
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Update_Order_Status_Canceled,
 				requestedOrder);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		switch (response.getRensponse()) {
-		case Order_Cancelled_Successfully:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Cancel Order", "Your Order was cancelled");
-			alert.showAndWait();
-			break;
-
-		case Order_Cancelled_Failed:
-			alert = new AlertPopUp(AlertType.ERROR, "Notification", "Cancel Order", "Your request was Failed!");
-			alert.showAndWait();
-			break;
-		}
-
-		AnchorPane view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
-				"/gui/view/CustomerHomepageScreen.fxml", ApplicationViewType.Customer_Homepage_Screen, null);
-		screen.setCenter(view);
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			AlertPopUp alert;
+			switch (response.getRensponse()) {
+			case Order_Cancelled_Successfully:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Cancel Order", "Your Order was cancelled");
+				alert.showAndWait();
+				break;
+
+			case Order_Cancelled_Failed:
+				alert = new AlertPopUp(AlertType.ERROR, "Notification", "Cancel Order", "Your request was Failed!");
+				alert.showAndWait();
+				break;
+			}
 
+			AnchorPane view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
+					"/gui/view/CustomerHomepageScreen.fxml", ApplicationViewType.Customer_Homepage_Screen, null);
+			screen.setCenter(view);
+		}));
 	}
 
 	/**
@@ -375,9 +379,9 @@ public class HandleOrderScreenController implements Initializable {
 	 */
 	@SuppressWarnings("incomplete-switch")
 	public void onConfirmClicked() {
-		AlertPopUp alert = new AlertPopUp(AlertType.CONFIRMATION, "Manage Order", "Confirm Order", "Are you sure?",
+		AlertPopUp question = new AlertPopUp(AlertType.CONFIRMATION, "Manage Order", "Confirm Order", "Are you sure?",
 				ButtonType.YES, ButtonType.CLOSE);
-		Optional<ButtonType> result = alert.showAndWait();
+		Optional<ButtonType> result = question.showAndWait();
 
 		if (result.isPresent() && result.get() == ButtonType.CLOSE) {
 			return;
@@ -385,23 +389,27 @@ public class HandleOrderScreenController implements Initializable {
 
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Update_Order_Status_Confirmed,
 				requestedOrder);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		switch (response.getRensponse()) {
-		case Order_Updated_Successfully:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Confirm Order", "Your Order was confirmed!");
-			alert.showAndWait();
-			break;
-
-		case Order_Updated_Failed:
-			alert = new AlertPopUp(AlertType.ERROR, "Notification", "Confirm Order", "Your request was Failed!");
-			alert.showAndWait();
-			break;
-		}
-		AnchorPane view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
-				"/gui/view/CustomerHomepageScreen.fxml", ApplicationViewType.Customer_Homepage_Screen, null);
-		screen.setCenter(view);
-
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			AlertPopUp alert;
+			switch (response.getRensponse()) {
+			case Order_Updated_Successfully:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Confirm Order", "Your Order was confirmed!");
+				alert.showAndWait();
+				break;
+
+			case Order_Updated_Failed:
+				alert = new AlertPopUp(AlertType.ERROR, "Notification", "Confirm Order", "Your request was Failed!");
+				alert.showAndWait();
+				break;
+			}
+			AnchorPane view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
+					"/gui/view/CustomerHomepageScreen.fxml", ApplicationViewType.Customer_Homepage_Screen, null);
+			screen.setCenter(view);
+		}));
 	}
 
 	/**
@@ -409,7 +417,6 @@ public class HandleOrderScreenController implements Initializable {
 	 */
 	@SuppressWarnings("incomplete-switch")
 	public void onUpdateClicked() {
-		AlertPopUp alert;
 		if (!validateGuiFields()) {
 			return;
 		}
@@ -419,7 +426,7 @@ public class HandleOrderScreenController implements Initializable {
 		String fullDateTime = date.toString() + "T" + selectedTime;
 		LocalDateTime newOrderDate = LocalDateTime.parse(fullDateTime);
 		if (newOrderDate.isBefore(relevantDayToNewOrder)) {
-			alert = new AlertPopUp(AlertType.WARNING, "Update New Order", "Date and Time Incorrect",
+			AlertPopUp alert = new AlertPopUp(AlertType.WARNING, "Update New Order", "Date and Time Incorrect",
 					"In case you want to update an order, it must be atleast 2 days forward");
 			alert.showAndWait();
 			return;
@@ -428,40 +435,42 @@ public class HandleOrderScreenController implements Initializable {
 		Order newOrder = createOrderFromFields();
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Add_New_Order_If_Available,
 				newOrder);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		AnchorPane view;
-
-		alert = new AlertPopUp(AlertType.CONFIRMATION, "Manage Order", "Update Order",
-				"Your old order will be deleted, Are you sure?", ButtonType.YES, ButtonType.CLOSE);
-		Optional<ButtonType> result = alert.showAndWait();
-
-		if (result.isPresent() && result.get() == ButtonType.CLOSE) {
-			return;
-		}
-
-		switch (response.getRensponse()) {
-		case Requested_Order_Date_Is_Available:
-			request = new ClientRequestDataContainer(ClientRequest.Delete_Old_Order, requestedOrder);
-			ClientApplication.client.accept(request);
-			view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
-					"/gui/view/OrderSummaryScreen.fxml", ApplicationViewType.Order_Summary_Screen,
-					new EntitiesContainer(response.getMessage()));
-			screen.setCenter(view);
-			break;
-
-		case Requested_Order_Date_Unavaliable:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Date Unavailable",
-					"Sorry, this date is unavailable, your last order still up!");
-			alert.showAndWait();
-			break;
-		case Too_Many_Visitors:
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			AnchorPane view;
+			AlertPopUp alert = new AlertPopUp(AlertType.CONFIRMATION, "Manage Order", "Update Order",
+					"Your old order will be deleted, Are you sure?", ButtonType.YES, ButtonType.CLOSE);
+			Optional<ButtonType> result = alert.showAndWait();
 
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Order Limit",
-					"This are too many visitors for our park,your last order still up!");
-			alert.showAndWait();
-			break;
-		}
+			if (result.isPresent() && result.get() == ButtonType.CLOSE) {
+				return;
+			}
 
+			switch (response.getRensponse()) {
+			case Requested_Order_Date_Is_Available:
+				ClientApplication.client
+						.request(new ClientRequestDataContainer(ClientRequest.Delete_Old_Order, requestedOrder));
+				view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
+						"/gui/view/OrderSummaryScreen.fxml", ApplicationViewType.Order_Summary_Screen,
+						new EntitiesContainer(response.getMessage()));
+				screen.setCenter(view);
+				break;
+
+			case Requested_Order_Date_Unavaliable:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Date Unavailable",
+						"Sorry, this date is unavailable, your last order still up!");
+				alert.showAndWait();
+				break;
+			case Too_Many_Visitors:
+
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Order Limit",
+						"This are too many visitors for our park,your last order still up!");
+				alert.showAndWait();
+				break;
+			}
+		}));
 	}
 }
\ No newline at end of file
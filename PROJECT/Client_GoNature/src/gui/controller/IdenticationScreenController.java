@@ -4,8 +4,9 @@ import java.net.URL;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
@@ -21,7 +22,6 @@ import logic.Guide;
 import logic.ICustomer;
 import logic.Order;
 import logic.SceneLoaderHelper;
-import logic.ServerResponseBackToClient;
 import logic.Visitor;
 import utils.CurrentDateAndTime;
 import utils.ValidationRules;
@@ -84,41 +84,43 @@ public class IdenticationScreenController implements Initializable {
 		Order order = new Order(orderIdField.getText());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Search_For_Relevant_Order,
 				order);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-		switch (response.getRensponse()) {
-		case Order_Not_Found:
-			showErrorMessage("Such Order does not exist!");
-			return;
-		case Order_Found:
-			ICustomer currentCustomer = null;
-			if (((Order) response.getMessage()).getOwnerType().name().equals("Visitor")
-					&& customer.getUserType() == UserTypeEnum.Visitor) {
-				currentCustomer = (Visitor) customer;
-				if (!currentCustomer.getCustomerId().equals(((Order) response.getMessage()).getUserId())) {
-					showErrorMessage("This Order does not belong to you");
-					return;
-				}
-			} else if (((Order) response.getMessage()).getOwnerType().name().equals("Guide")
-					&& customer.getUserType() == UserTypeEnum.Guide) {
-				currentCustomer = (Guide) customer;
-				if (!currentCustomer.getCustomerId().equals(((Order) response.getMessage()).getUserId())) {
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			switch (response.getRensponse()) {
+			case Order_Not_Found:
+				showErrorMessage("Such Order does not exist!");
+				return;
+			case Order_Found:
+				ICustomer currentCustomer = null;
+				if (((Order) response.getMessage()).getOwnerType().name().equals("Visitor")
+						&& customer.getUserType() == UserTypeEnum.Visitor) {
+					currentCustomer = (Visitor) customer;
+					if (!currentCustomer.getCustomerId().equals(((Order) response.getMessage()).getUserId())) {
+						showErrorMessage("This Order does not belong to you");
+						return;
+					}
+				} else if (((Order) response.getMessage()).getOwnerType().name().equals("Guide")
+						&& customer.getUserType() == UserTypeEnum.Guide) {
+					currentCustomer = (Guide) customer;
+					if (!currentCustomer.getCustomerId().equals(((Order) response.getMessage()).getUserId())) {
+						showErrorMessage("This Order does not belong to you");
+						return;
+					}
+				} else {
 					showErrorMessage("This Order does not belong to you");
 					return;
 				}
-			} else {
-				showErrorMessage("This Order does not belong to you");
+
+				AnchorPane dashboard = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
+						"/gui/view/HandleOrderScreen.fxml", ApplicationViewType.Handle_Order_Screen,
+						new EntitiesContainer((Order) response.getMessage(), currentCustomer));
+				screen.setCenter(dashboard);
 				return;
 			}
-
-			AnchorPane dashboard = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
-					"/gui/view/HandleOrderScreen.fxml", ApplicationViewType.Handle_Order_Screen,
-					new EntitiesContainer((Order) response.getMessage(), currentCustomer));
-			screen.setCenter(dashboard);
-			return;
-		}
-
+		}));
 	}
 
 	/**
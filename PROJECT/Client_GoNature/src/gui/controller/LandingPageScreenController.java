@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
 import client.ClientMainControl;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -31,7 +30,6 @@ import logic.ClientRequestDataContainer;
 import logic.Employee;
 import logic.ExternalUser;
 import logic.Guide;
-import logic.ServerResponseBackToClient;
 import logic.Visitor;
 import utils.AlertPopUp;
 import utils.CurrentWindow;
@@ -291,37 +289,40 @@ public class LandingPageScreenController implements Initializable,IScreenControl
 				break;
 		}
 		
-		ClientApplication.client.accept(requestMessage);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		switch(response.getRensponse()) {
-			case Password_Incorrect:
-				showErrorMessage("Password is incorrect!");
+		ClientApplication.client.request(requestMessage).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
 				return;
-			case User_Already_Connected:
-				showErrorMessage("User already connected!");
-				return;
-			case User_Does_Not_Found:
-				showErrorMessage("Such user does not exists!");
-				return;
-			case Guide_Status_Pending:
-				showErrorMessage("Not approved yet!");
-				return;
-			case Visitor_Have_No_Orders_Yet:
-				showErrorMessage("Such ID does not exists");
-				return;
-			case Visitor_Connected_Successfully:
-				switchMainScreenAccordingToUserLogin((Visitor)response.getMessage());
-				return;
-			case Guide_Connected_Successfully:
-				switchMainScreenAccordingToUserLogin((Guide)response.getMessage());
-				return;
-			case Employee_Connected_Successfully:
-				switchMainScreenAccordingToUserLogin((Employee)response.getMessage());
-				return;
-			case Query_Failed:
-				showErrorMessage("Failed to fetch data from database");
-		}
-		
+			}
+			switch(response.getRensponse()) {
+				case Password_Incorrect:
+					showErrorMessage("Password is incorrect!");
+					return;
+				case User_Already_Connected:
+					showErrorMessage("User already connected!");
+					return;
+				case User_Does_Not_Found:
+					showErrorMessage("Such user does not exists!");
+					return;
+				case Guide_Status_Pending:
+					showErrorMessage("Not approved yet!");
+					return;
+				case Visitor_Have_No_Orders_Yet:
+					showErrorMessage("Such ID does not exists");
+					return;
+				case Visitor_Connected_Successfully:
+					switchMainScreenAccordingToUserLogin((Visitor)response.getMessage());
+					return;
+				case Guide_Connected_Successfully:
+					switchMainScreenAccordingToUserLogin((Guide)response.getMessage());
+					return;
+				case Employee_Connected_Successfully:
+					switchMainScreenAccordingToUserLogin((Employee)response.getMessage());
+					return;
+				case Query_Failed:
+					showErrorMessage("Failed to fetch data from database");
+			}
+		}));
 	}
 
 	/**
@@ -414,7 +415,7 @@ public class LandingPageScreenController implements Initializable,IScreenControl
 		ClientRequestDataContainer request;
 		if(!connectToServerVbox.isVisible()) {
 			request = new ClientRequestDataContainer(ClientRequest.Logout, null);
-			ClientApplication.client.accept(request);
+			ClientApplication.client.request(request);
 		}
 	}
 	
@@ -427,12 +428,14 @@ public class LandingPageScreenController implements Initializable,IScreenControl
 		ClientRequestDataContainer request;
 		if(!connectToServerVbox.isVisible()) {
 			request = new ClientRequestDataContainer(ClientRequest.Logout, null);
-			ClientApplication.client.accept(request);
-			try {
-				ClientApplication.client.getClient().closeConnection();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+			// the connection is closed once the logout was answered, or failed.
+			ClientApplication.client.request(request).whenComplete((response, exception) -> {
+				try {
+					ClientApplication.client.getClient().closeConnection();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			});
 		}
 		
 	}
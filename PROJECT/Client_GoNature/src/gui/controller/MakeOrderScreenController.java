@@ -6,8 +6,9 @@ import java.time.LocalDateTime;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -28,8 +29,8 @@ import logic.EntitiesContainer;
 import logic.ExternalUser;
 import logic.ICustomer;
 import logic.Order;
+import logic.Park;
 import logic.SceneLoaderHelper;
-import logic.ServerResponseBackToClient;
 import utils.AlertPopUp;
 import utils.CurrentDateAndTime;
 import utils.ValidationRules;
@@ -85,8 +86,7 @@ public class MakeOrderScreenController implements Initializable {
 	private ObservableList<ParkNameEnum> parks = FXCollections.observableArrayList(ParkNameEnum.Banias,
 			ParkNameEnum.Herodium, ParkNameEnum.Masada);
 
-	private ObservableList<String> timeForVisits = FXCollections.observableArrayList("08:00", "09:00", "10:00", "11:00",
-			"12:00", "13:00", "14:00", "15:00", "16:00");
+	private ObservableList<String> timeForVisits = FXCollections.observableArrayList();
 
 	private ObservableList<OrderTypeEnum> visitTypesList = FXCollections.observableArrayList();
 
@@ -118,6 +118,8 @@ public class MakeOrderScreenController implements Initializable {
 		dateLabel.setText(CurrentDateAndTime.getCurrentDate("'Today' yyyy-MM-dd"));
 		parksList.getItems().addAll(parks);
 		parksList.setOnAction(this::onParkChangeSelection);
+		for (int hour = Park.FIRST_VISIT_HOUR; hour <= Park.LAST_VISIT_HOUR; hour++)
+			timeForVisits.add(String.format("%02d:00", hour));
 		pickTime.getItems().addAll(timeForVisits);
 		pickTime.setOnAction(this::onTimeChangeSelection);
 		// initialize date picker up to 1 months forward.
@@ -285,33 +287,36 @@ public class MakeOrderScreenController implements Initializable {
 
 		ClientRequestDataContainer requestMessage = new ClientRequestDataContainer(
 				ClientRequest.Add_New_Order_If_Available, order);
-		ClientApplication.client.accept(requestMessage);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		AnchorPane view;
-		AlertPopUp alert;
-		switch (response.getRensponse()) {
-		case Requested_Order_Date_Is_Available:
-			view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
-					"/gui/view/OrderSummaryScreen.fxml", ApplicationViewType.Order_Summary_Screen,
-					new EntitiesContainer(response.getMessage()));
-			screen.setCenter(view);
-			break;
-
-		case Requested_Order_Date_Unavaliable:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Requested Date is Unavaliable", "Please select Choose new Date or Enter Waiting List");
-			alert.showAndWait();
-			view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
-					"/gui/view/RescheduleOrderScreen.fxml", ApplicationViewType.Reschedule_Order_Screen,
-					new EntitiesContainer(response.getMessage()));
-			screen.setCenter(view);
-			break;
-		case Too_Many_Visitors:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Order Limit",
-					"This are too many visitors for our park");
-			alert.showAndWait();
-			break;
-		}
-
+		ClientApplication.client.request(requestMessage).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			AnchorPane view;
+			AlertPopUp alert;
+			switch (response.getRensponse()) {
+			case Requested_Order_Date_Is_Available:
+				view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
+						"/gui/view/OrderSummaryScreen.fxml", ApplicationViewType.Order_Summary_Screen,
+						new EntitiesContainer(response.getMessage()));
+				screen.setCenter(view);
+				break;
+
+			case Requested_Order_Date_Unavaliable:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Requested Date is Unavaliable", "Please select Choose new Date or Enter Waiting List");
+				alert.showAndWait();
+				view = SceneLoaderHelper.getInstance().loadRightScreenToBorderPaneWithController(screen,
+						"/gui/view/RescheduleOrderScreen.fxml", ApplicationViewType.Reschedule_Order_Screen,
+						new EntitiesContainer(response.getMessage()));
+				screen.setCenter(view);
+				break;
+			case Too_Many_Visitors:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Notification", "Order Limit",
+						"This are too many visitors for our park");
+				alert.showAndWait();
+				break;
+			}
+		}));
 	}
 
 	/**
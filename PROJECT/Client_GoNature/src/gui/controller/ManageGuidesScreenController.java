@@ -5,7 +5,8 @@ import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -22,7 +23,6 @@ import javafx.scene.layout.HBox;
 import logic.ClientRequestDataContainer;
 import logic.Guide;
 import logic.GuideInTable;
-import logic.ServerResponseBackToClient;
 import utils.AlertPopUp;
 import utils.CurrentDateAndTime;
 import utils.enums.ClientRequest;
@@ -122,7 +122,6 @@ public class ManageGuidesScreenController implements Initializable {
 	 */
 	@SuppressWarnings("incomplete-switch")
 	public void onSaveClicked() {
-		AlertPopUp alert;
 		ArrayList<Guide> approvedGuides = new ArrayList<Guide>();
 		for (GuideInTable guide : guidesList) {
 			if (guide.getStatus().equals("Approved")) {
@@ -130,27 +129,31 @@ public class ManageGuidesScreenController implements Initializable {
 			}
 		}
 		if (approvedGuides.isEmpty()) {
-			alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
+			AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
 					"You have to select guides to approve");
 			alert.showAndWait();
 		} else {
 			ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Update_Guide_As_Approved,
 					approvedGuides);
-			ClientApplication.client.accept(request);
-			ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-			switch (response.getRensponse()) {
-			case Updated_Guides_To_Approved_Successfully:
-				alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
-						"Guides added Successfully");
-				alert.showAndWait();
-				onSearchGuidesClicked();
-				return;
-			case Updated_Guides_To_Approved_Failed:
-				alert = new AlertPopUp(AlertType.WARNING, "Warning", "Save Changes", "Update failed");
-				alert.showAndWait();
-				return;
-			}
+			ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+				if (exception != null) {
+					ClientMainControl.showRequestFailed();
+					return;
+				}
+				AlertPopUp alert;
+				switch (response.getRensponse()) {
+				case Updated_Guides_To_Approved_Successfully:
+					alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
+							"Guides added Successfully");
+					alert.showAndWait();
+					onSearchGuidesClicked();
+					return;
+				case Updated_Guides_To_Approved_Failed:
+					alert = new AlertPopUp(AlertType.WARNING, "Warning", "Save Changes", "Update failed");
+					alert.showAndWait();
+					return;
+				}
+			}));
 		}
 
 	}
@@ -165,33 +168,35 @@ public class ManageGuidesScreenController implements Initializable {
 		guidesFromDatabase.clear();
 		ClientRequestDataContainer request = new ClientRequestDataContainer(
 				ClientRequest.Search_For_Guides_Status_Pending, guidesFromDatabase);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-		switch (response.getRensponse()) {
-		case Guides_With_Status_Pending_Not_Found:
-			AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Search Guides",
-					"There is not guides with status pending");
-			alert.showAndWait();
-			saveButton.setDisable(true);
-			return;
-
-		case Guides_With_Status_Pending_Found:
-			guidesFromDatabase = (ArrayList<Guide>) response.getMessage();
-			for (Guide guide : guidesFromDatabase) {
-				GuideInTable guideToView = new GuideInTable(guide.getUserId(), guide.getUsername(),
-						guide.getFirstName(), guide.getLastName(), guide.getEmailAddress(), guide.getPhoneNumber(),
-						guide.getUserStatus().name());
-				guideToView.setGuide(guide);
-				observeGuides.add(guideToView);
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
 			}
+			switch (response.getRensponse()) {
+			case Guides_With_Status_Pending_Not_Found:
+				AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Search Guides",
+						"There is not guides with status pending");
+				alert.showAndWait();
+				saveButton.setDisable(true);
+				return;
 
-			guidesList.addAll(observeGuides);
-			pendingGuidesTable.refresh();
-			saveButton.setDisable(false);
-			return;
-		}
-
+			case Guides_With_Status_Pending_Found:
+				guidesFromDatabase = (ArrayList<Guide>) response.getMessage();
+				for (Guide guide : guidesFromDatabase) {
+					GuideInTable guideToView = new GuideInTable(guide.getUserId(), guide.getUsername(),
+							guide.getFirstName(), guide.getLastName(), guide.getEmailAddress(), guide.getPhoneNumber(),
+							guide.getUserStatus().name());
+					guideToView.setGuide(guide);
+					observeGuides.add(guideToView);
+				}
+
+				guidesList.addAll(observeGuides);
+				pendingGuidesTable.refresh();
+				saveButton.setDisable(false);
+				return;
+			}
+		}));
 	}
 
 	/**
@@ -6,8 +6,9 @@ import java.util.Optional;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
@@ -21,7 +22,6 @@ import logic.ClientRequestDataContainer;
 import logic.EntitiesContainer;
 import logic.Order;
 import logic.SceneLoaderHelper;
-import logic.ServerResponseBackToClient;
 import utils.AlertPopUp;
 import utils.CurrentDateAndTime;
 import utils.EntranceDiscount;
@@ -147,22 +147,25 @@ public class OrderSummaryScreenController implements Initializable {
 		order.setStatus(OrderStatusEnum.Wait_Notify);
 		ClientRequestDataContainer request = new ClientRequestDataContainer(
 				ClientRequest.Insert_New_Order_As_Wait_Notify, order);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		Order orderFullDetailed = (Order) response.getMessage();
-		switch (response.getRensponse()) {
-		case Order_Added_Successfully:
-			buttonsHbox.setVisible(false);
-			String orderSummaryAfterPaymentMessage = NotificationMessageTemplate.orderConfirmMessage(
-					orderFullDetailed.getOrderId(), orderFullDetailed.getParkName().name(),
-					orderFullDetailed.getEnterDate().toString(), orderFullDetailed.getOrderType().name(),
-					orderFullDetailed.getNumberOfVisitors(), orderFullDetailed.getPrice(), orderFullDetailed.isPaid());
-			messageLabel.setText(orderSummaryAfterPaymentMessage);
-			return;
-		case Order_Added_Failed:
-			return;
-		}
-
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			Order orderFullDetailed = (Order) response.getMessage();
+			switch (response.getRensponse()) {
+			case Order_Added_Successfully:
+				buttonsHbox.setVisible(false);
+				String orderSummaryAfterPaymentMessage = NotificationMessageTemplate.orderConfirmMessage(
+						orderFullDetailed.getOrderId(), orderFullDetailed.getParkName().name(),
+						orderFullDetailed.getEnterDate().toString(), orderFullDetailed.getOrderType().name(),
+						orderFullDetailed.getNumberOfVisitors(), orderFullDetailed.getPrice(), orderFullDetailed.isPaid());
+				messageLabel.setText(orderSummaryAfterPaymentMessage);
+				return;
+			case Order_Added_Failed:
+				return;
+			}
+		}));
 	}
 
 }
@@ -4,7 +4,8 @@ import java.net.URL;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -15,7 +16,6 @@ import javafx.scene.control.Label;
 import logic.ClientRequestDataContainer;
 import logic.Employee;
 import logic.Park;
-import logic.ServerResponseBackToClient;
 import utils.CurrentDateAndTime;
 import utils.enums.ClientRequest;
 import utils.enums.ParkNameEnum;
@@ -90,13 +90,16 @@ public class ParkAvailableSpotsScreenController implements Initializable {
 		selectedPark = new Park(selectedParkName.getParkId());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Search_For_Specific_Park,
 				selectedPark);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		selectedPark = (Park) response.getMessage();
-
-		currentInParkLabel.setText(String.format("%d", selectedPark.getCurrentInPark()));
-		maxCapacityLabel.setText(String.format("%d", selectedPark.getCurrentMaxCapacity()));
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			selectedPark = (Park) response.getMessage();
 
+			currentInParkLabel.setText(String.format("%d", selectedPark.getCurrentInPark()));
+			maxCapacityLabel.setText(String.format("%d", selectedPark.getCurrentMaxCapacity()));
+		}));
 	}
 
 }
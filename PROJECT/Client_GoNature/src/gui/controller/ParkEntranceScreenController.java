@@ -2,15 +2,18 @@ package gui.controller;
 
 import java.net.URL;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -42,6 +45,8 @@ import utils.CurrentDateAndTime;
 import utils.EntranceDiscount;
 import utils.NotificationMessageTemplate;
 import utils.enums.ClientRequest;
+import utils.enums.OrderStatusEnum;
+import utils.enums.ServerResponse;
 
 /**
  * Controller class for the park entrance screen in a theme park management
@@ -84,6 +89,9 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 	private TableColumn<OrderInTable, String> statusCol;
 
 	private ObservableList<OrderInTable> ordersForNow = FXCollections.observableArrayList();
+	// the rows of the table by order table and order ID, occasional visits and preorders may have the same ID.
+	private HashMap<String, OrderInTable> rowsByOrder = new HashMap<>();
+	private final Consumer<ServerResponseBackToClient> gateFeedListener = this::onGateFeedMessage;
 
 	@FXML
 	public HBox errorSection;
@@ -108,8 +116,8 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 
 	/**
 	 * Initializes the controller class. This method is automatically called after
-	 * the fxml file has been loaded. It sets up the UI components and starts the
-	 * background update task.
+	 * the fxml file has been loaded. It sets up the UI components and subscribes
+	 * to the orders of today of the employee's park.
 	 * 
 	 * @param location  The location used to resolve relative paths for the root
 	 *                  object, or null if the location is not known.
@@ -121,7 +129,14 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 		dateLabel.setText(CurrentDateAndTime.getCurrentDate("'Today' yyyy-MM-dd"));
 		setupTable();
 		hideErrorMessage();
-		startBackgroundUpdateTask();
+		ClientApplication.client.getClient().addServerMessageListener(gateFeedListener);
+		subscribeToGateFeed();
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "Park entrance midnight refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduleMidnightRefresh();
 	}
 
 	/**
@@ -163,41 +178,115 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 	}
 
 	/**
-	 * Starts a background task that updates the list of orders at fixed intervals.
-	 * This ensures the displayed information is kept current without requiring
-	 * manual refreshes.
+	 * Subscribes to the orders of today of the employee's park. The server pushes
+	 * all of them once, and after that every order which changed, so the table is
+	 * kept current without asking the server for all the orders again and again.
 	 */
-	private void startBackgroundUpdateTask() {
-		scheduler = Executors.newSingleThreadScheduledExecutor();
-		scheduler.scheduleAtFixedRate(() -> {
-			// Fetch and update the list of orders
-			Platform.runLater(() -> updateOrdersList());
-		}, 0, 5, TimeUnit.SECONDS);
+	private void subscribeToGateFeed() {
+		ClientApplication.client
+				.request(new ClientRequestDataContainer(ClientRequest.Subscribe_To_Gate_Feed,
+						employee.getRelatedPark().getParkId()))
+				.whenComplete((response, exception) -> {
+					if (exception != null || response.getRensponse() != ServerResponse.Gate_Feed_Subscribed)
+						Platform.runLater(() -> showErrorMessage("Failed to load the orders of today"));
+				});
 	}
 
 	/**
-	 * Updates the orders list by fetching the latest data and refreshing the table
-	 * view. This method is meant to be called periodically or when data needs to be
-	 * refreshed.
+	 * Refreshes the date and the orders at midnight, when the orders of the new day
+	 * replace the orders of the day which ended, and schedules the next refresh.
 	 */
-	private void updateOrdersList() {
-		Platform.runLater(() -> {
-			ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Import_All_Orders_For_Now,
-					employee.getRelatedPark().getParkId());
-			ClientApplication.client.accept(request);
-			ServerResponseBackToClient response = ClientCommunication.responseFromServer;
+	private void scheduleMidnightRefresh() {
+		LocalDateTime nextMidnight = LocalDate.now().plusDays(1).atStartOfDay();
+		long delay = Duration.between(LocalDateTime.now(), nextMidnight).toMillis() + 1000;
+		scheduler.schedule(() -> {
+			Platform.runLater(
+					() -> dateLabel.setText(CurrentDateAndTime.getCurrentDate("'Today' yyyy-MM-dd")));
+			subscribeToGateFeed();
+			scheduleMidnightRefresh();
+		}, delay, TimeUnit.MILLISECONDS);
+	}
 
+	/**
+	 * Receives the orders the server pushes to the screen, on the connection's
+	 * thread, and applies them to the table on the JavaFX Application Thread.
+	 * 
+	 * @param response The message pushed by the server.
+	 */
+	private void onGateFeedMessage(ServerResponseBackToClient response) {
+		switch (response.getRensponse()) {
+		case Gate_Feed_Snapshot:
 			@SuppressWarnings("unchecked")
 			ArrayList<Order> listOfOrders = (ArrayList<Order>) response.getMessage();
-			if (listOfOrders != null) {
-				ordersForNow.clear();
-				for (Order order : listOfOrders) {
-					ordersForNow.add(new OrderInTable(order));
-				}
+			Platform.runLater(() -> showOrders(listOfOrders));
+			break;
+		case Gate_Order_Changed:
+			Order order = (Order) response.getMessage();
+			Platform.runLater(() -> updateOrder(order));
+			break;
+		case Gate_Order_Removed:
+			String key = rowKey("Preorder", String.valueOf(((Order) response.getMessage()).getOrderId()));
+			Platform.runLater(() -> {
+				OrderInTable row = rowsByOrder.remove(key);
+				if (row != null)
+					ordersForNow.remove(row);
+			});
+			break;
+		default:
+			break;
+		}
+	}
 
-				inParkTable.refresh();
+	/**
+	 * Replaces the orders in the table with the orders of today.
+	 * 
+	 * @param listOfOrders The orders of today, or null if they could not be
+	 *                     loaded.
+	 */
+	private void showOrders(ArrayList<Order> listOfOrders) {
+		if (listOfOrders == null) {
+			showErrorMessage("Failed to load the orders of today");
+			return;
+		}
+		ArrayList<OrderInTable> rows = new ArrayList<>();
+		rowsByOrder.clear();
+		for (Order order : listOfOrders) {
+			OrderInTable row = new OrderInTable(order);
+			rows.add(row);
+			rowsByOrder.put(rowKey(row.getOrderTable(), row.getOrderId()), row);
+		}
+		ordersForNow.setAll(rows);
+		inParkTable.refresh();
+	}
+
+	/**
+	 * Applies an order of today which changed to the table. The table shows the
+	 * orders which are Confirmed or In Park, any other order is removed.
+	 * 
+	 * @param order The order as it is now.
+	 */
+	private void updateOrder(Order order) {
+		OrderInTable updated = new OrderInTable(order);
+		String key = rowKey(updated.getOrderTable(), updated.getOrderId());
+		OrderInTable row = rowsByOrder.get(key);
+		if (order.getStatus() != OrderStatusEnum.Confirmed && order.getStatus() != OrderStatusEnum.In_Park) {
+			if (row != null) {
+				rowsByOrder.remove(key);
+				ordersForNow.remove(row);
 			}
-		});
+			return;
+		}
+		if (row == null) {
+			rowsByOrder.put(key, updated);
+			ordersForNow.add(updated);
+		} else {
+			row.update(order);
+		}
+		inParkTable.refresh();
+	}
+
+	private static String rowKey(String orderTable, String orderId) {
+		return orderTable + ":" + orderId;
 	}
 
 	/**
@@ -227,44 +316,58 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 //		}
 
 		Integer orderId = Integer.parseInt(selectedOrder.getOrderId());
-		if (selectedOrder.getIsPaid().equals("No")) {
+		OrderInTable enteringOrder = selectedOrder;
+		if (enteringOrder.getIsPaid().equals("No")) {
 			ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Show_Payment_At_Entrance,
 					orderId);
-			ClientApplication.client.accept(request);
-			ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-			Order order = (Order) response.getMessage();
-
-			ButtonType payNow = new ButtonType("Pay Now");
-			double price = calculatePriceByOrderType(order);
-			Duration duration = Duration.between(order.getEnterDate(), order.getExitDate());
-			long estimatedVisitTime = duration.toHours();
+			ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+				if (exception != null) {
+					ClientMainControl.showRequestFailed();
+					return;
+				}
+				Order order = (Order) response.getMessage();
 
-			// ParkNameEnum parkName,OrderTypeEnum type,String firstName,String
-			// lastName,double totalPrice,long estimatedTimeVisit
-			String paymentReceipt = NotificationMessageTemplate.entrancePaymentReceiptMessage(order.getParkName(),
-					order.getOrderType(), order.getFirstName(), order.getLastName(), order.getNumberOfVisitors(), price,
-					estimatedVisitTime);
+				ButtonType payNow = new ButtonType("Pay Now");
+				double price = calculatePriceByOrderType(order);
+				Duration duration = Duration.between(order.getEnterDate(), order.getExitDate());
+				long estimatedVisitTime = duration.toHours();
 
-			AlertPopUp alert = new AlertPopUp(AlertType.CONFIRMATION, "Payment Notification", "Pay Now", paymentReceipt,
-					payNow, ButtonType.CLOSE);
-			Optional<ButtonType> result = alert.showAndWait();
+				// ParkNameEnum parkName,OrderTypeEnum type,String firstName,String
+				// lastName,double totalPrice,long estimatedTimeVisit
+				String paymentReceipt = NotificationMessageTemplate.entrancePaymentReceiptMessage(order.getParkName(),
+						order.getOrderType(), order.getFirstName(), order.getLastName(), order.getNumberOfVisitors(),
+						price, estimatedVisitTime);
 
-			if (result.isPresent() && result.get() == ButtonType.CLOSE) {
-				return;
-			}
+				AlertPopUp alert = new AlertPopUp(AlertType.CONFIRMATION, "Payment Notification", "Pay Now",
+						paymentReceipt, payNow, ButtonType.CLOSE);
+				Optional<ButtonType> result = alert.showAndWait();
 
+				if (result.isPresent() && result.get() == ButtonType.CLOSE) {
+					return;
+				}
+				enterPark(enteringOrder, orderId);
+			}));
+			return;
 		}
-		selectedOrder.setIsPaid("Yes");
+		enterPark(enteringOrder, orderId);
+	}
+
+	/**
+	 * Marks a paid order as entered into the park, in the table and on the server.
+	 * 
+	 * @param order   The row of the order in the table.
+	 * @param orderId The ID of the order.
+	 */
+	private void enterPark(OrderInTable order, Integer orderId) {
+		order.setIsPaid("Yes");
 		inParkTable.refresh();
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Update_Order_Status_In_Park,
 				orderId);
-		ClientApplication.client.accept(request);
-		@SuppressWarnings("unused")
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
+		ClientApplication.client.request(request).whenComplete((response, exception) -> {
+			if (exception != null)
+				Platform.runLater(ClientMainControl::showRequestFailed);
+		});
 		hideErrorMessage();
-
-		return;
-
 	}
 
 	/**
@@ -314,13 +417,11 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 		Integer orderId = Integer.parseInt(selectedOrder.getOrderId());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(
 				ClientRequest.Update_Order_Status_Time_Passed, orderId);
-		ClientApplication.client.accept(request);
-		@SuppressWarnings("unused")
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
+		ClientApplication.client.request(request).whenComplete((response, exception) -> {
+			if (exception != null)
+				Platform.runLater(ClientMainControl::showRequestFailed);
+		});
 		hideErrorMessage();
-
-		return;
-
 	}
 
 	/**
@@ -346,13 +447,11 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 		dataForServer.add(selectedOrder.getOrderTable());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Update_Order_Status_Completed,
 				dataForServer);
-		ClientApplication.client.accept(request);
-		@SuppressWarnings("unused")
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
+		ClientApplication.client.request(request).whenComplete((response, exception) -> {
+			if (exception != null)
+				Platform.runLater(ClientMainControl::showRequestFailed);
+		});
 		hideErrorMessage();
-
-		return;
-
 	}
 
 	/**
@@ -404,11 +503,13 @@ public class ParkEntranceScreenController implements Initializable, IThreadContr
 
 	/**
 	 * Cleans up resources or threads when the controller is closed or navigated
-	 * away from. This method ensures that background tasks are properly terminated
-	 * to avoid memory leaks.
+	 * away from. This method unsubscribes from the orders of today and ensures
+	 * that background tasks are properly terminated to avoid memory leaks.
 	 */
 	@Override
 	public void cleanUp() {
+		ClientApplication.client.getClient().removeServerMessageListener(gateFeedListener);
+		ClientApplication.client.request(new ClientRequestDataContainer(ClientRequest.Unsubscribe_From_Gate_Feed, null));
 		if (scheduler != null && !scheduler.isShutdown()) {
 			scheduler.shutdownNow();
 		}
@@ -5,7 +5,8 @@ import java.time.LocalDateTime;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert.AlertType;
@@ -17,7 +18,6 @@ import logic.ClientRequestDataContainer;
 import logic.Employee;
 import logic.Park;
 import logic.Request;
-import logic.ServerResponseBackToClient;
 import utils.AlertPopUp;
 import utils.ValidationRules;
 import utils.enums.ClientRequest;
@@ -88,16 +88,20 @@ public class ParkSettingsScreenController implements Initializable {
 	public void initialize(URL location, ResourceBundle resources) {
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Search_For_Specific_Park,
 				park);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-		park = (Park) response.getMessage();
-		parkField1.setText(park.getParkName().toString());
-		parkField2.setText(park.getParkName().toString());
-		parkField3.setText(park.getParkName().toString());
-		oldCapacityField.setText(String.format("%d", park.getCurrentMaxCapacity()));
-		oldReservedEntriesField.setText(String.format("%d", park.getCurrentEstimatedReservedSpots()));
-		oldEstimatedVisitTimeField.setText(String.format("%d", park.getCurrentEstimatedStayTime()));
-		hideErrorMessage();
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			park = (Park) response.getMessage();
+			parkField1.setText(park.getParkName().toString());
+			parkField2.setText(park.getParkName().toString());
+			parkField3.setText(park.getParkName().toString());
+			oldCapacityField.setText(String.format("%d", park.getCurrentMaxCapacity()));
+			oldReservedEntriesField.setText(String.format("%d", park.getCurrentEstimatedReservedSpots()));
+			oldEstimatedVisitTimeField.setText(String.format("%d", park.getCurrentEstimatedStayTime()));
+			hideErrorMessage();
+		}));
 	}
 
 	/**
@@ -116,22 +120,24 @@ public class ParkSettingsScreenController implements Initializable {
 				Integer.parseInt(newEstimatedVisitTimeField.getText()), LocalDateTime.now());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(
 				ClientRequest.Make_New_Park_Estimated_Visit_Time_Request, parametersRequest);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-		switch (response.getRensponse()) {
-		case Last_Request_With_Same_Type_Still_Pending:
-			alert = new AlertPopUp(AlertType.WARNING, "Warning", "Estimated Visit Time Request",
-					"Last Request With Same Type Still Pending");
-			alert.showAndWait();
-			return;
-		case Request_Sent_To_Department_Successfully:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Estimated Visit Time Request",
-					"Request has been sent to department manager");
-			alert.showAndWait();
-			return;
-		}
-
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			switch (response.getRensponse()) {
+			case Last_Request_With_Same_Type_Still_Pending:
+				alert = new AlertPopUp(AlertType.WARNING, "Warning", "Estimated Visit Time Request",
+						"Last Request With Same Type Still Pending");
+				alert.showAndWait();
+				return;
+			case Request_Sent_To_Department_Successfully:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Estimated Visit Time Request",
+						"Request has been sent to department manager");
+				alert.showAndWait();
+				return;
+			}
+		}));
 	}
 
 	/**
@@ -150,21 +156,24 @@ public class ParkSettingsScreenController implements Initializable {
 				Integer.parseInt(newReservedEntriesField.getText()), LocalDateTime.now());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(
 				ClientRequest.Make_New_Park_Reserved_Entries_Request, parametersRequest);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-		switch (response.getRensponse()) {
-		case Last_Request_With_Same_Type_Still_Pending:
-			alert = new AlertPopUp(AlertType.WARNING, "Warning", "Reserved Entries Request",
-					"Last Request With Same Type Still Pending");
-			alert.showAndWait();
-			return;
-		case Request_Sent_To_Department_Successfully:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Reserved Entries Request",
-					"Request has been sent to department manager");
-			alert.showAndWait();
-			return;
-		}
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			switch (response.getRensponse()) {
+			case Last_Request_With_Same_Type_Still_Pending:
+				alert = new AlertPopUp(AlertType.WARNING, "Warning", "Reserved Entries Request",
+						"Last Request With Same Type Still Pending");
+				alert.showAndWait();
+				return;
+			case Request_Sent_To_Department_Successfully:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Reserved Entries Request",
+						"Request has been sent to department manager");
+				alert.showAndWait();
+				return;
+			}
+		}));
 	}
 
 	/**
@@ -183,22 +192,24 @@ public class ParkSettingsScreenController implements Initializable {
 				LocalDateTime.now());
 		ClientRequestDataContainer request = new ClientRequestDataContainer(
 				ClientRequest.Make_New_Park_Capacity_Request, parametersRequest);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-		switch (response.getRensponse()) {
-		case Last_Request_With_Same_Type_Still_Pending:
-			alert = new AlertPopUp(AlertType.WARNING, "Warning", "Max park Capacity Request",
-					"Last Request With Same Type Still Pending");
-			alert.showAndWait();
-			return;
-		case Request_Sent_To_Department_Successfully:
-			alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Max park Capacity Request",
-					"Request has been sent to department manager");
-			alert.showAndWait();
-			return;
-		}
-
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
+			}
+			switch (response.getRensponse()) {
+			case Last_Request_With_Same_Type_Still_Pending:
+				alert = new AlertPopUp(AlertType.WARNING, "Warning", "Max park Capacity Request",
+						"Last Request With Same Type Still Pending");
+				alert.showAndWait();
+				return;
+			case Request_Sent_To_Department_Successfully:
+				alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Max park Capacity Request",
+						"Request has been sent to department manager");
+				alert.showAndWait();
+				return;
+			}
+		}));
 	}
 
 	/**
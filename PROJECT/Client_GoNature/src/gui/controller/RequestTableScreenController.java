@@ -5,7 +5,8 @@ import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import client.ClientMainControl;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -21,7 +22,6 @@ import javafx.scene.layout.BorderPane;
 import logic.ClientRequestDataContainer;
 import logic.Request;
 import logic.RequestInTable;
-import logic.ServerResponseBackToClient;
 import utils.AlertPopUp;
 import utils.CurrentDateAndTime;
 import utils.enums.ClientRequest;
@@ -119,7 +119,6 @@ public class RequestTableScreenController implements Initializable {
 	 */
 	@SuppressWarnings("incomplete-switch")
 	public void onSaveClicked() {
-		AlertPopUp alert;
 		ArrayList<Request> requestsToCheck = new ArrayList<Request>();
 		for (RequestInTable req : requestsList) {
 			req.getRequest().setRequestStatus(RequestStatusEnum.fromString(req.getRequestStatus()));
@@ -127,27 +126,31 @@ public class RequestTableScreenController implements Initializable {
 		}
 
 		if (requestsToCheck.isEmpty()) {
-			alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
+			AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
 					"You have to select guides to approve");
 			alert.showAndWait();
 		} else {
 			ClientRequestDataContainer request = new ClientRequestDataContainer(
 					ClientRequest.Update_Request_In_Database, requestsToCheck);
-			ClientApplication.client.accept(request);
-			ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-			switch (response.getRensponse()) {
-			case Updated_Requests_Successfully:
-				alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
-						"Requests updated Successfully");
-				alert.showAndWait();
-				onRefreshClicked();
-				return;
-			case Updated_Requests_Failed:
-				alert = new AlertPopUp(AlertType.WARNING, "Warning", "Save Changes", "Update failed");
-				alert.showAndWait();
-				return;
-			}
+			ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+				if (exception != null) {
+					ClientMainControl.showRequestFailed();
+					return;
+				}
+				AlertPopUp alert;
+				switch (response.getRensponse()) {
+				case Updated_Requests_Successfully:
+					alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Save Changes",
+							"Requests updated Successfully");
+					alert.showAndWait();
+					onRefreshClicked();
+					return;
+				case Updated_Requests_Failed:
+					alert = new AlertPopUp(AlertType.WARNING, "Warning", "Save Changes", "Update failed");
+					alert.showAndWait();
+					return;
+				}
+			}));
 		}
 
 	}
@@ -163,29 +166,32 @@ public class RequestTableScreenController implements Initializable {
 		requestsFromDatabase.clear();
 		ClientRequestDataContainer request = new ClientRequestDataContainer(ClientRequest.Import_All_Pending_Requests,
 				requestsFromDatabase);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-
-		switch (response.getRensponse()) {
-		case There_Are_Not_Pending_Requests:
-			AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Search Requests",
-					"There are no requests with status pending");
-			alert.showAndWait();
-			saveButton.setDisable(true);
-			return;
-		case Pending_Requests_Found_Successfully:
-			requestsFromDatabase = (ArrayList<Request>) response.getMessage();
-			for (Request req : requestsFromDatabase) {
-				RequestInTable requestToView = new RequestInTable(req.getRequestId(), req.getParkId(),
-						req.getRequestType(), req.getOldValue(), req.getNewValue(), req.getRequestStatus(),
-						req.getRequestDate());
-				requestToView.setRequest(req);
-				observeRequests.add(requestToView);
+		ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+			if (exception != null) {
+				ClientMainControl.showRequestFailed();
+				return;
 			}
-			requestsList.addAll(observeRequests);
-			requestsTable.refresh();
-			saveButton.setDisable(false);
-			return;
-		}
+			switch (response.getRensponse()) {
+			case There_Are_Not_Pending_Requests:
+				AlertPopUp alert = new AlertPopUp(AlertType.INFORMATION, "Information", "Search Requests",
+						"There are no requests with status pending");
+				alert.showAndWait();
+				saveButton.setDisable(true);
+				return;
+			case Pending_Requests_Found_Successfully:
+				requestsFromDatabase = (ArrayList<Request>) response.getMessage();
+				for (Request req : requestsFromDatabase) {
+					RequestInTable requestToView = new RequestInTable(req.getRequestId(), req.getParkId(),
+							req.getRequestType(), req.getOldValue(), req.getNewValue(), req.getRequestStatus(),
+							req.getRequestDate());
+					requestToView.setRequest(req);
+					observeRequests.add(requestToView);
+				}
+				requestsList.addAll(observeRequests);
+				requestsTable.refresh();
+				saveButton.setDisable(false);
+				return;
+			}
+		}));
 	}
 }
@@ -3,12 +3,13 @@ package gui.controller;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 import client.ClientApplication;
 import client.ClientCommunication;
+import client.ClientMainControl;
 import gui.view.ApplicationViewType;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -74,7 +75,8 @@ public class RescheduleOrderScreenController implements Initializable, IThreadCo
 	private Order order;
 	@SuppressWarnings("unused")
 	private LocalDateTime selectedDate = null;
-	private Thread searchAvailableDates = null;
+	private boolean watchingAvailableDates = false;
+	private final Consumer<ServerResponseBackToClient> availableDatesListener = this::onAvailableDatesChanged;
 
 	/**
 	 * Constructs a new instance of RescheduleOrderScreenController with the
@@ -138,46 +140,38 @@ public class RescheduleOrderScreenController implements Initializable, IThreadCo
 	}
 
 	/**
-	 * Retrieves and displays the available dates for rescheduling the order.
+	 * Retrieves and displays the available dates for rescheduling the order. The
+	 * server sends the available dates once, and again whenever an order or a
+	 * change of the park's capacity changes them, until the screen stops watching
+	 * them (see {@link #cleanUp()}).
 	 */
 	private void showAvailableDates() {
-		// Check if the previous thread is alive and interrupt it
-		if (searchAvailableDates != null && searchAvailableDates.isAlive()) {
-			searchAvailableDates.interrupt();
-			try {
-				searchAvailableDates.join(); // Wait for the thread to stop
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt(); // Restore interrupted status
-			}
-		}
-
-		// Instantiate a new Thread object for searchAvailableDates
-		searchAvailableDates = new Thread(() -> {
-			while (!Thread.interrupted()) {
-				try {
-					Thread.sleep(2000); // Wait for 2 seconds, not 10
+		ClientCommunication client = ClientApplication.client.getClient();
+		client.removeServerMessageListener(availableDatesListener);
+		client.addServerMessageListener(availableDatesListener);
+		watchingAvailableDates = true;
+		ClientApplication.client.request(new ClientRequestDataContainer(ClientRequest.Watch_Available_Dates, order))
+				.whenComplete((response, exception) -> {
+					if (exception != null || response.getRensponse() != ServerResponse.Available_Dates_Watched)
+						Platform.runLater(() -> showErrorMessage("Failed to search for available dates"));
+				});
+	}
 
-					// Safely update the list and UI from the JavaFX Application Thread
-					Platform.runLater(() -> {
-						ClientApplication.client
-								.accept(new ClientRequestDataContainer(ClientRequest.Search_For_Available_Date, order));
-						ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-						if (response.getRensponse() == ServerResponse.Query_Failed)
-							Thread.currentThread().interrupt();
-						@SuppressWarnings("unchecked")
-						List<LocalDateTime> dates = (ArrayList<LocalDateTime>) response.getMessage();
-						ObservableList<LocalDateTime> observableDates = FXCollections.observableArrayList(dates);
-						availableDatesList.setItems(observableDates);
-					});
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt(); // Restore interrupted status
-					break; // Exit the loop if the thread was interrupted
-				}
-			}
+	/**
+	 * Receives the available dates the server pushes to the screen, on the
+	 * connection's thread, and shows them on the JavaFX Application Thread.
+	 * 
+	 * @param response The message pushed by the server.
+	 */
+	private void onAvailableDatesChanged(ServerResponseBackToClient response) {
+		if (response.getRensponse() != ServerResponse.Available_Dates_Changed)
+			return;
+		@SuppressWarnings("unchecked")
+		ArrayList<LocalDateTime> dates = (ArrayList<LocalDateTime>) response.getMessage();
+		Platform.runLater(() -> {
+			availableDatesToDisplay.setAll(dates);
+			availableDatesList.setItems(availableDatesToDisplay);
 		});
-
-		// Start the new thread
-		searchAvailableDates.start();
 	}
 
 	/**
@@ -229,42 +223,41 @@ public class RescheduleOrderScreenController implements Initializable, IThreadCo
 			order.setStatus(OrderStatusEnum.In_Waiting_List);
 			ClientRequestDataContainer request = new ClientRequestDataContainer(
 					ClientRequest.Insert_New_Order_As_Wait_Notify, order);
-			ClientApplication.client.accept(request);
-			ServerResponseBackToClient response = ClientCommunication.responseFromServer;
-			Order orderFullDetailed = (Order) response.getMessage();
-			switch (response.getRensponse()) {
-			case Order_Added_Successfully:
-				String orderSummaryAfterPaymentMessage = NotificationMessageTemplate.orderConfirmMessage(
-						orderFullDetailed.getOrderId(), orderFullDetailed.getParkName().name(),
-						orderFullDetailed.getEnterDate().toString(), orderFullDetailed.getOrderType().name(),
-						orderFullDetailed.getNumberOfVisitors(), orderFullDetailed.getPrice(),
-						orderFullDetailed.isPaid());
-				enterWaitingListMsg.setText(orderSummaryAfterPaymentMessage);
-				confirmButton.setVisible(false);
-				comboBoxHbox.setVisible(false);
-				break;
-			case Order_Added_Failed:
-				break;
-			}
-
+			ClientApplication.client.request(request).whenComplete((response, exception) -> Platform.runLater(() -> {
+				if (exception != null) {
+					ClientMainControl.showRequestFailed();
+					return;
+				}
+				Order orderFullDetailed = (Order) response.getMessage();
+				switch (response.getRensponse()) {
+				case Order_Added_Successfully:
+					String orderSummaryAfterPaymentMessage = NotificationMessageTemplate.orderConfirmMessage(
+							orderFullDetailed.getOrderId(), orderFullDetailed.getParkName().name(),
+							orderFullDetailed.getEnterDate().toString(), orderFullDetailed.getOrderType().name(),
+							orderFullDetailed.getNumberOfVisitors(), orderFullDetailed.getPrice(),
+							orderFullDetailed.isPaid());
+					enterWaitingListMsg.setText(orderSummaryAfterPaymentMessage);
+					confirmButton.setVisible(false);
+					comboBoxHbox.setVisible(false);
+					break;
+				case Order_Added_Failed:
+					break;
+				}
+			}));
 		}
 
 	}
 
 	/**
-	 * Cleans up resources and stops any running threads when the controller is
-	 * destroyed.
+	 * Stops watching the available dates when the controller is destroyed or the
+	 * visitor chose another option.
 	 */
 	@Override
 	public void cleanUp() {
-		// Stop the searchAvailableDates thread if it's running
-		if (searchAvailableDates != null && searchAvailableDates.isAlive()) {
-			searchAvailableDates.interrupt();
-			try {
-				searchAvailableDates.join(); // Wait for the thread to stop
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt(); // Restore interrupted status
-			}
+		ClientApplication.client.getClient().removeServerMessageListener(availableDatesListener);
+		if (watchingAvailableDates) {
+			watchingAvailableDates = false;
+			ClientApplication.client.request(new ClientRequestDataContainer(ClientRequest.Unwatch_Available_Dates, null));
 		}
 
 	}
@@ -282,7 +275,6 @@ public class RescheduleOrderScreenController implements Initializable, IThreadCo
 	 * 
 	 * @param error The error message to display.
 	 */
-	@SuppressWarnings("unused")
 	private void showErrorMessage(String error) {
 		errorSection.setVisible(true);
 		errorMessageLabel.setText(error);
@@ -8,7 +8,7 @@ import java.net.URL;
 import java.util.ResourceBundle;
 
 import client.ClientApplication;
-import client.ClientCommunication;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -22,7 +22,6 @@ import logic.CancellationsReport;
 import logic.ClientRequestDataContainer;
 import logic.Employee;
 import logic.Report;
-import logic.ServerResponseBackToClient;
 import logic.UsageReport;
 import logic.VisitsReport;
 import utils.CurrentDateAndTime;
@@ -30,6 +29,7 @@ import utils.enums.ClientRequest;
 import utils.enums.EmployeeTypeEnum;
 import utils.enums.ParkNameEnum;
 import utils.enums.ReportType;
+import utils.enums.ServerResponse;
 
 /**
  * This class is responsible for controlling the view reports screen in the
@@ -234,32 +234,100 @@ public class ViewReportsScreenController implements Initializable {
 			return;
 		}
 
+		// the server sends the report in chunks before its response, they are written
+		// to the temp file as they arrive, on the connection's thread.
+		ReportDownload download;
+		try {
+			download = new ReportDownload(selectedReport + "_" + selectedYear + "_" + selectedMonth);
+		} catch (IOException e) {
+			e.printStackTrace();
+			showErrorMessage("Failed to open the report");
+			return;
+		}
 		ClientRequestDataContainer request = new ClientRequestDataContainer(reportToOpen, requestedReport);
-		ClientApplication.client.accept(request);
-		ServerResponseBackToClient response = ClientCommunication.responseFromServer;
+		ClientApplication.client.request(request, chunk -> download.write((byte[]) chunk.getMessage()))
+				.whenComplete((response, exception) -> {
+					boolean complete = download.close() && exception == null
+							&& response.getRensponse() == ServerResponse.Cancellations_Report_Found;
+					if (!complete)
+						download.discard();
+					Platform.runLater(() -> {
+						if (exception == null && response.getRensponse() == ServerResponse.Such_Report_Not_Found) {
+							showErrorMessage("Such report does not exist");
+							return;
+						}
+						if (!complete) {
+							showErrorMessage("Failed to download the report");
+							return;
+						}
+						try {
+							// Open the file with the default system viewer
+							Desktop.getDesktop().open(download.file);
+						} catch (IOException e) {
+							e.printStackTrace();
+						}
+					});
+				});
+	}
 
-		switch (response.getRensponse()) {
-		case Such_Report_Not_Found:
-			showErrorMessage("Such report does not exist");
-			return;
-		case Cancellations_Report_Found:
-			try {
-				// Create a temp file
-				String reportName = selectedReport + "_" + selectedYear + "_" + selectedMonth;
-				File tempFile = File.createTempFile(reportName, ".pdf");
-				tempFile.deleteOnExit(); // Request the file be deleted when the application exits
+	/**
+	 * A report which is being downloaded into a temp file. Written by the
+	 * connection's thread, one chunk after the other.
+	 */
+	private static class ReportDownload {
+		private final File file;
+		private final FileOutputStream out;
+		private boolean failed = false;
+
+		/**
+		 * Creates the temp file of a report, which is deleted when the application
+		 * exits.
+		 * 
+		 * @param reportName The name of the report, the prefix of the file's name.
+		 * @throws IOException if the temp file could not be created.
+		 */
+		private ReportDownload(String reportName) throws IOException {
+			file = File.createTempFile(reportName, ".pdf");
+			file.deleteOnExit();
+			out = new FileOutputStream(file);
+		}
 
-				// Write the PDF content to the temp file
-				try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-					fos.write((byte[]) response.getMessage()); // Assuming response.getMessage() returns the correct
-																// byte array for the PDF
-				}
-				// Open the file with the default system viewer
-				Desktop.getDesktop().open(tempFile);
+		/**
+		 * Writes a chunk of the report to the file. After a chunk failed to be
+		 * written, the next chunks are ignored.
+		 * 
+		 * @param chunk The chunk.
+		 */
+		private void write(byte[] chunk) {
+			if (failed)
+				return;
+			try {
+				out.write(chunk);
 			} catch (IOException e) {
 				e.printStackTrace();
+				failed = true;
 			}
-			break;
+		}
+
+		/**
+		 * Closes the file.
+		 * 
+		 * @return {@code true} if all the chunks were written.
+		 */
+		private boolean close() {
+			try {
+				out.close();
+			} catch (IOException e) {
+				failed = true;
+			}
+			return !failed;
+		}
+
+		/**
+		 * Deletes the file of a report which was not downloaded completely.
+		 */
+		private void discard() {
+			file.delete();
 		}
 	}
 
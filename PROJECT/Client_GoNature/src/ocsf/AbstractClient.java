@@ -7,6 +7,8 @@ package ocsf;
 import java.io.*;
 import java.net.*;
 
+import utils.codec.*;
+
 /**
 * The <code> AbstractClient </code> contains all the
 * methods necessary to set up the client side of a client-server
@@ -21,6 +23,17 @@ import java.net.*;
 * Several public service methods are provided to
 * application that use this framework.<p>
 *
+* The client sends its messages either in one Java object stream for
+* the whole session (the default), or, after
+* <code>setFramedTransport(true)</code>, as length-prefixed frames
+* which each hold one message encoded by the codec chosen with
+* <code>setMessageCodec</code>. The server recognizes the
+* protocol from the first bytes the client sends, and answers a
+* framed client with the codec it accepted (Java serialization when
+* it does not know the requested one); a server which uses
+* the non-blocking transport serves framed clients without a thread
+* for each of them.<p>
+*
 * Project Name: OCSF (Object Client-Server Framework)<p>
 *
 * @author Dr. Robert Lagani&egrave;re
@@ -31,6 +44,19 @@ import java.net.*;
 */
 public abstract class AbstractClient implements Runnable
 {
+// CONSTANTS ********************************************************
+
+  /**
+   * The first four bytes sent by a client which speaks the framed
+   * protocol ("OCF1").
+   */
+  private static final int FRAMED_PROTOCOL_MAGIC = 0x4F434631;
+
+  /**
+   * The largest frame accepted from the server, in bytes.
+   */
+  private static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
 
 // INSTANCE VARIABLES ***********************************************
 
@@ -42,15 +68,64 @@ public abstract class AbstractClient implements Runnable
   private Socket clientSocket;
 
   /**
-  * The stream to handle data going to the server.
+  * The stream to handle data going to the server. It is reset as the
+  * reset interval says, so it does not hold every object sent during
+  * the session.
   */
-  private ObjectOutputStream output;
+  private ManagedObjectOutputStream output;
 
   /**
   * The stream to handle data from the server.
   */
   private ObjectInputStream input;
 
+  /**
+  * The stream to write frames to the server, when the framed
+  * protocol is used.
+  */
+  private DataOutputStream frameOutput;
+
+  /**
+  * The stream to read frames from the server, when the framed
+  * protocol is used.
+  */
+  private DataInputStream frameInput;
+
+  /**
+  * Indicates if the next connection uses the framed protocol.
+  * Set to false by default.
+  */
+  private boolean framedTransport = false;
+
+  /**
+  * The codec asked from the server for the next framed connection.
+  * Java serialization by default.
+  */
+  private MessageCodec requestedCodec = new JavaSerializationCodec();
+
+  /**
+  * The codec of the frames of the current connection, as accepted by
+  * the server.
+  */
+  private MessageCodec codec;
+
+  /**
+  * The number of messages, and the number of bytes, after which the
+  * object stream is reset. By default the stream is reset after every
+  * message.
+  */
+  private int messagesBetweenResets = 1;
+  private long bytesBetweenResets = 1024 * 1024;
+
+  /**
+  * The number of messages sent to the server on the current
+  * connection, the number of bytes they took and the number of times
+  * the object stream was reset.
+  */
+  private volatile long messagesSent = 0;
+  private volatile long bytesSent = 0;
+  private volatile long streamResets = 0;
+
   /**
   * The thread created to read data from the server.
   */
@@ -96,7 +171,7 @@ public abstract class AbstractClient implements Runnable
    *
    * @exception IOException if an I/O error occurs when opening.
    */
-  final public void openConnection() throws IOException
+  final synchronized public void openConnection() throws IOException
   {
     // Do not do anything if the connection is already open
     if(isConnected())
@@ -106,8 +181,36 @@ public abstract class AbstractClient implements Runnable
     try
     {
       clientSocket= new Socket(host, port);
-      output = new ObjectOutputStream(clientSocket.getOutputStream());
-      input = new ObjectInputStream(clientSocket.getInputStream());
+      messagesSent = 0;
+      bytesSent = 0;
+      streamResets = 0;
+      if (framedTransport)
+      {
+        frameOutput = new DataOutputStream(
+          new BufferedOutputStream(clientSocket.getOutputStream()));
+        frameOutput.writeInt(FRAMED_PROTOCOL_MAGIC);
+        frameOutput.writeByte(requestedCodec.getId());
+        frameOutput.flush();
+        frameInput = new DataInputStream(
+          new BufferedInputStream(clientSocket.getInputStream()));
+
+        // The server answers with the codec it accepted
+        byte acceptedCodec = frameInput.readByte();
+        if (acceptedCodec == requestedCodec.getId())
+          codec = requestedCodec;
+        else if (acceptedCodec == JavaSerializationCodec.ID)
+          codec = new JavaSerializationCodec();
+        else
+          throw new StreamCorruptedException(
+            "Unknown codec accepted by the server: " + acceptedCodec);
+      }
+      else
+      {
+        output = new ManagedObjectOutputStream(clientSocket.getOutputStream(),
+          messagesBetweenResets, bytesBetweenResets);
+        input = new ObjectInputStream(
+          new BufferedInputStream(clientSocket.getInputStream()));
+      }
     }
     catch (IOException ex)
     // All three of the above must be closed when there is a failure
@@ -134,13 +237,29 @@ public abstract class AbstractClient implements Runnable
    * @param msg   The message to be sent.
    * @exception IOException if an I/O error occurs when sending
    */
-  final public void sendToServer(Object msg) throws IOException
+  final synchronized public void sendToServer(Object msg) throws IOException
   {
-    if (clientSocket == null || output == null)
+    if (clientSocket == null || (output == null && frameOutput == null))
       throw new SocketException("socket does not exist");
 
-    output.writeObject(msg);
-    output.reset();
+    if (frameOutput != null)
+    {
+      ByteArrayOutputStream frame = new ByteArrayOutputStream(512);
+      codec.encode(msg, frame);
+
+      frameOutput.writeInt(frame.size());
+      frame.writeTo(frameOutput);
+      frameOutput.flush();
+      messagesSent++;
+      bytesSent += 4 + frame.size();
+      return;
+    }
+
+    long bytesBefore = output.getBytesWritten();
+    output.writeMessage(msg);
+    messagesSent++;
+    bytesSent += output.getBytesWritten() - bytesBefore;
+    streamResets = output.getResetCount();
   }
 
   /**
@@ -194,6 +313,91 @@ public abstract class AbstractClient implements Runnable
     this.port = port;
   }
 
+  /**
+   * Sets the protocol of the next connection: framed messages when
+   * true, one object stream for the whole session when false.
+   * The change only takes effect at the time of the
+   * next call to openConnection().
+   *
+   * @param framedTransport true to send framed messages.
+   */
+  final public void setFramedTransport(boolean framedTransport)
+  {
+    this.framedTransport = framedTransport;
+  }
+
+  /**
+   * Sets the codec asked from the server for the next framed
+   * connection. The server may answer with Java serialization
+   * instead, see <code>getMessageCodec</code>.
+   * The change only takes effect at the time of the
+   * next call to openConnection().
+   *
+   * @param codec the codec.
+   */
+  final public void setMessageCodec(MessageCodec codec)
+  {
+    this.requestedCodec = codec;
+  }
+
+  /**
+   * Sets when the object stream to the server is reset: after the
+   * given number of messages, or after the given number of bytes,
+   * whichever comes first. A reset makes both sides forget the
+   * objects sent before, so the stream does not hold every message of
+   * the session, and an object which is sent again after it changed
+   * does not arrive as the copy sent before. Resetting after every
+   * message (the default) is the only safe choice when messages may
+   * hold such objects. Framed connections are not affected.
+   * The change only takes effect at the time of the
+   * next call to openConnection().
+   *
+   * @param messagesBetweenResets the number of messages, at least 1.
+   * @param bytesBetweenResets the number of bytes.
+   */
+  final public void setStreamResetInterval(int messagesBetweenResets,
+    long bytesBetweenResets)
+  {
+    this.messagesBetweenResets = Math.max(1, messagesBetweenResets);
+    this.bytesBetweenResets = Math.max(1, bytesBetweenResets);
+  }
+
+  /**
+   * @return the number of messages sent on the current connection.
+   */
+  final public long getMessagesSent()
+  {
+    return messagesSent;
+  }
+
+  /**
+   * @return the number of bytes sent on the current connection,
+   *         including the length of every frame and the resets of the
+   *         object stream.
+   */
+  final public long getBytesSent()
+  {
+    return bytesSent;
+  }
+
+  /**
+   * @return the number of times the object stream of the current
+   *         connection was reset, always 0 for a framed connection.
+   */
+  final public long getStreamResetCount()
+  {
+    return streamResets;
+  }
+
+  /**
+   * @return the codec of the last framed connection, or null if no
+   *         framed connection was opened.
+   */
+  final public MessageCodec getMessageCodec()
+  {
+    return codec;
+  }
+
   /**
    * @return the host name.
    */
@@ -247,7 +451,7 @@ public abstract class AbstractClient implements Runnable
         // Get data from Server and send it to the handler
         // The thread waits indefinitely at the following
         // statement until something is received from the server
-        msg = input.readObject();
+        msg = readMessage();
 
         // Concrete subclasses do what they want with the
         // msg by implementing the following method
@@ -312,6 +516,28 @@ public abstract class AbstractClient implements Runnable
 
 // METHODS TO BE USED FROM WITHIN THE FRAMEWORK ONLY ----------------
 
+  /**
+   * Waits until a whole message is read from the server.
+   *
+   * @return the message.
+   * @exception IOException if an I/O error occurs when reading.
+   * @exception ClassNotFoundException if the class of the message is
+   *    unknown.
+   */
+  private Object readMessage() throws IOException, ClassNotFoundException
+  {
+    if (frameInput == null)
+      return input.readObject();
+
+    int length = frameInput.readInt();
+    if (length < 0 || length > MAX_FRAME_LENGTH)
+      throw new StreamCorruptedException("Invalid frame length: " + length);
+
+    byte[] frame = new byte[length];
+    frameInput.readFully(frame);
+    return codec.decode(new ByteArrayInputStream(frame));
+  }
+
   /**
    * Closes all aspects of the connection to the server.
    *
@@ -325,13 +551,17 @@ public abstract class AbstractClient implements Runnable
       if (clientSocket != null)
         clientSocket.close();
 
-      //Close the output stream
+      //Close the output streams
       if (output != null)
         output.close();
+      if (frameOutput != null)
+        frameOutput.close();
 
-      //Close the input stream
+      //Close the input streams
       if (input != null)
         input.close();
+      if (frameInput != null)
+        frameInput.close();
     }
     finally
     {
@@ -341,6 +571,8 @@ public abstract class AbstractClient implements Runnable
       // when they are garbage collected.
       output = null;
       input = null;
+      frameOutput = null;
+      frameInput = null;
       clientSocket = null;
     }
   }
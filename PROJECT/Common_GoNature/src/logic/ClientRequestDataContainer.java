@@ -28,6 +28,12 @@ public class ClientRequestDataContainer implements Serializable {
 	 */
 	private Object data;
 
+	/**
+	 * The ID the client gave this request, the server copies it into its response so the client can match the
+	 * response to the request. 0 means the request was not given an ID.
+	 */
+	private long requestId;
+
 	/**
 	 * Constructs a new ClientRequestDataContainer with the specified client request
 	 * and data.
@@ -82,4 +88,22 @@ public class ClientRequestDataContainer implements Serializable {
 		return data;
 	}
 
+	/**
+	 * Sets the ID of the request, used to match the server's response to it.
+	 * 
+	 * @param requestId The request ID to set
+	 */
+	public void setRequestId(long requestId) {
+		this.requestId = requestId;
+	}
+
+	/**
+	 * Returns the ID of the request.
+	 * 
+	 * @return The request ID, or 0 if the request was not given an ID
+	 */
+	public long getRequestId() {
+		return requestId;
+	}
+
 }
@@ -69,6 +69,20 @@ public class OrderInTable {
 				(order.getOrderType().toString().contains("Occasional")) ? "Occasional" : "Preorder");
 	}
 
+	/**
+	 * Updates the row with the current details of its order, which was changed since the row was created.
+	 * 
+	 * @param order The order the row shows, with its new details.
+	 */
+	public void update(Order order) {
+		setAmountOfVisitors(String.valueOf(order.getNumberOfVisitors()));
+		setIsPaid(order.isPaid() ? "Yes" : "No");
+		setOwnerPhone(order.getTelephoneNumber());
+		setEstimatedEnterTime(order.getEnterDate().toString());
+		setEstimatedExitTime(order.getExitDate().toString());
+		setStatus(order.getStatus().toString());
+	}
+
 	/**
 	 * Default constructor for OrderInTable.
 	 */
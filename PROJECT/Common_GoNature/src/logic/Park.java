@@ -12,6 +12,12 @@ public class Park implements Serializable {
 	/** Serial version UID for serialization. */
 	private static final long serialVersionUID = -6759762004224132621L;
 
+	/** The first hour of the day at which a pre-ordered visit may begin. */
+	public static final int FIRST_VISIT_HOUR = 8;
+
+	/** The last hour of the day at which a pre-ordered visit may begin. */
+	public static final int LAST_VISIT_HOUR = 16;
+
 	/** The unique identifier of the park. */
 	private int parkId;
 
@@ -0,0 +1,145 @@
+package logic;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Represents the progress of a report job: one or more reports which the server
+ * generates in the background. The server sends a copy of the job when it
+ * accepts it, after every report of the job was generated, and when it is asked
+ * for the job's status.
+ */
+public class ReportJob implements Serializable {
+	/** Serial version UID for serialization. */
+	private static final long serialVersionUID = 3816042257916120375L;
+
+	/** The ID the server gave the job. */
+	private long jobId;
+
+	/** A short description of the job, for the user. */
+	private String description;
+
+	/** The number of reports in the job. */
+	private int totalReports;
+
+	/** The number of reports which were generated and saved. */
+	private int generatedReports;
+
+	/** The reports which failed to generate, described for the user. */
+	private ArrayList<String> failedReports = new ArrayList<>();
+
+	/**
+	 * Constructs a ReportJob with the given parameters.
+	 *
+	 * @param jobId        The ID of the job.
+	 * @param description  A short description of the job.
+	 * @param totalReports The number of reports in the job.
+	 */
+	public ReportJob(long jobId, String description, int totalReports) {
+		this.jobId = jobId;
+		this.description = description;
+		this.totalReports = totalReports;
+	}
+
+	/**
+	 * Constructs a copy of a job, the state of the job at the time of the copy.
+	 *
+	 * @param job The job to copy.
+	 */
+	public ReportJob(ReportJob job) {
+		this(job.jobId, job.description, job.totalReports);
+		this.generatedReports = job.generatedReports;
+		this.failedReports.addAll(job.failedReports);
+	}
+
+	/**
+	 * Retrieves the ID of the job.
+	 *
+	 * @return The ID of the job.
+	 */
+	public long getJobId() {
+		return jobId;
+	}
+
+	/**
+	 * Retrieves the description of the job.
+	 *
+	 * @return The description of the job.
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Retrieves the number of reports in the job.
+	 *
+	 * @return The number of reports in the job.
+	 */
+	public int getTotalReports() {
+		return totalReports;
+	}
+
+	/**
+	 * Retrieves the number of reports which were generated and saved.
+	 *
+	 * @return The number of generated reports.
+	 */
+	public int getGeneratedReports() {
+		return generatedReports;
+	}
+
+	/**
+	 * Retrieves the reports which failed to generate.
+	 *
+	 * @return The descriptions of the failed reports.
+	 */
+	public ArrayList<String> getFailedReports() {
+		return failedReports;
+	}
+
+	/**
+	 * Records that a report of the job was generated and saved.
+	 */
+	public void reportGenerated() {
+		generatedReports++;
+	}
+
+	/**
+	 * Records that a report of the job failed to generate.
+	 *
+	 * @param report A description of the report.
+	 */
+	public void reportFailed(String report) {
+		failedReports.add(report);
+	}
+
+	/**
+	 * Indicates whether all the reports of the job were handled.
+	 *
+	 * @return {@code true} if no report of the job is still waiting or being
+	 *         generated.
+	 */
+	public boolean isDone() {
+		return generatedReports + failedReports.size() == totalReports;
+	}
+
+	/**
+	 * Indicates whether the job is done and all its reports were generated.
+	 *
+	 * @return {@code true} if every report of the job was generated.
+	 */
+	public boolean isSuccessful() {
+		return generatedReports == totalReports;
+	}
+
+	/**
+	 * Returns a string representation of the job's progress.
+	 *
+	 * @return The description of the job and how many of its reports are done.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: %d of %d reports generated, %d failed", description, generatedReports, totalReports,
+				failedReports.size());
+	}
+}
@@ -18,6 +18,12 @@ public class ServerResponseBackToClient implements Serializable {
 	/** The message associated with the response. */
 	private Object message;
 
+	/**
+	 * The ID of the request this response answers, or 0 if the server sent it on its own (such as a server
+	 * disconnection notice).
+	 */
+	private long requestId;
+
 	/**
 	 * Constructs a new ServerResponseBackToClient object with the given server
 	 * response and message.
@@ -66,4 +72,22 @@ public class ServerResponseBackToClient implements Serializable {
 		this.message = message;
 	}
 
+	/**
+	 * Retrieves the ID of the request this response answers.
+	 * 
+	 * @return The request ID, or 0 if the response was not sent as an answer to a request.
+	 */
+	public long getRequestId() {
+		return requestId;
+	}
+
+	/**
+	 * Sets the ID of the request this response answers.
+	 * 
+	 * @param requestId The request ID to be set.
+	 */
+	public void setRequestId(long requestId) {
+		this.requestId = requestId;
+	}
+
 }
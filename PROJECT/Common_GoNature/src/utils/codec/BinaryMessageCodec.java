@@ -0,0 +1,617 @@
+package utils.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import logic.ClientRequestDataContainer;
+import logic.Employee;
+import logic.ExternalUser;
+import logic.Guide;
+import logic.Order;
+import logic.Park;
+import logic.Request;
+import logic.ServerResponseBackToClient;
+import logic.User;
+import logic.Visitor;
+import utils.enums.ClientRequest;
+import utils.enums.EmployeeTypeEnum;
+import utils.enums.OrderStatusEnum;
+import utils.enums.OrderTypeEnum;
+import utils.enums.ParkNameEnum;
+import utils.enums.ReportType;
+import utils.enums.RequestStatusEnum;
+import utils.enums.RequestTypeEnum;
+import utils.enums.ServerResponse;
+import utils.enums.UserStatus;
+import utils.enums.UserTypeEnum;
+
+/**
+ * The BinaryMessageCodec writes the requests, the responses and the entities they carry in a compact binary format
+ * with a fixed schema for each type, instead of Java serialization.
+ * Every value starts with a one byte tag which tells its type. Whole numbers are written as variable length integers
+ * (small numbers take one byte), strings as UTF-8, dates as seconds since the epoch, enums as the index of their type
+ * followed by their ordinal, and the entities as their fields in a fixed order with no field names and no class
+ * descriptors. ArrayList and HashMap are written item by item. A string which appears
+ * again in the same message (the park, the e-mail and the phone of a visitor's orders, for example) is written as
+ * the index of its first appearance.
+ * A value of any other type (reports, for example) is written with Java serialization inside the binary message, so
+ * every Serializable message can still be sent. Shared references are not kept: an object which appears twice in a
+ * message is decoded as two equal objects.
+ * A message is encoded into an array and decoded from one, without the synchronized streams of java.io.
+ * The schema depends on the entity classes and the enums, so the client and the server must be built from the same
+ * Common project (which they are); the codec ID changes whenever the schema does.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class BinaryMessageCodec implements MessageCodec {
+
+	/** The ID of this codec, and the version of its schema. */
+	public static final byte ID = 1;
+
+	// the tags of the values.
+	private static final int NULL = 0;
+	private static final int TRUE = 1;
+	private static final int FALSE = 2;
+	private static final int INT = 3;
+	private static final int LONG = 4;
+	private static final int DOUBLE = 5;
+	private static final int STRING = 6;
+	private static final int BYTES = 7;
+	private static final int LOCAL_DATE_TIME = 8;
+	private static final int LOCAL_DATE = 9;
+	private static final int ENUM = 10;
+	private static final int LIST = 11;
+	private static final int MAP = 12;
+	private static final int STRING_REFERENCE = 13;
+	private static final int REQUEST_CONTAINER = 20;
+	private static final int RESPONSE = 21;
+	private static final int ORDER = 22;
+	private static final int PARK = 23;
+	private static final int REQUEST = 24;
+	private static final int USER = 25;
+	private static final int EMPLOYEE = 26;
+	private static final int GUIDE = 27;
+	private static final int VISITOR = 28;
+	private static final int EXTERNAL_USER = 29;
+	private static final int SERIALIZED = 127;
+
+	// the enums with a schema, an enum value is written as the index of its type in this array and its ordinal.
+	private static final Class<?>[] ENUM_TYPES = { ClientRequest.class, ServerResponse.class, OrderStatusEnum.class,
+			OrderTypeEnum.class, ParkNameEnum.class, UserTypeEnum.class, UserStatus.class, EmployeeTypeEnum.class,
+			RequestStatusEnum.class, RequestTypeEnum.class, ReportType.class };
+	private static final Map<Class<?>, Integer> ENUM_TYPE_INDEX = new HashMap<>();
+	static {
+		for (int i = 0; i < ENUM_TYPES.length; i++)
+			ENUM_TYPE_INDEX.put(ENUM_TYPES[i], i);
+	}
+
+	// a list or a map is pre-allocated up to this size, so a corrupted size can't exhaust the memory.
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	@Override
+	public byte getId() {
+		return ID;
+	}
+
+	@Override
+	public String getName() {
+		return "Binary v" + ID;
+	}
+
+	@Override
+	public void encode(Object message, OutputStream out) throws IOException {
+		Writer writer = new Writer();
+		writeValue(writer, message);
+		out.write(writer.buffer, 0, writer.size);
+		out.flush();
+	}
+
+	@Override
+	public Object decode(InputStream in) throws IOException, ClassNotFoundException {
+		try {
+			return readValue(new Reader(in.readAllBytes()));
+		} catch (ClassCastException | IndexOutOfBoundsException ex) {
+			throw new StreamCorruptedException("The message does not match the schema: " + ex.getMessage());
+		}
+	}
+
+	// ---------------------------------------------------------------- writing
+
+	private void writeValue(Writer out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+			return;
+		}
+
+		Class<?> type = value.getClass();
+		if (type == Boolean.class) {
+			out.writeByte((Boolean) value ? TRUE : FALSE);
+		} else if (type == Integer.class) {
+			out.writeByte(INT);
+			out.writeInt((Integer) value);
+		} else if (type == Long.class) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		} else if (type == Double.class) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (type == String.class) {
+			out.writeString((String) value);
+		} else if (type == byte[].class) {
+			out.writeByte(BYTES);
+			out.writeBytes((byte[]) value);
+		} else if (type == LocalDateTime.class) {
+			LocalDateTime dateTime = (LocalDateTime) value;
+			out.writeByte(LOCAL_DATE_TIME);
+			out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+			out.writeInt(dateTime.getNano());
+		} else if (type == LocalDate.class) {
+			out.writeByte(LOCAL_DATE);
+			out.writeLong(((LocalDate) value).toEpochDay());
+		} else if (value instanceof Enum && ENUM_TYPE_INDEX.containsKey(((Enum<?>) value).getDeclaringClass())) {
+			out.writeByte(ENUM);
+			out.writeInt(ENUM_TYPE_INDEX.get(((Enum<?>) value).getDeclaringClass()));
+			out.writeInt(((Enum<?>) value).ordinal());
+		} else if (type == ArrayList.class) {
+			ArrayList<?> list = (ArrayList<?>) value;
+			out.writeByte(LIST);
+			out.writeInt(list.size());
+			for (Object item : list)
+				writeValue(out, item);
+		} else if (type == HashMap.class) {
+			HashMap<?, ?> map = (HashMap<?, ?>) value;
+			out.writeByte(MAP);
+			out.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(out, entry.getKey());
+				writeValue(out, entry.getValue());
+			}
+		} else if (type == ClientRequestDataContainer.class) {
+			ClientRequestDataContainer container = (ClientRequestDataContainer) value;
+			out.writeByte(REQUEST_CONTAINER);
+			writeValue(out, container.getRequest());
+			out.writeLong(container.getRequestId());
+			writeValue(out, container.getData());
+		} else if (type == ServerResponseBackToClient.class) {
+			ServerResponseBackToClient response = (ServerResponseBackToClient) value;
+			out.writeByte(RESPONSE);
+			writeValue(out, response.getRensponse());
+			out.writeLong(response.getRequestId());
+			writeValue(out, response.getMessage());
+		} else if (type == Order.class) {
+			out.writeByte(ORDER);
+			writeOrder(out, (Order) value);
+		} else if (type == Park.class) {
+			out.writeByte(PARK);
+			writePark(out, (Park) value);
+		} else if (type == Request.class) {
+			out.writeByte(REQUEST);
+			writeRequest(out, (Request) value);
+		} else if (type == User.class) {
+			out.writeByte(USER);
+			writeUser(out, (User) value);
+		} else if (type == Employee.class) {
+			Employee employee = (Employee) value;
+			out.writeByte(EMPLOYEE);
+			writeUser(out, employee);
+			writeValue(out, employee.getRelatedPark());
+			writeValue(out, employee.getEmployeeType());
+		} else if (type == Guide.class) {
+			out.writeByte(GUIDE);
+			writeUser(out, (Guide) value);
+		} else if (type == Visitor.class) {
+			out.writeByte(VISITOR);
+			writeVisitor(out, (Visitor) value);
+		} else if (type == ExternalUser.class) {
+			out.writeByte(EXTERNAL_USER);
+			writeValue(out, ((ExternalUser) value).getUserType());
+		} else {
+			// no schema for this type, let Java serialization write it.
+			ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+			try (ObjectOutputStream objectOut = new ObjectOutputStream(serialized)) {
+				objectOut.writeObject(value);
+			}
+			out.writeByte(SERIALIZED);
+			out.writeBytes(serialized.toByteArray());
+		}
+	}
+
+	private void writeOrder(Writer out, Order order) throws IOException {
+		out.writeInt(order.getOrderId());
+		writeValue(out, order.getOrderType());
+		writeValue(out, order.getParkName());
+		writeValue(out, order.getFirstName());
+		writeValue(out, order.getLastName());
+		writeValue(out, order.getUserId());
+		writeValue(out, order.getOwnerType());
+		writeValue(out, order.getTelephoneNumber());
+		writeValue(out, order.getEmail());
+		writeValue(out, order.getEnterDate());
+		writeValue(out, order.getExitDate());
+		out.writeInt(order.getNumberOfVisitors());
+		writeValue(out, order.getOrderDate());
+		writeValue(out, order.getStatus());
+		writeValue(out, order.getLastStatusUpdatedTime());
+		writeValue(out, order.getOrderConfirmationTime());
+		out.writeBoolean(order.isPaid());
+		out.writeDouble(order.getPrice());
+		writeValue(out, order.getTimeOfVisit());
+	}
+
+	private void writePark(Writer out, Park park) throws IOException {
+		out.writeInt(park.getParkId());
+		writeValue(out, park.getParkName());
+		out.writeInt(park.getCurrentMaxCapacity());
+		out.writeInt(park.getCurrentInPark());
+		out.writeInt(park.getCurrentEstimatedStayTime());
+		out.writeInt(park.getCurrentEstimatedReservedSpots());
+		out.writeDouble(park.getParkEntranceFee());
+		writeValue(out, park.getDistrict());
+		out.writeInt(park.getPrice());
+	}
+
+	private void writeRequest(Writer out, Request request) throws IOException {
+		out.writeInt(request.getRequestId());
+		out.writeInt(request.getParkId());
+		writeValue(out, request.getRequestType());
+		out.writeInt(request.getOldValue());
+		out.writeInt(request.getNewValue());
+		writeValue(out, request.getRequestStatus());
+		writeValue(out, request.getRequestDate());
+	}
+
+	private void writeUser(Writer out, User user) throws IOException {
+		writeValue(out, user.getUserType());
+		writeValue(out, user.getUserId());
+		writeValue(out, user.getUsername());
+		writeValue(out, user.getPassword());
+		writeValue(out, user.getFirstName());
+		writeValue(out, user.getLastName());
+		writeValue(out, user.getPhoneNumber());
+		writeValue(out, user.getEmailAddress());
+		writeValue(out, user.getUserStatus());
+	}
+
+	private void writeVisitor(Writer out, Visitor visitor) throws IOException {
+		writeValue(out, visitor.getUserType());
+		writeValue(out, visitor.getVisitorId());
+		writeValue(out, visitor.getFirstName());
+		writeValue(out, visitor.getLastName());
+		writeValue(out, visitor.getPhoneNumber());
+		writeValue(out, visitor.getEmailAddress());
+		writeValue(out, visitor.getRelevantOrder());
+	}
+
+	// ---------------------------------------------------------------- reading
+
+	private Object readValue(Reader in) throws IOException, ClassNotFoundException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+		case NULL:
+			return null;
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case INT:
+			return in.readInt();
+		case LONG:
+			return in.readLong();
+		case DOUBLE:
+			return in.readDouble();
+		case STRING:
+			return in.readString();
+		case STRING_REFERENCE:
+			return in.readStringReference();
+		case BYTES:
+			return in.readBytes();
+		case LOCAL_DATE_TIME:
+			long epochSecond = in.readLong();
+			return LocalDateTime.ofEpochSecond(epochSecond, in.readInt(), ZoneOffset.UTC);
+		case LOCAL_DATE:
+			return LocalDate.ofEpochDay(in.readLong());
+		case ENUM:
+			Object[] constants = ENUM_TYPES[in.readInt()].getEnumConstants();
+			return constants[in.readInt()];
+		case LIST: {
+			int size = in.readSize();
+			ArrayList<Object> list = new ArrayList<>(Math.min(size, MAX_INITIAL_CAPACITY));
+			for (int i = 0; i < size; i++)
+				list.add(readValue(in));
+			return list;
+		}
+		case MAP: {
+			int size = in.readSize();
+			HashMap<Object, Object> map = new HashMap<>(Math.min(size, MAX_INITIAL_CAPACITY) * 2);
+			for (int i = 0; i < size; i++)
+				map.put(readValue(in), readValue(in));
+			return map;
+		}
+		case REQUEST_CONTAINER: {
+			ClientRequest request = (ClientRequest) readValue(in);
+			long requestId = in.readLong();
+			ClientRequestDataContainer container = new ClientRequestDataContainer(request, readValue(in));
+			container.setRequestId(requestId);
+			return container;
+		}
+		case RESPONSE: {
+			ServerResponse response = (ServerResponse) readValue(in);
+			long requestId = in.readLong();
+			ServerResponseBackToClient responseBack = new ServerResponseBackToClient(response, readValue(in));
+			responseBack.setRequestId(requestId);
+			return responseBack;
+		}
+		case ORDER:
+			return readOrder(in);
+		case PARK:
+			return readPark(in);
+		case REQUEST:
+			return readRequest(in);
+		case USER:
+			return readUser(in, new User());
+		case EMPLOYEE: {
+			Employee employee = readUser(in, new Employee());
+			employee.setRelatedPark((ParkNameEnum) readValue(in));
+			employee.setEmployeeType((EmployeeTypeEnum) readValue(in));
+			return employee;
+		}
+		case GUIDE:
+			return readUser(in, new Guide());
+		case VISITOR:
+			return readVisitor(in);
+		case EXTERNAL_USER: {
+			ExternalUser externalUser = new ExternalUser();
+			externalUser.setUserType((UserTypeEnum) readValue(in));
+			return externalUser;
+		}
+		case SERIALIZED:
+			try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(in.readBytes()))) {
+				return objectIn.readObject();
+			}
+		default:
+			throw new StreamCorruptedException("Unknown value tag: " + tag);
+		}
+	}
+
+	private Order readOrder(Reader in) throws IOException, ClassNotFoundException {
+		Order order = new Order();
+		order.setOrderId(in.readInt());
+		order.setOrderType((OrderTypeEnum) readValue(in));
+		order.setParkName((ParkNameEnum) readValue(in));
+		order.setFirstName((String) readValue(in));
+		order.setLastName((String) readValue(in));
+		order.setUserId((String) readValue(in));
+		order.setOwnerType((UserTypeEnum) readValue(in));
+		order.setTelephoneNumber((String) readValue(in));
+		order.setEmail((String) readValue(in));
+		order.setEnterDate((LocalDateTime) readValue(in));
+		order.setExitDate((LocalDateTime) readValue(in));
+		order.setNumberOfVisitors(in.readInt());
+		order.setOrderDate((String) readValue(in));
+		order.setStatus((OrderStatusEnum) readValue(in));
+		order.setLastStatusUpdatedTime((String) readValue(in));
+		order.setOrderConfirmationTime((String) readValue(in));
+		order.setPaid(in.readBoolean());
+		order.setPrice(in.readDouble());
+		order.setTimeOfVisit((String) readValue(in));
+		return order;
+	}
+
+	private Park readPark(Reader in) throws IOException, ClassNotFoundException {
+		Park park = new Park(in.readInt());
+		park.setParkName((ParkNameEnum) readValue(in));
+		park.setCurrentMaxCapacity(in.readInt());
+		park.setCurrentInPark(in.readInt());
+		park.setCurrentEstimatedStayTime(in.readInt());
+		park.setCurrentEstimatedReservedSpots(in.readInt());
+		park.setParkEntranceFee(in.readDouble());
+		park.setDistrict((String) readValue(in));
+		park.setPrice(in.readInt());
+		return park;
+	}
+
+	private Request readRequest(Reader in) throws IOException, ClassNotFoundException {
+		Request request = new Request();
+		request.setRequestId(in.readInt());
+		request.setParkId(in.readInt());
+		request.setRequestType((RequestTypeEnum) readValue(in));
+		request.setOldValue(in.readInt());
+		request.setNewValue(in.readInt());
+		request.setRequestStatus((RequestStatusEnum) readValue(in));
+		request.setRequestDate((LocalDateTime) readValue(in));
+		return request;
+	}
+
+	private <T extends User> T readUser(Reader in, T user) throws IOException, ClassNotFoundException {
+		user.setUserType((UserTypeEnum) readValue(in));
+		user.setUserId((String) readValue(in));
+		user.setUsername((String) readValue(in));
+		user.setPassword((String) readValue(in));
+		user.setFirstName((String) readValue(in));
+		user.setLastName((String) readValue(in));
+		user.setPhoneNumber((String) readValue(in));
+		user.setEmailAddress((String) readValue(in));
+		user.setUserStatus((UserStatus) readValue(in));
+		return user;
+	}
+
+	private Visitor readVisitor(Reader in) throws IOException, ClassNotFoundException {
+		UserTypeEnum userType = (UserTypeEnum) readValue(in);
+		Visitor visitor = new Visitor((String) readValue(in));
+		visitor.setUserType(userType);
+		visitor.setFirstName((String) readValue(in));
+		visitor.setLastName((String) readValue(in));
+		visitor.setPhoneNumber((String) readValue(in));
+		visitor.setEmailAddress((String) readValue(in));
+		visitor.setRelevantOrder((Order) readValue(in));
+		return visitor;
+	}
+
+	// ---------------------------------------------------------------- primitives
+
+	/**
+	 * Builds one encoded message in a growing array.
+	 */
+	private static final class Writer {
+		private byte[] buffer = new byte[256];
+		private int size;
+		// the index of every string written so far, by its value.
+		private final HashMap<String, Integer> strings = new HashMap<>();
+
+		private void ensureCapacity(int extra) {
+			if (size + extra > buffer.length)
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+		}
+
+		private void writeByte(int value) {
+			ensureCapacity(1);
+			buffer[size++] = (byte) value;
+		}
+
+		private void writeBoolean(boolean value) {
+			writeByte(value ? 1 : 0);
+		}
+
+		private void writeDouble(double value) {
+			long bits = Double.doubleToLongBits(value);
+			ensureCapacity(8);
+			for (int shift = 56; shift >= 0; shift -= 8)
+				buffer[size++] = (byte) (bits >>> shift);
+		}
+
+		/**
+		 * Writes an int as a variable length integer, after mapping small negative numbers to small positive ones.
+		 */
+		private void writeInt(int value) {
+			writeLong(value);
+		}
+
+		/**
+		 * Writes a long as a variable length integer (7 bits in each byte, the high bit tells if more bytes follow),
+		 * after mapping small negative numbers to small positive ones.
+		 */
+		private void writeLong(long value) {
+			long zigZag = (value << 1) ^ (value >> 63);
+			ensureCapacity(10);
+			while ((zigZag & ~0x7FL) != 0) {
+				buffer[size++] = (byte) ((zigZag & 0x7F) | 0x80);
+				zigZag >>>= 7;
+			}
+			buffer[size++] = (byte) zigZag;
+		}
+
+		private void writeBytes(byte[] bytes) {
+			writeInt(bytes.length);
+			ensureCapacity(bytes.length);
+			System.arraycopy(bytes, 0, buffer, size, bytes.length);
+			size += bytes.length;
+		}
+
+		/**
+		 * Writes a string with its tag, or a reference to the same string written before.
+		 */
+		private void writeString(String value) {
+			Integer index = strings.putIfAbsent(value, strings.size());
+			if (index != null) {
+				writeByte(STRING_REFERENCE);
+				writeInt(index);
+			} else {
+				writeByte(STRING);
+				writeBytes(value.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	/**
+	 * Reads one encoded message from an array.
+	 */
+	private static final class Reader {
+		private final byte[] buffer;
+		private int position;
+		// the strings read so far, in the order they appeared.
+		private final ArrayList<String> strings = new ArrayList<>();
+
+		private Reader(byte[] buffer) {
+			this.buffer = buffer;
+		}
+
+		private void require(int length) throws EOFException {
+			if (length > buffer.length - position)
+				throw new EOFException("The message ended in the middle of a value");
+		}
+
+		private int readUnsignedByte() throws EOFException {
+			require(1);
+			return buffer[position++] & 0xFF;
+		}
+
+		private boolean readBoolean() throws EOFException {
+			return readUnsignedByte() != 0;
+		}
+
+		private double readDouble() throws EOFException {
+			require(8);
+			long bits = 0;
+			for (int i = 0; i < 8; i++)
+				bits = (bits << 8) | (buffer[position++] & 0xFF);
+			return Double.longBitsToDouble(bits);
+		}
+
+		private int readInt() throws IOException {
+			return (int) readLong();
+		}
+
+		private long readLong() throws IOException {
+			long zigZag = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = readUnsignedByte();
+				zigZag |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+					return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+			throw new StreamCorruptedException("Variable length integer is too long");
+		}
+
+		private byte[] readBytes() throws IOException {
+			int length = readSize();
+			require(length);
+			byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+			position += length;
+			return bytes;
+		}
+
+		private int readSize() throws IOException {
+			int size = readInt();
+			if (size < 0)
+				throw new StreamCorruptedException("Negative size: " + size);
+			return size;
+		}
+
+		private String readString() throws IOException {
+			int length = readSize();
+			require(length);
+			String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+			position += length;
+			strings.add(value);
+			return value;
+		}
+
+		private String readStringReference() throws IOException {
+			return strings.get(readInt());
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package utils.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import logic.ClientRequestDataContainer;
+import logic.Order;
+import logic.ServerResponseBackToClient;
+import utils.enums.ClientRequest;
+import utils.enums.OrderStatusEnum;
+import utils.enums.OrderTypeEnum;
+import utils.enums.ParkNameEnum;
+import utils.enums.ServerResponse;
+import utils.enums.UserTypeEnum;
+
+/**
+ * The CodecBenchmark class compares the message codecs on typical messages: the size of each encoded message, and
+ * the average time to encode it and to decode it. The Java serialization codec is the same path the framed protocol
+ * used before the codecs were added (one ObjectOutputStream for each message).
+ * It also checks that every message survives a round trip through the binary codec unchanged: the decoded message is
+ * compared with the original field by field, so a field the codec drops or garbles is found.
+ * Run it with no arguments.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class CodecBenchmark {
+
+	private static final int WARMUP_ROUNDS = 20_000;
+	private static final int MEASURED_ROUNDS = 50_000;
+
+	public static void main(String[] args) throws Exception {
+		MessageCodec[] codecs = { new JavaSerializationCodec(), new BinaryMessageCodec() };
+
+		ArrayList<Order> orders = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			orders.add(createOrder(1000 + i));
+
+		Object[] messages = { new ClientRequestDataContainer(ClientRequest.Login_As_Visitor, "204512345"),
+				new ServerResponseBackToClient(ServerResponse.Order_Found, createOrder(1000)),
+				new ServerResponseBackToClient(ServerResponse.Order_Found, orders) };
+		((ClientRequestDataContainer) messages[0]).setRequestId(17);
+		((ServerResponseBackToClient) messages[1]).setRequestId(18);
+		((ServerResponseBackToClient) messages[2]).setRequestId(19);
+		String[] names = { "login request", "response with 1 order", "response with 50 orders" };
+
+		for (int i = 0; i < messages.length; i++)
+			checkRoundTrip(new BinaryMessageCodec(), messages[i], names[i]);
+
+		System.out.printf("%-25s %-20s %10s %12s %12s%n", "message", "codec", "bytes", "encode (us)", "decode (us)");
+		for (int i = 0; i < messages.length; i++) {
+			for (MessageCodec codec : codecs) {
+				byte[] encoded = encode(codec, messages[i]);
+				run(codec, messages[i], encoded, WARMUP_ROUNDS);
+				long encodeNanos = timeEncode(codec, messages[i], MEASURED_ROUNDS);
+				long decodeNanos = timeDecode(codec, encoded, MEASURED_ROUNDS);
+				System.out.printf("%-25s %-20s %10d %12.2f %12.2f%n", names[i], codec.getName(), encoded.length,
+						encodeNanos / 1000.0 / MEASURED_ROUNDS, decodeNanos / 1000.0 / MEASURED_ROUNDS);
+			}
+		}
+	}
+
+	/**
+	 * Creates an order of one visitor as the database queries do, with new strings in every order.
+	 */
+	private static Order createOrder(int orderId) {
+		LocalDateTime enterDate = LocalDateTime.of(2024, 3, 14, 10, 0).plusDays(orderId % 30);
+		Order order = new Order(orderId, ParkNameEnum.Banias, new String("204512345"), UserTypeEnum.Visitor,
+				enterDate, enterDate.plusHours(4), orderId % 2, OrderStatusEnum.Wait_Notify,
+				new String("visitor@gonature.co.il"), new String("0521234567"), new String("Israel"),
+				new String("Israeli"), OrderTypeEnum.Family_PreOrder, 1 + orderId % 8, 50.0 * (1 + orderId % 8));
+		order.setOrderDate(enterDate.minusDays(10).toString());
+		order.setLastStatusUpdatedTime(enterDate.minusDays(10).toString());
+		order.setTimeOfVisit(new String("10:00"));
+		return order;
+	}
+
+	/**
+	 * Encodes a message and decodes it, and fails if the decoded message differs from the original in any field.
+	 */
+	private static void checkRoundTrip(MessageCodec codec, Object message, String name) throws Exception {
+		Object decoded = codec.decode(new ByteArrayInputStream(encode(codec, message)));
+		String difference = findDifference(message, decoded, "message");
+		if (difference != null)
+			throw new IllegalStateException(name + " changed in a round trip through " + codec.getName() + ": "
+					+ difference);
+	}
+
+	/**
+	 * Compares two objects field by field, through their collections, maps and arrays, as Java serialization would
+	 * copy them (static and transient fields are skipped). Classes of the JDK are compared with equals.
+	 *
+	 * @return where and how the objects differ, or null if they are the same.
+	 */
+	private static String findDifference(Object expected, Object actual, String path) throws IllegalAccessException {
+		if (expected == null || actual == null)
+			return expected == actual ? null : path + " is " + actual + " instead of " + expected;
+		if (expected.getClass() != actual.getClass())
+			return path + " is a " + actual.getClass().getName() + " instead of a " + expected.getClass().getName();
+
+		if (expected.getClass().isArray()) {
+			if (Array.getLength(expected) != Array.getLength(actual))
+				return path + " has " + Array.getLength(actual) + " items instead of " + Array.getLength(expected);
+			for (int i = 0; i < Array.getLength(expected); i++) {
+				String difference = findDifference(Array.get(expected, i), Array.get(actual, i), path + "[" + i + "]");
+				if (difference != null)
+					return difference;
+			}
+			return null;
+		}
+		if (expected instanceof Collection) {
+			Collection<?> expectedItems = (Collection<?>) expected;
+			Collection<?> actualItems = (Collection<?>) actual;
+			if (expectedItems.size() != actualItems.size())
+				return path + " has " + actualItems.size() + " items instead of " + expectedItems.size();
+			Iterator<?> actualIterator = actualItems.iterator();
+			int i = 0;
+			for (Object item : expectedItems) {
+				String difference = findDifference(item, actualIterator.next(), path + "[" + i++ + "]");
+				if (difference != null)
+					return difference;
+			}
+			return null;
+		}
+		if (expected instanceof Map) {
+			Map<?, ?> expectedEntries = (Map<?, ?>) expected;
+			Map<?, ?> actualEntries = (Map<?, ?>) actual;
+			if (!expectedEntries.keySet().equals(actualEntries.keySet()))
+				return path + " has the keys " + actualEntries.keySet() + " instead of " + expectedEntries.keySet();
+			for (Map.Entry<?, ?> entry : expectedEntries.entrySet()) {
+				String difference = findDifference(entry.getValue(), actualEntries.get(entry.getKey()),
+						path + "[" + entry.getKey() + "]");
+				if (difference != null)
+					return difference;
+			}
+			return null;
+		}
+		if (expected.getClass().getName().startsWith("java.") || expected instanceof Enum)
+			return expected.equals(actual) ? null : path + " is " + actual + " instead of " + expected;
+
+		for (Class<?> type = expected.getClass(); type != null; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()))
+					continue;
+				field.setAccessible(true);
+				String difference = findDifference(field.get(expected), field.get(actual),
+						path + "." + field.getName());
+				if (difference != null)
+					return difference;
+			}
+		}
+		return null;
+	}
+
+	private static byte[] encode(MessageCodec codec, Object message) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+		codec.encode(message, out);
+		return out.toByteArray();
+	}
+
+	private static void run(MessageCodec codec, Object message, byte[] encoded, int rounds) throws Exception {
+		timeEncode(codec, message, rounds);
+		timeDecode(codec, encoded, rounds);
+	}
+
+	private static long timeEncode(MessageCodec codec, Object message, int rounds) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			out.reset();
+			codec.encode(message, out);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static long timeDecode(MessageCodec codec, byte[] encoded, int rounds) throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++)
+			codec.decode(new ByteArrayInputStream(encoded));
+		return System.nanoTime() - start;
+	}
+}
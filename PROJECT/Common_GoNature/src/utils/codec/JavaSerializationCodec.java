@@ -0,0 +1,40 @@
+package utils.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * The JavaSerializationCodec encodes every message with its own ObjectOutputStream. It is the codec every client and
+ * server supports, and the one used when the two sides don't agree on another one.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class JavaSerializationCodec implements MessageCodec {
+
+	/** The ID of this codec. */
+	public static final byte ID = 0;
+
+	@Override
+	public byte getId() {
+		return ID;
+	}
+
+	@Override
+	public String getName() {
+		return "Java serialization";
+	}
+
+	@Override
+	public void encode(Object message, OutputStream out) throws IOException {
+		ObjectOutputStream objectOut = new ObjectOutputStream(out);
+		objectOut.writeObject(message);
+		objectOut.flush();
+	}
+
+	@Override
+	public Object decode(InputStream in) throws IOException, ClassNotFoundException {
+		return new ObjectInputStream(in).readObject();
+	}
+}
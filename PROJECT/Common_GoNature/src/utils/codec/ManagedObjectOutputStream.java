@@ -0,0 +1,124 @@
+package utils.codec;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * The ManagedObjectOutputStream is the object stream of a whole session with a client or with the server (the
+ * object stream protocol of OCSF). An ObjectOutputStream remembers every object it wrote, so it can write a reference
+ * instead when the same object is written again. On a stream which lives as long as the session this means the
+ * stream holds every message ever sent (and so does the ObjectInputStream on the other side), and an object which
+ * changed since it was sent arrives as the old copy the other side already has.
+ * This stream resets itself, which makes both sides forget the objects written before, after a number of messages or
+ * after a number of bytes, whichever comes first. Resetting after every message (the default) is the only safe
+ * choice for messages which may hold an object sent before and changed since; a larger interval saves the class
+ * descriptions written again after every reset, for messages which are never changed once sent.
+ * Output is buffered, and flushed after every message. The stream also counts the messages and the bytes it wrote.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ManagedObjectOutputStream extends ObjectOutputStream {
+
+	/** The size of the output buffer. */
+	public static final int BUFFER_SIZE = 8 * 1024;
+
+	private final CountingOutputStream counter;
+	private final int messagesBetweenResets;
+	private final long bytesBetweenResets;
+
+	private int messagesSinceReset = 0;
+	private long bytesAtLastReset;
+	private volatile long messagesWritten = 0;
+	private volatile long resetCount = 0;
+
+	/**
+	 * Creates the stream and writes its header at once, so the other side may create its ObjectInputStream.
+	 *
+	 * @param out the stream to write to, usually the output stream of a socket.
+	 * @param messagesBetweenResets the number of messages after which the stream is reset, 1 to reset after every
+	 *        message.
+	 * @param bytesBetweenResets the number of bytes after which the stream is reset, even if fewer messages were
+	 *        written.
+	 * @throws IOException if the header can't be written.
+	 */
+	public ManagedObjectOutputStream(OutputStream out, int messagesBetweenResets, long bytesBetweenResets)
+			throws IOException {
+		this(new CountingOutputStream(new BufferedOutputStream(out, BUFFER_SIZE)), messagesBetweenResets,
+				bytesBetweenResets);
+	}
+
+	private ManagedObjectOutputStream(CountingOutputStream counter, int messagesBetweenResets,
+			long bytesBetweenResets) throws IOException {
+		super(counter);
+		this.counter = counter;
+		this.messagesBetweenResets = Math.max(1, messagesBetweenResets);
+		this.bytesBetweenResets = Math.max(1, bytesBetweenResets);
+		flush();
+		bytesAtLastReset = counter.count;
+	}
+
+	/**
+	 * Writes one message, resets the stream if the interval or the size limit was reached, and flushes it.
+	 *
+	 * @param message the message.
+	 * @throws IOException if the message can't be written.
+	 */
+	public void writeMessage(Object message) throws IOException {
+		writeObject(message);
+		messagesWritten++;
+		messagesSinceReset++;
+		if (messagesSinceReset >= messagesBetweenResets || counter.count - bytesAtLastReset >= bytesBetweenResets) {
+			reset();
+			resetCount++;
+			messagesSinceReset = 0;
+			bytesAtLastReset = counter.count;
+		}
+		flush();
+	}
+
+	/**
+	 * @return the number of bytes written, including the header and the resets.
+	 */
+	public long getBytesWritten() {
+		return counter.count;
+	}
+
+	/**
+	 * @return the number of messages written with {@link #writeMessage(Object)}.
+	 */
+	public long getMessagesWritten() {
+		return messagesWritten;
+	}
+
+	/**
+	 * @return the number of times the stream was reset.
+	 */
+	public long getResetCount() {
+		return resetCount;
+	}
+
+	/**
+	 * Counts the bytes which pass through it.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+		private volatile long count = 0;
+
+		private CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
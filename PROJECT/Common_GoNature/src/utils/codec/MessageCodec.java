@@ -0,0 +1,44 @@
+package utils.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A MessageCodec turns the messages exchanged by the client and the server into bytes and back. Each message is
+ * encoded on its own, into one frame of the framed protocol. The client asks for a codec by its ID when it connects,
+ * and the server answers with the ID of the codec it will use (the Java serialization codec, ID 0, if it does not
+ * know the requested one), so both sides always use the same codec.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public interface MessageCodec {
+
+	/**
+	 * @return the ID of the codec, sent when the connection is opened.
+	 */
+	byte getId();
+
+	/**
+	 * @return the name of the codec, for logs.
+	 */
+	String getName();
+
+	/**
+	 * Writes one message.
+	 *
+	 * @param message the message, may be null.
+	 * @param out the stream to write to.
+	 * @throws IOException if the message can't be encoded or written.
+	 */
+	void encode(Object message, OutputStream out) throws IOException;
+
+	/**
+	 * Reads one message.
+	 *
+	 * @param in the stream to read from, holding exactly one encoded message.
+	 * @return the message.
+	 * @throws IOException if the message can't be read.
+	 * @throws ClassNotFoundException if the class of an object in the message is unknown.
+	 */
+	Object decode(InputStream in) throws IOException, ClassNotFoundException;
+}
@@ -77,4 +77,22 @@ public enum ServerResponse {
 	
 	User_Logout_Successfully, // irrelevant, user can logout by it's own.
 	Query_Failed,
+	
+	Gate_Feed_Subscribed,
+	Gate_Feed_Unsubscribed,
+	Gate_Feed_Snapshot, // pushed after subscribing, all the orders of the park for today
+	Gate_Order_Changed, // pushed when an order of the park for today was added or changed its status
+	Gate_Order_Removed, // pushed when an order was deleted
+	
+	Available_Dates_Watched,
+	Available_Dates_Unwatched,
+	Available_Dates_Changed, // pushed after watching, and whenever the available dates of the watched window change
+	
+	Report_Job_Submitted,
+	Report_Job_Rejected, // when the report workers are too busy to accept the job
+	Report_Job_Not_Found,
+	Report_Job_Progress, // pushed after every report of the job was generated, and sent when asked for the status
+	Report_Job_Completed, // pushed when all the reports of the job are done
+	
+	Report_Chunk, // sent before the response to a report download, a part of the report's PDF
 }
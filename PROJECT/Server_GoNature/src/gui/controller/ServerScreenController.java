@@ -1,10 +1,13 @@
 package gui.controller;
 
 import java.net.URL;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -17,8 +20,10 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import jdbc.DBConnectionDetails;
 import logic.ClientConnection;
-import ocsf.ConnectionToClient;
+import logic.SessionRegistry;
 import server.GoNatureServer;
+import server.ServerLog;
+import server.ServerView;
 
 
 /**
@@ -36,7 +41,7 @@ import server.GoNatureServer;
  * The ServerGuiController class is the controller which connect the Server Gui Screen 
  * with the GoNatureServer instance (and the user who click on the buttons)
  */
-public class ServerScreenController implements Initializable {
+public class ServerScreenController implements Initializable, ServerView {
 	
 	//javaFX binding elements
 	@FXML
@@ -65,10 +70,24 @@ public class ServerScreenController implements Initializable {
 	private TableColumn<ClientConnection,String> statusColumn;
 	
 	
+	// The connected clients table shows the sessions of the SessionRegistry, at most a few times a second.
+	private static final long CLIENTS_TABLE_REFRESH_MILLIS = 250;
+	private static final ScheduledExecutorService clientsTableRefresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Clients table refresher");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
 	// Observable collection in order to bind it to the table view.
 	private final ObservableList<ClientConnection> connectedClientsList = FXCollections.observableArrayList();
-	// Serial number of lines in log screen.
-	private int logLine=1;
+	// true while a refresh of the clients table is scheduled.
+	private final AtomicBoolean clientsTableRefreshPending = new AtomicBoolean(false);
+	private final Runnable sessionsChangedListener = this::onSessionsChanged;
+	// The log screen keeps about this many of the latest characters of the log.
+	private static final int MAX_LOG_SCREEN_CHARS = 200_000;
+	// The log lines which wait for the FX thread, and true while they are scheduled to be appended.
+	private final StringBuilder pendingLogLines = new StringBuilder();
+	private final AtomicBoolean logAppendPending = new AtomicBoolean(false);
 	
 	// Empty Constructor
 	public ServerScreenController() {}
@@ -76,7 +95,7 @@ public class ServerScreenController implements Initializable {
 	@Override
 	public void initialize(URL location, ResourceBundle resources) {
 		importData.setVisible(false);
-		
+		ServerLog.getInstance().setView(this::onLogLines);
 	}
 	
 	public ObservableList<ClientConnection> getClientsList(){
@@ -84,15 +103,45 @@ public class ServerScreenController implements Initializable {
 	}
 	
 	/**
-	 * This method write to log.
+	 * This method write to log. It may be called by any thread, and doesn't wait: the message is written to the
+	 * log screen by the ServerLog, in batches.
 	 * @param msg - The String message we want to write to log screen.
 	 */
-	public synchronized void printToLogConsole(String msg) {
-		System.out.println(msg);
-        LocalTime currentTime = LocalTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm:ss");
-        String formattedTime = currentTime.format(formatter);
-		serverLog.appendText(String.format("%d. [%s] - %s\n", logLine++,formattedTime,msg));
+	public void printToLogConsole(String msg) {
+		ServerLog.getInstance().log(msg);
+	}
+	
+	/**
+	 * This method is called by the ServerLog with every batch of log lines, on the log's thread. The lines wait until
+	 * the FX thread is free, and all the lines which arrived meanwhile are appended at once.
+	 * @param lines - The formatted log lines.
+	 */
+	private void onLogLines(String lines) {
+		synchronized (pendingLogLines) {
+			pendingLogLines.append(lines);
+		}
+		if (logAppendPending.compareAndSet(false, true))
+			Platform.runLater(this::appendLogLines);
+	}
+	
+	/**
+	 * This method appends the waiting log lines to the log screen, and drops the oldest lines when the log screen
+	 * holds too many. Runs on the FX thread.
+	 */
+	private void appendLogLines() {
+		String lines;
+		logAppendPending.set(false);
+		synchronized (pendingLogLines) {
+			lines = pendingLogLines.toString();
+			pendingLogLines.setLength(0);
+		}
+		serverLog.appendText(lines);
+		int length = serverLog.getLength();
+		if (length > MAX_LOG_SCREEN_CHARS) {
+			// cut at the end of a line, so the screen starts with a whole line.
+			int cut = serverLog.getText().indexOf('\n', length - MAX_LOG_SCREEN_CHARS);
+			serverLog.deleteText(0, cut < 0 ? length : cut + 1);
+		}
 	}
 	
 	/**
@@ -117,7 +166,6 @@ public class ServerScreenController implements Initializable {
 			database.setPassword(dbPasswordField.getText());
 			// start the server
 			GoNatureServer.startServer(database, portNumber, this);
-			logLine=1;
 			serverLog.clear();
 			importData.setVisible(true);
 			// initialize the table view
@@ -160,31 +208,28 @@ public class ServerScreenController implements Initializable {
 		printToLogConsole("User data import failed");
 	}
 	/**
-	 * This method add specific client to the connected clients table view in the gui screen.
-	 * @param client- The ConnectionToClient instance which include the details of the client.
-	 * @param username- The connected user's username.
+	 * This method is called by the SessionRegistry after every login and logout, on the thread which made the change.
+	 * The clients table is refreshed once for all the changes made in the next CLIENTS_TABLE_REFRESH_MILLIS, so a burst
+	 * of logins does not flood the FX thread.
 	 */
-	public void addToConnected(ConnectionToClient client,String username) {
-		connectedClientsList.add(new ClientConnection(username,client));
+	private void onSessionsChanged() {
+		if (clientsTableRefreshPending.compareAndSet(false, true))
+			clientsTableRefresher.schedule(() -> Platform.runLater(this::refreshClientsTable),
+					CLIENTS_TABLE_REFRESH_MILLIS, TimeUnit.MILLISECONDS);
 	}
 	
 	/**
-	 * This method remove specific client from the connected clients table view in the gui screen.
-	 * This method called from server when client has been disconnected.
-	 * @param client - The ConnectionToClient instance which include the details of the client.
+	 * This method copies the current sessions into the clients table. Runs on the FX thread.
 	 */
-	public void removeFromConnected(ConnectionToClient client) {
-		for(ClientConnection c: connectedClientsList) {
-			if(c.getHostIp().equals(client.getInetAddress().getHostAddress())&&c.getHostName().equals(client.getInetAddress().getHostName())) {
-				connectedClientsList.remove(c);
-				return;
-			}
-		}
+	private void refreshClientsTable() {
+		clientsTableRefreshPending.set(false);
+		connectedClientsList.setAll(SessionRegistry.getInstance().getSessions());
 	}
 	
 	/**
 	 * This method enable the disconnect server button and update all other gui elements.
 	 */
+	@Override
 	public void connectionSuccessfull() {
 		disconnectServer.setDisable(false);
 		disableFields(true);
@@ -198,6 +243,8 @@ public class ServerScreenController implements Initializable {
 		hostColumn.setCellValueFactory(new PropertyValueFactory<ClientConnection, String>("hostName"));
 		statusColumn.setCellValueFactory(new PropertyValueFactory<ClientConnection, String>("username"));
 		clientsTable.setItems(connectedClientsList);
+		SessionRegistry.getInstance().addChangeListener(sessionsChangedListener);
+		refreshClientsTable();
 	}
 	
 	/**
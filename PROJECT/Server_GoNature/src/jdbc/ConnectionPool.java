@@ -0,0 +1,381 @@
+package jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.RequestMetrics;
+
+/**
+ * A bounded pool of JDBC connections to the MySQL database.
+ * At most {@code maxPoolSize} connections are borrowed at the same time, a caller which finds the pool exhausted
+ * waits up to {@code borrowTimeoutMillis} before the borrow fails. Connections which were idle for a while are
+ * validated before they are handed out, and connections which were idle for longer than {@code idleTimeoutMillis}
+ * are closed by a background evictor (down to {@code minIdle} connections).
+ *
+ * The connections handed out by {@link #borrowConnection()} are wrappers of the physical connections. Closing such
+ * a wrapper returns the physical connection to the pool, closes every statement created through it and rolls back any
+ * transaction left open, so the query classes can simply use try-with-resources.
+ *
+ * Every query borrows its connection from here, so the permits also bound the number of threads which run JDBC calls
+ * at the same time. When the requests run on virtual threads, any number of them may wait for a permit, but no more
+ * than {@code maxPoolSize} of them work against the DB (and hold a carrier thread inside the driver).
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ConnectionPool {
+
+	// an idle connection is validated with a round trip only if it was not used for this long.
+	private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+	private static final long EVICTION_INTERVAL_MILLIS = 30_000;
+
+	private final String url;
+	private final String username;
+	private final String password;
+	private final int maxPoolSize;
+	private final int minIdle;
+	private final long borrowTimeoutMillis;
+	private final long idleTimeoutMillis;
+
+	// one permit for each connection that may be borrowed.
+	private final Semaphore permits;
+	// idle physical connections, the most recently used first.
+	private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+	private final ScheduledExecutorService evictor;
+	private volatile boolean closed = false;
+
+	// statistics
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong borrowTimeouts = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong createdConnections = new AtomicLong();
+	private final AtomicLong destroyedConnections = new AtomicLong();
+	private final AtomicLong failedValidations = new AtomicLong();
+
+	/**
+	 * An idle physical connection and the time it was returned to the pool.
+	 */
+	private static class IdleConnection {
+		private final Connection connection;
+		private final long idleSince;
+
+		private IdleConnection(Connection connection, long idleSince) {
+			this.connection = connection;
+			this.idleSince = idleSince;
+		}
+	}
+
+	/**
+	 * Creates a new pool and opens its first {@code minIdle} connections.
+	 *
+	 * @param url the JDBC url of the database.
+	 * @param dbDetails the database credentials and the pool settings.
+	 * @throws SQLException if the first connections could not be opened.
+	 */
+	public ConnectionPool(String url, DBConnectionDetails dbDetails) throws SQLException {
+		this.url = url;
+		this.username = dbDetails.getUsername();
+		this.password = dbDetails.getPassword();
+		this.maxPoolSize = Math.max(1, dbDetails.getMaxPoolSize());
+		this.minIdle = Math.max(0, Math.min(dbDetails.getMinIdle(), maxPoolSize));
+		this.borrowTimeoutMillis = dbDetails.getBorrowTimeoutMillis();
+		this.idleTimeoutMillis = dbDetails.getIdleTimeoutMillis();
+		this.permits = new Semaphore(maxPoolSize, true);
+		StatementProfiler.getInstance().setSlowThresholdMillis(dbDetails.getSlowQueryMillis());
+
+		// open the first connections now, so wrong credentials are reported when the server starts.
+		for (int i = 0; i < Math.max(1, minIdle); i++)
+			idleConnections.push(new IdleConnection(openPhysicalConnection(), System.currentTimeMillis()));
+
+		evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ConnectionPool evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		evictor.scheduleWithFixedDelay(this::evictIdleConnections, EVICTION_INTERVAL_MILLIS, EVICTION_INTERVAL_MILLIS,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Borrows a connection from the pool, waiting for one to be returned if all of them are in use.
+	 * The returned connection must be closed by the caller in order to return it to the pool.
+	 *
+	 * @return a connection to the database.
+	 * @throws SQLException if the pool is closed, if no connection was returned within the borrow timeout, or if a
+	 *                      new connection could not be opened.
+	 */
+	public Connection borrowConnection() throws SQLException {
+		if (closed)
+			throw new SQLException("Connection pool is closed");
+
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				borrowTimeouts.incrementAndGet();
+				throw new SQLException(String.format("Timed out after %d ms waiting for a database connection (%d in use)",
+						borrowTimeoutMillis, maxPoolSize));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection", e);
+		}
+		long waited = System.nanoTime() - start;
+		borrowCount.incrementAndGet();
+		totalWaitNanos.addAndGet(waited);
+		maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+		try {
+			return wrap(takeIdleOrOpenConnection(), start);
+		} catch (SQLException | RuntimeException ex) {
+			permits.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Closes all idle connections and stops the evictor. Connections which are borrowed at the moment are closed
+	 * when they are returned.
+	 */
+	public void close() {
+		closed = true;
+		evictor.shutdownNow();
+		ArrayList<IdleConnection> toClose;
+		synchronized (idleConnections) {
+			toClose = new ArrayList<>(idleConnections);
+			idleConnections.clear();
+		}
+		for (IdleConnection idle : toClose)
+			destroy(idle.connection);
+	}
+
+	/**
+	 * Returns a short summary of the pool state and its borrow statistics.
+	 *
+	 * @return the pool statistics as a String.
+	 */
+	public String getStatistics() {
+		long borrows = borrowCount.get();
+		double averageWaitMillis = borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+		return String.format(
+				"DB pool: %d in use, %d idle (max %d) | borrows: %d, timeouts: %d, avg wait: %.2f ms, max wait: %.2f ms | created: %d, closed: %d, failed validations: %d",
+				getActiveCount(), getIdleCount(), maxPoolSize, borrows, borrowTimeouts.get(), averageWaitMillis,
+				maxWaitNanos.get() / 1_000_000.0, createdConnections.get(), destroyedConnections.get(),
+				failedValidations.get());
+	}
+
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+
+	public int getActiveCount() {
+		return maxPoolSize - permits.availablePermits();
+	}
+
+	public int getIdleCount() {
+		synchronized (idleConnections) {
+			return idleConnections.size();
+		}
+	}
+
+	public long getBorrowCount() {
+		return borrowCount.get();
+	}
+
+	public long getBorrowTimeouts() {
+		return borrowTimeouts.get();
+	}
+
+	public long getTotalWaitNanos() {
+		return totalWaitNanos.get();
+	}
+
+	public long getMaxWaitNanos() {
+		return maxWaitNanos.get();
+	}
+
+	/**
+	 * Takes the most recently used idle connection (validating it if it was idle for a while), or opens a new one if
+	 * there is no valid idle connection.
+	 */
+	private Connection takeIdleOrOpenConnection() throws SQLException {
+		while (true) {
+			IdleConnection idle;
+			synchronized (idleConnections) {
+				idle = idleConnections.poll();
+			}
+			if (idle == null)
+				return openPhysicalConnection();
+
+			boolean mustValidate = System.currentTimeMillis() - idle.idleSince > VALIDATE_AFTER_IDLE_MILLIS;
+			if (!mustValidate || isValid(idle.connection))
+				return idle.connection;
+
+			failedValidations.incrementAndGet();
+			destroy(idle.connection);
+		}
+	}
+
+	private Connection openPhysicalConnection() throws SQLException {
+		Connection connection = DriverManager.getConnection(url, username, password);
+		connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		createdConnections.incrementAndGet();
+		return connection;
+	}
+
+	private boolean isValid(Connection connection) {
+		try {
+			return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns a physical connection to the pool, after closing the statements opened through it and rolling back any
+	 * unfinished transaction. A connection which can not be reset is closed instead.
+	 */
+	private void release(Connection connection, ArrayList<Statement> statements) {
+		try {
+			boolean reusable = !closed;
+			for (Statement statement : statements) {
+				try {
+					statement.close();
+				} catch (SQLException ex) {
+					// the statement is gone anyway.
+				}
+			}
+			try {
+				if (connection.isClosed()) {
+					reusable = false;
+				} else if (!connection.getAutoCommit()) {
+					connection.rollback();
+					connection.setAutoCommit(true);
+				}
+			} catch (SQLException ex) {
+				reusable = false;
+			}
+
+			if (reusable) {
+				synchronized (idleConnections) {
+					idleConnections.push(new IdleConnection(connection, System.currentTimeMillis()));
+				}
+			} else {
+				destroy(connection);
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes the connections which were idle for longer than the idle timeout, keeping at least minIdle of them.
+	 */
+	private void evictIdleConnections() {
+		ArrayList<Connection> toClose = new ArrayList<>();
+		long now = System.currentTimeMillis();
+		synchronized (idleConnections) {
+			// the oldest idle connections are at the end of the deque.
+			Iterator<IdleConnection> oldestFirst = idleConnections.descendingIterator();
+			while (oldestFirst.hasNext() && idleConnections.size() - toClose.size() > minIdle) {
+				IdleConnection idle = oldestFirst.next();
+				if (now - idle.idleSince < idleTimeoutMillis)
+					break;
+				oldestFirst.remove();
+				toClose.add(idle.connection);
+			}
+		}
+		for (Connection connection : toClose)
+			destroy(connection);
+	}
+
+	private void destroy(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException ex) {
+			// nothing to do, the connection is dropped anyway.
+		}
+		destroyedConnections.incrementAndGet();
+	}
+
+	/**
+	 * Wraps a physical connection with a proxy whose close() returns the connection to the pool.
+	 *
+	 * @param borrowStart the time the borrow started, for {@link System#nanoTime()}.
+	 */
+	private Connection wrap(Connection physical, long borrowStart) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				new PooledConnectionHandler(physical, borrowStart));
+	}
+
+	/**
+	 * The invocation handler of the borrowed connection wrappers. It keeps track of the statements created through
+	 * the wrapper and hands the physical connection back to the pool when the wrapper is closed. The time from the
+	 * borrow to the return is added to the request the thread handles, in {@link RequestMetrics}, and the statements
+	 * are handed out wrapped by the {@link StatementProfiler}, which times their executions.
+	 */
+	private class PooledConnectionHandler implements InvocationHandler {
+		private final Connection physical;
+		private final long borrowStart;
+		private final ArrayList<Statement> statements = new ArrayList<>();
+		private boolean returned = false;
+
+		private PooledConnectionHandler(Connection physical, long borrowStart) {
+			this.physical = physical;
+			this.borrowStart = borrowStart;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			switch (name) {
+			case "close":
+				if (!returned) {
+					returned = true;
+					release(physical, statements);
+					RequestMetrics.getInstance().addDatabaseTime(System.nanoTime() - borrowStart);
+				}
+				return null;
+			case "isClosed":
+				return returned || physical.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pooled" + physical.toString();
+			default:
+				break;
+			}
+
+			if (returned)
+				throw new SQLException("Connection was already returned to the pool");
+
+			try {
+				Object result = method.invoke(physical, args);
+				if (result instanceof Statement) {
+					statements.add((Statement) result);
+					String sql = name.startsWith("prepare") ? (String) args[0] : null;
+					return StatementProfiler.getInstance().wrap((Statement) result, sql);
+				}
+				return result;
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
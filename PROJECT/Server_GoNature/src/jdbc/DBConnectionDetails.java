@@ -20,6 +20,13 @@ public class DBConnectionDetails {
 	private String schemeName;
 	private String dbUserName;
 	private String dbPassword;
+	// connection pool settings
+	private int maxPoolSize = 10;
+	private int minIdle = 2;
+	private long borrowTimeoutMillis = 5000;
+	private long idleTimeoutMillis = 300000;
+	// queries which take longer are logged
+	private long slowQueryMillis = 500;
 	
 	public DBConnectionDetails(String name, String username, String password) {
 		this.schemeName=name;
@@ -53,4 +60,59 @@ public class DBConnectionDetails {
 	public void setPassword(String password) {
 		this.dbPassword=password;
 	}
+	
+	/**
+	 * @return the maximum number of database connections which may be in use at the same time.
+	 */
+	public int getMaxPoolSize() {
+		return maxPoolSize;
+	}
+	
+	public void setMaxPoolSize(int maxPoolSize) {
+		this.maxPoolSize=maxPoolSize;
+	}
+	
+	/**
+	 * @return the number of idle connections the pool keeps open even when they are not used.
+	 */
+	public int getMinIdle() {
+		return minIdle;
+	}
+	
+	public void setMinIdle(int minIdle) {
+		this.minIdle=minIdle;
+	}
+	
+	/**
+	 * @return how long (in milliseconds) a query waits for a free connection before it fails.
+	 */
+	public long getBorrowTimeoutMillis() {
+		return borrowTimeoutMillis;
+	}
+	
+	public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+		this.borrowTimeoutMillis=borrowTimeoutMillis;
+	}
+	
+	/**
+	 * @return how long (in milliseconds) an unused connection stays open before it is closed.
+	 */
+	public long getIdleTimeoutMillis() {
+		return idleTimeoutMillis;
+	}
+	
+	public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+		this.idleTimeoutMillis=idleTimeoutMillis;
+	}
+	
+	/**
+	 * @return how long (in milliseconds) a query may take before it is logged as a slow query, 0 to log none.
+	 */
+	public long getSlowQueryMillis() {
+		return slowQueryMillis;
+	}
+	
+	public void setSlowQueryMillis(long slowQueryMillis) {
+		this.slowQueryMillis=slowQueryMillis;
+	}
 }
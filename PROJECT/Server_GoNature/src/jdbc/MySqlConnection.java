@@ -1,47 +1,41 @@
 package jdbc;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
-import gui.controller.ServerScreenController;
-import javafx.application.Platform;
+import server.ServerLog;
 
 /**
- * This class manages the connection to a MySQL database using JDBC.
- * It provides methods to establish a connection, retrieve the connection object,
- * and close the connection.
+ * This class manages the connections to a MySQL database using JDBC.
+ * It owns a bounded {@link ConnectionPool}, the query classes borrow a connection from it for each query
+ * and return it by closing the connection (preferably with try-with-resources).
  * TamerAmer, GalBitton, RabeaLahham, BahaldeenSwied, RonSisso, NadavReubens.
  */
 public class MySqlConnection {
 
-	private Connection connection = null;
+	private ConnectionPool pool = null;
 	private static MySqlConnection instance = null;
 	private static DBConnectionDetails dbDetails;
-	private static ServerScreenController controller;
 	
 	
 	private MySqlConnection() throws SQLException {
 
 		try {
 			Class.forName("com.mysql.cj.jdbc.Driver").newInstance();
-			Platform.runLater((()->controller.printToLogConsole("Driver definition succeed")));
+			ServerLog.getInstance().log("Driver definition succeed");
 		} catch (Exception ex) {
-			Platform.runLater((()->controller.printToLogConsole("Driver definition failed")));
+			ServerLog.getInstance().log("Driver definition failed");
 		}
 
 		try {
 			String url = "jdbc:mysql://127.0.0.1/" + dbDetails.getName() + "?serverTimezone=Asia/Jerusalem&allowLoadLocalInfile=true";
-			connection = DriverManager.getConnection(url, dbDetails.getUsername(), dbDetails.getPassword());
-			connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+			pool = new ConnectionPool(url, dbDetails);
 
 		} catch (SQLException ex) {
-			Platform.runLater(()->{
-				controller.printToLogConsole("SQLException: " + ex.getMessage());
-				controller.printToLogConsole("SQLState: " + ex.getSQLState());
-				controller.printToLogConsole("VendorError: " + ex.getErrorCode());
-			});
-			connection = null;
+			ServerLog.getInstance().log("SQLException: " + ex.getMessage());
+			ServerLog.getInstance().log("SQLState: " + ex.getSQLState());
+			ServerLog.getInstance().log("VendorError: " + ex.getErrorCode());
+			pool = null;
 			throw ex;
 		}
 
@@ -52,7 +46,7 @@ public class MySqlConnection {
 	 * 
 	 * @return MysqlConnection object
 	 */
-	public static MySqlConnection getInstance() {
+	public static synchronized MySqlConnection getInstance() {
 		if (instance == null) {
 			try {
 				instance = new MySqlConnection();
@@ -63,43 +57,36 @@ public class MySqlConnection {
 		return instance;
 	}
 	
-    /**
-     * Returns an instance of MySqlConnection, allowing the setting of the ServerScreenController.
-     * 
-     * @param serverController The ServerScreenController instance to set
-     * @return MySqlConnection object
-     */
-	public static MySqlConnection getInstance(ServerScreenController serverController) {
-		if (instance == null) {
-			try {
-				controller=serverController;
-				instance = new MySqlConnection();
-			} catch (SQLException e) {
-				instance = null;
-			}
-		}
-		return instance;
-	}
-
 	/**
-	 * This function returns a connection to the DB
+	 * This function borrows a connection to the DB from the connection pool.
+	 * The caller must close the connection when it is done with it, closing returns it to the pool.
 	 * 
 	 * @return Connection object
+	 * @throws SQLException if no connection became free within the borrow timeout or a new one could not be opened.
 	 */
-	public Connection getConnection() {
-		return this.connection;
+	public Connection getConnection() throws SQLException {
+		return pool.borrowConnection();
+	}
+	
+	/**
+	 * Returns the connection pool, in order to read its statistics.
+	 * 
+	 * @return the connection pool of the database.
+	 */
+	public ConnectionPool getPool() {
+		return pool;
 	}
 	
     /**
-     * Closes the connection to the database.
+     * Closes all the connections to the database.
      */
 	public void closeConnection() {
-		try {
-			this.connection.close();
-			instance=null;
-		} catch (SQLException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+		String statistics = pool.getStatistics();
+		ServerLog.getInstance().log(statistics);
+		pool.close();
+		synchronized (MySqlConnection.class) {
+			if (instance == this)
+				instance=null;
 		}
 	}
 	
@@ -0,0 +1,306 @@
+package jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import server.ServerLog;
+
+/**
+ * The StatementProfiler class times every statement the server runs on the database. The statements handed out by
+ * the connections of the {@link ConnectionPool} are wrapped by it: each execution is timed and attributed to the
+ * method of the query class which ran it (OrderQueries.fetchOrderByOwnerID, for example), with the values bound to
+ * its parameters.
+ * - An execution which takes longer than the slow query threshold is logged at once, with its SQL and parameters.
+ * - An execution which fails is logged with its error, since most of the query methods only return null or false.
+ * - For every query method it counts the executions, their time and their errors, and it keeps the slowest
+ *   executions. {@link #takeReport()} returns them and starts over; the request metrics add it to their dump.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class StatementProfiler {
+
+	// the number of slowest executions kept for the report.
+	private static final int SLOWEST_KEPT = 10;
+	// the number of statements whose query method is remembered, the statements built with a different SQL every
+	// time (IN lists of any length) look for their method on each execution once the cache is full.
+	private static final int MAX_CACHED_CALLERS = 2000;
+	private static final int MAX_SQL_LENGTH = 300;
+	private static final int MAX_PARAMETER_LENGTH = 60;
+
+	private static final Comparator<Execution> FASTEST_FIRST = Comparator.comparingLong(execution -> execution.nanos);
+
+	private static final StatementProfiler instance = new StatementProfiler();
+
+	/**
+	 * The executions of one query method.
+	 */
+	private static class MethodStats {
+		private long count;
+		private long totalNanos;
+		private long maxNanos;
+		private long errors;
+	}
+
+	/**
+	 * One timed execution, kept while it is one of the slowest.
+	 */
+	private static class Execution {
+		private final String caller;
+		private final String sql;
+		private final String parameters;
+		private final long nanos;
+
+		private Execution(String caller, String sql, String parameters, long nanos) {
+			this.caller = caller;
+			this.sql = sql;
+			this.parameters = parameters;
+			this.nanos = nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.1f ms in %s: %s%s", nanos / 1_000_000.0, caller, sql, parameters);
+		}
+	}
+
+	private final ConcurrentHashMap<String, String> callers = new ConcurrentHashMap<>();
+	// guarded by this.
+	private HashMap<String, MethodStats> methodStats = new HashMap<>();
+	// the slowest executions, the fastest of them first. Guarded by this.
+	private PriorityQueue<Execution> slowest = new PriorityQueue<>(FASTEST_FIRST);
+	// an execution faster than this is not one of the slowest, read without the lock.
+	private volatile long slowestFloorNanos = 0;
+	private volatile long slowThresholdNanos = 500_000_000L;
+
+	private StatementProfiler() {
+	}
+
+	/**
+	 * @return the single instance of the profiler.
+	 */
+	public static StatementProfiler getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Sets the time from which an execution is logged as a slow query.
+	 *
+	 * @param millis the threshold in milliseconds, 0 or less to log no slow queries.
+	 */
+	public void setSlowThresholdMillis(long millis) {
+		slowThresholdNanos = millis <= 0 ? Long.MAX_VALUE : millis * 1_000_000L;
+	}
+
+	/**
+	 * Wraps a statement, so its executions are timed.
+	 *
+	 * @param statement the statement created by a connection.
+	 * @param sql       the SQL the statement was prepared with, or null for a plain statement which gets its SQL when
+	 *                  it is executed.
+	 * @return the wrapper, which implements the same interface of the statement.
+	 */
+	public Statement wrap(Statement statement, String sql) {
+		Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+				: statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+		return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new ProfiledStatementHandler(statement, sql));
+	}
+
+	/**
+	 * Returns the executions of each query method since the last report, the slowest first, and the slowest
+	 * executions, then starts over.
+	 *
+	 * @return the report, empty if no statement was executed.
+	 */
+	public String takeReport() {
+		HashMap<String, MethodStats> takenStats;
+		PriorityQueue<Execution> takenSlowest;
+		synchronized (this) {
+			takenStats = methodStats;
+			takenSlowest = slowest;
+			methodStats = new HashMap<>();
+			slowest = new PriorityQueue<>(FASTEST_FIRST);
+			slowestFloorNanos = 0;
+		}
+		if (takenStats.isEmpty())
+			return "";
+
+		ArrayList<String> methods = new ArrayList<>(takenStats.keySet());
+		methods.sort((first, second) -> Long.compare(takenStats.get(second).totalNanos,
+				takenStats.get(first).totalNanos));
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-60s %8s %8s | %10s %9s %9s%n", "Query method", "Count", "Errors", "Total ms",
+				"Avg ms", "Max ms"));
+		for (String method : methods) {
+			MethodStats stats = takenStats.get(method);
+			report.append(String.format("%-60s %8d %8d | %10.1f %9.2f %9.2f%n", method, stats.count, stats.errors,
+					stats.totalNanos / 1_000_000.0, stats.totalNanos / 1_000_000.0 / stats.count,
+					stats.maxNanos / 1_000_000.0));
+		}
+		ArrayList<Execution> executions = new ArrayList<>(takenSlowest);
+		executions.sort(FASTEST_FIRST.reversed());
+		report.append("Slowest statements:").append(System.lineSeparator());
+		for (Execution execution : executions)
+			report.append("  ").append(execution).append(System.lineSeparator());
+		return report.toString();
+	}
+
+	/**
+	 * Records an execution of a statement.
+	 */
+	private void record(String sql, Object[] parameters, long nanos, SQLException error) {
+		String caller = findCaller(sql);
+		boolean slow = nanos >= slowThresholdNanos;
+		boolean kept = nanos > slowestFloorNanos;
+		synchronized (this) {
+			MethodStats stats = methodStats.computeIfAbsent(caller, method -> new MethodStats());
+			stats.count++;
+			stats.totalNanos += nanos;
+			stats.maxNanos = Math.max(stats.maxNanos, nanos);
+			if (error != null)
+				stats.errors++;
+			if (kept && (slowest.size() < SLOWEST_KEPT || nanos > slowest.peek().nanos)) {
+				slowest.add(new Execution(caller, shorten(sql, MAX_SQL_LENGTH), describe(parameters), nanos));
+				if (slowest.size() > SLOWEST_KEPT)
+					slowest.poll();
+				if (slowest.size() == SLOWEST_KEPT)
+					slowestFloorNanos = slowest.peek().nanos;
+			}
+		}
+
+		if (error != null)
+			ServerLog.getInstance().log(String.format("Query failed in %s: %s - %s%s", caller, error.getMessage(),
+					shorten(sql, MAX_SQL_LENGTH), describe(parameters)));
+		else if (slow)
+			ServerLog.getInstance().log("Slow query, " + new Execution(caller, shorten(sql, MAX_SQL_LENGTH),
+					describe(parameters), nanos));
+	}
+
+	/**
+	 * Finds the method which executed a statement: the first method on the stack of the current thread outside the
+	 * JDBC layer. The method of each SQL is looked for only once.
+	 */
+	private String findCaller(String sql) {
+		String caller = callers.get(sql);
+		if (caller != null)
+			return caller;
+
+		caller = "unknown";
+		for (StackTraceElement frame : new Throwable().getStackTrace()) {
+			String className = frame.getClassName();
+			boolean jdbcLayer = className.startsWith("jdbc.") && !className.startsWith("jdbc.query.");
+			if (jdbcLayer || className.startsWith("java.") || className.startsWith("jdk.")
+					|| className.startsWith("sun.") || className.startsWith("com.sun.") || className.contains("$Proxy"))
+				continue;
+			caller = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+			break;
+		}
+		if (callers.size() < MAX_CACHED_CALLERS)
+			callers.putIfAbsent(sql, caller);
+		return caller;
+	}
+
+	private static String describe(Object[] parameters) {
+		if (parameters == null || parameters.length == 0)
+			return "";
+		StringBuilder description = new StringBuilder(" [");
+		for (int i = 1; i < parameters.length; i++) {
+			if (i > 1)
+				description.append(", ");
+			Object value = parameters[i];
+			description.append(i).append('=');
+			if (value == null)
+				description.append("null");
+			else if (value instanceof String)
+				description.append('\'').append(shorten((String) value, MAX_PARAMETER_LENGTH)).append('\'');
+			else if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date)
+				description.append(value);
+			else
+				// streams, blobs and byte arrays are not worth reading.
+				description.append('<').append(value.getClass().getSimpleName()).append('>');
+		}
+		return description.append(']').toString();
+	}
+
+	private static String shorten(String text, int maxLength) {
+		return text.length() <= maxLength ? text : text.substring(0, maxLength) + "...";
+	}
+
+	/**
+	 * The invocation handler of the wrapped statements. It remembers the values bound to the parameters, and times
+	 * the executions.
+	 */
+	private class ProfiledStatementHandler implements InvocationHandler {
+		private final Statement statement;
+		private final String preparedSql;
+		// the value of parameter i at index i, index 0 isn't used.
+		private Object[] parameters = new Object[0];
+
+		private ProfiledStatementHandler(Statement statement, String preparedSql) {
+			this.statement = statement;
+			this.preparedSql = preparedSql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			switch (name) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "clearParameters":
+				parameters = new Object[0];
+				break;
+			default:
+				if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer)
+					bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+				break;
+			}
+
+			if (!name.startsWith("execute"))
+				return invokeStatement(method, args);
+
+			String sql = preparedSql != null ? preparedSql
+					: args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "(batch)";
+			long start = System.nanoTime();
+			try {
+				Object result = invokeStatement(method, args);
+				record(sql, parameters, System.nanoTime() - start, null);
+				return result;
+			} catch (SQLException ex) {
+				record(sql, parameters, System.nanoTime() - start, ex);
+				throw ex;
+			}
+		}
+
+		private void bind(int index, Object value) {
+			if (index <= 0)
+				return;
+			if (index >= parameters.length) {
+				Object[] grown = new Object[index + 1];
+				System.arraycopy(parameters, 0, grown, 0, parameters.length);
+				parameters = grown;
+			}
+			parameters[index] = value;
+		}
+
+		private Object invokeStatement(Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(statement, args);
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
@@ -31,8 +31,7 @@ public class CustomerQueries {
 	 * @return A ServerResponse indicating the outcome of the search operation.
 	 */
 	public ServerResponse searchForApprovedGuide(Guide guide) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("SELECT * FROM users WHERE Username = ? AND UserType = 'Guide'");
 			stmt.setString(1, guide.getUsername());
@@ -74,8 +73,7 @@ public class CustomerQueries {
 	 * @return A ServerResponse indicating the outcome of the search operation.
 	 */
 	public ServerResponse searchAccessForVisitor(Visitor visitor) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"SELECT * FROM preorders WHERE OwnerId = ? AND OrderStatus != 'Cancelled' AND OrderStatus != 'Time Passed' AND OrderStatus != 'Completed'");
 			stmt.setString(1, visitor.getCustomerId());
@@ -37,8 +37,7 @@ public class EmployeeQueries {
 	 * @return A ServerResponse indicating the outcome of the search and verification process.
 	 */
 	public ServerResponse searchForApprovedEmployee(Employee employee) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM users WHERE Username = ? AND UserType = 'Employee' ");
 			stmt.setString(1, employee.getUsername());
 			ResultSet rs = stmt.executeQuery();
@@ -79,8 +78,7 @@ public class EmployeeQueries {
 	 */
 	//NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse checkIfVisitorPaidAndConfirmed(int orderId) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT PayStatus, OrderStatus FROM preorders WHERE orderId = ?");
 			stmt.setInt(1, orderId);
 			ResultSet rs = stmt.executeQuery();
@@ -116,8 +114,7 @@ public class EmployeeQueries {
 	 */
 	public ServerResponse UpdateGuideStatusToApprove(Guide guide) //Update guide permission from Pending to Approve (Tamir/Siso)
 	{
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE users SET Status = 'Approved' WHERE UserId = ?");
 			stmt.setString(1, guide.getUserId());
 			int rs = stmt.executeUpdate();
@@ -144,8 +141,7 @@ public class EmployeeQueries {
 	 */
 	public ServerResponse ShowAllGuidesWithPendingStatus(ArrayList<Guide> guideList) //Method to pull all the requests with pending status. (Tamir/Siso)
 	{
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM users WHERE Status = 'Pending'");
 
 			ResultSet rs = stmt.executeQuery();
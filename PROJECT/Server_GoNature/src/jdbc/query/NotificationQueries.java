@@ -5,12 +5,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import jdbc.MySqlConnection;
 import logic.Order;
+import utils.enums.OrderStatusEnum;
 import utils.enums.ParkNameEnum;
 import utils.enums.UserTypeEnum;
 
@@ -24,49 +24,36 @@ import utils.enums.UserTypeEnum;
 public class NotificationQueries {
 	
 	/**
-	 * Checks all orders with a 'Notified' status and updates them to 'Cancelled' if the current
-	 * date and time surpass the order's enter date. This method is intended to automate
-	 * the cancellation process for unconfirmed notified orders.
+	 * Retrieves every order which still has a deadline ahead of it: orders waiting for the 24 hours notification
+	 * ('Wait Notify'), notified orders waiting for a confirmation ('Notified'), and orders in the waiting list
+	 * ('In Waiting List' and 'Notified Waiting List'). Used to load the deadline scheduler when the server starts.
 	 *
-	 * @param localDateTime The current local date and time to compare order enter dates against.
-	 * @return A list of orders that were automatically cancelled due to being past the enter date.
+	 * @return A list of orders with their ID, park, enter date and status. For orders notified from the waiting list,
+	 *         the last status update time holds the time the notification was sent. Returns null if an SQLException occurs.
 	 */
-	public ArrayList<Order> CheckAllOrdersAndChangeToCancelledIfNeeded(LocalDateTime localDateTime)
+	public ArrayList<Order> fetchOrdersWithDeadlines()
 	{
-		ArrayList<Order> cancelledOrders = new ArrayList<Order>();
-	    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:00");
-	    String dateTimeString = localDateTime.format(formatter);
+		ArrayList<Order> orders = new ArrayList<Order>();
 		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("SELECT OrderId,ParkId,OwnerId,OwnerType,Email,Phone,FirstName,LastName,Amount,EnterDate FROM preorders WHERE OrderStatus = 'Notified' AND EnterDate <= ?");
-			
-			stmt.setString(1, dateTimeString);
-			ResultSet rs= stmt.executeQuery();
-
-			// if the query ran successfully, but returned as empty table.
-			if (!rs.next()) {
-				return null;
-			}
-			
-			rs.previous();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
+			PreparedStatement stmt = con.prepareStatement("SELECT p.OrderId, p.ParkId, p.EnterDate, p.OrderStatus, w.notificationSentTime"
+					+ " FROM preorders AS p"
+					+ " LEFT JOIN waitinglist AS w ON p.OrderId = w.orderId"
+					+ " WHERE p.OrderStatus IN ('Wait Notify', 'Notified', 'In Waiting List', 'Notified Waiting List')");
+			ResultSet rs = stmt.executeQuery();
 			
 			while(rs.next()) {
 				Order orderToAdd = new Order();
 				orderToAdd.setOrderId(rs.getInt(1));
 				orderToAdd.setParkName(ParkNameEnum.fromParkId(rs.getInt(2)));
-				orderToAdd.setUserId(String.valueOf(rs.getInt(3)));
-				orderToAdd.setOwnerType(UserTypeEnum.fromString(rs.getString(4)));
-				orderToAdd.setEmail(rs.getString(5));
-				orderToAdd.setTelephoneNumber(rs.getString(6));
-				orderToAdd.setFirstName(rs.getString(7));
-				orderToAdd.setLastName(rs.getString(8));
-				orderToAdd.setNumberOfVisitors(rs.getInt(9));
-				orderToAdd.setEnterDate(rs.getTimestamp(10).toLocalDateTime());
-				cancelledOrders.add(orderToAdd);
+				orderToAdd.setEnterDate(rs.getTimestamp(3).toLocalDateTime());
+				orderToAdd.setStatus(OrderStatusEnum.fromString(rs.getString(4)));
+				if (rs.getTimestamp(5) != null)
+					orderToAdd.setLastStatusUpdatedTime(rs.getTimestamp(5).toLocalDateTime().toString());
+				orders.add(orderToAdd);
 			}
 			
-			return cancelledOrders;
+			return orders;
 	
 		} catch (SQLException ex) 
 		{
@@ -76,243 +63,87 @@ public class NotificationQueries {
 	}
 	
 	/**
-	 * Automatically updates the status of a specified order to 'Cancelled'.
-	 * This method is typically used to cancel orders that have not been confirmed by the user
-	 * within a specific timeframe after being notified.
+	 * Changes the status of many orders at once, but only of the orders which are still in one of the expected
+	 * statuses. The orders are locked and read, and then updated with a single statement, all in one transaction, so
+	 * a mass cancellation costs the same few round trips as a single one.
 	 *
-	 * @param order The order to be cancelled.
+	 * @param orderIds The IDs of the orders.
+	 * @param newStatus The status to change the orders to.
+	 * @param expectedStatuses The statuses an order must be in for its status to be changed.
+	 * @return The details of the orders whose status was changed (for the notifications sent to their owners), which
+	 *         may be empty. Returns null if an SQLException occurred, in which case no order was changed.
 	 */
-	public void automaticallyCancelAllNotifiedOrders(Order order) {
-		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET OrderStatus = 'Cancelled' WHERE OrderId = ?");
-			
-			stmt.setInt(1, order.getOrderId());
-			int rs = stmt.executeUpdate();
-
-			// if the query ran successfully, but returned as empty table.
-			if (rs==0) {
-				return;
-			}
-	
-		} catch (SQLException ex) 
-		{
-			ex.printStackTrace();
-			return;
-		}
-	}
-	
-	/**
-	 * Marks a specified order as 'Irrelevant'. This status change is typically used
-	 * for orders that no longer require action or attention, for instance, when an order
-	 * is outdated or has been superseded by another order.
-	 *
-	 * @param order The order to be marked as irrelevant.
-	 */
-	public void automaticallyMarkOrdersAsIrrelevant(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET OrderStatus = 'Irrelevant' WHERE OrderId = ?");
-			
-			stmt.setInt(1, order.getOrderId());
-			int rs = stmt.executeUpdate();
-
-			// if the query ran successfully, but returned as empty table.
-			if (rs==0) {
-				return;
-			}
-	
-		} catch (SQLException ex) 
-		{
-			ex.printStackTrace();
-			return;
-		}
-	}
-	
-	/**
-	 * Checks orders with a 'Wait Notify' status to see if their enter date matches the current
-	 * date and time, and updates their status to 'Notified' accordingly. This method facilitates
-	 * the process of notifying users about their upcoming orders.
-	 *
-	 * @param localDateTime The current local date and time used to check against order enter dates.
-	 * @return A list of orders that have been updated to 'Notified' status.
-	 */
-	public ArrayList<Order> CheckAllOrdersAndChangeToNotifedfNeeded(LocalDateTime localDateTime)
+	public ArrayList<Order> changeOrdersStatusIfStill(List<Integer> orderIds, OrderStatusEnum newStatus, OrderStatusEnum... expectedStatuses)
 	{
-		Connection con = MySqlConnection.getInstance().getConnection();
-
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:00");
-		String dateTimeString = localDateTime.format(formatter);
-		try {
-			ArrayList<Order> notifiedOrders = new ArrayList<Order>();
-			PreparedStatement stmt = con.prepareStatement("SELECT OrderId,ParkId,OwnerId,OwnerType,Email,Phone,FirstName,LastName,Amount FROM preorders WHERE OrderStatus = 'Wait Notify' AND EnterDate = ?");
-			stmt.setString(1, dateTimeString);
+		ArrayList<Order> changedOrders = new ArrayList<Order>();
+		if (orderIds.isEmpty())
+			return changedOrders;
+		
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
+			con.setAutoCommit(false);
+			
+			// lock the orders which are still in an expected status, and read them for the notifications.
+			PreparedStatement stmt = con.prepareStatement("SELECT OrderId,ParkId,OwnerId,OwnerType,Email,Phone,FirstName,LastName,Amount,EnterDate FROM preorders"
+					+ " WHERE OrderId IN (" + placeholders(orderIds.size()) + ") AND OrderStatus IN (" + placeholders(expectedStatuses.length) + ") FOR UPDATE");
+			int index = 1;
+			for (Integer orderId : orderIds)
+				stmt.setInt(index++, orderId);
+			for (OrderStatusEnum status : expectedStatuses)
+				stmt.setString(index++, status.toString());
 			ResultSet rs = stmt.executeQuery();
 			
-			if(!rs.next())
-				return null;
-			
-			rs.previous();
 			while(rs.next()) {
-				Order orderToAdd = new Order();
-				orderToAdd.setOrderId(rs.getInt(1));
-				orderToAdd.setParkName(ParkNameEnum.fromParkId(rs.getInt(2)));
-				orderToAdd.setUserId(String.valueOf(rs.getInt(3)));
-				orderToAdd.setOwnerType(UserTypeEnum.fromString(rs.getString(4)));
-				orderToAdd.setEmail(rs.getString(5));
-				orderToAdd.setTelephoneNumber(rs.getString(6));
-				orderToAdd.setFirstName(rs.getString(7));
-				orderToAdd.setLastName(rs.getString(8));
-				orderToAdd.setNumberOfVisitors(rs.getInt(9));
-				notifiedOrders.add(orderToAdd);
+				Order order = new Order();
+				order.setOrderId(rs.getInt(1));
+				order.setParkName(ParkNameEnum.fromParkId(rs.getInt(2)));
+				order.setUserId(String.valueOf(rs.getInt(3)));
+				order.setOwnerType(UserTypeEnum.fromString(rs.getString(4)));
+				order.setEmail(rs.getString(5));
+				order.setTelephoneNumber(rs.getString(6));
+				order.setFirstName(rs.getString(7));
+				order.setLastName(rs.getString(8));
+				order.setNumberOfVisitors(rs.getInt(9));
+				order.setEnterDate(rs.getTimestamp(10).toLocalDateTime());
+				order.setStatus(newStatus);
+				changedOrders.add(order);
 			}
 			
-			return notifiedOrders;
-			
-		} catch (SQLException ex) 
-		{
-			ex.printStackTrace();
-			return null;
-		}
-		
-	}
-	
-	/**
-	 * Automatically cancels orders that have been in a 'Notified Waiting List' status
-	 * for a specific period (e.g., 2 hours) without confirmation from the user. This method
-	 * ensures that unconfirmed orders do not indefinitely occupy space in the waiting list.
-	 *
-	 * @return A list of orders that were automatically cancelled due to lack of confirmation.
-	 */
-	public ArrayList<Order> CheckAllWaitingListOrdersAndCancelAutomaticallyIfNotConfirmed()
-	{
-		ArrayList<Order> cancelledOrders = new ArrayList<Order>();
-		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("SELECT p.OrderId, p.ParkId, p.OwnerId, p.OwnerType, p.Email, p.Phone, p.FirstName, p.LastName, p.Amount, p.EnterDate"
-					+ " FROM preorders AS p"
-					+ " JOIN waitinglist AS w ON p.OrderId = w.orderId"
-					+ " WHERE p.OrderStatus = 'Notified Waiting List'"
-					+ " AND w.notificationSentTime <= CURRENT_TIMESTAMP - INTERVAL '2' HOUR"
-					+ " AND w.notificationSentTime > CURRENT_TIMESTAMP - INTERVAL '2' HOUR - INTERVAL '1' MINUTE");
-			
-			ResultSet rs= stmt.executeQuery();
-
-			// if the query ran successfully, but returned as empty table.
-			if (!rs.next()) {
-				return null;
+			// if no order is in an expected status anymore.
+			if (changedOrders.isEmpty()) {
+				con.commit();
+				return changedOrders;
 			}
 			
-			rs.previous();
-			
-			while(rs.next()) {
-				Order orderToAdd = new Order();
-				orderToAdd.setOrderId(rs.getInt(1));
-				orderToAdd.setParkName(ParkNameEnum.fromParkId(rs.getInt(2)));
-				orderToAdd.setUserId(String.valueOf(rs.getInt(3)));
-				orderToAdd.setOwnerType(UserTypeEnum.fromString(rs.getString(4)));
-				orderToAdd.setEmail(rs.getString(5));
-				orderToAdd.setTelephoneNumber(rs.getString(6));
-				orderToAdd.setFirstName(rs.getString(7));
-				orderToAdd.setLastName(rs.getString(8));
-				orderToAdd.setNumberOfVisitors(rs.getInt(9));
-				orderToAdd.setEnterDate(rs.getTimestamp(10).toLocalDateTime());
-				cancelledOrders.add(orderToAdd);
-			}
+			stmt = con.prepareStatement("UPDATE preorders SET OrderStatus = ? WHERE OrderId IN (" + placeholders(changedOrders.size()) + ")");
+			stmt.setString(1, newStatus.toString());
+			index = 2;
+			for (Order order : changedOrders)
+				stmt.setInt(index++, order.getOrderId());
+			stmt.executeUpdate();
+			con.commit();
 			
-			return cancelledOrders;
-	
 		} catch (SQLException ex) 
 		{
+			// closing the connection rolls back the transaction.
 			ex.printStackTrace();
 			return null;
 		}
 		
+		for (Order order : changedOrders)
+			QueryControl.orderQueries.fireOrderStatusChanged(order.getOrderId(), newStatus);
+		return changedOrders;
 	}
 	
 	/**
-	 * Updates the status of specified orders from 'Wait Notify' to 'Notified'. 
-	 * This is used to mark orders for which notifications should be sent out to the users,
-	 * indicating that they need to take action (e.g., confirm or cancel the order).
-	 *
-	 * @param orderToUpdate The order whose status is to be updated.
-	 */
-	public void UpdateAllWaitNotifyOrdersToNotify(Order orderToUpdate) {
-
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET OrderStatus = 'Notified' WHERE OrderId = ?");
-			
-			stmt.setInt(1, orderToUpdate.getOrderId());
-			int rs = stmt.executeUpdate();
-
-			// if the query ran successfully, but returned as empty table.
-			if (rs==0) {
-				return;
-			}
-	
-		} catch (SQLException ex) 
-		{
-			ex.printStackTrace();
-			return;
-		}
-		
-}
-	
-	/**
-	 * Checks all orders in the waiting list and marks them as irrelevant if their
-	 * enter date is earlier than the specified localDateTime. This cleanup operation
-	 * ensures that the waiting list does not contain orders that are no longer valid.
-	 *
-	 * @param localDateTime The current local date and time used for comparison.
-	 * @return A list of orders that were marked as irrelevant.
+	 * Returns the parameter markers of an SQL IN list, such as "?, ?, ?".
 	 */
-	public ArrayList<Order> CheckWaitingListAndRemoveAllIrrelcantOrders(LocalDateTime localDateTime)
-	{   
-		ArrayList<Order> irrelevantOrders = new ArrayList<Order>();
-	    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:00");
-	    String dateTimeString = localDateTime.format(formatter);
-		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("SELECT OrderId,ParkId,OwnerId,OwnerType,Email,Phone,FirstName,LastName,Amount FROM preorders WHERE (OrderStatus = 'In Waiting List' OR OrderStatus = 'Notified Waiting List') AND EnterDate < ?");
-			
-			stmt.setString(1, dateTimeString);
-			ResultSet rs= stmt.executeQuery();
-
-			// if the query ran successfully, but returned as empty table.
-			if (!rs.next()) {
-				return null;
-			}
-			
-			rs.previous();
-			
-			while(rs.next()) {
-				Order orderToAdd = new Order();
-				orderToAdd.setOrderId(rs.getInt(1));
-				orderToAdd.setParkName(ParkNameEnum.fromParkId(rs.getInt(2)));
-				orderToAdd.setUserId(String.valueOf(rs.getInt(3)));
-				orderToAdd.setOwnerType(UserTypeEnum.fromString(rs.getString(4)));
-				orderToAdd.setEmail(rs.getString(5));
-				orderToAdd.setTelephoneNumber(rs.getString(6));
-				orderToAdd.setFirstName(rs.getString(7));
-				orderToAdd.setLastName(rs.getString(8));
-				orderToAdd.setNumberOfVisitors(rs.getInt(9));
-				irrelevantOrders.add(orderToAdd);
-			}
-			
-			return irrelevantOrders;
-	
-		} catch (SQLException ex) 
-		{
-			ex.printStackTrace();
-			return null;
-		}
+	private static String placeholders(int count) {
+		StringBuilder placeholders = new StringBuilder();
+		for (int i = 0; i < count; i++)
+			placeholders.append(i == 0 ? "?" : ", ?");
+		return placeholders.toString();
 	}
 	
-	
 	/**
 	 * Checks if a specific order with the given OrderId has been in a 'Notified' status
 	 * for 24 hours. This method can be used to identify orders that may require further action
@@ -325,8 +156,7 @@ public class NotificationQueries {
 	public boolean CheckNotifiedFromServer24Hours(int OrderId)
     {
 
-        try {
-            Connection con = MySqlConnection.getInstance().getConnection();
+        try (Connection con = MySqlConnection.getInstance().getConnection()) {
             PreparedStatement stmt = con.prepareStatement("SELECT OrderStatus WHERE OrderId=?");
 
             stmt.setInt(1, OrderId);
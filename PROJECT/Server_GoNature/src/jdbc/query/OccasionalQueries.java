@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -34,8 +35,7 @@ public class OccasionalQueries {
 	
 	//NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse FetchOccasioanlOrderById(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM occasionalvisits WHERE OrderId = ?;");
 			stmt.setInt(1, order.getOrderId());
 			ResultSet rs = stmt.executeQuery();
@@ -74,8 +74,7 @@ public class OccasionalQueries {
 	 */
 	public int ReturnTotalOccasionalVisits() {
 		int occasionalVisits = 0;
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT COUNT(*) AS visitsCount FROM occasionalvisits");
 			ResultSet rs = stmt.executeQuery();
 
@@ -102,8 +101,7 @@ public class OccasionalQueries {
 	//NOTICE : NOT USED THAT QUERY!!
 	public int ReturnTotalOccasionalVisitsInPark() {
 		int occasionalInPark = 0;
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"SELECT COUNT(*) AS OccasionalInPark FROM occasionalvisits WHERE OrderStatus = 'In Park'");
 			ResultSet rs = stmt.executeQuery();
@@ -132,8 +130,7 @@ public class OccasionalQueries {
 	 *         exception: returns Exception_Was_Thrown
 	 */
 	public boolean UpdateOccasionalOrderStatus(Order order, OrderStatusEnum status) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("Update occasionalvisits SET OrderStatus = ? WHERE OrderId = ?");
 			stmt.setString(1, status.toString());
@@ -144,6 +141,9 @@ public class OccasionalQueries {
 			if (rs == 0) {
 				return false;
 			}
+			// the trigger of the table takes the visitors out of CurrentInPark, of a park this method doesn't know.
+			if (status == OrderStatusEnum.Completed)
+				QueryControl.parkQueries.getParkCache().invalidateAll();
 			
 			return true;
 
@@ -166,8 +166,7 @@ public class OccasionalQueries {
 	
 	//NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse UpdateOrderExitDate(Order order, LocalDateTime exitDate) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("UPDATE occasionalvisits SET ExitDate = ? WHERE (OrderId = ?)");
 			stmt.setString(1, exitDate.toString());
@@ -192,13 +191,13 @@ public class OccasionalQueries {
 	 * @return A ServerResponse enum indicating the outcome of the operation (e.g., Occasional_Visit_Added_Successfully, Query_Failed).
 	 */
 	public ServerResponse insertOccasionalOrder(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		// the new ID is read before borrowing a connection, so this method holds only one connection at a time.
+		int newOrderId = ReturnTotalOccasionalVisits() + 1;
+		order.setOrderId(newOrderId);
+
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"INSERT INTO occasionalvisits (OrderId, ParkId, EnterDate, ExitDate, OrderStatus, Email, Phone, FirstName, LastName, OrderType, Amount, Price) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);");
-			int newOrderId = ReturnTotalOccasionalVisits() + 1;
-			order.setOrderId(newOrderId);
-
 			stmt.setInt(1, newOrderId);
 			stmt.setInt(2, order.getParkName().getParkId());
 			stmt.setString(3, order.getEnterDate().toString());
@@ -218,6 +217,9 @@ public class OccasionalQueries {
 			if (rs == 0) {
 				return ServerResponse.Query_Failed;
 			}
+			// the trigger of the table adds a visit inserted as 'In Park' to the park's CurrentInPark.
+			if (order.getStatus() == OrderStatusEnum.In_Park)
+				QueryControl.parkQueries.getParkCache().invalidate(order.getParkName().getParkId());
 			return ServerResponse.Occasional_Visit_Added_Successfully;
 
 		} catch (SQLException ex) {
@@ -236,12 +238,12 @@ public class OccasionalQueries {
 	public ArrayList<Order> getAllOccasionalOrdersInPark(int parkId) {
 		LocalDate today = LocalDateTime.now().toLocalDate();
 		ArrayList<Order> foundOrders = new ArrayList<>();
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
-					"SELECT * FROM occasionalvisits WHERE ParkId = ? AND Date(EnterDate) = ?  AND OrderStatus = 'In Park';");
+					"SELECT * FROM occasionalvisits WHERE ParkId = ? AND EnterDate >= ? AND EnterDate < ? AND OrderStatus = 'In Park';");
 			stmt.setInt(1, parkId);
-			stmt.setString(2, today.toString());
+			stmt.setTimestamp(2, Timestamp.valueOf(today.atStartOfDay()));
+			stmt.setTimestamp(3, Timestamp.valueOf(today.plusDays(1).atStartOfDay()));
 			ResultSet rs = stmt.executeQuery();
 
 			// if the query ran successfully, but returned as empty table.
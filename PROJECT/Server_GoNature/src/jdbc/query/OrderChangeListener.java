@@ -0,0 +1,35 @@
+package jdbc.query;
+
+import logic.Order;
+import utils.enums.OrderStatusEnum;
+
+/**
+ * A listener which is told about every change that was written to the preorders table.
+ * The listeners are registered on {@link OrderQueries#addOrderChangeListener(OrderChangeListener)}, and are called
+ * by the thread which made the change, right after the change was written to the DB.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public interface OrderChangeListener {
+
+	/**
+	 * Called after a new order was inserted into the preorders table.
+	 *
+	 * @param order the inserted order, including its new ID.
+	 */
+	void orderInserted(Order order);
+
+	/**
+	 * Called after the status of an order was changed.
+	 *
+	 * @param orderId the ID of the order.
+	 * @param newStatus the status the order was changed to.
+	 */
+	void orderStatusChanged(int orderId, OrderStatusEnum newStatus);
+
+	/**
+	 * Called after an order was deleted from the preorders table.
+	 *
+	 * @param orderId the ID of the deleted order.
+	 */
+	void orderDeleted(int orderId);
+}
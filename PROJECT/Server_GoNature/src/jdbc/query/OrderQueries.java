@@ -9,10 +9,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import jdbc.MySqlConnection;
+import logic.OccupancyLedger;
 import logic.Order;
 import logic.Park;
+import logic.ParkOccupancy;
 import utils.enums.OrderStatusEnum;
 import utils.enums.OrderTypeEnum;
 import utils.enums.ParkNameEnum;
@@ -25,11 +28,43 @@ import utils.enums.UserTypeEnum;
  */
 public class OrderQueries {
 
-	private ParkQueries parkQueries = new ParkQueries();
+	// told about every change made to the preorders table, such as the occupancy ledger.
+	private final CopyOnWriteArrayList<OrderChangeListener> orderChangeListeners = new CopyOnWriteArrayList<>();
 
 	public OrderQueries() {
 	}
 
+	/**
+	 * Registers a listener which is told about every order inserted, deleted or whose status was changed.
+	 *
+	 * @param listener the listener to add.
+	 */
+	public void addOrderChangeListener(OrderChangeListener listener) {
+		if (!orderChangeListeners.contains(listener))
+			orderChangeListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener which was registered with {@link #addOrderChangeListener(OrderChangeListener)}.
+	 *
+	 * @param listener the listener to remove.
+	 */
+	public void removeOrderChangeListener(OrderChangeListener listener) {
+		orderChangeListeners.remove(listener);
+	}
+
+	/**
+	 * Tells the listeners that the status of an order was changed in the DB. Used also by the other query classes
+	 * which change the status of orders.
+	 *
+	 * @param orderId the ID of the order.
+	 * @param newStatus the status the order was changed to.
+	 */
+	void fireOrderStatusChanged(int orderId, OrderStatusEnum newStatus) {
+		for (OrderChangeListener listener : orderChangeListeners)
+			listener.orderStatusChanged(orderId, newStatus);
+	}
+
 	/**
 	 * Gets an order and checks if it's in DB
 	 * 
@@ -38,8 +73,7 @@ public class OrderQueries {
 	 *         Such_Order_Does_Not_Exists exception: returns Exception_Was_Thrown
 	 */
 	public ServerResponse fetchOrderByOrderID(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM preorders WHERE orderId = ?"
 					+ " AND OrderStatus!='Cancelled' AND OrderStatus!='Completed'" + " AND OrderStatus!='Time Passed'"
 					+ " AND OrderStatus!='In Park' AND OrderStatus!='Irrelevant'");
@@ -75,51 +109,83 @@ public class OrderQueries {
 	}
 
 	/**
-	 * gets an order and checks if the current date and time is available for a specific park
-	 * 
-	 * @param timeToCheck The LocalDateTime representing the specific hour to check for available spots.
-	 * @param parkId The Integer ID of the park for which to check the available spots.
-	 * @return An array of Integer, where the first element is the number of spots currently occupied (null if no data is found)
-	 * and the second element is the calculated number of available spots at the given time. Returns null in case of a database error.
+	 * Returns the hourly occupancy of a park, from the in-memory occupancy ledger when it can answer, or else from the
+	 * DB (see {@link #fetchParkOccupancy(int, LocalDateTime, int)}).
+	 *
+	 * @param parkId The ID of the park.
+	 * @param windowStart The time of the first hourly slot.
+	 * @param additionalHours The number of hours after windowStart at which a stay may still begin.
+	 * @return the park's occupancy, or null if the park does not exist or the query failed.
 	 */
-	public Integer[] checkAvailableSpotInParkAtSpecificHour(LocalDateTime timeToCheck, Integer parkId) {
-		Integer[] amountAndCapacity = new Integer[2];
-
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement("SELECT " + "(SELECT SUM(Amount) " + "FROM preorders "
-					+ "WHERE EnterDate <= ? AND " + "ExitDate > ? AND " + "(OrderStatus = 'Wait Notify' OR "
-					+ "OrderStatus = 'Notified Waiting List' OR " + "OrderStatus = 'Notified' OR "
-					+ "OrderStatus = 'Confirmed' OR " + "OrderStatus = 'In Park') " + "AND parkId = ?) AS Count, "
-					+ "p.MaxCapacity,p.ReservedSpots " + "FROM parks p " + "WHERE p.parkId = ?;");
-			stmt.setString(1, timeToCheck.toString());
-			stmt.setString(2, timeToCheck.toString());
-			stmt.setInt(3, parkId);
-			stmt.setInt(4, parkId);
+	public ParkOccupancy getParkOccupancy(int parkId, LocalDateTime windowStart, int additionalHours) {
+		ParkOccupancy occupancy = OccupancyLedger.getInstance().occupancyFor(parkId, windowStart, additionalHours);
+		if (occupancy != null)
+			return occupancy;
+		return fetchParkOccupancy(parkId, windowStart, additionalHours);
+	}
 
+	/**
+	 * Loads the hourly occupancy of a park in a single query: the park details together with every order that occupies
+	 * the park during the window. The window starts at windowStart and is additionalHours plus the park's estimated stay
+	 * time long, so it covers every stay that enters the park up to additionalHours after windowStart.
+	 * Only orders with a status that holds a place in the park are counted (Wait Notify, Notified Waiting List,
+	 * Notified, Confirmed and In Park).
+	 *
+	 * @param parkId The ID of the park.
+	 * @param windowStart The time of the first hourly slot.
+	 * @param additionalHours The number of hours after windowStart at which a stay may still begin.
+	 * @return the park's occupancy, or null if the park does not exist or the query failed.
+	 */
+	public ParkOccupancy fetchParkOccupancy(int parkId, LocalDateTime windowStart, int additionalHours) {
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
+			PreparedStatement stmt = con.prepareStatement(
+					"SELECT p.MaxCapacity, p.EstimatedVisitTime, p.ReservedSpots, p.CurrentInPark, p.Price, "
+							+ "o.EnterDate, o.ExitDate, o.Amount FROM parks p LEFT JOIN preorders o ON o.ParkId = p.ParkId "
+							+ "AND o.EnterDate < DATE_ADD(?, INTERVAL (? + p.EstimatedVisitTime) HOUR) AND o.ExitDate > ? "
+							+ "AND o.OrderStatus IN ('Wait Notify', 'Notified Waiting List', 'Notified', 'Confirmed', 'In Park') "
+							+ "WHERE p.ParkId = ?");
+			stmt.setString(1, windowStart.toString());
+			stmt.setInt(2, additionalHours);
+			stmt.setString(3, windowStart.toString());
+			stmt.setInt(4, parkId);
 			ResultSet rs = stmt.executeQuery();
+
+			// if the query ran successfully, but returned as empty table.
 			if (!rs.next()) {
-				amountAndCapacity[0] = null;
-				amountAndCapacity[1] = rs.getInt(2) - rs.getInt(3);
-				return amountAndCapacity;
+				return null;
 			}
 
-			amountAndCapacity[0] = rs.getInt(1);
-			amountAndCapacity[1] = rs.getInt(2) - rs.getInt(3);
-			return amountAndCapacity;
+			Park park = new Park(parkId);
+			park.setParkName(ParkNameEnum.fromParkId(parkId));
+			park.setCurrentMaxCapacity(rs.getInt(1));
+			park.setCurrentEstimatedStayTime(rs.getInt(2));
+			park.setCurrentEstimatedReservedSpots(rs.getInt(3));
+			park.setCurrentInPark(rs.getInt(4));
+			park.setPrice(rs.getInt(5));
+
+			ParkOccupancy occupancy = new ParkOccupancy(park, windowStart,
+					additionalHours + Math.max(0, park.getCurrentEstimatedStayTime()));
+			// the park's row comes back once with no order if no order occupies the window.
+			do {
+				if (rs.getTimestamp(6) != null) {
+					occupancy.addOrder(rs.getTimestamp(6).toLocalDateTime(), rs.getTimestamp(7).toLocalDateTime(),
+							rs.getInt(8));
+				}
+			} while (rs.next());
+
+			return occupancy;
 
 		} catch (SQLException ex) {
 			ex.printStackTrace();
 			return null;
 		}
-
 	}
-	
+
 	/**
 	 * Searches for available dates for an order within the next 7 days from the specified enter date in the order. This method checks the availability based on the park's current capacity and estimated visit time, ensuring there are enough spots for the number of visitors in the order.
 	 *
 	 * @param order The order for which the available dates are being searched. The order must contain the park's ID, enter date, and the number of visitors.
-	 * @return A list of LocalDateTime objects representing the available dates and times for the next 7 days where the order can be placed. The list will be empty if no available dates are found.
+	 * @return A list of LocalDateTime objects representing the available dates and times for the next 7 days where the order can be placed. The list will be empty if no available dates are found, and null if the park's occupancy could not be loaded.
 	 */
 	public ArrayList<LocalDateTime> searchForAvailableDates7DaysForward(Order order) {
 		ArrayList<LocalDateTime> availableDates = new ArrayList<LocalDateTime>();
@@ -127,13 +193,47 @@ public class OrderQueries {
 		LocalDateTime enterTime = order.getEnterDate();
 		int amountOfVisitors = order.getNumberOfVisitors();
 
+		// one window covers the stays which begin at the same hour in each of the 7 days, so the park's occupancy is
+		// loaded once and scanned in memory.
+		ParkOccupancy occupancy = getParkOccupancy(parkId, enterTime, 6 * 24);
+		if (occupancy == null)
+			return null;
+
 		for (int i = 0; i < 7; i++) {
-			if (isThisDateAvailable(parkId, enterTime.plusDays(i), amountOfVisitors)) {
+			if (occupancy.canAccommodate(enterTime.plusDays(i), amountOfVisitors)) {
 				availableDates.add(enterTime.plusDays(i));
 			}
 		}
 		return availableDates;
 	}
+
+	/**
+	 * Searches for every visit hour (between Park.FIRST_VISIT_HOUR and Park.LAST_VISIT_HOUR) within 7 days from the day of the enter
+	 * date in the order at which the order can be placed. Like {@link #searchForAvailableDates7DaysForward(Order)}, it
+	 * loads the park's occupancy for the week once and scans it in memory, so returning every free hour costs the same.
+	 * Hours which already passed are skipped.
+	 *
+	 * @param order The order for which the available hours are being searched. The order must contain the park's ID, enter date, and the number of visitors.
+	 * @return A list of LocalDateTime objects representing every available enter time in the 7 days, in chronological order. The list will be empty if no available time is found.
+	 */
+	public ArrayList<LocalDateTime> searchForAvailableHours7DaysForward(Order order) {
+		ArrayList<LocalDateTime> availableHours = new ArrayList<LocalDateTime>();
+		LocalDateTime firstDay = order.getEnterDate().toLocalDate().atStartOfDay();
+		LocalDateTime now = LocalDateTime.now();
+
+		ParkOccupancy occupancy = getParkOccupancy(order.getParkName().getParkId(), firstDay, 7 * 24 - 1);
+		if (occupancy == null)
+			return availableHours;
+
+		for (int day = 0; day < 7; day++) {
+			for (int hour = Park.FIRST_VISIT_HOUR; hour <= Park.LAST_VISIT_HOUR; hour++) {
+				LocalDateTime enterTime = firstDay.plusDays(day).plusHours(hour);
+				if (enterTime.isAfter(now) && occupancy.canAccommodate(enterTime, order.getNumberOfVisitors()))
+					availableHours.add(enterTime);
+			}
+		}
+		return availableHours;
+	}
 	
 	/**
 	 * Checks if a specific date and time is available for a new order in a given park, considering the number of visitors and the park's capacity at that time.
@@ -144,32 +244,10 @@ public class OrderQueries {
 	 * @return true if the date and time are available for the specified number of visitors, false otherwise.
 	 */
 	public boolean isThisDateAvailable(int parkId, LocalDateTime enterTime, int amountOfVisitors) {
-		Park requestedPark = new Park(parkId);
-		boolean foundPark = parkQueries.getParkById(requestedPark);
-		if (foundPark) {
-			double estimatedVisitTime = requestedPark.getCurrentEstimatedStayTime();
-			// Split the estimatedVisitTime into whole days and fractional day components
-			long estimatedVisitTimeInHours = (long) (estimatedVisitTime);
-
-			LocalDateTime exitTime = enterTime.plusHours(estimatedVisitTimeInHours);
-
-			// Assuming a check every hour
-			long frequencyInHours = 1;
-
-			// Calculate the duration between enterTime and exitTime in hours
-			long hoursBetween = java.time.Duration.between(enterTime, exitTime).toHours();
-
-			// Calculate the number of checks needed
-			long numberOfChecks = hoursBetween / frequencyInHours;
-
-			for (int hour = 0; hour < numberOfChecks; hour++) {
-				Integer[] ret = checkAvailableSpotInParkAtSpecificHour(enterTime.plusHours(hour), parkId);
-				if (ret[0] != null && ret[0] + amountOfVisitors > ret[1])
-					return false;
-			}
-			return true;
-		}
-		return false;
+		ParkOccupancy occupancy = getParkOccupancy(parkId, enterTime, 0);
+		if (occupancy == null)
+			return false;
+		return occupancy.canAccommodate(enterTime, amountOfVisitors);
 	}
 
 	/**
@@ -184,8 +262,7 @@ public class OrderQueries {
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse fetchOrderByOwnerID(Order order) {
 
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("SELECT * FROM preorders WHERE ownerId = ? AND OrderStatus!='Cancelled'");
 			stmt.setString(1, order.getUserId());
@@ -228,8 +305,7 @@ public class OrderQueries {
 	 * @return on success returns true on failure returns false
 	 */
 	public boolean updateOrderStatus(Order order, OrderStatusEnum statusToUpdate) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("UPDATE preorders SET OrderStatus = ?,PayStatus = '1' WHERE (OrderId = ?);");
 			stmt.setString(1, statusToUpdate.toString());
@@ -242,6 +318,7 @@ public class OrderQueries {
 			}
 			order.setStatus(statusToUpdate);
 			order.setLastStatusUpdatedTime(LocalDateTime.now().toString());
+			fireOrderStatusChanged(order.getOrderId(), statusToUpdate);
 
 			return true;
 
@@ -258,39 +335,22 @@ public class OrderQueries {
 	 * @return ServerResponse indicating whether the requested date is available, unavailable, has too many visitors, or if a failure occurred during the process.
 	 */
 	public ServerResponse checkIfNewOrderAvailableAtRequestedDate(Order order) {
-		Park requestedPark = new Park(order.getParkName().getParkId());
 		ServerResponse response = ServerResponse.Requested_Order_Date_Is_Available;
-		boolean foundPark = parkQueries.getParkById(requestedPark);
-		if (foundPark) {
+		ParkOccupancy occupancy = getParkOccupancy(order.getParkName().getParkId(), order.getEnterDate(), 0);
+		if (occupancy != null) {
+			Park requestedPark = occupancy.getPark();
 			if (order.getNumberOfVisitors() > requestedPark.getCurrentMaxCapacity()) {
 				return ServerResponse.Too_Many_Visitors;
 			}
-			double estimatedVisitTime = requestedPark.getCurrentEstimatedStayTime();
-			// Split the estimatedVisitTime into whole days and fractional day components
-			long estimatedVisitTimeInHours = (long) (estimatedVisitTime);
 
 			LocalDateTime enterTime = order.getEnterDate();
-			LocalDateTime exitTime = enterTime.plusHours(estimatedVisitTimeInHours);
+			LocalDateTime exitTime = enterTime.plusHours(occupancy.getStayHours());
 			order.setExitDate(exitTime);
 			order.setPrice(requestedPark.getPrice());
 
-			// Assuming a check every hour
-			long frequencyInHours = 1;
-
-			// Calculate the duration between enterTime and exitTime in hours
-			long hoursBetween = java.time.Duration.between(enterTime, exitTime).toHours();
+			if (!occupancy.canAccommodate(enterTime, order.getNumberOfVisitors()))
+				return ServerResponse.Requested_Order_Date_Unavaliable;
 
-			// Calculate the number of checks needed
-			long numberOfChecks = hoursBetween / frequencyInHours;
-
-			for (int hour = 0; hour < numberOfChecks; hour++) {
-				Integer[] ret = checkAvailableSpotInParkAtSpecificHour(order.getEnterDate().plusHours(hour),
-						order.getParkName().getParkId());
-				if (ret[0] != null && ret[0] + order.getNumberOfVisitors() > ret[1])
-					return ServerResponse.Requested_Order_Date_Unavaliable;
-			}
-
-			order.setPrice(requestedPark.getPrice());
 			return ServerResponse.Requested_Order_Date_Is_Available;
 
 		}
@@ -307,8 +367,7 @@ public class OrderQueries {
 	 */
 	public synchronized boolean insertOrderIntoDB(Order order) {
 
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"INSERT INTO preorders (ParkId, OwnerId, OwnerType, EnterDate, ExitDate, PayStatus, OrderStatus, Email, Phone, FirstName, LastName, OrderType, Amount, Price) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
 					Statement.RETURN_GENERATED_KEYS);
@@ -349,6 +408,8 @@ public class OrderQueries {
 				return false;
 			}
 
+			for (OrderChangeListener listener : orderChangeListeners)
+				listener.orderInserted(order);
 			return true;
 
 		} catch (SQLException ex) {
@@ -366,8 +427,7 @@ public class OrderQueries {
 
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse updateOrderPhoneNumber(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET Phone = ? WHERE (OrderId = ?);");
 			stmt.setString(1, order.getTelephoneNumber());
 			stmt.setInt(2, order.getOrderId());
@@ -393,8 +453,7 @@ public class OrderQueries {
 
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse updateOrderEmail(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET Email = ? WHERE (OrderId = ?);");
 			stmt.setString(1, order.getEmail());
 			stmt.setInt(2, order.getOrderId());
@@ -419,8 +478,7 @@ public class OrderQueries {
 	 */
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse updateOrderNumberOfVisitors(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET Amount = ? WHERE (OrderId = ?);");
 			stmt.setInt(1, order.getNumberOfVisitors());
 			stmt.setInt(2, order.getOrderId());
@@ -439,8 +497,7 @@ public class OrderQueries {
 
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse updateOrderType(Order order, OrderTypeEnum requestedType) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET OrderType = ? WHERE (OrderId = ?);");
 			stmt.setString(1, order.getOrderType().toString());
 			stmt.setInt(2, order.getOrderId());
@@ -458,8 +515,7 @@ public class OrderQueries {
 
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse updateOrderEnterDate(Order order, LocalDateTime enterDate) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET EnterDate = ? WHERE (OrderId = ?);");
 			stmt.setString(1, enterDate.toString());
 			stmt.setInt(2, order.getOrderId());
@@ -478,8 +534,7 @@ public class OrderQueries {
 
 	// NOTICE : NOT USED THAT QUERY!!
 	public ServerResponse updateOrderExitDate(Order order, LocalDateTime exitDate) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE preorders SET ExitDate = ? WHERE (OrderId = ?);");
 			stmt.setString(1, exitDate.toString());
 			stmt.setInt(2, order.getOrderId());
@@ -500,8 +555,7 @@ public class OrderQueries {
 	public int returnTotalPreOrdersWithStatus(OrderStatusEnum status) {
 		int ordersCount = 0;
 
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("SELECT COUNT(*) AS orderCount FROM preorders WHERE OrderStatus = ?");
 			stmt.setString(1, status.toString());
@@ -531,8 +585,7 @@ public class OrderQueries {
 	public ArrayList<Order> searchForNotifiedOrdersOfSpecificClient(String customerId) {
 		ArrayList<Order> retList = new ArrayList<Order>();
 
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"SELECT OrderId,ParkId,EnterDate,PayStatus,Amount,OrderStatus FROM preorders WHERE (OrderStatus = 'Notified' OR OrderStatus = 'Notified Waiting List') AND OwnerId = ?");
 			stmt.setString(1, customerId);
@@ -571,8 +624,7 @@ public class OrderQueries {
 	 */
 	public ArrayList<Order> notifyTheNextOrdersInWaitingList(LocalDateTime enterDate, int parkId) {
 		ArrayList<Order> ordersInWaitingList = new ArrayList<Order>();
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con
 					.prepareStatement("SELECT p.OrderId, p.ParkId, w.enterListTime, p.EnterDate,p.Amount "
 							+ "FROM preorders p " + "JOIN waitinglist w ON p.OrderId = w.orderId "
@@ -613,16 +665,15 @@ public class OrderQueries {
 	public ArrayList<Order> importAllOrdersForToday(int parkId) {
 		ArrayList<Order> retList = new ArrayList<Order>();
 
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"SELECT OrderId AS orderId, 1 AS isPaid, Amount AS amountOfVisitors, Phone AS ownerPhone, EnterDate AS EnterTime, ExitDate AS ExitTime, OrderStatus, OrderType "
 							+ "FROM occasionalvisits "
-							+ "WHERE DATE(EnterDate) = CURDATE() AND (OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND ParkId = ? "
+							+ "WHERE EnterDate >= CURDATE() AND EnterDate < CURDATE() + INTERVAL 1 DAY AND (OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND ParkId = ? "
 							+ "UNION ALL "
 							+ "SELECT OrderId, PayStatus AS isPaid, Amount AS amountOfVisitors, Phone AS ownerPhone, EnterDate AS EnterTime, ExitDate AS ExitTime, OrderStatus, OrderType "
 							+ "FROM preorders "
-							+ "WHERE DATE(EnterDate) = CURDATE() AND (OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND ParkId = ?");
+							+ "WHERE EnterDate >= CURDATE() AND EnterDate < CURDATE() + INTERVAL 1 DAY AND (OrderStatus = 'Confirmed' OR OrderStatus = 'In Park') AND ParkId = ?");
 			stmt.setInt(1, parkId);
 			stmt.setInt(2, parkId);
 
@@ -632,16 +683,94 @@ public class OrderQueries {
 
 			rs.previous();
 
+			while (rs.next()) {
+				retList.add(readGateOrder(rs));
+			}
+
+			return retList;
+
+		} catch (SQLException ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Retrieves one order as the park entrance shows it, if the order is for today. Used to push the change of an
+	 * order to the park entrance screens, instead of sending them all the orders of the day again.
+	 *
+	 * @param orderId The ID of the order.
+	 * @param occasional true if the order is an occasional visit, false if it is a preorder.
+	 * @return The order, with the same details as importAllOrdersForToday returns and its park, in any status. Returns
+	 *         null if the order is not for today, doesn't exist, or if an SQLException occurs.
+	 */
+	public Order fetchGateOrder(int orderId, boolean occasional) {
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
+			PreparedStatement stmt = con.prepareStatement(occasional
+					? "SELECT OrderId, 1 AS isPaid, Amount, Phone, EnterDate, ExitDate, OrderStatus, OrderType, ParkId "
+							+ "FROM occasionalvisits WHERE OrderId = ? AND EnterDate >= CURDATE() AND EnterDate < CURDATE() + INTERVAL 1 DAY"
+					: "SELECT OrderId, PayStatus, Amount, Phone, EnterDate, ExitDate, OrderStatus, OrderType, ParkId "
+							+ "FROM preorders WHERE OrderId = ? AND EnterDate >= CURDATE() AND EnterDate < CURDATE() + INTERVAL 1 DAY");
+			stmt.setInt(1, orderId);
+
+			ResultSet rs = stmt.executeQuery();
+			if (!rs.next())
+				return null;
+
+			Order order = readGateOrder(rs);
+			order.setParkName(ParkNameEnum.fromParkId(rs.getInt(9)));
+			return order;
+
+		} catch (SQLException ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Reads the current row of a park entrance query into an order.
+	 *
+	 * @param rs The result set, on a row with the order ID, pay status, amount, phone, enter date, exit date,
+	 *           status and type of the order, in this order.
+	 * @return The order.
+	 * @throws SQLException if the row can't be read.
+	 */
+	private Order readGateOrder(ResultSet rs) throws SQLException {
+		Order order = new Order();
+		order.setOrderId(rs.getInt(1));
+		order.setPaid(rs.getBoolean(2));
+		order.setNumberOfVisitors(rs.getInt(3));
+		order.setTelephoneNumber(rs.getString(4));
+		order.setEnterDate(rs.getTimestamp(5).toLocalDateTime());
+		order.setExitDate(rs.getTimestamp(6).toLocalDateTime());
+		order.setStatus(OrderStatusEnum.fromString(rs.getString(7)));
+		order.setOrderType(OrderTypeEnum.fromString(rs.getString(8)));
+		return order;
+	}
+	
+	/**
+	 * Retrieves every order which may still hold or get a place in its park: orders which exit the park after the
+	 * given time and are not Cancelled, Completed, Time Passed or Irrelevant. Used to build the occupancy ledger.
+	 *
+	 * @param exitAfter Only orders which exit the park after this time are returned.
+	 * @return An ArrayList of Order objects with their ID, park, enter and exit dates, amount and status. Returns null if an SQLException occurs.
+	 */
+	public ArrayList<Order> fetchActiveOrders(LocalDateTime exitAfter) {
+		ArrayList<Order> retList = new ArrayList<Order>();
+
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
+			PreparedStatement stmt = con.prepareStatement(
+					"SELECT OrderId, ParkId, EnterDate, ExitDate, Amount, OrderStatus FROM preorders WHERE ExitDate > ? "
+							+ "AND OrderStatus NOT IN ('Cancelled', 'Completed', 'Time Passed', 'Irrelevant')");
+			stmt.setString(1, exitAfter.toString());
+
+			ResultSet rs = stmt.executeQuery();
 			while (rs.next()) {
 				Order orderToAdd = new Order();
 				orderToAdd.setOrderId(rs.getInt(1));
-				orderToAdd.setPaid(rs.getBoolean(2));
-				orderToAdd.setNumberOfVisitors(rs.getInt(3));
-				orderToAdd.setTelephoneNumber(rs.getString(4));
-				orderToAdd.setEnterDate(rs.getTimestamp(5).toLocalDateTime());
-				orderToAdd.setExitDate(rs.getTimestamp(6).toLocalDateTime());
-				orderToAdd.setStatus(OrderStatusEnum.fromString(rs.getString(7)));
-				orderToAdd.setOrderType(OrderTypeEnum.fromString(rs.getString(8)));
+				orderToAdd.setParkName(ParkNameEnum.fromParkId(rs.getInt(2)));
+				orderToAdd.setEnterDate(rs.getTimestamp(3).toLocalDateTime());
+				orderToAdd.setExitDate(rs.getTimestamp(4).toLocalDateTime());
+				orderToAdd.setNumberOfVisitors(rs.getInt(5));
+				orderToAdd.setStatus(OrderStatusEnum.fromString(rs.getString(6)));
 				retList.add(orderToAdd);
 			}
 
@@ -651,7 +780,7 @@ public class OrderQueries {
 			return null;
 		}
 	}
-	
+
 	/**
 	 * Deletes a specific order from the preorders table in the database. This operation is irreversible and should
 	 * be used with caution, typically in scenarios where an order is cancelled or needs to be removed for some reason.
@@ -660,8 +789,7 @@ public class OrderQueries {
 	 * @return true if the order was successfully deleted; false if the deletion failed, either because the order does not exist or due to an SQLException.
 	 */
 	public boolean deleteOrderFromTable(Order order) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("DELETE FROM preorders WHERE OrderId = ?");
 
 			stmt.setInt(1, order.getOrderId());
@@ -670,6 +798,8 @@ public class OrderQueries {
 			if (rs == 0)
 				return false;
 
+			for (OrderChangeListener listener : orderChangeListeners)
+				listener.orderDeleted(order.getOrderId());
 			return true;
 
 		} catch (SQLException ex) {
@@ -0,0 +1,134 @@
+package jdbc.query;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import logic.Order;
+import logic.Park;
+import utils.enums.OrderStatusEnum;
+
+/**
+ * The ParkCache class keeps the rows of the parks table in memory, so the booking paths which read a park again and
+ * again (the availability checks, the search for available dates, the occasional visits) don't query the DB.
+ * It is a read-through cache: {@link ParkQueries} loads a park which is not cached from the DB and puts it here.
+ * A park is dropped from the cache whenever its row may have changed:
+ * - when a request to change the park's parameters was approved ({@link ParkQueries#InsertNewValueInRequestedPark}).
+ * - when the DB triggers changed the park's CurrentInPark: an occasional visit inserted as 'In Park', an order which
+ * entered the park or was completed. When only the ID of the order is known, all the parks are dropped (there are
+ * only a few of them).
+ * The cache holds its own copies of the parks, and copies them into the Park entities of the callers.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ParkCache implements OrderChangeListener {
+
+	private final ConcurrentHashMap<Integer, Park> parks = new ConcurrentHashMap<>();
+	// changed by every invalidation, so a park loaded before an invalidation is not put in the cache after it.
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Copies a cached park into the given park.
+	 *
+	 * @param park the park to fill, must include the park ID.
+	 * @return true if the park was cached, false if it must be loaded from the DB.
+	 */
+	public boolean get(Park park) {
+		Park cached = parks.get(park.getParkId());
+		if (cached == null) {
+			misses.incrementAndGet();
+			return false;
+		}
+		hits.incrementAndGet();
+		copy(cached, park);
+		return true;
+	}
+
+	/**
+	 * @return the generation to pass to {@link #put(Park, long)}, taken before the park is loaded from the DB.
+	 */
+	public long currentGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Puts a park which was loaded from the DB in the cache, unless the cache was invalidated since the load started.
+	 *
+	 * @param park the loaded park.
+	 * @param loadGeneration the generation which was current before the park was loaded.
+	 */
+	public void put(Park park, long loadGeneration) {
+		Park copy = new Park(park.getParkId());
+		copy(park, copy);
+		parks.put(park.getParkId(), copy);
+		// an invalidation which ran during the load may have missed the new entry.
+		if (generation.get() != loadGeneration)
+			parks.remove(park.getParkId(), copy);
+	}
+
+	/**
+	 * Drops a park from the cache, after its row was changed.
+	 *
+	 * @param parkId the ID of the park.
+	 */
+	public void invalidate(int parkId) {
+		generation.incrementAndGet();
+		parks.remove(parkId);
+	}
+
+	/**
+	 * Drops all the parks from the cache.
+	 */
+	public void invalidateAll() {
+		generation.incrementAndGet();
+		parks.clear();
+	}
+
+	/**
+	 * @return the number of reads which were served from the cache.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of reads which had to query the DB.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public void orderInserted(Order order) {
+		// a new order is never inserted as 'In Park' into the preorders table.
+	}
+
+	@Override
+	public void orderStatusChanged(int orderId, OrderStatusEnum newStatus) {
+		// the triggers of the preorders table change CurrentInPark when an order enters the park or is completed.
+		if (newStatus == OrderStatusEnum.In_Park || newStatus == OrderStatusEnum.Completed)
+			invalidateAll();
+	}
+
+	@Override
+	public void orderDeleted(int orderId) {
+	}
+
+	@Override
+	public String toString() {
+		long hitCount = hits.get();
+		long total = hitCount + misses.get();
+		return String.format("Park cache: %d parks cached, %d hits, %d misses (%.1f%% hit rate)", parks.size(), hitCount,
+				total - hitCount, total == 0 ? 0.0 : 100.0 * hitCount / total);
+	}
+
+	private static void copy(Park from, Park to) {
+		to.setParkId(from.getParkId());
+		to.setParkName(from.getParkName());
+		to.setCurrentMaxCapacity(from.getCurrentMaxCapacity());
+		to.setCurrentEstimatedStayTime(from.getCurrentEstimatedStayTime());
+		to.setCurrentEstimatedReservedSpots(from.getCurrentEstimatedReservedSpots());
+		to.setCurrentInPark(from.getCurrentInPark());
+		to.setPrice(from.getPrice());
+	}
+}
@@ -34,20 +34,33 @@ import utils.enums.ServerResponse;
 
 public class ParkQueries {
 	
+	// the parks read by getParkById, dropped whenever their rows change.
+	private final ParkCache parkCache = new ParkCache();
+	
+	/**
+	 * @return the cache of the parks table.
+	 */
+	public ParkCache getParkCache() {
+		return parkCache;
+	}
+	
 	/**
 	 * Retrieves the details of a park based on its ID and updates the provided Park object with these details.
 	 * This method searches for a park in the database using its unique ID. If found, it updates the Park object
 	 * with information such as park name, maximum capacity, estimated stay time, estimated reserved spots,
 	 * current number of visitors in the park, and the price.
+	 * The park is served from the park cache when it is there, and put in the cache when it was read from the DB.
 	 *
 	 * @param park The Park object to be updated with the retrieved details. This object must have its parkId set.
 	 * @return true if the park details were successfully retrieved and the Park object was updated; false if the park
 	 *         could not be found or if an SQL exception occurred.
 	 */
 	public boolean getParkById(Park park) {
+		if (parkCache.get(park))
+			return true;
 		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		long loadGeneration = parkCache.currentGeneration();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM parks WHERE ParkId = ?");
 			stmt.setInt(1, park.getParkId());
 			ResultSet rs = stmt.executeQuery();
@@ -65,6 +78,7 @@ public class ParkQueries {
 			park.setCurrentInPark(rs.getInt(6));
 			park.setPrice(rs.getInt(7));
 			
+			parkCache.put(park, loadGeneration);
 			return true;
 			
 		} catch (SQLException ex) {
@@ -84,8 +98,7 @@ public class ParkQueries {
 	 */
 	public ServerResponse getParkByName(Park park) {
 		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM parks WHERE ParkName = ?");
 			stmt.setInt(1, park.getParkName().getParkId());
 			ResultSet rs = stmt.executeQuery();
@@ -122,8 +135,7 @@ public class ParkQueries {
 	 */
 	public ServerResponse getParksNames(ArrayList<ParkNameEnum> parkList) {
 		
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT ParkName FROM parks");
 			
 			ResultSet rs = stmt.executeQuery();
@@ -158,8 +170,7 @@ public class ParkQueries {
 	 */
 	public ServerResponse returnParkPrice(Park park)
 	{
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT PRICE FROM parks WHERE ParkName = ?");
 			stmt.setInt(1, park.getParkName().getParkId());
 			ResultSet rs = stmt.executeQuery();
@@ -199,11 +210,9 @@ public class ParkQueries {
 	 */
 	public ServerResponse InsertNewValueInRequestedPark(Request request)
 	{
-		try {
+		String columnName = request.getRequestType().getValue(); // to get the field we want to update
 
-			String columnName = request.getRequestType().getValue(); // to get the field we want to update
-
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE parks SET " + columnName + " = ? WHERE ParkId = ?");
 
 			stmt.setInt(1, request.getNewValue());
@@ -214,6 +223,7 @@ public class ParkQueries {
 			if (rs==0) {
 				return ServerResponse.Fetched_Park_Details_Failed;
 			}
+			parkCache.invalidate(request.getParkId());
 			return ServerResponse.Updated_Requests_Successfully;
 
 		} catch (SQLException ex) {
@@ -223,32 +233,16 @@ public class ParkQueries {
 	}
 	
 	/**
-	 * Retrieves the current capacity and the number of visitors currently in the park.
+	 * Retrieves the current capacity and the number of visitors currently in the park, through the park cache.
 	 * @param parkId The ID of the park.
 	 * @return An array containing two integers: the first is the maximum capacity of the park, and the second is the current number of visitors in the park. Returns null if an error occurs.
 	 */
 	public int[] returnCapacityCurrentInParkForPark(int parkId) {
-		int[] values = new int[2];
-
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement selectStmt = con
-					.prepareStatement("SELECT MaxCapacity, CurrentInPark From parks WHERE ParkId = ?; ");
-			selectStmt.setInt(1, parkId);
-			ResultSet rs = selectStmt.executeQuery();
-
-			if (!rs.next()) {
-				return null;
-			}
-			values[0] = rs.getInt("MaxCapacity");
-			values[1] = rs.getInt("CurrentInPark");
-			return values;
-
-		} catch (SQLException ex) {
-			ex.printStackTrace();
+		Park park = new Park(parkId);
+		if (!getParkById(park)) {
 			return null;
 		}
-
+		return new int[] { park.getCurrentMaxCapacity(), park.getCurrentInPark() };
 	}
 	
 	/**
@@ -260,8 +254,7 @@ public class ParkQueries {
 	 */
 	public boolean updateParkFullDateTable(QueryType operation, LocalDate date, String parkName) {
 
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			if (operation.name().equals("Insert")) {
 				PreparedStatement insertStmt = con
 						.prepareStatement("INSERT INTO parkfulldates (Date, ?) VALUES (?, 1);");
@@ -1,13 +1,14 @@
 package jdbc.query;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,6 +20,7 @@ import logic.CancellationsReport;
 import logic.ParkAmountSummary;
 import logic.ParkDailySummary;
 import logic.ParkFullDaySummary;
+import logic.Report;
 import logic.UsageReport;
 import logic.VisitsReport;
 import utils.ReportGenerator;
@@ -33,67 +35,48 @@ import utils.enums.ParkNameEnum;
 public class ReportsQueries {
 	
 	/**
-	 * Retrieves a summary of daily activities for a specified park on a given day and month. The summary includes
-	 * total cancelled orders, time passed orders, and the total number of orders.
+	 * Retrieves a summary of daily activities for a specified park in every day of a month, with one query grouped by
+	 * day. The summary of each day includes total cancelled orders, time passed orders, and the total number of orders.
+	 * The month is given as a range of EnterDate, so the query can use an index on EnterDate.
 	 *
-	 * @param month The month for which the summary is requested.
-	 * @param day   The day for which the summary is requested.
-	 * @param parkId The ID of the park for which the summary is requested.
-	 * @return A {@link ParkDailySummary} object containing the summary for the given day, or null if an error occurs.
+	 * @param month The month for which the summaries are requested.
+	 * @param parkId The ID of the park for which the summaries are requested, or the number of a district for all the
+	 *               parks in it.
+	 * @return The summary of every day of the month by day (a day with no orders has a summary of zeros), or null if an
+	 *         error occurs.
 	 */
-	public ParkDailySummary getParkDailySummaryByDay(int month,int day, int parkId) { 
-		ParkDailySummary currentDaySummary = new ParkDailySummary();
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt;
-			switch(parkId) {
-			case(4):
-			case(5):
-				stmt = con
-				.prepareStatement("SELECT"
-			              + " SUM(CASE WHEN OrderStatus = 'Cancelled' THEN 1 ELSE 0 END) AS TotalCanceledOrders,"
-			              + " SUM(CASE WHEN OrderStatus = 'Time Passed' THEN 1 ELSE 0 END) AS TotalTimePassedOrders,"
-			              + " COUNT(*) AS TotalOrders"
-			              + " FROM"
-			              + " preorders"
-			              + " WHERE"
-			              + " ParkId IN (SELECT ParkId FROM parks WHERE district = ?)"
-			              + " AND MONTH(EnterDate) = ?"
-			              + " AND DAY(EnterDate) = ?");
-
-				stmt.setInt(1, parkId);
-				stmt.setInt(2, month);
-				stmt.setInt(3, day);
-				break;
-			default:
-				stmt = con
-				.prepareStatement("SELECT COUNT(CASE WHEN OrderStatus = 'Cancelled' THEN 1 END) AS CanceledOrders, "
-						+ "COUNT(CASE WHEN OrderStatus = 'Time Passed' THEN 1 END) AS TimePassedOrders, "
-						+ "COUNT(*) AS TotalOrders " + "FROM preorders " + "WHERE ParkId = ? "
-						+ "AND MONTH(EnterDate) = ? AND DAY(EnterDate) = ?");
-
-				stmt.setInt(1, parkId);
-				stmt.setInt(2, month);
-				stmt.setInt(3, day);
-				break;
-		
-			}
+	public HashMap<Integer, ParkDailySummary> getParkDailySummariesOfMonth(YearMonth month, int parkId) {
+		ParkNameEnum park = ParkNameEnum.fromParkId(parkId);
+		HashMap<Integer, ParkDailySummary> summariesByDay = new HashMap<Integer, ParkDailySummary>();
+		for (int day = 1; day <= month.lengthOfMonth(); day++)
+			summariesByDay.put(day, new ParkDailySummary(day, 0, 0, 0, park));
+
+		String parkCondition;
+		switch (parkId) {
+		case (4):
+		case (5):
+			parkCondition = "ParkId IN (SELECT ParkId FROM parks WHERE district = ?)";
+			break;
+		default:
+			parkCondition = "ParkId = ?";
+			break;
+		}
+
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
+			PreparedStatement stmt = con.prepareStatement("SELECT DAY(EnterDate) AS Day, "
+					+ "COUNT(CASE WHEN OrderStatus = 'Cancelled' THEN 1 END) AS CanceledOrders, "
+					+ "COUNT(CASE WHEN OrderStatus = 'Time Passed' THEN 1 END) AS TimePassedOrders, "
+					+ "COUNT(*) AS TotalOrders " + "FROM preorders " + "WHERE " + parkCondition + " "
+					+ "AND EnterDate >= ? AND EnterDate < ? " + "GROUP BY DAY(EnterDate)");
+			stmt.setInt(1, parkId);
+			setMonthRange(stmt, 2, month);
+
 			ResultSet rs = stmt.executeQuery();
-			// if the query ran successfully, but returned as empty table.
-			if (!rs.next()) {
-				currentDaySummary.setCancelsOrders(0);
-				currentDaySummary.setDay(day);
-				currentDaySummary.setTimePassedOrders(0);
-				currentDaySummary.setTotalOrders(0);
-				currentDaySummary.setPark(ParkNameEnum.fromParkId(parkId));
-				return currentDaySummary;
+			while (rs.next()) {
+				int day = rs.getInt(1);
+				summariesByDay.put(day, new ParkDailySummary(day, rs.getInt(2), rs.getInt(3), rs.getInt(4), park));
 			}
-			currentDaySummary.setCancelsOrders(rs.getInt(1));
-			currentDaySummary.setDay(day);
-			currentDaySummary.setTimePassedOrders(rs.getInt(2));
-			currentDaySummary.setTotalOrders(rs.getInt(3));
-			currentDaySummary.setPark(ParkNameEnum.fromParkId(parkId));
-			return currentDaySummary;
+			return summariesByDay;
 
 		} catch (SQLException ex) {
 //		serverController.printToLogConsole("Query search for user failed");
@@ -103,48 +86,57 @@ public class ReportsQueries {
 	}
 	
 	/**
-	 * Checks if the park was full for each day of a given month and year, at a specific hour. This method is useful for
-	 * understanding peak times and planning accordingly.
+	 * Counts how many times the park was full at each hour between 8 and 20 during a given month, with one query
+	 * grouped by hour. This method is useful for understanding peak times and planning accordingly.
 	 *
 	 * @param month The month of interest.
-	 * @param hour  The hour of interest.
-	 * @param year  The year of interest.
 	 * @param park  The {@link ParkNameEnum} representing the park of interest.
-	 * @return A {@link ParkFullDaySummary} detailing the number of times the park was full during the specified hour across the month.
+	 * @return The {@link ParkFullDaySummary} of every hour by hour (an hour in which the park was never full has a
+	 *         summary of zero), or null if an error occurs.
 	 */
-	public ParkFullDaySummary getIfParkWasFullEachDay(int month,int hour, int year, ParkNameEnum park) //added by tamir
+	public HashMap<Integer, ParkFullDaySummary> getParkFullHoursOfMonth(YearMonth month, ParkNameEnum park) //added by tamir
 	{
-		ParkFullDaySummary currentDaySummary = new ParkFullDaySummary();
+		HashMap<Integer, ParkFullDaySummary> summariesByHour = new HashMap<Integer, ParkFullDaySummary>();
+		for (int hour = 8; hour < 21; hour++)
+			summariesByHour.put(hour, new ParkFullDaySummary(hour, 0, park));
+
+		// each park has its own column.
 		String parkColumnName = park.name();
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			
-			PreparedStatement stmt = con.prepareStatement("SELECT " +parkColumnName +" FROM parkfulldatetime WHERE Month=? AND Hour(Hour)=? AND year=?;");
-	        stmt.setInt(1, month);
-	        stmt.setInt(2, hour);
-	        stmt.setInt(3, year);
+			PreparedStatement stmt = con.prepareStatement("SELECT HOUR(Hour) AS FullHour, SUM(" + parkColumnName + ") "
+					+ "FROM parkfulldatetime WHERE Year = ? AND Month = ? AND Hour >= '08:00:00' AND Hour < '21:00:00' "
+					+ "GROUP BY HOUR(Hour);");
+	        stmt.setInt(1, month.getYear());
+	        stmt.setInt(2, month.getMonthValue());
 	        ResultSet rs = stmt.executeQuery();
 	        
-	        if(!rs.next())
-	        {
-	             currentDaySummary = new ParkFullDaySummary();
-	             currentDaySummary.setHour(hour);
-	             currentDaySummary.setTimesFullInSpecificHour(0);
-	             currentDaySummary.setPark(park);
-	             return currentDaySummary;
+	        while (rs.next()) {
+	        	int hour = rs.getInt(1);
+	        	summariesByHour.put(hour, new ParkFullDaySummary(hour, rs.getInt(2), park));
 	        }
-	        
-            currentDaySummary = new ParkFullDaySummary();
-            currentDaySummary.setHour(hour);
-            currentDaySummary.setTimesFullInSpecificHour(rs.getInt(1));
-            currentDaySummary.setPark(park);
-         
+	        return summariesByHour;
 		}
-		catch(Exception e)
+		catch(SQLException e)
 		{
 			e.printStackTrace();
+			return null;
 		}
-		return currentDaySummary;
+	}
+	
+	/**
+	 * Sets the first moment of a month and the first moment of the next month as two parameters of a statement, for
+	 * an "EnterDate &gt;= ? AND EnterDate &lt; ?" condition. Unlike MONTH(EnterDate) and YEAR(EnterDate), such a
+	 * condition lets the DB use an index on EnterDate instead of reading every order.
+	 *
+	 * @param stmt The statement.
+	 * @param parameterIndex The index of the first of the two parameters.
+	 * @param month The month.
+	 * @throws SQLException if the parameters can't be set.
+	 */
+	private static void setMonthRange(PreparedStatement stmt, int parameterIndex, YearMonth month) throws SQLException {
+		stmt.setTimestamp(parameterIndex, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+		stmt.setTimestamp(parameterIndex + 1, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
 	}
 	
 	/**
@@ -156,20 +148,9 @@ public class ReportsQueries {
 	 */
 	public boolean generateUsageReport(UsageReport report) {
 
-		int year = report.getYear();
-		int month = report.getMonth();
-
-		HashMap<Integer, ParkFullDaySummary> parkSummaryByDays = new HashMap<Integer, ParkFullDaySummary>();
-
-		for (int hour = 8; hour < 21; hour++) 
-		{
-			ParkFullDaySummary temp = getIfParkWasFullEachDay(month,hour,year,report.getRequestedPark());
-			if (temp != null)
-			{
-				parkSummaryByDays.put(hour, temp);
-			}
-		}
-		if (parkSummaryByDays.isEmpty())
+		HashMap<Integer, ParkFullDaySummary> parkSummaryByDays = getParkFullHoursOfMonth(
+				YearMonth.of(report.getYear(), report.getMonth()), report.getRequestedPark());
+		if (parkSummaryByDays == null)
 			return false;
 
 		report.setReportData(parkSummaryByDays);
@@ -190,8 +171,7 @@ public class ReportsQueries {
 	 * @return true if the operation is successful, false otherwise.
 	 */
 	private boolean insertGeneratedUsageReportToDatabase(UsageReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"INSERT INTO usagereport (parkId, year, month, pdfblob) \r\n" + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE PDFBlob = VALUES(PDFBlob);");
 
@@ -215,45 +195,15 @@ public class ReportsQueries {
 	}
 	
 	/**
-	 * Retrieves the blob content of a previously generated usage report from the database.
+	 * Writes the PDF of a previously generated usage report from the database to a stream, while it is read.
 	 *
 	 * @param report The {@link UsageReport} identifying the report to retrieve.
-	 * @return An array of bytes representing the PDF content of the report, or null if the report could not be found or an error occurred.
+	 * @param out The stream the PDF is written to.
+	 * @return true if the report was found and written, false if it could not be found or the query failed.
+	 * @throws IOException if the PDF could not be read from the database or written to the stream.
 	 */
-	public byte[] getRequestedUsageReport(UsageReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement(
-					"SELECT pdfblob FROM usagereport WHERE Year = ? AND Month = ? AND ParkId = ?");
-
-			stmt.setInt(1, report.getYear());
-			stmt.setInt(2, report.getMonth());
-			stmt.setInt(3, report.getRequestedPark().getParkId());
-
-			ResultSet rs = stmt.executeQuery();
-
-			if (!rs.next()) {
-				return null;
-			}
-			// retrieve the Blob from the database
-			Blob pdfBlob = rs.getBlob(1);
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			byte[] buf = new byte[50000];
-			try (InputStream in = pdfBlob.getBinaryStream()) {
-				int n;
-				while ((n = in.read(buf)) > 0) {
-					baos.write(buf, 0, n);
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-				return null;
-			}
-
-			byte[] pdfBytes = baos.toByteArray();
-			return pdfBytes;
-		} catch (SQLException ex) {
-			return null;
-		}
+	public boolean writeRequestedUsageReport(UsageReport report, OutputStream out) throws IOException {
+		return writeRequestedReport("SELECT pdfblob FROM usagereport WHERE Year = ? AND Month = ? AND ParkId = ?", report, out);
 	}
 	
 	/**
@@ -271,8 +221,7 @@ public class ReportsQueries {
 	 */
 	public ParkAmountSummary getAmountDivisionByOrderTypeInChoosenMonth(int month, int parkId,int year) {
 				ParkAmountSummary parkAmountSum = new ParkAmountSummary();
-				try {
-					Connection con = MySqlConnection.getInstance().getConnection();
+				try (Connection con = MySqlConnection.getInstance().getConnection()) {
 					PreparedStatement stmt = con
 							.prepareStatement("SELECT\n"
 									+ "    SUM(ParkSolo) AS TotalSolo,\n"
@@ -287,8 +236,7 @@ public class ReportsQueries {
 									+ "        occasionalvisits\n"
 									+ "    WHERE\n"
 									+ "        OrderStatus = 'Completed' \n"
-									+ "        AND MONTH(EnterDate) = ?\n"
-									+ "        AND YEAR(EnterDate) = ?\n"
+									+ "        AND EnterDate >= ? AND EnterDate < ?\n"
 									+ "    UNION ALL\n"
 									+ "    SELECT\n"
 									+ "        SUM(CASE WHEN parkId = ? AND OrderType='Solo Preorder' THEN Amount ELSE 0 END) AS ParkSolo,\n"
@@ -299,20 +247,17 @@ public class ReportsQueries {
 									+ "        preorders\n"
 									+ "    WHERE\n"
 									+ "        OrderStatus = 'Completed' \n"
-									+ "        AND MONTH(EnterDate) = ?\n"
-									+ "        AND YEAR(EnterDate) = ?\n"
+									+ "        AND EnterDate >= ? AND EnterDate < ?\n"
 									+ ") AS subquery;");
 
 					stmt.setInt(1, parkId);
 					stmt.setInt(2, parkId);
 					stmt.setInt(3, parkId);
-					stmt.setInt(4, month);
-					stmt.setInt(5, year);
+					setMonthRange(stmt, 4, YearMonth.of(year, month));
 					stmt.setInt(6, parkId);
 					stmt.setInt(7, parkId);
 					stmt.setInt(8, parkId);
-					stmt.setInt(9, month);
-					stmt.setInt(10, year);
+					setMonthRange(stmt, 9, YearMonth.of(year, month));
 					
 					ResultSet rs = stmt.executeQuery();
 
@@ -348,20 +293,9 @@ public class ReportsQueries {
 	 * @return true if the report was successfully generated and saved, false otherwise.
 	 */
 	public boolean generateCancellationsReport(CancellationsReport report) {
-		int year = report.getYear();
-		int month = report.getMonth();
-		int parkId = report.getRequestedPark().getParkId();
-		YearMonth yearMonth = YearMonth.of(year, month);
-		int daysInMonth = yearMonth.lengthOfMonth();
-		HashMap<Integer, ParkDailySummary> parkSummaryByDays = new HashMap<Integer, ParkDailySummary>();
-
-		for (int day = 1; day <= daysInMonth; day++) {
-			ParkDailySummary temp = getParkDailySummaryByDay(month, day, parkId);
-			if (temp != null) {
-				parkSummaryByDays.put(day, temp);
-			}
-		}
-		if (parkSummaryByDays.isEmpty())
+		HashMap<Integer, ParkDailySummary> parkSummaryByDays = getParkDailySummariesOfMonth(
+				YearMonth.of(report.getYear(), report.getMonth()), report.getRequestedPark().getParkId());
+		if (parkSummaryByDays == null)
 			return false;
 
 		report.setReportData(parkSummaryByDays);
@@ -436,8 +370,7 @@ public class ReportsQueries {
 	 *         false if an SQL exception occurs or no data is found for the specified criteria.
 	 */
 	private boolean getParkVisitsSummaryByEnterTime(VisitsReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"SELECT " +
 						    "    OrderTypes.OrderType, " +
@@ -465,20 +398,19 @@ public class ReportsQueries {
 						    "LEFT JOIN ( " +
 						    "    SELECT EnterDate, ExitDate, Amount, OrderType " +
 						    "    FROM occasionalvisits " +
-						    "    WHERE parkId = ? AND MONTH(EnterDate) = ? AND YEAR(EnterDate) = ? " +
+						    "    WHERE parkId = ? AND EnterDate >= ? AND EnterDate < ? " +
 						    "    UNION ALL " +
 						    "    SELECT EnterDate, ExitDate, Amount, OrderType " +
 						    "    FROM preorders " +
-						    "    WHERE parkId = ? AND MONTH(EnterDate) = ? AND YEAR(EnterDate) = ? " +
+						    "    WHERE parkId = ? AND EnterDate >= ? AND EnterDate < ? " +
 						    ") AS combined ON OrderTypes.OrderType = combined.OrderType " +
 						    "GROUP BY OrderTypes.OrderType;");
 
+			YearMonth month = YearMonth.of(report.getYear(), report.getMonth());
 			stmt.setInt(1, report.getRequestedPark().getParkId());
-			stmt.setInt(2, report.getMonth());
-			stmt.setInt(3, report.getYear());
+			setMonthRange(stmt, 2, month);
 			stmt.setInt(4, report.getRequestedPark().getParkId());
-			stmt.setInt(5, report.getMonth());
-			stmt.setInt(6, report.getYear());
+			setMonthRange(stmt, 5, month);
 
 			ResultSet rs = stmt.executeQuery();
 			if (!rs.next())
@@ -524,8 +456,7 @@ public class ReportsQueries {
 	 * @return true if the summary was successfully retrieved and set in the report object, false if there was an error or no data.
 	 */
 	private boolean getParkIdleVisitTimeSummary(VisitsReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT "
 				    + "SUM(CASE WHEN (OrderType='Solo Occasional' OR OrderType='Solo Preorder') AND Duration='0-1' THEN Amount ELSE 0 END) AS TotalSolo0_1, "
 				    + "SUM(CASE WHEN (OrderType='Family Occasional' OR OrderType='Family Preorder') AND Duration='0-1' THEN Amount ELSE 0 END) AS TotalFamily0_1, "
@@ -552,7 +483,7 @@ public class ReportsQueries {
 				    + "ELSE '4+' "
 				    + "END AS Duration "
 				    + "FROM preorders "
-				    + "WHERE parkId = ? AND MONTH(EnterDate) = ? AND YEAR(EnterDate) = ? "
+				    + "WHERE parkId = ? AND EnterDate >= ? AND EnterDate < ? "
 				    + "UNION ALL "
 				    + "SELECT OrderId, EnterDate, ExitDate, Amount, OrderType, "
 				    + "CASE "
@@ -563,16 +494,15 @@ public class ReportsQueries {
 				    + "ELSE '4+' "
 				    + "END AS Duration "
 				    + "FROM occasionalvisits "
-				    + "WHERE parkId = ? AND MONTH(EnterDate) = ? AND YEAR(EnterDate) = ? "
+				    + "WHERE parkId = ? AND EnterDate >= ? AND EnterDate < ? "
 				    +") AS subquery;");
 			
 			
+			YearMonth month = YearMonth.of(report.getYear(), report.getMonth());
 			stmt.setInt(1, report.getRequestedPark().getParkId());
-			stmt.setInt(2, report.getMonth());
-			stmt.setInt(3, report.getYear());
+			setMonthRange(stmt, 2, month);
 			stmt.setInt(4, report.getRequestedPark().getParkId());
-			stmt.setInt(5, report.getMonth());
-			stmt.setInt(6, report.getYear());
+			setMonthRange(stmt, 5, month);
 			
 			ResultSet rs = stmt.executeQuery();
 			if(!rs.next())
@@ -604,8 +534,7 @@ public class ReportsQueries {
 	 * @return true if the report was successfully inserted or updated in the database, false otherwise.
 	 */
 	private boolean insertGeneratedCancellationsReportToDatabase(CancellationsReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"INSERT INTO cancellationsreports (parkId, year, month, pdfblob) \r\n" + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE PDFBlob = VALUES(PDFBlob);");
 
@@ -636,8 +565,7 @@ public class ReportsQueries {
 	 * @return true if the report was successfully inserted or updated in the database, false in case of any errors.
 	 */
 	private boolean insertVisitsAmountReportToDatabase(VisitsReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"INSERT INTO visitsreport (parkId, year, month, pdfblob) \r\n" + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE PDFBlob = VALUES(PDFBlob);");
  
@@ -668,8 +596,7 @@ public class ReportsQueries {
 	 * @return true if the report was successfully inserted or updated, false if the operation failed.
 	 */
 	private boolean insertTotalAmountReportToDatabase(AmountDivisionReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement(
 					"INSERT INTO totalvisitorsreport (parkId, year, month, pdfblob) \r\n" + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE PDFBlob = VALUES(PDFBlob);");
  
@@ -692,132 +619,72 @@ public class ReportsQueries {
 	}
 	
 	/**
-	 * Retrieves the blob content of a previously generated cancellations report from the database.
+	 * Writes the PDF of a previously generated cancellations report from the database to a stream, while it is read.
 	 *
 	 * @param report The {@link CancellationsReport} identifying the report to retrieve.
-	 * @return An array of bytes representing the PDF content of the report, or null if the report could not be found or an error occurred.
+	 * @param out The stream the PDF is written to.
+	 * @return true if the report was found and written, false if it could not be found or the query failed.
+	 * @throws IOException if the PDF could not be read from the database or written to the stream.
 	 */
-	public byte[] getRequestedCancellationsReport(CancellationsReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement(
-					"SELECT PdfBlob FROM cancellationsreports WHERE Year = ? AND Month = ? AND ParkId = ?");
-
-			stmt.setInt(1, report.getYear());
-			stmt.setInt(2, report.getMonth());
-			stmt.setInt(3, report.getRequestedPark().getParkId());
-
-			ResultSet rs = stmt.executeQuery();
-
-			if (!rs.next()) {
-				return null;
-			}
-			// retrieve the Blob from the database
-			Blob pdfBlob = rs.getBlob(1);
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			byte[] buf = new byte[50000];
-			try (InputStream in = pdfBlob.getBinaryStream()) {
-				int n;
-				while ((n = in.read(buf)) > 0) {
-					baos.write(buf, 0, n);
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-				return null;
-			}
-
-			byte[] pdfBytes = baos.toByteArray();
-			return pdfBytes;
-		} catch (SQLException ex) {
-			return null;
-		}
+	public boolean writeRequestedCancellationsReport(CancellationsReport report, OutputStream out) throws IOException {
+		return writeRequestedReport("SELECT PdfBlob FROM cancellationsreports WHERE Year = ? AND Month = ? AND ParkId = ?", report, out);
 	}
 	
 	/**
-	 * Retrieves the blob content of a previously generated visits report from the database.
+	 * Writes the PDF of a previously generated visits report from the database to a stream, while it is read.
 	 *
 	 * @param report The {@link VisitsReport} identifying the report to retrieve.
-	 * @return An array of bytes representing the PDF content of the report, or null if the report could not be found or an error occurred.
+	 * @param out The stream the PDF is written to.
+	 * @return true if the report was found and written, false if it could not be found or the query failed.
+	 * @throws IOException if the PDF could not be read from the database or written to the stream.
 	 */
-	public byte[] getRequestedVisitsReport(VisitsReport report) {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
-			PreparedStatement stmt = con.prepareStatement(
-					"SELECT PdfBlob FROM visitsreport WHERE Year = ? AND Month = ? AND ParkId = ?");
-
-			stmt.setInt(1, report.getYear());
-			stmt.setInt(2, report.getMonth());
-			stmt.setInt(3, report.getRequestedPark().getParkId());
-
-			ResultSet rs = stmt.executeQuery();
-
-			if (!rs.next()) {
-				return null;
-			}
-			// retrieve the Blob from the database
-			Blob pdfBlob = rs.getBlob(1);
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			byte[] buf = new byte[50000];
-			try (InputStream in = pdfBlob.getBinaryStream()) {
-				int n;
-				while ((n = in.read(buf)) > 0) {
-					baos.write(buf, 0, n);
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-				return null;
-			}
-
-			byte[] pdfBytes = baos.toByteArray();
-			return pdfBytes;
-		} catch (SQLException ex) {
-			return null;
-		}
+	public boolean writeRequestedVisitsReport(VisitsReport report, OutputStream out) throws IOException {
+		return writeRequestedReport("SELECT PdfBlob FROM visitsreport WHERE Year = ? AND Month = ? AND ParkId = ?", report, out);
 	}
 	
 	/**
-	 * Retrieves the blob content of a previously generated total amount division report from the database.
+	 * Writes the PDF of a previously generated total amount division report from the database to a stream, while it is read.
 	 *
 	 * @param report The {@link AmountDivisionReport} identifying the report to retrieve.
-	 * @return An array of bytes representing the PDF content of the report, or null if the report could not be found or an error occurred.
+	 * @param out The stream the PDF is written to.
+	 * @return true if the report was found and written, false if it could not be found or the query failed.
+	 * @throws IOException if the PDF could not be read from the database or written to the stream.
 	 */
-	public byte[] getRequestedTotalAmountReport(AmountDivisionReport report) {
-			try {
-				Connection con = MySqlConnection.getInstance().getConnection();
-				PreparedStatement stmt = con.prepareStatement(
-						"SELECT PdfBlob FROM totalvisitorsreport WHERE Year = ? AND Month = ? AND ParkId = ?");
-
-				stmt.setInt(1, report.getYear());
-				stmt.setInt(2, report.getMonth());
-				stmt.setInt(3, report.getRequestedPark().getParkId());
+	public boolean writeRequestedTotalAmountReport(AmountDivisionReport report, OutputStream out) throws IOException {
+		return writeRequestedReport("SELECT PdfBlob FROM totalvisitorsreport WHERE Year = ? AND Month = ? AND ParkId = ?", report, out);
+	}
 
-				ResultSet rs = stmt.executeQuery();
+	/**
+	 * Writes the PDF blob of a report to a stream through a small buffer, instead of copying it into an array which
+	 * holds the whole PDF.
+	 *
+	 * @param query The query which selects the PDF blob of the report, by year, month and park ID.
+	 * @param report The report to retrieve.
+	 * @param out The stream the PDF is written to.
+	 * @return true if the report was found and written, false if it could not be found or the query failed.
+	 * @throws IOException if the PDF could not be read from the database or written to the stream.
+	 */
+	private boolean writeRequestedReport(String query, Report report, OutputStream out) throws IOException {
+		try (Connection con = MySqlConnection.getInstance().getConnection();
+				PreparedStatement stmt = con.prepareStatement(query)) {
+			stmt.setInt(1, report.getYear());
+			stmt.setInt(2, report.getMonth());
+			stmt.setInt(3, report.getRequestedPark().getParkId());
 
+			try (ResultSet rs = stmt.executeQuery()) {
 				if (!rs.next()) {
-					return null;
+					return false;
 				}
-				// retrieve the Blob from the database
 				Blob pdfBlob = rs.getBlob(1);
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				byte[] buf = new byte[50000];
 				try (InputStream in = pdfBlob.getBinaryStream()) {
-					int n;
-					while ((n = in.read(buf)) > 0) {
-						baos.write(buf, 0, n);
-					}
-				} catch (IOException e) {
-					e.printStackTrace();
-					return null;
+					in.transferTo(out);
+				} finally {
+					pdfBlob.free();
 				}
-
-				byte[] pdfBytes = baos.toByteArray();
-				return pdfBytes;
-			} catch (SQLException ex) {
-				return null;
+				return true;
 			}
-
+		} catch (SQLException ex) {
+			return false;
 		}
-	
-		
-
+	}
 }
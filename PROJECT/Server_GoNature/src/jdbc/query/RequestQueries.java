@@ -8,6 +8,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 
 import jdbc.MySqlConnection;
+import logic.OccupancyLedger;
 import logic.Request;
 import utils.enums.RequestStatusEnum;
 import utils.enums.RequestTypeEnum;
@@ -31,8 +32,7 @@ public class RequestQueries {
 	 */
 	public ServerResponse ShowAllParkManagerRequests(ArrayList<Request> request) //Method to pull all the requests with pending status. (Tamir/Siso)
 	{
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("SELECT * FROM requests WHERE RequestStatus = 'Pending'");
 
 			ResultSet rs = stmt.executeQuery();
@@ -76,28 +76,29 @@ public class RequestQueries {
 	 */
 	public ServerResponse UpdateStatusRequest(Request request,String status)
 	{
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		int rs;
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			PreparedStatement stmt = con.prepareStatement("UPDATE requests SET RequestStatus = ? WHERE RequestId = ?");
 			stmt.setString(1, status);
 			stmt.setInt(2,request.getRequestId());
-			int rs = stmt.executeUpdate();
-
-			// if the query ran successfully, but returned as empty table.
-			if (rs==0) {
-				return ServerResponse.Updated_Requests_Failed;
-			}
-			
-			if(status.equals("Approved")) {
-				parkQueries.InsertNewValueInRequestedPark(request);
-			}
-
-			return ServerResponse.Updated_Requests_Successfully;
-			
+			rs = stmt.executeUpdate();
 		} catch (SQLException ex) {
 //			serverController.printToLogConsole("Query search for user failed");
 			return ServerResponse.Query_Failed;
 		}
+
+		// if the query ran successfully, but returned as empty table.
+		if (rs==0) {
+			return ServerResponse.Updated_Requests_Failed;
+		}
+		
+		// the park is updated after the connection above was returned, so this method holds only one connection at a time.
+		if(status.equals("Approved")) {
+			if (parkQueries.InsertNewValueInRequestedPark(request) == ServerResponse.Updated_Requests_Successfully)
+				OccupancyLedger.getInstance().refreshPark(request.getParkId());
+		}
+
+		return ServerResponse.Updated_Requests_Successfully;
 	}
 	
 	/**
@@ -110,8 +111,7 @@ public class RequestQueries {
 	 *         or {@code false} if a matching pending request already exists or if the insert operation failed.
 	 */
 	public boolean InsertNewRequest(Request request) {
-	    try {
-	        Connection con = MySqlConnection.getInstance().getConnection();
+	    try (Connection con = MySqlConnection.getInstance().getConnection()) {
 
 	        // Check if a pending request of the same type for the same park exists
 	        String checkSql = "SELECT 1 FROM requests WHERE ParkId = ? AND RequestType = ? AND RequestStatus = 'Pending'";
@@ -0,0 +1,162 @@
+package logic;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jdbc.query.QueryControl;
+import ocsf.ConnectionToClient;
+import utils.enums.ServerResponse;
+
+/**
+ * The AvailabilityWatch class pushes the available dates of a park to the clients which watch them, instead of each
+ * client searching for them again every few seconds. A watch is the same search as Search_For_Available_Date: a park,
+ * an enter time and a number of visitors, and the same hour on each of the 7 days from the enter time.
+ * The client gets the available dates once (Available_Dates_Changed) when it starts watching, and again only when
+ * they changed: the watch listens to the {@link OccupancyLedger}, and a change of the park's booked capacity which
+ * overlaps the watched days (a new order, a cancellation, a deletion, a change of the park's capacity) searches the
+ * dates again. The new dates are sent only if they differ from the dates which were sent before.
+ * Clients which watch the same search share one watch, and each connection watches one search at a time.
+ * All the work runs on a single thread, and a watch which changed several times before it was searched again is
+ * searched once. A search which fails sends nothing, so a failure is never shown as a week with no available
+ * dates: the clients keep the dates they got, and the next change searches again.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class AvailabilityWatch implements CapacityChangeListener {
+
+	// the number of days the search covers, from the day of the enter time.
+	private static final int SEARCH_DAYS = 7;
+
+	private static final AvailabilityWatch instance = new AvailabilityWatch();
+
+	/**
+	 * One watched search, and the clients which watch it.
+	 */
+	private static class Watch {
+		private final String key;
+		private final Order search;
+		private final LocalDateTime windowEnd;
+		private final Set<ConnectionToClient> clients = ConcurrentHashMap.newKeySet();
+		// true from the change which needs a new search until the search starts.
+		private final AtomicBoolean searchQueued = new AtomicBoolean();
+		// the dates which were sent to the clients, null until a search succeeded. Changed only by the dispatcher.
+		private ArrayList<LocalDateTime> availableDates;
+
+		private Watch(String key, Order search) {
+			this.key = key;
+			this.search = search;
+			// every stay which begins in the searched days ends before the next day.
+			this.windowEnd = search.getEnterDate().plusDays(SEARCH_DAYS);
+		}
+
+		private boolean overlaps(int parkId, LocalDateTime from, LocalDateTime to) {
+			return search.getParkName().getParkId() == parkId && from.isBefore(windowEnd)
+					&& to.isAfter(search.getEnterDate());
+		}
+	}
+
+	// the watches, by park, enter time and number of visitors. Read by any thread, changed only by the dispatcher.
+	private final ConcurrentHashMap<String, Watch> watches = new ConcurrentHashMap<>();
+	// the watch of each connection, used only by the dispatcher.
+	private final ConcurrentHashMap<ConnectionToClient, Watch> watchOfClient = new ConcurrentHashMap<>();
+	private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "Availability watch");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private AvailabilityWatch() {
+	}
+
+	/**
+	 * @return the single instance of the watch.
+	 */
+	public static AvailabilityWatch getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Starts watching the available dates of an order, instead of the dates the connection watched before, and sends
+	 * the connection the available dates.
+	 *
+	 * @param client the connection of the client.
+	 * @param order the order to search dates for, with its park, enter date and number of visitors.
+	 */
+	public void watch(ConnectionToClient client, Order order) {
+		Order search = new Order();
+		search.setParkName(order.getParkName());
+		search.setEnterDate(order.getEnterDate());
+		search.setNumberOfVisitors(order.getNumberOfVisitors());
+		String key = search.getParkName().getParkId() + ":" + search.getEnterDate() + ":" + search.getNumberOfVisitors();
+
+		dispatcher.execute(() -> {
+			removeClient(client);
+			Watch watch = watches.computeIfAbsent(key, k -> new Watch(k, search));
+			if (watch.availableDates == null)
+				watch.availableDates = QueryControl.orderQueries.searchForAvailableDates7DaysForward(watch.search);
+			watch.clients.add(client);
+			watchOfClient.put(client, watch);
+			if (watch.availableDates != null)
+				send(client, watch.availableDates);
+		});
+	}
+
+	/**
+	 * Stops watching the available dates for a connection, when its screen was closed or the connection was closed.
+	 *
+	 * @param client the connection.
+	 */
+	public void unwatch(ConnectionToClient client) {
+		dispatcher.execute(() -> removeClient(client));
+	}
+
+	@Override
+	public void capacityChanged(int parkId, LocalDateTime from, LocalDateTime to) {
+		for (Watch watch : watches.values()) {
+			if (watch.overlaps(parkId, from, to) && watch.searchQueued.compareAndSet(false, true))
+				dispatcher.execute(() -> searchAgain(watch));
+		}
+	}
+
+	/**
+	 * Searches the available dates of a watch again, and sends them to its clients if they changed.
+	 */
+	private void searchAgain(Watch watch) {
+		watch.searchQueued.set(false);
+		if (watches.get(watch.key) != watch)
+			return;
+		ArrayList<LocalDateTime> availableDates = QueryControl.orderQueries
+				.searchForAvailableDates7DaysForward(watch.search);
+		if (availableDates == null || availableDates.equals(watch.availableDates))
+			return;
+		watch.availableDates = availableDates;
+		for (ConnectionToClient client : watch.clients)
+			send(client, availableDates);
+	}
+
+	/**
+	 * Sends the available dates to a client, and stops its watch if its connection is broken.
+	 */
+	private void send(ConnectionToClient client, ArrayList<LocalDateTime> availableDates) {
+		try {
+			client.sendToClient(new ServerResponseBackToClient(ServerResponse.Available_Dates_Changed,
+					new ArrayList<>(availableDates)));
+		} catch (IOException ex) {
+			removeClient(client);
+		}
+	}
+
+	private void removeClient(ConnectionToClient client) {
+		Watch watch = watchOfClient.remove(client);
+		if (watch == null)
+			return;
+		watch.clients.remove(client);
+		if (watch.clients.isEmpty())
+			watches.remove(watch.key);
+	}
+}
@@ -0,0 +1,23 @@
+package logic;
+
+import java.time.LocalDateTime;
+
+/**
+ * A listener which is told whenever the booked capacity of a park changed in the {@link OccupancyLedger}: an order
+ * which holds its place was added, left its place (cancelled, deleted, completed...) or the park's own capacity was
+ * changed.
+ * The listeners are registered on {@link OccupancyLedger#addCapacityChangeListener(CapacityChangeListener)}, and are
+ * called by the thread which made the change while the ledger is locked, so they must return quickly.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public interface CapacityChangeListener {
+
+	/**
+	 * Called after the capacity of a park changed between two times.
+	 *
+	 * @param parkId the ID of the park.
+	 * @param from the first time the change affects.
+	 * @param to the time the change stops affecting, exclusive.
+	 */
+	void capacityChanged(int parkId, LocalDateTime from, LocalDateTime to);
+}
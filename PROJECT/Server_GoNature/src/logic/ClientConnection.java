@@ -1,6 +1,5 @@
 package logic;
 
-import javafx.beans.property.SimpleStringProperty;
 import ocsf.ConnectionToClient;
 
 
@@ -17,43 +16,44 @@ import ocsf.ConnectionToClient;
 
 /**
  * The ClientConnection class is an entity which contains the client information.
- * This class use SimpleStringProperty in order to be able to observe it smoothly in UI.
+ * The clients table of the server screen reads it through its getters, so it doesn't depend on JavaFX and the
+ * server may run without it.
  */
 public class ClientConnection {
-	private SimpleStringProperty hostIp;
-	private SimpleStringProperty hostName;
-	private SimpleStringProperty username;
+	private String hostIp;
+	private String hostName;
+	private String username;
 	private ConnectionToClient connection;
 	
 	public ClientConnection(String username,ConnectionToClient connection) {
-		this.hostIp=new SimpleStringProperty(connection.getInetAddress().getHostAddress());
-		this.hostName=new SimpleStringProperty(connection.getInetAddress().getHostName());
-		this.username=new SimpleStringProperty(username);
+		this.hostIp=connection.getInetAddress().getHostAddress();
+		this.hostName=connection.getInetAddress().getHostName();
+		this.username=username;
 		this.setConnection(connection);
 	}
 	
 	public String getHostName() {
-		return hostName.get();
+		return hostName;
 	}
 	
 	public void setHostName(String hostName) {
-		this.hostName.set(hostName);
+		this.hostName=hostName;
 	}
 	
 	public String getHostIp() {
-		return hostIp.get();
+		return hostIp;
 	}
 	
 	public void setHostIp(String hostIp) {
-		this.hostIp.set(hostIp);
+		this.hostIp=hostIp;
 	}
 	
 	public String getUsername() {
-		return username.get();
+		return username;
 	}
 	
 	public void setUsername(String username) {
-		this.username.set(username);
+		this.username=username;
 	}
 
 	public ConnectionToClient getConnection() {
@@ -70,7 +70,7 @@ public class ClientConnection {
 		}
 	
 	public boolean isAlreadyConnected(ClientConnection newConnect) {
-		return username.get().equals(newConnect.getUsername());
+		return username.equals(newConnect.getUsername());
 	}
 	
 
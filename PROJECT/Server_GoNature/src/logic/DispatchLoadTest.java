@@ -0,0 +1,268 @@
+package logic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ocsf.AbstractServer;
+import ocsf.ConnectionToClient;
+import utils.codec.BinaryMessageCodec;
+import utils.codec.MessageCodec;
+import utils.enums.ClientRequest;
+import utils.enums.ParkNameEnum;
+import utils.enums.ServerResponse;
+
+/**
+ * The DispatchLoadTest class is a load test of the concurrent dispatch of the requests. It starts an OCSF server
+ * configured as GoNatureServer is (the non-blocking transport, virtual threads and the binary codec) whose requests
+ * are locked by the same {@link ClientRequestHandler} code, but handled by a simulated handler which sleeps instead
+ * of querying the database, so no database is needed. Then it opens many clients which each send a stream of
+ * requests for their own order without waiting for the responses: half of them change the capacity of a park (and
+ * are serialized per park), the other half only read.
+ * It runs the load twice, first with the serialized dispatch of the original server (one request of the whole
+ * server at a time) and then with the concurrent dispatch, and fails if:
+ * - two requests of the same park were handled at the same time,
+ * - the requests of an order were handled, or answered, out of the order they were sent in,
+ * - the concurrent dispatch is not faster than the serialized one.
+ * Run it with no arguments, or with the number of clients, of requests of each client and of milliseconds each
+ * request takes.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class DispatchLoadTest {
+
+	private static final int FRAMED_PROTOCOL_MAGIC = 0x4F434631;
+	// the parks the clients' orders are spread over.
+	private static final ParkNameEnum[] PARKS = { ParkNameEnum.Banias, ParkNameEnum.Masada, ParkNameEnum.Herodium };
+	// the concurrent dispatch must be at least this many times faster.
+	private static final double MIN_SPEEDUP = 2.0;
+
+	public static void main(String[] args) throws Exception {
+		int clients = args.length > 0 ? Integer.parseInt(args[0]) : 24;
+		int requestsPerClient = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+		int workMillis = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+		System.out.printf("%d clients, %d requests each, %d ms of work per request%n", clients, requestsPerClient,
+				workMillis);
+		Result serialized = runLoad(false, clients, requestsPerClient, workMillis);
+		Result concurrent = runLoad(true, clients, requestsPerClient, workMillis);
+		System.out.printf("%-12s %10s %12s %18s %18s%n", "dispatch", "seconds", "requests/s", "park overlaps",
+				"order violations");
+		serialized.print("serialized");
+		concurrent.print("concurrent");
+
+		ArrayList<String> failures = new ArrayList<>();
+		for (Result result : new Result[] { serialized, concurrent }) {
+			if (result.error != null)
+				failures.add(result.error);
+			if (result.parkOverlaps > 0)
+				failures.add(result.parkOverlaps + " requests ran while another request of their park ran");
+			if (result.orderViolations > 0)
+				failures.add(result.orderViolations + " requests were handled or answered out of order");
+		}
+		double speedup = concurrent.throughput() / serialized.throughput();
+		System.out.printf("speedup: %.2f%n", speedup);
+		if (speedup < MIN_SPEEDUP)
+			failures.add(String.format("the concurrent dispatch is only %.2f times faster", speedup));
+
+		if (!failures.isEmpty()) {
+			for (String failure : failures)
+				System.out.println("FAILED: " + failure);
+			System.exit(1);
+		}
+		System.out.println("OK");
+	}
+
+	/**
+	 * The outcome of one run of the load.
+	 */
+	private static class Result {
+		private final long requests;
+		private final long nanos;
+		private final int parkOverlaps;
+		private final int orderViolations;
+		private final String error;
+
+		private Result(long requests, long nanos, int parkOverlaps, int orderViolations, String error) {
+			this.requests = requests;
+			this.nanos = nanos;
+			this.parkOverlaps = parkOverlaps;
+			this.orderViolations = orderViolations;
+			this.error = error;
+		}
+
+		private double throughput() {
+			return requests / (nanos / 1_000_000_000.0);
+		}
+
+		private void print(String name) {
+			System.out.printf("%-12s %10.2f %12.1f %18d %18d%n", name, nanos / 1_000_000_000.0, throughput(),
+					parkOverlaps, orderViolations);
+		}
+	}
+
+	/**
+	 * Starts a server, runs the clients against it until all of them got all their responses, and stops it.
+	 */
+	private static Result runLoad(boolean concurrentDispatch, int clients, int requestsPerClient, int workMillis)
+			throws Exception {
+		int port;
+		try (ServerSocket free = new ServerSocket(0)) {
+			port = free.getLocalPort();
+		}
+		LoadTestServer server = new LoadTestServer(port, workMillis);
+		server.setConcurrentDispatch(concurrentDispatch);
+		server.listen();
+
+		AtomicInteger orderViolations = new AtomicInteger();
+		AtomicReference<String> error = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(clients);
+		ArrayList<Thread> threads = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int i = 0; i < clients; i++) {
+			int orderId = 1000 + i;
+			Thread thread = new Thread(() -> {
+				try {
+					runClient(port, orderId, requestsPerClient, orderViolations);
+				} catch (Exception ex) {
+					error.compareAndSet(null, "client of order " + orderId + " failed: " + ex);
+				} finally {
+					done.countDown();
+				}
+			}, "Load test client " + i);
+			threads.add(thread);
+			thread.start();
+		}
+		done.await();
+		long nanos = System.nanoTime() - start;
+		server.close();
+
+		return new Result((long) clients * requestsPerClient, nanos, server.parkOverlaps.get(),
+				orderViolations.get() + server.orderViolations.get(), error.get());
+	}
+
+	/**
+	 * Connects to the server with the framed protocol and the binary codec, sends all the requests of one order, and
+	 * checks that their responses come back in the order of the requests.
+	 */
+	private static void runClient(int port, int orderId, int requests, AtomicInteger orderViolations)
+			throws Exception {
+		MessageCodec codec = new BinaryMessageCodec();
+		try (Socket socket = new Socket("localhost", port)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			out.writeInt(FRAMED_PROTOCOL_MAGIC);
+			out.writeByte(codec.getId());
+			out.flush();
+			if (in.readByte() != codec.getId())
+				throw new IOException("the server did not accept the binary codec");
+
+			// the responses are read while the requests are still being sent.
+			AtomicReference<Exception> readError = new AtomicReference<>();
+			Thread reader = new Thread(() -> {
+				try {
+					for (int sequence = 1; sequence <= requests; sequence++) {
+						byte[] frame = new byte[in.readInt()];
+						in.readFully(frame);
+						ServerResponseBackToClient response = (ServerResponseBackToClient) codec
+								.decode(new ByteArrayInputStream(frame));
+						if (response.getRequestId() != sequence || !Integer.valueOf(sequence).equals(response.getMessage()))
+							orderViolations.incrementAndGet();
+					}
+				} catch (Exception ex) {
+					readError.set(ex);
+				}
+			});
+			reader.start();
+
+			ParkNameEnum park = PARKS[orderId % PARKS.length];
+			ByteArrayOutputStream frame = new ByteArrayOutputStream(256);
+			for (int sequence = 1; sequence <= requests; sequence++) {
+				Order order = new Order(orderId);
+				order.setParkName(park);
+				order.setNumberOfVisitors(sequence);
+				// every other request changes the capacity of the park.
+				ClientRequest request = sequence % 2 == 0 ? ClientRequest.Update_Order_Status_Canceled
+						: ClientRequest.Search_For_Relevant_Order;
+				ClientRequestDataContainer data = new ClientRequestDataContainer(request, order);
+				data.setRequestId(sequence);
+
+				frame.reset();
+				codec.encode(data, frame);
+				out.writeInt(frame.size());
+				frame.writeTo(out);
+			}
+			out.flush();
+			reader.join();
+			if (readError.get() != null)
+				throw readError.get();
+		}
+	}
+
+	/**
+	 * A server which handles the requests as GoNatureServer does, with a handler which only takes time.
+	 */
+	private static class LoadTestServer extends AbstractServer {
+		private final ClientRequestHandler requestHandler = new ClientRequestHandler();
+		private final int workMillis;
+		// the number of requests of each park being handled right now.
+		private final ConcurrentHashMap<ParkNameEnum, AtomicInteger> parksInWork = new ConcurrentHashMap<>();
+		// the sequence of the last request handled for each order.
+		private final ConcurrentHashMap<Integer, Integer> lastSequences = new ConcurrentHashMap<>();
+		private final AtomicInteger parkOverlaps = new AtomicInteger();
+		private final AtomicInteger orderViolations = new AtomicInteger();
+
+		private LoadTestServer(int port, int workMillis) {
+			super(port);
+			this.workMillis = workMillis;
+			setNonBlockingTransport(2, 16);
+			setVirtualThreads(true);
+			addMessageCodec(new BinaryMessageCodec());
+		}
+
+		@Override
+		protected void handleMessageFromClient(Object msg, ConnectionToClient client) {
+			ClientRequestDataContainer data = (ClientRequestDataContainer) msg;
+			ServerResponseBackToClient response = requestHandler.runSerialized(data, () -> handle(data));
+			response.setRequestId(data.getRequestId());
+			try {
+				client.sendToClient(response);
+			} catch (IOException ex) {
+				orderViolations.incrementAndGet();
+			}
+		}
+
+		private ServerResponseBackToClient handle(ClientRequestDataContainer data) {
+			Order order = (Order) data.getData();
+			int sequence = order.getNumberOfVisitors();
+			Integer last = lastSequences.put(order.getOrderId(), sequence);
+			if (sequence != (last == null ? 1 : last + 1))
+				orderViolations.incrementAndGet();
+
+			boolean changesPark = data.getRequest() == ClientRequest.Update_Order_Status_Canceled;
+			AtomicInteger inWork = parksInWork.computeIfAbsent(order.getParkName(), park -> new AtomicInteger());
+			if (changesPark && inWork.incrementAndGet() > 1)
+				parkOverlaps.incrementAndGet();
+			try {
+				Thread.sleep(workMillis);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} finally {
+				if (changesPark)
+					inWork.decrementAndGet();
+			}
+			return new ServerResponseBackToClient(changesPark ? ServerResponse.Order_Cancelled_Successfully
+					: ServerResponse.Order_Found, sequence);
+		}
+	}
+}
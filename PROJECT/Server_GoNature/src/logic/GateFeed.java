@@ -0,0 +1,166 @@
+package logic;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jdbc.query.OrderChangeListener;
+import jdbc.query.QueryControl;
+import ocsf.ConnectionToClient;
+import utils.enums.OrderStatusEnum;
+import utils.enums.ServerResponse;
+
+/**
+ * The GateFeed class pushes the orders of today to the park entrance screens, instead of each screen asking the
+ * server for all of them every few seconds. A screen subscribes to the orders of its park, gets the orders of today
+ * once (Gate_Feed_Snapshot), and after that only the orders which changed:
+ * - Gate_Order_Changed with the order as it is now, in any status, when an order of today was inserted or changed.
+ *   The screen shows the order if it is Confirmed or In Park, and removes it otherwise.
+ * - Gate_Order_Removed with the ID of a preorder which was deleted.
+ * The changes of the preorders table come from {@link OrderChangeListener}, the changes of the occasional visits
+ * are reported by {@link ClientRequestHandler} through {@link #occasionalVisitChanged(int)}.
+ * All the work (loading the snapshot, loading the changed orders and sending them) runs on a single thread, in the
+ * order the changes happened, so a screen always gets its snapshot before the changes which came after it.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class GateFeed implements OrderChangeListener {
+
+	private static final GateFeed instance = new GateFeed();
+
+	// the subscribed connections of each park, by the ID of the park.
+	private final ConcurrentHashMap<Integer, Set<ConnectionToClient>> subscribers = new ConcurrentHashMap<>();
+	private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "Gate feed");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private GateFeed() {
+	}
+
+	/**
+	 * @return the single instance of the feed.
+	 */
+	public static GateFeed getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Subscribes a connection to the orders of a park, instead of the park it was subscribed to before, and sends it
+	 * the orders of today. If the orders can't be loaded the connection gets a snapshot with no orders (null) and is
+	 * not subscribed.
+	 *
+	 * @param client the connection of the park entrance screen.
+	 * @param parkId the ID of the park.
+	 */
+	public void subscribe(ConnectionToClient client, int parkId) {
+		dispatch(() -> {
+			removeSubscriber(client);
+			ArrayList<Order> orders = QueryControl.orderQueries.importAllOrdersForToday(parkId);
+			if (orders == null) {
+				send(client, new ServerResponseBackToClient(ServerResponse.Gate_Feed_Snapshot, null));
+				return;
+			}
+			// added inside compute, so the set can't be removed as empty by removeSubscriber in the meantime.
+			subscribers.compute(parkId, (id, parkSubscribers) -> {
+				Set<ConnectionToClient> added = parkSubscribers != null ? parkSubscribers
+						: ConcurrentHashMap.newKeySet();
+				added.add(client);
+				return added;
+			});
+			send(client, new ServerResponseBackToClient(ServerResponse.Gate_Feed_Snapshot, orders));
+		});
+	}
+
+	/**
+	 * Unsubscribes a connection, when its screen was closed or the connection was closed.
+	 *
+	 * @param client the connection.
+	 */
+	public void unsubscribe(ConnectionToClient client) {
+		// removed at once, so nothing is sent to a closed connection, and again after the tasks already queued.
+		removeSubscriber(client);
+		dispatch(() -> removeSubscriber(client));
+	}
+
+	/**
+	 * Reports an occasional visit which was inserted or changed.
+	 *
+	 * @param orderId the ID of the occasional visit.
+	 */
+	public void occasionalVisitChanged(int orderId) {
+		orderChanged(orderId, true);
+	}
+
+	@Override
+	public void orderInserted(Order order) {
+		orderChanged(order.getOrderId(), false);
+	}
+
+	@Override
+	public void orderStatusChanged(int orderId, OrderStatusEnum newStatus) {
+		orderChanged(orderId, false);
+	}
+
+	@Override
+	public void orderDeleted(int orderId) {
+		if (subscribers.isEmpty())
+			return;
+		dispatch(() -> {
+			ServerResponseBackToClient response = new ServerResponseBackToClient(ServerResponse.Gate_Order_Removed,
+					new Order(orderId));
+			for (Set<ConnectionToClient> parkSubscribers : subscribers.values())
+				for (ConnectionToClient client : parkSubscribers)
+					send(client, response);
+		});
+	}
+
+	/**
+	 * Loads an order which changed and sends it to the subscribers of its park, if it is an order of today.
+	 */
+	private void orderChanged(int orderId, boolean occasional) {
+		if (subscribers.isEmpty())
+			return;
+		dispatch(() -> {
+			Order order = QueryControl.orderQueries.fetchGateOrder(orderId, occasional);
+			if (order == null)
+				return;
+			Set<ConnectionToClient> parkSubscribers = subscribers.get(order.getParkName().getParkId());
+			if (parkSubscribers == null)
+				return;
+			ServerResponseBackToClient response = new ServerResponseBackToClient(ServerResponse.Gate_Order_Changed,
+					order);
+			for (ConnectionToClient client : parkSubscribers)
+				send(client, response);
+		});
+	}
+
+	private void dispatch(Runnable task) {
+		dispatcher.execute(task);
+	}
+
+	/**
+	 * Sends a message to a subscriber, and drops the subscriber if its connection is broken.
+	 */
+	private void send(ConnectionToClient client, ServerResponseBackToClient response) {
+		try {
+			client.sendToClient(response);
+		} catch (IOException ex) {
+			removeSubscriber(client);
+		}
+	}
+
+	/**
+	 * Removes a connection from the subscribers of its park, and removes the park when it has no subscribers left.
+	 */
+	private void removeSubscriber(ConnectionToClient client) {
+		for (Integer parkId : subscribers.keySet())
+			subscribers.computeIfPresent(parkId, (id, parkSubscribers) -> {
+				parkSubscribers.remove(client);
+				return parkSubscribers.isEmpty() ? null : parkSubscribers;
+			});
+	}
+}
@@ -0,0 +1,69 @@
+package logic;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The KeyedLocks class provides a fixed set of locks that are chosen by a key, such as a park or an order.
+ * Requests that touch the same key are serialized, while requests on different keys may run at the same time.
+ * The locks are striped, so the memory used does not grow with the number of keys (two keys may share a lock,
+ * which only costs some concurrency and never correctness). The locks are reentrant, so a thread that already
+ * holds the lock of a key may take it again.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class KeyedLocks {
+
+	private final ReentrantLock[] stripes;
+
+	/**
+	 * Constructs a new set of locks.
+	 *
+	 * @param numberOfStripes the number of locks the keys are spread over.
+	 */
+	public KeyedLocks(int numberOfStripes) {
+		stripes = new ReentrantLock[numberOfStripes];
+		for (int i = 0; i < numberOfStripes; i++)
+			stripes[i] = new ReentrantLock();
+	}
+
+	/**
+	 * Returns the lock which guards the given key.
+	 *
+	 * @param key the key to lock on, must not be null.
+	 * @return the lock of the key.
+	 */
+	public ReentrantLock lockFor(Object key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return stripes[(hash & 0x7fffffff) % stripes.length];
+	}
+
+	/**
+	 * Returns the key used to serialize work on a specific park.
+	 *
+	 * @param parkId the ID of the park.
+	 * @return the park's key.
+	 */
+	public static String parkKey(int parkId) {
+		return "park:" + parkId;
+	}
+
+	/**
+	 * Returns the key used to serialize work on a specific order.
+	 *
+	 * @param orderId the ID of the order.
+	 * @return the order's key.
+	 */
+	public static String orderKey(int orderId) {
+		return "order:" + orderId;
+	}
+
+	/**
+	 * Returns the key used to serialize login attempts of a specific user.
+	 *
+	 * @param username the username (or visitor ID) of the user.
+	 * @return the user's key.
+	 */
+	public static String userKey(String username) {
+		return "user:" + username;
+	}
+}
@@ -0,0 +1,292 @@
+package logic;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jdbc.query.OrderChangeListener;
+import jdbc.query.QueryControl;
+import utils.enums.OrderStatusEnum;
+
+/**
+ * The OccupancyLedger class keeps the hourly occupancy of every park in memory, so availability checks, the waiting
+ * list promotion and the 7-day search do not have to aggregate the preorders table again and again.
+ * For each park it holds one int array with the number of booked visitors in every hour from yesterday's midnight
+ * until the end of the booking horizon. The ledger is loaded once from the DB when the server starts (see
+ * {@link #rebuild()}) and is then kept in sync by listening to the changes made through {@link jdbc.query.OrderQueries}
+ * and {@link jdbc.query.NotificationQueries}.
+ * A question the ledger can't answer (before it was built, for a time outside of the horizon or for a time which is not
+ * on a whole hour) returns null, and the caller should ask the DB instead.
+ * Every change of a park's booked capacity is reported to the {@link CapacityChangeListener}s.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class OccupancyLedger implements OrderChangeListener {
+
+	// the number of days after today which are kept in memory.
+	private static final int HORIZON_DAYS = 366;
+	// the number of days before today which are kept in memory, for visits which are still in the park.
+	private static final int DAYS_BEHIND = 1;
+	private static final int NUMBER_OF_SLOTS = (DAYS_BEHIND + 1 + HORIZON_DAYS) * 24;
+
+	// the statuses of orders which hold their place in the park.
+	private static final EnumSet<OrderStatusEnum> OCCUPYING_STATUSES = EnumSet.of(OrderStatusEnum.Wait_Notify,
+			OrderStatusEnum.Notified_Waiting_List, OrderStatusEnum.Notified, OrderStatusEnum.Confirmed,
+			OrderStatusEnum.In_Park);
+	// the statuses an order never leaves.
+	private static final EnumSet<OrderStatusEnum> FINAL_STATUSES = EnumSet.of(OrderStatusEnum.Cancelled,
+			OrderStatusEnum.Completed, OrderStatusEnum.Time_Passed, OrderStatusEnum.Irrelevant);
+
+	private static final OccupancyLedger instance = new OccupancyLedger();
+
+	/**
+	 * The part of an order which the ledger needs.
+	 */
+	private static class Booking {
+		private final int parkId;
+		private final LocalDateTime enterDate;
+		private final LocalDateTime exitDate;
+		private final int amount;
+		private OrderStatusEnum status;
+
+		private Booking(int parkId, LocalDateTime enterDate, LocalDateTime exitDate, int amount,
+				OrderStatusEnum status) {
+			this.parkId = parkId;
+			this.enterDate = enterDate;
+			this.exitDate = exitDate;
+			this.amount = amount;
+			this.status = status;
+		}
+	}
+
+	// every order which is not in a final status, by order ID.
+	private final HashMap<Integer, Booking> bookings = new HashMap<>();
+	// the occupancy of each park from windowStart, by park ID.
+	private final HashMap<Integer, ParkOccupancy> parks = new HashMap<>();
+	private LocalDateTime windowStart;
+	private boolean ready = false;
+	private final CopyOnWriteArrayList<CapacityChangeListener> capacityChangeListeners = new CopyOnWriteArrayList<>();
+
+	private OccupancyLedger() {
+	}
+
+	/**
+	 * @return the single instance of the ledger.
+	 */
+	public static OccupancyLedger getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Registers a listener to the changes of the parks' booked capacity. A listener which was already registered is
+	 * not added again.
+	 *
+	 * @param listener the listener to add.
+	 */
+	public void addCapacityChangeListener(CapacityChangeListener listener) {
+		capacityChangeListeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * Loads the ledger from the DB, dropping everything it held before.
+	 *
+	 * @return true if the ledger was loaded, false if the DB could not be read (the ledger stays unusable until the
+	 *         next successful rebuild).
+	 */
+	public synchronized boolean rebuild() {
+		ready = false;
+		bookings.clear();
+		parks.clear();
+		windowStart = currentWindowStart();
+
+		ArrayList<Order> activeOrders = QueryControl.orderQueries.fetchActiveOrders(windowStart);
+		if (activeOrders == null)
+			return false;
+		for (Order order : activeOrders)
+			addBooking(order);
+
+		ready = true;
+		return true;
+	}
+
+	/**
+	 * @return true if the ledger was loaded and can answer availability questions.
+	 */
+	public synchronized boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Returns the occupancy of a park in a window which starts at windowStart and is additionalHours plus the park's
+	 * estimated stay time long, the same window {@link jdbc.query.OrderQueries#fetchParkOccupancy} loads from the DB.
+	 *
+	 * @param parkId the ID of the park.
+	 * @param windowStart the time of the first hourly slot.
+	 * @param additionalHours the number of hours after windowStart at which a stay may still begin.
+	 * @return a copy of the park's occupancy, or null if the ledger can't answer and the DB should be asked instead.
+	 */
+	public synchronized ParkOccupancy occupancyFor(int parkId, LocalDateTime windowStart, int additionalHours) {
+		if (!ready || !isOnWholeHour(windowStart))
+			return null;
+		slideWindowIfNeeded();
+
+		ParkOccupancy park = parkOccupancy(parkId);
+		if (park == null)
+			return null;
+
+		long from = ParkOccupancy.firstSlotAtOrAfter(this.windowStart, windowStart);
+		long to = from + additionalHours + park.getStayHours();
+		if (from < 0 || to > NUMBER_OF_SLOTS)
+			return null;
+
+		int[] visitorsPerSlot = new int[(int) (to - from)];
+		for (int slot = 0; slot < visitorsPerSlot.length; slot++)
+			visitorsPerSlot[slot] = park.getVisitorsAtSlot((int) from + slot);
+		return new ParkOccupancy(park.getPark(), windowStart, visitorsPerSlot);
+	}
+
+	/**
+	 * Reloads the details (capacity, reserved spots, stay time and price) of a park, after they were changed in the DB.
+	 *
+	 * @param parkId the ID of the park.
+	 */
+	public synchronized void refreshPark(int parkId) {
+		ParkOccupancy park = parks.get(parkId);
+		if (park == null)
+			return;
+		Park details = new Park(parkId);
+		if (QueryControl.parkQueries.getParkById(details)) {
+			parks.put(parkId, new ParkOccupancy(details, windowStart, countSlots(parkId)));
+		} else {
+			// it will be loaded again when it is needed.
+			parks.remove(parkId);
+		}
+		fireCapacityChanged(parkId, windowStart, windowStart.plusHours(NUMBER_OF_SLOTS));
+	}
+
+	@Override
+	public synchronized void orderInserted(Order order) {
+		if (!ready || order.getStatus() == null || FINAL_STATUSES.contains(order.getStatus()))
+			return;
+		addBooking(order);
+	}
+
+	@Override
+	public synchronized void orderStatusChanged(int orderId, OrderStatusEnum newStatus) {
+		Booking booking = bookings.get(orderId);
+		if (!ready || booking == null)
+			return;
+
+		boolean wasOccupying = OCCUPYING_STATUSES.contains(booking.status);
+		boolean isOccupying = OCCUPYING_STATUSES.contains(newStatus);
+		if (wasOccupying && !isOccupying)
+			count(booking, -booking.amount);
+		else if (!wasOccupying && isOccupying)
+			count(booking, booking.amount);
+
+		booking.status = newStatus;
+		if (FINAL_STATUSES.contains(newStatus))
+			bookings.remove(orderId);
+	}
+
+	@Override
+	public synchronized void orderDeleted(int orderId) {
+		Booking booking = bookings.remove(orderId);
+		if (!ready || booking == null)
+			return;
+		if (OCCUPYING_STATUSES.contains(booking.status))
+			count(booking, -booking.amount);
+	}
+
+	private void addBooking(Order order) {
+		Booking booking = new Booking(order.getParkName().getParkId(), order.getEnterDate(), order.getExitDate(),
+				order.getNumberOfVisitors(), order.getStatus());
+		bookings.put(order.getOrderId(), booking);
+		if (OCCUPYING_STATUSES.contains(booking.status))
+			count(booking, booking.amount);
+	}
+
+	/**
+	 * Adds the given number of visitors to every slot the booking occupies, if its park is already loaded (a park
+	 * which is not loaded yet counts its bookings when it is loaded).
+	 */
+	private void count(Booking booking, int amount) {
+		ParkOccupancy park = parks.get(booking.parkId);
+		if (park != null)
+			park.addOrder(booking.enterDate, booking.exitDate, amount);
+		if (ready)
+			fireCapacityChanged(booking.parkId, booking.enterDate, booking.exitDate);
+	}
+
+	private void fireCapacityChanged(int parkId, LocalDateTime from, LocalDateTime to) {
+		for (CapacityChangeListener listener : capacityChangeListeners)
+			listener.capacityChanged(parkId, from, to);
+	}
+
+	/**
+	 * Returns the occupancy of a park over the whole window, loading the park's details from the DB the first time.
+	 */
+	private ParkOccupancy parkOccupancy(int parkId) {
+		ParkOccupancy park = parks.get(parkId);
+		if (park == null) {
+			Park details = new Park(parkId);
+			if (!QueryControl.parkQueries.getParkById(details))
+				return null;
+			park = new ParkOccupancy(details, windowStart, countSlots(parkId));
+			parks.put(parkId, park);
+		}
+		return park;
+	}
+
+	/**
+	 * Counts the visitors of a park in every slot of the window from the bookings.
+	 */
+	private int[] countSlots(int parkId) {
+		int[] visitorsPerSlot = new int[NUMBER_OF_SLOTS];
+		ParkOccupancy counter = new ParkOccupancy(null, windowStart, visitorsPerSlot);
+		for (Booking booking : bookings.values()) {
+			if (booking.parkId == parkId && OCCUPYING_STATUSES.contains(booking.status))
+				counter.addOrder(booking.enterDate, booking.exitDate, booking.amount);
+		}
+		return visitorsPerSlot;
+	}
+
+	/**
+	 * Moves the window forward once a day, so it always starts at yesterday's midnight. The bookings which already
+	 * ended are dropped and the parks are counted again from the remaining bookings.
+	 */
+	private void slideWindowIfNeeded() {
+		LocalDateTime newWindowStart = currentWindowStart();
+		if (!newWindowStart.isAfter(windowStart))
+			return;
+
+		windowStart = newWindowStart;
+		Iterator<Booking> iterator = bookings.values().iterator();
+		while (iterator.hasNext()) {
+			if (!iterator.next().exitDate.isAfter(windowStart))
+				iterator.remove();
+		}
+		for (Integer parkId : new ArrayList<>(parks.keySet()))
+			parks.put(parkId, new ParkOccupancy(parks.get(parkId).getPark(), windowStart, countSlots(parkId)));
+	}
+
+	private static LocalDateTime currentWindowStart() {
+		return LocalDate.now().minusDays(DAYS_BEHIND).atStartOfDay();
+	}
+
+	private static boolean isOnWholeHour(LocalDateTime time) {
+		return time.getMinute() == 0 && time.getSecond() == 0 && time.getNano() == 0;
+	}
+
+	/**
+	 * @return a short summary of the ledger, for the server log.
+	 */
+	@Override
+	public synchronized String toString() {
+		return String.format("Occupancy ledger: %s, %d open orders, window from %s for %d days", ready ? "ready" : "not ready",
+				bookings.size(), windowStart, DAYS_BEHIND + 1 + HORIZON_DAYS);
+	}
+}
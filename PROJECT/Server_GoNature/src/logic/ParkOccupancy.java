@@ -0,0 +1,133 @@
+package logic;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * The ParkOccupancy class is an hourly histogram of the visitors booked into a park, starting at a given time.
+ * Slot number k holds the number of visitors whose orders occupy the park at windowStart + k hours, meaning orders
+ * that entered at or before that time and did not exit yet. Together with the park details it answers whether N
+ * visitors can enter the park at a given time for the park's estimated stay time, without going back to the DB.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ParkOccupancy {
+
+	private static final long SECONDS_IN_HOUR = 3600;
+
+	private final Park park;
+	private final LocalDateTime windowStart;
+	private final int[] visitorsPerSlot;
+
+	/**
+	 * Constructs an empty histogram.
+	 *
+	 * @param park the park's details, including its capacity, reserved spots and estimated stay time.
+	 * @param windowStart the time of the first slot.
+	 * @param numberOfSlots the number of hourly slots in the histogram.
+	 */
+	public ParkOccupancy(Park park, LocalDateTime windowStart, int numberOfSlots) {
+		this.park = park;
+		this.windowStart = windowStart;
+		this.visitorsPerSlot = new int[Math.max(0, numberOfSlots)];
+	}
+
+	/**
+	 * Constructs a histogram over already counted slots.
+	 *
+	 * @param park the park's details, including its capacity, reserved spots and estimated stay time.
+	 * @param windowStart the time of the first slot.
+	 * @param visitorsPerSlot the number of booked visitors in each hourly slot, the array is kept (not copied).
+	 */
+	public ParkOccupancy(Park park, LocalDateTime windowStart, int[] visitorsPerSlot) {
+		this.park = park;
+		this.windowStart = windowStart;
+		this.visitorsPerSlot = visitorsPerSlot;
+	}
+
+	/**
+	 * Adds an order to every slot it occupies. A slot at time t is occupied if enterDate <= t < exitDate.
+	 *
+	 * @param enterDate the enter date of the order.
+	 * @param exitDate the exit date of the order.
+	 * @param amount the number of visitors in the order.
+	 */
+	public void addOrder(LocalDateTime enterDate, LocalDateTime exitDate, int amount) {
+		int from = (int) Math.min(visitorsPerSlot.length, Math.max(0, firstSlotAtOrAfter(enterDate)));
+		int to = (int) Math.max(0, Math.min(visitorsPerSlot.length, firstSlotAtOrAfter(exitDate)));
+		for (int slot = from; slot < to; slot++)
+			visitorsPerSlot[slot] += amount;
+	}
+
+	/**
+	 * Checks if the given number of visitors can enter the park at the given time and stay for the park's estimated
+	 * stay time, without passing the park's capacity for pre-orders (max capacity minus reserved spots) in any hour.
+	 *
+	 * @param enterTime the requested enter time, must be a whole number of hours after the window start.
+	 * @param amountOfVisitors the number of visitors to add.
+	 * @return true if the visitors fit in every hour of their stay, false otherwise.
+	 */
+	public boolean canAccommodate(LocalDateTime enterTime, int amountOfVisitors) {
+		long firstSlot = firstSlotAtOrAfter(enterTime);
+		int capacity = getCapacity();
+		for (long slot = firstSlot; slot < firstSlot + getStayHours(); slot++) {
+			if (slot < 0 || slot >= visitorsPerSlot.length)
+				throw new IllegalArgumentException("The requested stay is outside of the loaded window");
+			if (visitorsPerSlot[(int) slot] + amountOfVisitors > capacity)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of visitors the park accepts for pre-orders in each hour.
+	 */
+	public int getCapacity() {
+		return park.getCurrentMaxCapacity() - park.getCurrentEstimatedReservedSpots();
+	}
+
+	/**
+	 * @return the estimated stay time of the park, in whole hours.
+	 */
+	public int getStayHours() {
+		return Math.max(0, park.getCurrentEstimatedStayTime());
+	}
+
+	/**
+	 * Returns the number of visitors booked into the park at the given slot.
+	 *
+	 * @param slot the slot number, 0 is the window start.
+	 * @return the number of booked visitors.
+	 */
+	public int getVisitorsAtSlot(int slot) {
+		return visitorsPerSlot[slot];
+	}
+
+	public int getNumberOfSlots() {
+		return visitorsPerSlot.length;
+	}
+
+	public LocalDateTime getWindowStart() {
+		return windowStart;
+	}
+
+	public Park getPark() {
+		return park;
+	}
+
+	private long firstSlotAtOrAfter(LocalDateTime time) {
+		return firstSlotAtOrAfter(windowStart, time);
+	}
+
+	/**
+	 * Returns the number of the first hourly slot after start whose time is not before the given time
+	 * (negative if the time is before start).
+	 *
+	 * @param start the time of slot 0.
+	 * @param time the time to look for.
+	 * @return the slot number.
+	 */
+	static long firstSlotAtOrAfter(LocalDateTime start, LocalDateTime time) {
+		long seconds = Duration.between(start, time).getSeconds();
+		return -Math.floorDiv(-seconds, SECONDS_IN_HOUR);
+	}
+}
@@ -0,0 +1,94 @@
+package logic;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import ocsf.ConnectionToClient;
+import utils.enums.ServerResponse;
+
+/**
+ * The ReportChunkOutputStream sends what is written to it to a client in chunks of a fixed size, each in a
+ * Report_Chunk response with the ID of the request it answers, so a report is sent to the client while it is read
+ * from the database instead of being read whole into memory and sent as one response.
+ * The stream keeps one chunk in memory, and waits for the client to read the chunks before it sends more, so the
+ * memory a download takes doesn't depend on the size of the report. The chunks are sent before the response which
+ * completes the request, on the same connection, so the client has all of them when the response arrives.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ReportChunkOutputStream extends OutputStream {
+
+	/** The size of a chunk. */
+	public static final int CHUNK_SIZE = 64 * 1024;
+	// the number of chunks which may wait to be written to the client.
+	private static final int MAX_QUEUED_CHUNKS = 2;
+
+	private final ConnectionToClient client;
+	private final long requestId;
+	private final byte[] chunk = new byte[CHUNK_SIZE];
+	private int chunkSize;
+	private long bytesSent;
+
+	/**
+	 * Creates a stream which sends chunks to a client.
+	 *
+	 * @param client the connection of the client.
+	 * @param requestId the ID of the request the chunks answer.
+	 */
+	public ReportChunkOutputStream(ConnectionToClient client, long requestId) {
+		this.client = client;
+		this.requestId = requestId;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		chunk[chunkSize++] = (byte) b;
+		if (chunkSize == CHUNK_SIZE)
+			sendChunk();
+	}
+
+	@Override
+	public void write(byte[] bytes, int offset, int length) throws IOException {
+		while (length > 0) {
+			int copied = Math.min(length, CHUNK_SIZE - chunkSize);
+			System.arraycopy(bytes, offset, chunk, chunkSize, copied);
+			chunkSize += copied;
+			offset += copied;
+			length -= copied;
+			if (chunkSize == CHUNK_SIZE)
+				sendChunk();
+		}
+	}
+
+	/**
+	 * Sends the last, partial, chunk.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (chunkSize > 0)
+			sendChunk();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+
+	/**
+	 * @return the number of bytes which were sent to the client.
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	private void sendChunk() throws IOException {
+		client.awaitQueuedMessages(MAX_QUEUED_CHUNKS);
+		// the message is encoded before sendToClient returns, so a full chunk is sent without a copy.
+		byte[] data = chunkSize == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, chunkSize);
+		ServerResponseBackToClient response = new ServerResponseBackToClient(ServerResponse.Report_Chunk, data);
+		response.setRequestId(requestId);
+		client.sendToClient(response);
+		bytesSent += chunkSize;
+		chunkSize = 0;
+	}
+}
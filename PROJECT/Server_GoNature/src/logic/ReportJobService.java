@@ -0,0 +1,194 @@
+package logic;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdbc.query.QueryControl;
+import ocsf.ConnectionToClient;
+import utils.enums.ParkNameEnum;
+import utils.enums.ServerResponse;
+
+/**
+ * The ReportJobService class generates reports in the background, so a manager who asks for a report doesn't hold a
+ * connection thread while the report is queried and rendered, and other clients are not slowed down by it.
+ * A job is one report, or all the reports of all the parks for a month. Its reports are generated in parallel by a
+ * fixed number of report workers (one per core), and the jobs wait in a bounded queue; a job which doesn't fit in
+ * the queue is rejected instead of piling up.
+ * The client which submitted a job gets the job's progress (Report_Job_Progress) after each of its reports was
+ * generated, and Report_Job_Completed when all of them are done. The latest jobs are kept, so a client may also ask
+ * for the status of a job.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ReportJobService {
+
+	// the number of reports which may wait for a worker.
+	private static final int QUEUE_CAPACITY = 64;
+	// the number of jobs whose status is kept.
+	private static final int RETAINED_JOBS = 100;
+	// the parks which have reports of their own, and the districts which have a cancellations report.
+	private static final ParkNameEnum[] PARKS = { ParkNameEnum.Banias, ParkNameEnum.Masada, ParkNameEnum.Herodium };
+	private static final ParkNameEnum[] DISTRICTS = { ParkNameEnum.North, ParkNameEnum.South };
+
+	private static final ReportJobService instance = new ReportJobService();
+
+	private final AtomicLong nextJobId = new AtomicLong(1);
+	// the latest jobs by ID, the oldest is dropped when there are too many. Guarded by itself.
+	private final Map<Long, ReportJob> jobs = new LinkedHashMap<Long, ReportJob>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, ReportJob> eldest) {
+			return size() > RETAINED_JOBS;
+		}
+	};
+	private final ThreadPoolExecutor workers;
+
+	private ReportJobService() {
+		int numberOfWorkers = Math.max(1, Runtime.getRuntime().availableProcessors());
+		AtomicInteger workerNumber = new AtomicInteger();
+		workers = new ThreadPoolExecutor(numberOfWorkers, numberOfWorkers, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(QUEUE_CAPACITY), task -> {
+					Thread thread = new Thread(task, "Report worker " + workerNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		workers.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @return the single instance of the service.
+	 */
+	public static ReportJobService getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Submits a job of one report.
+	 *
+	 * @param client the connection which submitted the job, and gets its progress.
+	 * @param report the report to generate, with its type, park, month and year.
+	 * @return the job as it was submitted, or null if the workers are too busy to accept it.
+	 */
+	public ReportJob submit(ConnectionToClient client, Report report) {
+		ArrayList<Report> reports = new ArrayList<>();
+		reports.add(report);
+		return submit(client, describe(report), reports);
+	}
+
+	/**
+	 * Submits a job of all the reports of all the parks for a month: every report of each park, and the
+	 * cancellations report of each district.
+	 *
+	 * @param client the connection which submitted the job, and gets its progress.
+	 * @param month the month of the reports.
+	 * @param year the year of the reports.
+	 * @return the job as it was submitted, or null if the workers are too busy to accept it.
+	 */
+	public ReportJob submitMonthlyReports(ConnectionToClient client, int month, int year) {
+		ArrayList<Report> reports = new ArrayList<>();
+		for (ParkNameEnum park : PARKS) {
+			reports.add(new UsageReport(month, year, park));
+			reports.add(new AmountDivisionReport(month, year, park));
+			reports.add(new VisitsReport(month, year, park));
+			reports.add(new CancellationsReport(month, year, park));
+		}
+		for (ParkNameEnum district : DISTRICTS)
+			reports.add(new CancellationsReport(month, year, district));
+		return submit(client, String.format("All reports of %d/%d", month, year), reports);
+	}
+
+	/**
+	 * Returns the status of a job.
+	 *
+	 * @param jobId the ID of the job.
+	 * @return a copy of the job, or null if there is no such job (or it is too old to be kept).
+	 */
+	public ReportJob getJob(long jobId) {
+		synchronized (jobs) {
+			ReportJob job = jobs.get(jobId);
+			return job == null ? null : new ReportJob(job);
+		}
+	}
+
+	private ReportJob submit(ConnectionToClient client, String description, ArrayList<Report> reports) {
+		// a job is accepted only as a whole, so a big job doesn't leave part of its reports behind.
+		if (workers.getQueue().remainingCapacity() < reports.size())
+			return null;
+
+		ReportJob job = new ReportJob(nextJobId.getAndIncrement(), description, reports.size());
+		ReportJob submitted;
+		synchronized (jobs) {
+			jobs.put(job.getJobId(), job);
+			submitted = new ReportJob(job);
+		}
+		for (Report report : reports) {
+			try {
+				workers.execute(() -> generate(client, job, report));
+			} catch (RejectedExecutionException ex) {
+				// another job took the free places in the queue since they were counted.
+				reportDone(client, job, report, false);
+			}
+		}
+		return submitted;
+	}
+
+	/**
+	 * Generates and saves one report of a job, and tells the client about the job's progress.
+	 */
+	private void generate(ConnectionToClient client, ReportJob job, Report report) {
+		boolean generated;
+		try {
+			generated = generateReport(report);
+		} catch (RuntimeException ex) {
+			ex.printStackTrace();
+			generated = false;
+		}
+		reportDone(client, job, report, generated);
+	}
+
+	private static boolean generateReport(Report report) {
+		switch (report.getReportType()) {
+		case UsageReport:
+			return QueryControl.reportsQueries.generateUsageReport((UsageReport) report);
+		case TotalVisitorsReport:
+			return QueryControl.reportsQueries.generateTotalAmountDivisionReport((AmountDivisionReport) report);
+		case VisitsReports:
+			return QueryControl.reportsQueries.generateVisitsReport((VisitsReport) report);
+		case CancellationsReport:
+			return QueryControl.reportsQueries.generateCancellationsReport((CancellationsReport) report);
+		default:
+			return false;
+		}
+	}
+
+	private void reportDone(ConnectionToClient client, ReportJob job, Report report, boolean generated) {
+		ReportJob progress;
+		synchronized (jobs) {
+			if (generated)
+				job.reportGenerated();
+			else
+				job.reportFailed(describe(report));
+			progress = new ReportJob(job);
+		}
+		try {
+			client.sendToClient(new ServerResponseBackToClient(
+					progress.isDone() ? ServerResponse.Report_Job_Completed : ServerResponse.Report_Job_Progress,
+					progress));
+		} catch (IOException ex) {
+			// the client is gone, the reports are saved anyway.
+		}
+	}
+
+	private static String describe(Report report) {
+		return String.format("%s of %s for %d/%d", report.getReportType(), report.getRequestedPark(),
+				report.getMonth(), report.getYear());
+	}
+}
@@ -0,0 +1,156 @@
+package logic;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ocsf.ConnectionToClient;
+
+/**
+ * The SessionRegistry class holds the users which are logged in to the server, indexed both by the connection they
+ * logged in from and by their username, so a login, a logout and the check for a user who is already logged in take
+ * constant time and never touch the server's GUI. The GUI table of the connected clients is only a view of this
+ * registry (see {@link #addChangeListener(Runnable)}).
+ * Each connection has at most one session. Employees and guides may be logged in from one connection only, visitors
+ * may be logged in from several connections at the same time.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class SessionRegistry {
+
+	private static final SessionRegistry instance = new SessionRegistry();
+
+	// the session of each connection.
+	private final ConcurrentHashMap<ConnectionToClient, ClientConnection> sessionsByConnection = new ConcurrentHashMap<>();
+	// the connection of each user who may be logged in only once.
+	private final ConcurrentHashMap<String, ConnectionToClient> exclusiveUsers = new ConcurrentHashMap<>();
+	// guards the changes, so the two maps always agree.
+	private final ReentrantLock changeLock = new ReentrantLock();
+	private final CopyOnWriteArrayList<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+	private SessionRegistry() {
+	}
+
+	/**
+	 * @return the single instance of the registry.
+	 */
+	public static SessionRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Logs a user in from a connection. A previous session of the same connection is replaced.
+	 *
+	 * @param username the username shown for the session.
+	 * @param connection the connection the user logged in from.
+	 * @param exclusive true if the user may be logged in from one connection only (employees and guides).
+	 * @return true if the user was logged in, false if the user is exclusive and is already logged in from another
+	 *         connection.
+	 */
+	public boolean login(String username, ConnectionToClient connection, boolean exclusive) {
+		changeLock.lock();
+		try {
+			if (exclusive) {
+				ConnectionToClient current = exclusiveUsers.putIfAbsent(username, connection);
+				if (current != null && current != connection)
+					return false;
+			}
+			ClientConnection previous = sessionsByConnection.put(connection, new ClientConnection(username, connection));
+			if (previous != null && !previous.getUsername().equals(username))
+				exclusiveUsers.remove(previous.getUsername(), connection);
+		} finally {
+			changeLock.unlock();
+		}
+		fireChanged();
+		return true;
+	}
+
+	/**
+	 * Ends the session of a connection, after a logout or when the connection was closed.
+	 *
+	 * @param connection the connection.
+	 * @return the ended session, or null if the connection had no session.
+	 */
+	public ClientConnection logout(ConnectionToClient connection) {
+		ClientConnection session;
+		changeLock.lock();
+		try {
+			session = sessionsByConnection.remove(connection);
+			if (session != null)
+				exclusiveUsers.remove(session.getUsername(), connection);
+		} finally {
+			changeLock.unlock();
+		}
+		if (session != null)
+			fireChanged();
+		return session;
+	}
+
+	/**
+	 * Ends all the sessions, when the server is stopped.
+	 */
+	public void clear() {
+		changeLock.lock();
+		try {
+			sessionsByConnection.clear();
+			exclusiveUsers.clear();
+		} finally {
+			changeLock.unlock();
+		}
+		fireChanged();
+	}
+
+	/**
+	 * @param username the username of an employee or a guide.
+	 * @return true if the user is logged in.
+	 */
+	public boolean isLoggedIn(String username) {
+		return exclusiveUsers.containsKey(username);
+	}
+
+	/**
+	 * @param connection a connection to a client.
+	 * @return true if a user is logged in from the connection.
+	 */
+	public boolean hasSession(ConnectionToClient connection) {
+		return sessionsByConnection.containsKey(connection);
+	}
+
+	/**
+	 * @return the number of sessions.
+	 */
+	public int size() {
+		return sessionsByConnection.size();
+	}
+
+	/**
+	 * @return a copy of all the sessions, ordered by the client's IP and the username.
+	 */
+	public ArrayList<ClientConnection> getSessions() {
+		ArrayList<ClientConnection> sessions = new ArrayList<>(sessionsByConnection.values());
+		sessions.sort(Comparator.comparing(ClientConnection::getHostIp).thenComparing(ClientConnection::getUsername));
+		return sessions;
+	}
+
+	/**
+	 * Adds a listener which is called, on the thread which made the change, after every login and logout.
+	 *
+	 * @param listener the listener.
+	 */
+	public void addChangeListener(Runnable listener) {
+		changeListeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * @param listener a listener which was added before.
+	 */
+	public void removeChangeListener(Runnable listener) {
+		changeListeners.remove(listener);
+	}
+
+	private void fireChanged() {
+		for (Runnable listener : changeListeners)
+			listener.run();
+	}
+}
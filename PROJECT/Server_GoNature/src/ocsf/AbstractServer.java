@@ -5,7 +5,12 @@
 package ocsf;
 
 import java.net.*;
+import java.nio.channels.*;
 import java.io.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import utils.codec.*;
 
 /**
 * The <code> AbstractServer </code> class maintains a thread that waits
@@ -19,6 +24,15 @@ import java.io.*;
 * a concrete subclass. Several other hook methods may also be
 * overriden.<p>
 *
+* By default every connection runs its own thread, which waits for
+* the messages of its client. A server with many clients may instead
+* use the non-blocking transport (see
+* <code>setNonBlockingTransport</code>), where a few selector threads
+* read the messages of all the clients and a pool of worker threads
+* handles them. Either way, the threads of the connections and of
+* the workers may be virtual threads (see <code>setVirtualThreads</code>),
+* when the running Java version has them.<p>
+*
 * Several public service methods are provided to applications that use
 * this framework, and several hook methods are also available<p>
 *
@@ -40,6 +54,18 @@ public abstract class AbstractServer implements Runnable
    */
   private ServerSocket serverSocket = null;
 
+  /**
+   * The channel of the server socket, when the non-blocking transport
+   * is used.
+   */
+  private ServerSocketChannel serverChannel = null;
+
+  /**
+   * The selector and worker threads of the non-blocking transport,
+   * null when every connection runs its own thread.
+   */
+  private NioServerTransport transport = null;
+
   /**
    * The connection listener thread.
    */
@@ -67,10 +93,43 @@ public abstract class AbstractServer implements Runnable
   private int backlog = 10;
 
   /**
-   * The thread group associated with client threads. Each member of the
-   * thread group is a <code> ConnectionToClient </code>.
+   * The connections with the clients which are currently connected.
+   */
+  private final Set<ConnectionToClient> clientConnections =
+    ConcurrentHashMap.newKeySet();
+
+  /**
+   * The number of selector threads of the non-blocking transport.
+   * Set to 0 by default, meaning every connection runs its own thread.
    */
-  private ThreadGroup clientThreadGroup;
+  private int selectorThreads = 0;
+
+  /**
+   * The number of worker threads which handle the messages read by the
+   * non-blocking transport.
+   */
+  private int workerThreads = 0;
+
+  /**
+   * Indicates if the connection and worker threads should be virtual
+   * threads. Set to false by default.
+   */
+  private boolean virtualThreads = false;
+
+  /**
+   * The codecs the framed clients may ask for, by their ID. Java
+   * serialization is always there.
+   */
+  private final ConcurrentHashMap<Byte, MessageCodec> messageCodecs =
+    new ConcurrentHashMap<Byte, MessageCodec>();
+
+  /**
+   * The number of messages, and the number of bytes, after which the
+   * object stream to a client is reset. By default the stream is
+   * reset after every message.
+   */
+  private int messagesBetweenResets = 1;
+  private long bytesBetweenResets = 1024 * 1024;
 
   /**
    * Indicates if the listening thread is ready to stop.  Set to
@@ -78,6 +137,17 @@ public abstract class AbstractServer implements Runnable
    */
   private boolean readyToStop = false;
 
+  /**
+   * Indicates if messages received from different clients may be
+   * handled at the same time. When false (the default) every call to
+   * <code>handleMessageFromClient</code> is serialized on the server's
+   * monitor, as in the original framework. When true, each
+   * <code>ConnectionToClient</code> thread calls the handler directly and
+   * the concrete server is responsible for its own synchronization.
+   * Messages coming from the same client are always handled in order.
+   */
+  private volatile boolean concurrentDispatch = false;
+
 
 // CONSTRUCTOR ******************************************************
 
@@ -89,18 +159,7 @@ public abstract class AbstractServer implements Runnable
   public AbstractServer(int port)
   {
     this.port = port;
-
-    this.clientThreadGroup =
-      new ThreadGroup("ConnectionToClient threads")
-      {
-        // All uncaught exceptions in connection threads will
-        // be sent to the clientException callback method.
-        public void uncaughtException(
-          Thread thread, Throwable exception)
-        {
-          clientException((ConnectionToClient)thread, exception);
-        }
-      };
+    addMessageCodec(new JavaSerializationCodec());
   }
 
 
@@ -120,7 +179,10 @@ public abstract class AbstractServer implements Runnable
     {
       if (serverSocket == null)
       {
-        serverSocket = new ServerSocket(getPort(), backlog);
+        if (selectorThreads > 0)
+          openServerChannel();
+        else
+          serverSocket = new ServerSocket(getPort(), backlog);
       }
 
       serverSocket.setSoTimeout(timeout);
@@ -162,16 +224,20 @@ public abstract class AbstractServer implements Runnable
     finally
     {
       // Close the client sockets of the already connected clients
-      Thread[] clientThreadList = getClientConnections();
-      for (int i=0; i<clientThreadList.length; i++)
+      ConnectionToClient[] clientList = getClientConnections();
+      for (int i=0; i<clientList.length; i++)
       {
          try
          {
-           ((ConnectionToClient)clientThreadList[i]).close();
+           clientList[i].close();
          }
          // Ignore all exceptions when closing clients.
          catch(Exception ex) {}
       }
+      if (transport != null)
+        transport.shutdown();
+      transport = null;
+      serverChannel = null;
       serverSocket = null;
       serverClosed();
     }
@@ -190,13 +256,13 @@ public abstract class AbstractServer implements Runnable
    */
   public void sendToAllClients(Object msg)
   {
-    Thread[] clientThreadList = getClientConnections();
+    ConnectionToClient[] clientList = getClientConnections();
 
-    for (int i=0; i<clientThreadList.length; i++)
+    for (int i=0; i<clientList.length; i++)
     {
       try
       {
-        ((ConnectionToClient)clientThreadList[i]).sendToClient(msg);
+        clientList[i].sendToClient(msg);
       }
       catch (Exception ex) {}
     }
@@ -224,17 +290,11 @@ public abstract class AbstractServer implements Runnable
    * in this migth disconnect. New clients can also connect,
    * these later will not appear in the array.
    *
-   * @return an array of <code>Thread</code> containing
-   * <code>ConnectionToClient</code> instances.
+   * @return an array of <code>ConnectionToClient</code> instances.
    */
-  synchronized final public Thread[] getClientConnections()
+  final public ConnectionToClient[] getClientConnections()
   {
-    Thread[] clientThreadList = new
-      Thread[clientThreadGroup.activeCount()];
-
-    clientThreadGroup.enumerate(clientThreadList);
-
-    return clientThreadList;
+    return clientConnections.toArray(new ConnectionToClient[0]);
   }
 
   /**
@@ -244,7 +304,7 @@ public abstract class AbstractServer implements Runnable
    */
   final public int getNumberOfClients()
   {
-    return clientThreadGroup.activeCount();
+    return clientConnections.size();
   }
 
   /**
@@ -296,6 +356,132 @@ public abstract class AbstractServer implements Runnable
     this.backlog = backlog;
   }
 
+  /**
+   * Sets the way messages from clients are dispatched to
+   * <code>handleMessageFromClient</code>. When set to true, messages
+   * coming from different clients are handled concurrently, each on
+   * the thread of its own connection. When set to false, all messages
+   * are handled one at a time.
+   * The change takes effect with the next message received.
+   *
+   * @param concurrentDispatch true to handle messages concurrently.
+   */
+  final public void setConcurrentDispatch(boolean concurrentDispatch)
+  {
+    this.concurrentDispatch = concurrentDispatch;
+  }
+
+  /**
+   * Returns true if messages from different clients are handled
+   * concurrently.
+   *
+   * @return true if the server dispatches messages concurrently.
+   */
+  final public boolean isConcurrentDispatch()
+  {
+    return concurrentDispatch;
+  }
+
+  /**
+   * Chooses the transport used for the next connections. With 0
+   * selector threads (the default) every connection runs its own
+   * thread which waits for the messages of its client. With 1 or more,
+   * the given number of selector threads read the messages of all the
+   * clients and the given number of worker threads handle them. The
+   * messages of one client are handled in order either way.
+   * Only clients which send framed messages are served by the selector
+   * threads, other clients still get a thread of their own.
+   * The server must be closed and restarted for the transport
+   * change to be in effect.
+   *
+   * @param selectorThreads the number of selector threads, or 0.
+   * @param workerThreads the number of worker threads.
+   */
+  final public void setNonBlockingTransport(int selectorThreads,
+    int workerThreads)
+  {
+    this.selectorThreads = Math.max(0, selectorThreads);
+    this.workerThreads = Math.max(1, workerThreads);
+  }
+
+  /**
+   * Returns true if the server was set to use the non-blocking
+   * transport.
+   *
+   * @return true if the connections are served by selector threads.
+   */
+  final public boolean isNonBlockingTransport()
+  {
+    return selectorThreads > 0;
+  }
+
+  /**
+   * Chooses if the threads of the next connections, and the worker
+   * threads of the non-blocking transport, are virtual threads. A
+   * virtual thread costs little memory and is not tied to a system
+   * thread while it waits (for the client, or for the database), so a
+   * server may have one for every client and every message.
+   * With the non-blocking transport every message is then handled on
+   * a new virtual thread, and the number of worker threads is ignored.
+   * Has no effect when the running Java version has no virtual
+   * threads (before Java 21).
+   * The server must be closed and restarted for the change to be in
+   * effect for the worker threads.
+   *
+   * @param virtualThreads true to use virtual threads.
+   */
+  final public void setVirtualThreads(boolean virtualThreads)
+  {
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Returns true if the server was set to use virtual threads and the
+   * running Java version has them.
+   *
+   * @return true if the connections run on virtual threads.
+   */
+  final public boolean isUsingVirtualThreads()
+  {
+    return virtualThreads && VirtualThreads.isSupported();
+  }
+
+  /**
+   * Registers a codec which framed clients may ask for when they
+   * connect. A client which asks for a codec that is not registered
+   * gets Java serialization. Has effect on the next connections.
+   *
+   * @param codec the codec, replacing a registered codec with the
+   *        same ID.
+   */
+  final public void addMessageCodec(MessageCodec codec)
+  {
+    messageCodecs.put(codec.getId(), codec);
+  }
+
+  /**
+   * Sets when the object stream to a client which speaks the object
+   * stream protocol is reset: after the given number of messages, or
+   * after the given number of bytes, whichever comes first. A reset
+   * makes both sides forget the objects sent before, so the stream
+   * does not hold every message of the session, and an object which
+   * is sent again after it changed does not arrive as the copy sent
+   * before. Resetting after every message (the default) is the only
+   * safe choice when messages may hold such objects; a larger
+   * interval saves the class descriptions sent after every reset.
+   * Framed clients are not affected, each of their messages is
+   * encoded on its own. Has effect on the next connections.
+   *
+   * @param messagesBetweenResets the number of messages, at least 1.
+   * @param bytesBetweenResets the number of bytes.
+   */
+  final public void setStreamResetInterval(int messagesBetweenResets,
+    long bytesBetweenResets)
+  {
+    this.messagesBetweenResets = Math.max(1, messagesBetweenResets);
+    this.bytesBetweenResets = Math.max(1, bytesBetweenResets);
+  }
+
 // RUN METHOD -------------------------------------------------------
 
   /**
@@ -309,31 +495,10 @@ public abstract class AbstractServer implements Runnable
 
     try
     {
-      // Repeatedly waits for a new client connection, accepts it, and
-      // starts a new thread to handle data exchange.
-      while(!readyToStop)
-      {
-        try
-        {
-          // Wait here for new connection attempts, or a timeout
-          Socket clientSocket = serverSocket.accept();
-
-          // When a client is accepted, create a thread to handle
-          // the data exchange, then add it to thread group
-
-          synchronized(this)
-          {
-            @SuppressWarnings("unused")
-			ConnectionToClient c = new ConnectionToClient(
-              this.clientThreadGroup, clientSocket, this);
-          }
-        }
-        catch (InterruptedIOException exception)
-        {
-          // This will be thrown when a timeout occurs.
-          // The server will continue to listen if not ready to stop.
-        }
-      }
+      if (transport != null)
+        acceptChannels();
+      else
+        acceptSockets();
 
       // call the hook method to notify that the server has stopped
       serverStopped();
@@ -358,6 +523,95 @@ public abstract class AbstractServer implements Runnable
   }
 
 
+  /**
+   * Repeatedly waits for a new client connection, accepts it, and
+   * starts a new thread to handle data exchange.
+   *
+   * @exception IOException if the server socket fails.
+   */
+  private void acceptSockets() throws IOException
+  {
+    while(!readyToStop)
+    {
+      try
+      {
+        // Wait here for new connection attempts, or a timeout
+        Socket clientSocket = serverSocket.accept();
+
+        // When a client is accepted, create a thread to handle
+        // the data exchange. The connection adds itself to the
+        // list of connections.
+        synchronized(this)
+        {
+          new ConnectionToClient(clientSocket, new byte[0], this);
+        }
+      }
+      catch (InterruptedIOException exception)
+      {
+        // This will be thrown when a timeout occurs.
+        // The server will continue to listen if not ready to stop.
+      }
+    }
+  }
+
+  /**
+   * Repeatedly waits for new client connections, accepts them, and
+   * hands them to the selector threads of the non-blocking transport.
+   *
+   * @exception IOException if the server channel fails.
+   */
+  private void acceptChannels() throws IOException
+  {
+    // close() clears the fields while this thread may still run
+    ServerSocketChannel channel = serverChannel;
+    NioServerTransport nioTransport = transport;
+
+    try (Selector acceptSelector = Selector.open())
+    {
+      channel.configureBlocking(false);
+      channel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+
+      while(!readyToStop)
+      {
+        // Wait here for new connection attempts, or a timeout.
+        // The server will continue to listen if not ready to stop.
+        if (acceptSelector.select(timeout) == 0)
+          continue;
+        acceptSelector.selectedKeys().clear();
+
+        SocketChannel clientChannel;
+        while ((clientChannel = channel.accept()) != null)
+          nioTransport.register(clientChannel);
+      }
+    }
+  }
+
+  /**
+   * Opens the server channel and starts the threads of the
+   * non-blocking transport.
+   *
+   * @exception IOException if an I/O error occurs when opening the
+   * channel or the selectors.
+   */
+  private void openServerChannel() throws IOException
+  {
+    ServerSocketChannel newChannel = ServerSocketChannel.open();
+    try
+    {
+      newChannel.bind(new InetSocketAddress(getPort()), backlog);
+      transport = new NioServerTransport(this, selectorThreads,
+        workerThreads, isUsingVirtualThreads());
+    }
+    catch (IOException ex)
+    {
+      newChannel.close();
+      throw ex;
+    }
+    serverChannel = newChannel;
+    serverSocket = newChannel.socket();
+  }
+
+
 // METHODS DESIGNED TO BE OVERRIDDEN BY CONCRETE SUBCLASSES ---------
 
   /**
@@ -425,8 +679,8 @@ public abstract class AbstractServer implements Runnable
    * Handles a command sent from one client to the server.
    * This MUST be implemented by subclasses, who should respond to
    * messages.
-   * This method is called by a synchronized method so it is also
-   * implcitly synchronized.
+   * Unless concurrent dispatch is enabled, this method is called by
+   * a synchronized block so it is also implcitly synchronized.
    *
    * @param msg   the message sent.
    * @param client the connection connected to the client that
@@ -438,22 +692,101 @@ public abstract class AbstractServer implements Runnable
 
 // METHODS TO BE USED FROM WITHIN THE FRAMEWORK ONLY ----------------
 
+  /**
+   * Adds a new connection to the list of connected clients.
+   * Called by the constructors of <code>ConnectionToClient</code>.
+   *
+   * @param client the new connection.
+   */
+  final void addClientConnection(ConnectionToClient client)
+  {
+    clientConnections.add(client);
+  }
+
+  /**
+   * Creates the thread which reads the messages of a connection: a
+   * virtual thread if the server uses them, a platform thread
+   * otherwise.
+   *
+   * @param task the task of the thread.
+   * @param name the name of the thread.
+   * @return the new thread, not started yet.
+   */
+  final Thread newConnectionThread(Runnable task, String name)
+  {
+    Thread thread = isUsingVirtualThreads() ?
+      VirtualThreads.newThread(task, name) : null;
+    return thread != null ? thread : new Thread(task, name);
+  }
+
+  /**
+   * @return the number of messages after which the object stream to
+   *         a client is reset.
+   */
+  final int getMessagesBetweenResets()
+  {
+    return messagesBetweenResets;
+  }
+
+  /**
+   * @return the number of bytes after which the object stream to a
+   *         client is reset.
+   */
+  final long getBytesBetweenResets()
+  {
+    return bytesBetweenResets;
+  }
+
+  /**
+   * Returns the codec a framed client asked for, or Java serialization
+   * if that codec is not registered.
+   *
+   * @param codecId the ID the client sent.
+   * @return the codec of the client's messages.
+   */
+  final MessageCodec getMessageCodec(byte codecId)
+  {
+    MessageCodec codec = messageCodecs.get(codecId);
+    return codec != null ? codec :
+      messageCodecs.get(JavaSerializationCodec.ID);
+  }
+
+  /**
+   * Removes a closed connection from the list of connected clients.
+   *
+   * @param client the closed connection.
+   */
+  final void removeClientConnection(ConnectionToClient client)
+  {
+    clientConnections.remove(client);
+  }
+
   /**
    * Receives a command sent from the client to the server.
    * Called by the run method of <code>ConnectionToClient</code>
    * instances that are watching for messages coming from the server
-   * This method is synchronized to ensure that whatever effects it has
-   * do not conflict with work being done by other threads. The method
-   * simply calls the <code>handleMessageFromClient</code> slot method.
+   * Unless concurrent dispatch is enabled, the call is synchronized to
+   * ensure that whatever effects it has do not conflict with work being
+   * done by other threads. The method simply calls the
+   * <code>handleMessageFromClient</code> slot method.
    *
    * @param msg   the message sent.
    * @param client the connection connected to the client that
    *  sent the message.
    */
-  final synchronized void receiveMessageFromClient(
+  final void receiveMessageFromClient(
     Object msg, ConnectionToClient client)
   {
-    this.handleMessageFromClient(msg, client);
+    if (concurrentDispatch)
+    {
+      this.handleMessageFromClient(msg, client);
+      return;
+    }
+
+    synchronized(this)
+    {
+      this.handleMessageFromClient(msg, client);
+    }
   }
 }
 // End of AbstractServer Class
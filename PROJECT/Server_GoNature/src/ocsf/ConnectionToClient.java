@@ -6,8 +6,11 @@ package ocsf;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
+import utils.codec.*;
+
 /**
 * An instance of this class is created by the server when a client
 * connects. It accepts messages coming from the client and is
@@ -16,6 +19,19 @@ import java.util.*;
 * instances of this class and is responsible for adding and deleting
 * them.<p>
 *
+* A client may speak one of two protocols, recognized by the first
+* four bytes it sends: a single Java object stream for the whole
+* session (the original OCSF protocol), or length-prefixed frames
+* which start with <code>FRAMED_PROTOCOL_MAGIC</code> and the ID of
+* the codec the client asks for, each frame holding one message
+* encoded by the codec. The server answers a framed client with the
+* ID of the codec it will use, which is Java serialization when the
+* requested codec is not registered with the server. With the blocking transport the
+* connection runs a thread which reads the client's messages. With
+* the non-blocking transport (see <code>NioServerTransport</code>)
+* the connection has no thread of its own, its frames are read by a
+* selector thread and handled by the server's workers.<p>
+*
 * Project Name: OCSF (Object Client-Server Framework)<p>
 *
 * @author Dr Robert Lagani&egrave;re
@@ -24,8 +40,21 @@ import java.util.*;
 * @author Paul Holden
 * @version February 2001 (2.12)
 */
-public class ConnectionToClient extends Thread
+public class ConnectionToClient implements Runnable
 {
+// CONSTANTS ********************************************************
+
+  /**
+   * The first four bytes sent by a client which speaks the framed
+   * protocol ("OCF1").
+   */
+  static final int FRAMED_PROTOCOL_MAGIC = 0x4F434631;
+
+  /**
+   * The largest frame accepted from a client, in bytes.
+   */
+  static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
 // INSTANCE VARIABLES ***********************************************
 
   /**
@@ -35,26 +64,81 @@ public class ConnectionToClient extends Thread
 
   /**
   * Sockets are used in the operating system as channels
-  * of communication between two processes.
+  * of communication between two processes. Null when the connection
+  * is served by the non-blocking transport.
   * @see java.net.Socket
   */
   private Socket clientSocket;
 
   /**
-  * Stream used to read from the client.
+  * Bytes which were already read from the socket before the
+  * connection was created.
+  */
+  private byte[] readAhead;
+
+  /**
+  * Stream used to read from a client which speaks the object stream
+  * protocol.
   */
   private ObjectInputStream input;
 
   /**
-  * Stream used to write to the client.
+  * Stream used to write to a client which speaks the object stream
+  * protocol. It is reset as the server's reset interval says, so it
+  * does not hold every object sent during the session.
   */
-  private ObjectOutputStream output;
+  private ManagedObjectOutputStream output;
+
+  /**
+  * Stream used to read frames from a client which speaks the framed
+  * protocol over the blocking transport.
+  */
+  private DataInputStream frameInput;
+
+  /**
+  * Stream used to write frames to a client which speaks the framed
+  * protocol over the blocking transport.
+  */
+  private OutputStream frameOutput;
+
+  /**
+  * The channel of the client when the connection is served by the
+  * non-blocking transport, null otherwise.
+  */
+  private NioServerTransport.ChannelHandler channel;
+
+  /**
+  * The codec of the frames of a client which speaks the framed
+  * protocol.
+  */
+  private MessageCodec codec = new JavaSerializationCodec();
+
+  /**
+  * The address of the client, kept after the connection is closed.
+  */
+  private final InetAddress inetAddress;
+
+  /**
+  * The number of messages sent to the client, the number of bytes
+  * they took and the number of times the object stream was reset.
+  */
+  private volatile long messagesSent = 0;
+  private volatile long bytesSent = 0;
+  private volatile long streamResets = 0;
+
+  /**
+  * How long the message being handled waited for a thread after it
+  * was read, and how long decoding it took. Set and read by the
+  * thread which hands the message to the server.
+  */
+  private long messageQueueNanos = 0;
+  private long messageDecodeNanos = 0;
 
   /**
   * Indicates if the thread is ready to stop. Set to true when closing
   * of the connection is initiated.
   */
-  private boolean readyToStop;
+  private volatile boolean readyToStop;
 
   /**
    * Map to save information about the client such as its login ID.
@@ -69,61 +153,117 @@ public class ConnectionToClient extends Thread
 // CONSTRUCTORS *****************************************************
 
   /**
-   * Constructs a new connection to a client.
+   * Constructs a new connection to a client served by the blocking
+   * transport, and starts the thread which reads its messages.
    *
-   * @param group the thread group that contains the connections.
    * @param clientSocket contains the client's socket.
+   * @param readAhead the bytes which were already read from the
+   *        socket, or an empty array.
    * @param server a reference to the server that created
    *        this instance
-   * @exception IOException if an I/O error occur when creating
-   *        the connection.
    */
-  ConnectionToClient(ThreadGroup group, Socket clientSocket,
-    AbstractServer server) throws IOException
+  ConnectionToClient(Socket clientSocket, byte[] readAhead,
+    AbstractServer server)
   {
-    super(group,(Runnable)null);
     // Initialize variables
     this.clientSocket = clientSocket;
+    this.readAhead = readAhead;
     this.server = server;
+    this.inetAddress = clientSocket.getInetAddress();
 
-    clientSocket.setSoTimeout(0); // make sure timeout is infinite
-
-    //Initialize the objects streams
-    try
-    {
-      input = new ObjectInputStream(clientSocket.getInputStream());
-      output = new ObjectOutputStream(clientSocket.getOutputStream());
-    }
-    catch (IOException ex)
-    {
-      try
-      {
-        closeAll();
-      }
-      catch (Exception exc) { }
+    readyToStop = false;
+    server.addClientConnection(this);
+
+    Thread reader =
+      server.newConnectionThread(this, "ConnectionToClient " + inetAddress);
+    // All uncaught exceptions in the connection thread will
+    // be sent to the clientException callback method.
+    reader.setUncaughtExceptionHandler(
+      (thread, exception) -> connectionFailed(exception));
+    reader.start(); // Start the thread waits for data from the socket
+  }
 
-      throw ex;  // Rethrow the exception.
-    }
+  /**
+   * Constructs a new connection to a client served by the
+   * non-blocking transport. The transport reads the client's frames
+   * and passes them to the server.
+   *
+   * @param channel the channel of the client.
+   * @param server a reference to the server that created
+   *        this instance
+   */
+  ConnectionToClient(NioServerTransport.ChannelHandler channel,
+    AbstractServer server)
+  {
+    this.channel = channel;
+    this.server = server;
+    this.inetAddress = channel.getInetAddress();
 
     readyToStop = false;
-    start(); // Start the thread waits for data from the socket
+    server.addClientConnection(this);
   }
 
 // INSTANCE METHODS *************************************************
 
   /**
    * Sends an object to the client.
+   * The method is synchronized so that messages sent from different
+   * threads (e.g. a reply and a broadcast) are never interleaved on
+   * the stream.
    *
    * @param msg the message to be sent.
    * @exception IOException if an I/O error occur when sending the
    *    message.
    */
-  final public void sendToClient(Object msg) throws IOException
+  final synchronized public void sendToClient(Object msg) throws IOException
   {
-    if (clientSocket == null || output == null)
+    if (channel != null)
+    {
+      ByteBuffer frame = encodeFrame(msg);
+      int length = frame.limit();
+      channel.send(frame);
+      countSent(length);
+      return;
+    }
+
+    if (clientSocket == null || (output == null && frameOutput == null))
       throw new SocketException("socket does not exist");
 
-    output.writeObject(msg);
+    if (frameOutput != null)
+    {
+      ByteBuffer frame = encodeFrame(msg);
+      frameOutput.write(frame.array(), 0, frame.limit());
+      frameOutput.flush();
+      countSent(frame.limit());
+    }
+    else
+    {
+      long bytesBefore = output.getBytesWritten();
+      output.writeMessage(msg);
+      countSent(output.getBytesWritten() - bytesBefore);
+      streamResets = output.getResetCount();
+    }
+  }
+
+  /**
+   * Waits until no more than the given number of messages sent to the
+   * client wait to be written. Used by a sender which sends many
+   * messages in a row, so they are not all kept in memory when the
+   * client reads slower than they are sent. Returns at once when the
+   * client is served by a thread of its own, whose sends block until
+   * the message was written.
+   *
+   * @param maxQueuedMessages the number of messages which may still
+   *    wait.
+   * @exception IOException if the connection is closed, or the thread
+   *    is interrupted while waiting.
+   */
+  final public void awaitQueuedMessages(int maxQueuedMessages)
+    throws IOException
+  {
+    NioServerTransport.ChannelHandler channel = this.channel;
+    if (channel != null)
+      channel.awaitOutbox(maxQueuedMessages);
   }
 
   /**
@@ -156,7 +296,76 @@ public class ConnectionToClient extends Thread
    */
   final public InetAddress getInetAddress()
   {
-    return clientSocket == null ? null : clientSocket.getInetAddress();
+    return inetAddress;
+  }
+
+  /**
+   * Returns the number of messages sent to the client.
+   *
+   * @return the number of messages sent since the client connected.
+   */
+  final public long getMessagesSent()
+  {
+    return messagesSent;
+  }
+
+  /**
+   * Returns the number of bytes sent to the client, including the
+   * length of every frame and the resets of the object stream.
+   *
+   * @return the number of bytes sent since the client connected.
+   */
+  final public long getBytesSent()
+  {
+    return bytesSent;
+  }
+
+  /**
+   * Returns the number of times the object stream to the client was
+   * reset.
+   *
+   * @return the number of resets, always 0 for a framed client.
+   */
+  final public long getStreamResetCount()
+  {
+    return streamResets;
+  }
+
+  /**
+   * Returns how long the message being handled waited for a thread
+   * after it was read from the client. Valid only on the thread which
+   * handles the message, while it handles it.
+   *
+   * @return the time in nanoseconds, 0 for the blocking transport,
+   *         which handles a message as soon as it is read.
+   */
+  final public long getMessageQueueNanos()
+  {
+    return messageQueueNanos;
+  }
+
+  /**
+   * Returns how long decoding the message being handled took. Valid
+   * only on the thread which handles the message, while it handles
+   * it.
+   *
+   * @return the time in nanoseconds, 0 for a client which speaks the
+   *         object stream protocol, decoded while it is read.
+   */
+  final public long getMessageDecodeNanos()
+  {
+    return messageDecodeNanos;
+  }
+
+  /**
+   * Returns the codec of the client's messages.
+   *
+   * @return the codec, Java serialization for a client which speaks
+   *         the object stream protocol.
+   */
+  final public MessageCodec getMessageCodec()
+  {
+    return codec;
   }
 
   /**
@@ -166,9 +375,9 @@ public class ConnectionToClient extends Thread
    */
   public String toString()
   {
-    return clientSocket == null ? null :
-      clientSocket.getInetAddress().getHostName()
-        +" (" + clientSocket.getInetAddress().getHostAddress() + ")";
+    return inetAddress == null ? null :
+      inetAddress.getHostName()
+        +" (" + inetAddress.getHostAddress() + ")";
   }
 
   /**
@@ -197,12 +406,23 @@ public class ConnectionToClient extends Thread
 // RUN METHOD -------------------------------------------------------
 
   /**
-   * Constantly reads the client's input stream.
+   * Constantly reads the client's input stream, when the connection
+   * is served by the blocking transport.
    * Sends all objects that are read to the server.
    * Not to be called.
    */
   final public void run()
   {
+    try
+    {
+      openStreams();
+    }
+    catch (Exception exception)
+    {
+      connectionFailed(exception);
+      return;
+    }
+
     server.clientConnected(this);
 
     // This loop reads the input stream and responds to messages
@@ -216,27 +436,186 @@ public class ConnectionToClient extends Thread
       {
         // This block waits until it reads a message from the client
         // and then sends it for handling by the server
-        msg = input.readObject();
+        messageReceived(0, 0);
+        msg = readMessage();
         server.receiveMessageFromClient(msg, this);
       }
     }
     catch (Exception exception)
     {
-      if (!readyToStop)
+      connectionFailed(exception);
+    }
+  }
+
+
+// METHODS TO BE USED FROM WITHIN THE FRAMEWORK ONLY ----------------
+
+  /**
+   * Closes the connection after an error, unless it is already being
+   * closed, and tells the server about the error.
+   *
+   * @param exception the exception raised.
+   */
+  void connectionFailed(Throwable exception)
+  {
+    if (!readyToStop)
+    {
+      readyToStop = true;
+      try
+      {
+        closeAll();
+      }
+      catch (Exception ex) { }
+
+      server.clientException(this, exception);
+    }
+  }
+
+  /**
+   * Sets the codec of a framed client, before its first message.
+   *
+   * @param codec the codec agreed with the client.
+   */
+  void setMessageCodec(MessageCodec codec)
+  {
+    this.codec = codec;
+  }
+
+  /**
+   * Records how the message about to be handled was received. Called
+   * by the thread which hands the message to the server.
+   *
+   * @param queueNanos how long the message waited for the thread.
+   * @param decodeNanos how long decoding the message took.
+   */
+  void messageReceived(long queueNanos, long decodeNanos)
+  {
+    messageQueueNanos = queueNanos;
+    messageDecodeNanos = decodeNanos;
+  }
+
+  /**
+   * Adds a message to the metrics of the connection. Called while
+   * the connection is locked.
+   *
+   * @param bytes the number of bytes of the message.
+   */
+  private void countSent(long bytes)
+  {
+    messagesSent++;
+    bytesSent += bytes;
+  }
+
+  /**
+   * Recognizes the protocol of the client from the first four bytes
+   * it sends, and creates the streams of that protocol. A framed
+   * client is answered with the codec of its messages.
+   *
+   * @exception IOException if an I/O error occur when creating
+   *        the streams.
+   */
+  private void openStreams() throws IOException
+  {
+    Socket socket = clientSocket;
+    if (socket == null)
+      throw new SocketException("socket does not exist");
+
+    socket.setSoTimeout(0); // make sure timeout is infinite
+
+    InputStream socketInput = socket.getInputStream();
+    if (readAhead.length > 0)
+      socketInput = new SequenceInputStream(
+        new ByteArrayInputStream(readAhead), socketInput);
+    readAhead = null;
+
+    BufferedInputStream bufferedInput = new BufferedInputStream(socketInput);
+    bufferedInput.mark(4);
+    boolean framed =
+      new DataInputStream(bufferedInput).readInt() == FRAMED_PROTOCOL_MAGIC;
+
+    synchronized(this)
+    {
+      if (framed)
       {
-        try
-        {
-          closeAll();
-        }
-        catch (Exception ex) { }
+        frameInput = new DataInputStream(bufferedInput);
+        frameOutput = new BufferedOutputStream(socket.getOutputStream());
 
-        server.clientException(this, exception);
+        codec = server.getMessageCodec(frameInput.readByte());
+        frameOutput.write(codec.getId());
+        frameOutput.flush();
+      }
+      else
+      {
+        // The header of the object stream is read again by the stream
+        bufferedInput.reset();
+        input = new ObjectInputStream(bufferedInput);
+        output = new ManagedObjectOutputStream(socket.getOutputStream(),
+          server.getMessagesBetweenResets(), server.getBytesBetweenResets());
       }
     }
   }
 
+  /**
+   * Waits until a whole message is read from the client.
+   *
+   * @return the message.
+   * @exception IOException if an I/O error occur when reading.
+   * @exception ClassNotFoundException if the class of the message is
+   *        unknown.
+   */
+  private Object readMessage() throws IOException, ClassNotFoundException
+  {
+    if (frameInput == null)
+      return input.readObject();
+
+    int length = frameInput.readInt();
+    if (length < 0 || length > MAX_FRAME_LENGTH)
+      throw new StreamCorruptedException("Invalid frame length: " + length);
+
+    byte[] frame = new byte[length];
+    frameInput.readFully(frame);
+    long start = System.nanoTime();
+    Object msg = decodeFrame(frame);
+    messageReceived(0, System.nanoTime() - start);
+    return msg;
+  }
 
-// METHODS TO BE USED FROM WITHIN THE FRAMEWORK ONLY ----------------
+  /**
+   * Encodes a message into a frame of the framed protocol, with the
+   * codec of the client.
+   *
+   * @param msg the message.
+   * @return a buffer holding the length of the message followed by
+   *        the message, ready to be written.
+   * @exception IOException if the message can not be encoded.
+   */
+  ByteBuffer encodeFrame(Object msg) throws IOException
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    // Room for the length, which is known only at the end
+    bytes.write(new byte[4]);
+    codec.encode(msg, bytes);
+
+    ByteBuffer frame = ByteBuffer.wrap(bytes.toByteArray());
+    frame.putInt(0, frame.limit() - 4);
+    return frame;
+  }
+
+  /**
+   * Decodes the message held in a frame of the framed protocol, with
+   * the codec of the client.
+   *
+   * @param frame the frame, without its length.
+   * @return the message.
+   * @exception IOException if the frame can not be read.
+   * @exception ClassNotFoundException if the class of the message is
+   *        unknown.
+   */
+  Object decodeFrame(byte[] frame)
+    throws IOException, ClassNotFoundException
+  {
+    return codec.decode(new ByteArrayInputStream(frame));
+  }
 
   /**
    * Closes all connection to the server.
@@ -248,17 +627,25 @@ public class ConnectionToClient extends Thread
   {
     try
     {
+      // Close the channel
+      if (channel != null)
+        channel.close();
+
       // Close the socket
       if (clientSocket != null)
         clientSocket.close();
 
-      // Close the output stream
+      // Close the output streams
       if (output != null)
         output.close();
+      if (frameOutput != null)
+        frameOutput.close();
 
-      // Close the input stream
+      // Close the input streams
       if (input != null)
         input.close();
+      if (frameInput != null)
+        frameInput.close();
     }
     finally
     {
@@ -268,7 +655,11 @@ public class ConnectionToClient extends Thread
       // when they are garbage collected.
       output = null;
       input = null;
+      frameOutput = null;
+      frameInput = null;
       clientSocket = null;
+      channel = null;
+      server.removeClientConnection(this);
     }
   }
 
@@ -0,0 +1,719 @@
+// This file contains material supporting section 3.8 of the textbook:
+// "Object Oriented Software Engineering" and is issued under the open-source
+// license found at www.lloseng.com
+
+package ocsf;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import utils.codec.*;
+
+/**
+* The <code>NioServerTransport</code> serves the clients of an
+* <code>AbstractServer</code> with a few selector threads instead of
+* a thread for each connection. The channels accepted by the server
+* are spread between the selector threads, which read the frames the
+* clients send and write the frames queued for them. Each frame read
+* is handed to a pool of worker threads, which decode it and
+* call <code>handleMessageFromClient</code>, or to a new virtual
+* thread for each message when the server uses virtual threads.
+* The messages of one
+* client are always handled one after the other, in the order they
+* were sent.<p>
+*
+* Only clients which speak the framed protocol are served by the
+* selector threads. A client which opens an object stream (the
+* original OCSF protocol) is handed over to a blocking
+* <code>ConnectionToClient</code> with its own thread.<p>
+*
+* Project Name: OCSF (Object Client-Server Framework)<p>
+*
+* @see ocsf.ConnectionToClient
+*/
+final class NioServerTransport
+{
+// CONSTANTS ********************************************************
+
+  /**
+   * The size of the buffer each channel reads into.
+   */
+  private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+  /**
+   * The number of messages of one client which may wait for a worker.
+   * When it is reached, reading from the client is paused until half
+   * of them were handled.
+   */
+  private static final int MAX_PENDING_MESSAGES = 64;
+
+// INSTANCE VARIABLES ***********************************************
+
+  /**
+   * The server whose clients are served.
+   */
+  private final AbstractServer server;
+
+  /**
+   * The selector threads.
+   */
+  private final SelectorLoop[] selectorLoops;
+
+  /**
+   * The threads which handle the messages read by the selectors.
+   */
+  private final ExecutorService workers;
+
+  /**
+   * Used to spread the accepted channels between the selectors.
+   */
+  private final AtomicInteger nextSelectorLoop = new AtomicInteger();
+
+// CONSTRUCTORS *****************************************************
+
+  /**
+   * Constructs the transport and starts its threads.
+   *
+   * @param server the server whose clients are served.
+   * @param selectorThreads the number of selector threads.
+   * @param workerThreads the number of worker threads.
+   * @param virtualWorkers true to handle every message on a new
+   *        virtual thread instead of a pool of worker threads.
+   * @exception IOException if a selector could not be opened.
+   */
+  NioServerTransport(AbstractServer server, int selectorThreads,
+    int workerThreads, boolean virtualWorkers) throws IOException
+  {
+    this.server = server;
+    this.selectorLoops = new SelectorLoop[Math.max(1, selectorThreads)];
+
+    try
+    {
+      for (int i=0; i<selectorLoops.length; i++)
+        selectorLoops[i] = new SelectorLoop(i + 1);
+    }
+    catch (IOException ex)
+    {
+      for (SelectorLoop loop : selectorLoops)
+        if (loop != null)
+          loop.selector.close();
+      throw ex;
+    }
+
+    ExecutorService virtualExecutor = virtualWorkers ?
+      VirtualThreads.newThreadPerTaskExecutor("OCSF worker ") : null;
+    if (virtualExecutor != null)
+    {
+      workers = virtualExecutor;
+    }
+    else
+    {
+      AtomicInteger workerNumber = new AtomicInteger();
+      workers = Executors.newFixedThreadPool(Math.max(1, workerThreads),
+        runnable ->
+        {
+          Thread thread = new Thread(runnable,
+            "OCSF worker " + workerNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    }
+
+    for (SelectorLoop loop : selectorLoops)
+      loop.thread.start();
+  }
+
+// INSTANCE METHODS *************************************************
+
+  /**
+   * Starts serving a channel accepted by the server.
+   *
+   * @param clientChannel the accepted channel.
+   */
+  void register(SocketChannel clientChannel)
+  {
+    try
+    {
+      clientChannel.configureBlocking(false);
+    }
+    catch (IOException ex)
+    {
+      closeQuietly(clientChannel);
+      return;
+    }
+
+    SelectorLoop loop = selectorLoops[Math.floorMod(
+      nextSelectorLoop.getAndIncrement(), selectorLoops.length)];
+    loop.execute(() -> loop.add(clientChannel));
+  }
+
+  /**
+   * Stops the selector and worker threads. The channels which are
+   * still open are closed. Messages which are already being handled
+   * are allowed to finish.
+   */
+  void shutdown()
+  {
+    for (SelectorLoop loop : selectorLoops)
+    {
+      loop.running = false;
+      loop.selector.wakeup();
+    }
+    workers.shutdown();
+  }
+
+  /**
+   * Runs a task on a worker thread. Tasks submitted after the
+   * transport was shut down are dropped.
+   */
+  private void dispatch(Runnable task)
+  {
+    try
+    {
+      workers.execute(task);
+    }
+    catch (RejectedExecutionException ex) { }
+  }
+
+  private static void closeQuietly(Channel channel)
+  {
+    try
+    {
+      channel.close();
+    }
+    catch (IOException ex) { }
+  }
+
+// INNER CLASSES ****************************************************
+
+  /**
+   * A thread which waits on one selector for its channels to become
+   * readable or writable.
+   */
+  private final class SelectorLoop implements Runnable
+  {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    private SelectorLoop(int number) throws IOException
+    {
+      selector = Selector.open();
+      thread = new Thread(this, "OCSF selector " + number);
+      thread.setDaemon(true);
+    }
+
+    /**
+     * Runs a task on the selector thread, before its next select.
+     * Changes to the registration of the channels are made this way,
+     * so they never wait for a select in progress.
+     */
+    private void execute(Runnable task)
+    {
+      tasks.add(task);
+      selector.wakeup();
+    }
+
+    /**
+     * Registers a new channel with the selector.
+     */
+    private void add(SocketChannel clientChannel)
+    {
+      try
+      {
+        SelectionKey key = clientChannel.register(selector, SelectionKey.OP_READ);
+        key.attach(new ChannelHandler(clientChannel, key, this));
+      }
+      catch (IOException ex)
+      {
+        closeQuietly(clientChannel);
+      }
+    }
+
+    public void run()
+    {
+      try
+      {
+        while (running)
+        {
+          Runnable task;
+          while ((task = tasks.poll()) != null)
+          {
+            try
+            {
+              task.run();
+            }
+            catch (RuntimeException ex) { }
+          }
+
+          selector.select();
+
+          Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+          while (selectedKeys.hasNext())
+          {
+            SelectionKey key = selectedKeys.next();
+            selectedKeys.remove();
+            ChannelHandler handler = (ChannelHandler)key.attachment();
+            try
+            {
+              if (key.isValid() && key.isReadable())
+                handler.onReadable();
+              if (key.isValid() && key.isWritable())
+                handler.onWritable();
+            }
+            catch (IOException | RuntimeException ex)
+            {
+              handler.failed(ex);
+            }
+          }
+        }
+      }
+      catch (IOException | ClosedSelectorException ex)
+      {
+        // The selector can not be used any more.
+      }
+      finally
+      {
+        for (SelectionKey key : selector.keys())
+          closeQuietly(key.channel());
+        try
+        {
+          selector.close();
+        }
+        catch (IOException ex) { }
+      }
+    }
+  }
+
+  /**
+   * A frame read from a client and the time it was read, so the time
+   * it waited for a worker is known.
+   */
+  private static final class ReceivedFrame
+  {
+    private final byte[] bytes;
+    private final long receivedNanos;
+
+    private ReceivedFrame(byte[] bytes, long receivedNanos)
+    {
+      this.bytes = bytes;
+      this.receivedNanos = receivedNanos;
+    }
+  }
+
+  /**
+   * The state of one client channel: the frame being read, the
+   * messages waiting to be handled and the frames waiting to be
+   * written.
+   */
+  final class ChannelHandler
+  {
+    private final SocketChannel clientChannel;
+    private final SelectionKey key;
+    private final SelectorLoop loop;
+    private final InetAddress inetAddress;
+
+    // Used only by the selector thread
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private ByteBuffer frame;
+    private boolean endOfInput = false;
+
+    /**
+     * Null until the client sent the header of the framed protocol.
+     */
+    private volatile ConnectionToClient connection;
+
+    /**
+     * The frames read (ReceivedFrame) and the error which ended the
+     * connection (a Throwable), in the order they happened. Guards
+     * dispatching and readPaused as well.
+     */
+    private final ArrayDeque<Object> inbox = new ArrayDeque<>();
+    private boolean dispatching = false;
+    private boolean readPaused = false;
+
+    /**
+     * The frames which could not be written yet.
+     */
+    private final ArrayDeque<ByteBuffer> outbox = new ArrayDeque<>();
+    private volatile boolean closed = false;
+
+    private ChannelHandler(SocketChannel clientChannel, SelectionKey key,
+      SelectorLoop loop)
+    {
+      this.clientChannel = clientChannel;
+      this.key = key;
+      this.loop = loop;
+      this.inetAddress = clientChannel.socket().getInetAddress();
+    }
+
+    /**
+     * @return the address of the client.
+     */
+    InetAddress getInetAddress()
+    {
+      return inetAddress;
+    }
+
+    /**
+     * Writes a frame to the client. What can not be written at once
+     * is queued and written by the selector thread when the channel
+     * becomes writable.
+     *
+     * @param outgoingFrame the frame.
+     * @exception IOException if the channel is closed or an I/O error
+     *    occurs when writing.
+     */
+    void send(ByteBuffer outgoingFrame) throws IOException
+    {
+      synchronized(outbox)
+      {
+        if (closed)
+          throw new SocketException("socket does not exist");
+
+        if (outbox.isEmpty())
+        {
+          clientChannel.write(outgoingFrame);
+          if (!outgoingFrame.hasRemaining())
+            return;
+        }
+
+        outbox.add(outgoingFrame);
+        if (outbox.size() == 1)
+          loop.execute(() -> changeInterest(SelectionKey.OP_WRITE, true));
+      }
+    }
+
+    /**
+     * Waits until no more than the given number of frames wait to be
+     * written, so a worker which sends many frames in a row doesn't
+     * queue all of them in memory while the client reads slowly.
+     *
+     * @param maxQueuedFrames the number of frames which may still wait.
+     * @exception IOException if the channel is closed, or the thread is
+     *    interrupted while waiting.
+     */
+    void awaitOutbox(int maxQueuedFrames) throws IOException
+    {
+      synchronized(outbox)
+      {
+        while (!closed && outbox.size() > maxQueuedFrames)
+        {
+          try
+          {
+            outbox.wait();
+          }
+          catch (InterruptedException ex)
+          {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while sending");
+          }
+        }
+        if (closed)
+          throw new SocketException("socket does not exist");
+      }
+    }
+
+    /**
+     * Closes the channel. The selector drops its key on its next
+     * select.
+     */
+    void close()
+    {
+      closed = true;
+      synchronized(outbox)
+      {
+        outbox.clear();
+        outbox.notifyAll();
+      }
+      synchronized(inbox)
+      {
+        inbox.clear();
+      }
+      closeQuietly(clientChannel);
+    }
+
+    /**
+     * Reads what the client sent, and queues every complete frame for
+     * a worker. Called by the selector thread.
+     */
+    private void onReadable() throws IOException
+    {
+      if (clientChannel.read(readBuffer) < 0)
+      {
+        // Reading again would only find the end of the stream again.
+        endOfInput = true;
+        changeInterest(SelectionKey.OP_READ, false);
+        failed(new EOFException("The client closed the connection"));
+        return;
+      }
+
+      readBuffer.flip();
+      try
+      {
+        while (!closed)
+        {
+          if (frame != null)
+          {
+            int length = Math.min(frame.remaining(), readBuffer.remaining());
+            frame.put(readBuffer.array(), readBuffer.position(), length);
+            readBuffer.position(readBuffer.position() + length);
+            if (frame.hasRemaining())
+              break;
+
+            byte[] completeFrame = frame.array();
+            frame = null;
+            deliver(completeFrame);
+          }
+          else if (connection == null)
+          {
+            if (readBuffer.remaining() < 4)
+              break;
+            int header = readBuffer.getInt(readBuffer.position());
+            if (header != ConnectionToClient.FRAMED_PROTOCOL_MAGIC)
+            {
+              handOver(header);
+              return;
+            }
+            // The header is followed by the ID of the codec
+            if (readBuffer.remaining() < 5)
+              break;
+            readBuffer.getInt();
+            acceptFramedClient(readBuffer.get());
+          }
+          else if (readBuffer.remaining() >= 4)
+          {
+            int length = readBuffer.getInt();
+            if (length < 0 || length > ConnectionToClient.MAX_FRAME_LENGTH)
+              throw new StreamCorruptedException("Invalid frame length: " + length);
+            frame = ByteBuffer.allocate(length);
+          }
+          else
+          {
+            break;
+          }
+        }
+      }
+      finally
+      {
+        readBuffer.compact();
+      }
+    }
+
+    /**
+     * Writes the queued frames, as much as the channel accepts.
+     * Called by the selector thread.
+     */
+    private void onWritable() throws IOException
+    {
+      synchronized(outbox)
+      {
+        while (!outbox.isEmpty())
+        {
+          ByteBuffer outgoingFrame = outbox.peek();
+          clientChannel.write(outgoingFrame);
+          if (outgoingFrame.hasRemaining())
+            return;
+          outbox.poll();
+          outbox.notifyAll();
+        }
+        changeInterest(SelectionKey.OP_WRITE, false);
+      }
+    }
+
+    /**
+     * Creates the ConnectionToClient of a framed client, and answers
+     * the client with the codec of its messages.
+     *
+     * @param codecId the ID of the codec the client asked for.
+     */
+    private void acceptFramedClient(byte codecId) throws IOException
+    {
+      MessageCodec codec = server.getMessageCodec(codecId);
+      connection = new ConnectionToClient(this, server);
+      connection.setMessageCodec(codec);
+      send(ByteBuffer.wrap(new byte[] {codec.getId()}));
+
+      synchronized(inbox)
+      {
+        dispatching = true;
+      }
+      dispatch(() ->
+      {
+        try
+        {
+          server.clientConnected(connection);
+        }
+        catch (RuntimeException ex)
+        {
+          connection.connectionFailed(ex);
+          return;
+        }
+        dispatchNext();
+      });
+    }
+
+    /**
+     * Hands a client which opened an object stream over to a blocking
+     * connection, after checking its first four bytes.
+     *
+     * @param header the first four bytes the client sent, which are
+     *        still in the read buffer.
+     */
+    private void handOver(int header) throws IOException
+    {
+      if ((header >>> 16) != (ObjectStreamConstants.STREAM_MAGIC & 0xFFFF))
+        throw new StreamCorruptedException("Unknown protocol header: "
+          + Integer.toHexString(header));
+
+      // The header and whatever followed it are read again by the
+      // object stream of the blocking connection.
+      byte[] readAhead = new byte[readBuffer.remaining()];
+      readBuffer.get(readAhead);
+      key.cancel();
+      loop.execute(() ->
+      {
+        try
+        {
+          // The channel must leave the selector before it may block.
+          if (clientChannel.isRegistered())
+            loop.selector.selectNow();
+          clientChannel.configureBlocking(true);
+          new ConnectionToClient(clientChannel.socket(), readAhead, server);
+        }
+        catch (IOException ex)
+        {
+          closeQuietly(clientChannel);
+        }
+      });
+    }
+
+    /**
+     * Queues a frame for a worker, and pauses reading if the client
+     * sent more than the workers keep up with. Called by the selector
+     * thread.
+     */
+    private void deliver(byte[] completeFrame)
+    {
+      boolean startDispatching;
+      synchronized(inbox)
+      {
+        inbox.add(new ReceivedFrame(completeFrame, System.nanoTime()));
+        startDispatching = !dispatching;
+        dispatching = true;
+        if (inbox.size() >= MAX_PENDING_MESSAGES && !readPaused)
+        {
+          readPaused = true;
+          changeInterest(SelectionKey.OP_READ, false);
+        }
+      }
+      if (startDispatching)
+        dispatch(this::dispatchNext);
+    }
+
+    /**
+     * Handles an error of the channel. A channel with no connection
+     * yet is simply closed, otherwise the error is queued after the
+     * messages already read, so the server learns about it only after
+     * it handled them.
+     */
+    private void failed(Throwable exception)
+    {
+      if (connection == null)
+      {
+        close();
+        return;
+      }
+
+      changeInterest(SelectionKey.OP_READ, false);
+      boolean startDispatching;
+      synchronized(inbox)
+      {
+        inbox.add(exception);
+        startDispatching = !dispatching;
+        dispatching = true;
+      }
+      if (startDispatching)
+        dispatch(this::dispatchNext);
+    }
+
+    /**
+     * Handles the next message of the client, then submits itself
+     * again if more messages are waiting, so one busy client does not
+     * hold a worker. Called by a worker thread.
+     */
+    private void dispatchNext()
+    {
+      Object next;
+      boolean resumeReading = false;
+      synchronized(inbox)
+      {
+        next = inbox.poll();
+        if (next == null)
+        {
+          dispatching = false;
+          return;
+        }
+        if (readPaused && inbox.size() <= MAX_PENDING_MESSAGES / 2)
+        {
+          readPaused = false;
+          resumeReading = true;
+        }
+      }
+      if (resumeReading)
+        loop.execute(() ->
+        {
+          if (!endOfInput)
+            changeInterest(SelectionKey.OP_READ, true);
+        });
+
+      if (next instanceof Throwable)
+      {
+        connection.connectionFailed((Throwable)next);
+        return;
+      }
+
+      try
+      {
+        ReceivedFrame frame = (ReceivedFrame)next;
+        long start = System.nanoTime();
+        Object msg = connection.decodeFrame(frame.bytes);
+        long decoded = System.nanoTime();
+        connection.messageReceived(start - frame.receivedNanos,
+          decoded - start);
+        server.receiveMessageFromClient(msg, connection);
+      }
+      catch (Throwable exception)
+      {
+        connection.connectionFailed(exception);
+        return;
+      }
+
+      dispatch(this::dispatchNext);
+    }
+
+    /**
+     * Adds or removes an operation from the interest set of the key.
+     * Called by the selector thread.
+     */
+    private void changeInterest(int operation, boolean interested)
+    {
+      try
+      {
+        key.interestOps(interested ? key.interestOps() | operation
+          : key.interestOps() & ~operation);
+      }
+      catch (CancelledKeyException ex)
+      {
+        // The channel was closed, nothing to read or write any more.
+      }
+    }
+  }
+}
+// End of NioServerTransport class
@@ -133,10 +133,9 @@ public class ObservableServer extends Observable
    * concrete subclasses to implement messages that do something with
    * each connection (e.g. kill it, send a message to it etc.)
    *
-   * @return an array of <code>Thread</code> containing
-   * <code>ConnectionToClient</code> instances.
+   * @return an array of <code>ConnectionToClient</code> instances.
    */
-  final public Thread[] getClientConnections()
+  final public ConnectionToClient[] getClientConnections()
   {
     return service.getClientConnections();
   }
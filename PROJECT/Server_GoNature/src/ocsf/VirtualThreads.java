@@ -0,0 +1,123 @@
+// This file contains material supporting section 3.8 of the textbook:
+// "Object Oriented Software Engineering" and is issued under the open-source
+// license found at www.lloseng.com
+
+package ocsf;
+
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+
+/**
+* The <code>VirtualThreads</code> class creates virtual threads when
+* the running Java version has them (Java 21 and later). It uses
+* reflection, so the framework still compiles and runs on older
+* versions, where <code>isSupported</code> returns false and the
+* callers fall back to platform threads.<p>
+*
+* Project Name: OCSF (Object Client-Server Framework)<p>
+*/
+final class VirtualThreads
+{
+  /**
+   * The Thread.Builder methods, or null when virtual threads are not
+   * available.
+   */
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_NAME_WITH_COUNTER;
+  private static final Method BUILDER_UNSTARTED;
+  private static final Method BUILDER_FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static
+  {
+    Method ofVirtual = null;
+    Method name = null;
+    Method nameWithCounter = null;
+    Method unstarted = null;
+    Method factory = null;
+    Method newThreadPerTaskExecutor = null;
+    try
+    {
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      name = builder.getMethod("name", String.class);
+      nameWithCounter = builder.getMethod("name", String.class, long.class);
+      unstarted = builder.getMethod("unstarted", Runnable.class);
+      factory = builder.getMethod("factory");
+      newThreadPerTaskExecutor = Executors.class.getMethod(
+        "newThreadPerTaskExecutor", ThreadFactory.class);
+
+      // On Java 19 and 20 virtual threads are a preview feature,
+      // which fails here unless it was enabled.
+      ofVirtual.invoke(null);
+    }
+    catch (ReflectiveOperationException | RuntimeException ex)
+    {
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = name;
+    BUILDER_NAME_WITH_COUNTER = nameWithCounter;
+    BUILDER_UNSTARTED = unstarted;
+    BUILDER_FACTORY = factory;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  private VirtualThreads() {}
+
+  /**
+   * @return true if the running Java version has virtual threads.
+   */
+  static boolean isSupported()
+  {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Creates a virtual thread which is not started yet.
+   *
+   * @param task the task of the thread.
+   * @param name the name of the thread.
+   * @return the thread, or null if virtual threads are not supported.
+   */
+  static Thread newThread(Runnable task, String name)
+  {
+    if (!isSupported())
+      return null;
+    try
+    {
+      Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+      return (Thread)BUILDER_UNSTARTED.invoke(builder, task);
+    }
+    catch (ReflectiveOperationException ex)
+    {
+      return null;
+    }
+  }
+
+  /**
+   * Creates an executor which runs every task on a new virtual thread.
+   *
+   * @param namePrefix the names of the threads are this prefix
+   *        followed by a counter.
+   * @return the executor, or null if virtual threads are not supported.
+   */
+  static ExecutorService newThreadPerTaskExecutor(String namePrefix)
+  {
+    if (!isSupported())
+      return null;
+    try
+    {
+      Object builder = BUILDER_NAME_WITH_COUNTER.invoke(
+        OF_VIRTUAL.invoke(null), namePrefix, 1L);
+      ThreadFactory factory = (ThreadFactory)BUILDER_FACTORY.invoke(builder);
+      return (ExecutorService)NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+    }
+    catch (ReflectiveOperationException ex)
+    {
+      return null;
+    }
+  }
+}
+// End of VirtualThreads class
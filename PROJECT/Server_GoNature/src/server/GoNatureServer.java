@@ -8,24 +8,23 @@ import java.net.SocketException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Enumeration;
 
-import gui.controller.ServerScreenController;
-import javafx.application.Platform;
 import jdbc.DBConnectionDetails;
 import jdbc.query.QueryControl;
-import logic.ClientConnection;
+import logic.AvailabilityWatch;
 import logic.ClientRequestDataContainer;
 import logic.ClientRequestHandler;
-import logic.Order;
+import logic.GateFeed;
+import logic.OccupancyLedger;
 import logic.ServerResponseBackToClient;
+import logic.SessionRegistry;
 import logic.User;
 import logic.Visitor;
 import jdbc.MySqlConnection;
 import ocsf.AbstractServer;
 import ocsf.ConnectionToClient;
+import utils.codec.BinaryMessageCodec;
 import utils.enums.ClientRequest;
 import utils.enums.ServerResponse;
 
@@ -49,30 +48,37 @@ public class GoNatureServer extends AbstractServer {
 
 	// Use Singleton DesignPattern -> only 1 server may be running in our system.
 	private static GoNatureServer server = null;
-	private static ServerScreenController serverController;
+	private static ServerView serverView;
 	private ClientRequestHandler clientRequestHandler;
-	private static Thread sendNotifications24HoursBefore = null;
-	private static Thread cancelOrdersNotConfirmedWithin2Hours = null;
-	private static Thread cancelTimePassedWaitingListOrders = null;
+	private static OrderDeadlineScheduler orderDeadlineScheduler = null;
+	// the gate terminals and kiosks are read by a few selector threads, and their requests are handled by a pool of
+	// workers, instead of a thread for each terminal. On Java 21 and later every request runs on its own virtual
+	// thread instead of the pool.
+	private static final int SELECTOR_THREADS = 2;
+	private static final int WORKER_THREADS = 16;
 
 	/**
 	 * Constructor
 	 * 
 	 * @param port             - The port number to connect on
-	 * @param serverController - ServerGuiController to send information to the
-	 *                         server gui view.
 	 */
-	@SuppressWarnings("static-access")
-	private GoNatureServer(int port, ServerScreenController serverController) {
+	private GoNatureServer(int port) {
 		super(port);
-		this.serverController = serverController;
-		clientRequestHandler = new ClientRequestHandler(this.serverController);
+		clientRequestHandler = new ClientRequestHandler();
+		// requests from different terminals are handled in parallel, ClientRequestHandler serializes only
+		// the requests which conflict with each other.
+		setConcurrentDispatch(true);
+		setNonBlockingTransport(SELECTOR_THREADS, WORKER_THREADS);
+		setVirtualThreads(true);
+		addMessageCodec(new BinaryMessageCodec());
+		RequestMetrics.getInstance().setConnectedClients(this::getNumberOfClients);
 		initializeThreadsAndStartRun();
 	}
 
 	/**
 	 * This method handle the message from client and sends them to the correct
-	 * method according to the sent Object instance.
+	 * method according to the sent Object instance. The time the request waited,
+	 * was handled and was answered is recorded in {@link RequestMetrics}.
 	 * 
 	 * @param msg    - The Object instance the client sent to the server.
 	 * @param client - The ConnectionToClient instance which include the details of
@@ -84,19 +90,31 @@ public class GoNatureServer extends AbstractServer {
 		String clientIp = client.getInetAddress().getHostAddress();
 		ClientRequestDataContainer data = (ClientRequestDataContainer) msg;
 		ClientRequest request = data.getRequest();
-		Platform.runLater((()->serverController.printToLogConsole(String.format("Request %s, was received from Client - %s",request,clientIp ))));
-		ServerResponseBackToClient response = new ServerResponseBackToClient(ServerResponse.User_Logout_Successfully, null);
-		if (request == ClientRequest.Logout) {
-			handleUserLogoutFromApplication(data.getData(), client, clientIp);
-		} else {
-			response = clientRequestHandler.handleRequest(data, client);
+		ServerLog.getInstance().log(String.format("Request %s, was received from Client - %s",request,clientIp ));
+		long start = RequestMetrics.getInstance().startRequest();
+		long handled = 0;
+		try {
+			if (request == ClientRequest.Logout) {
+				handleUserLogoutFromApplication(data.getData(), client, clientIp, data.getRequestId());
+			} else {
+				ServerResponseBackToClient response = clientRequestHandler.handleRequest(data, client);
+				// lets the client match the response to its request.
+				response.setRequestId(data.getRequestId());
+				handled = System.nanoTime();
 
-			try {
-				client.sendToClient(response);
-				return;
-			} catch (IOException e) {
-				Platform.runLater(()->serverController.printToLogConsole(String.format("IOException occured in handleMessageFromClient: %s", e.getMessage())));
+				try {
+					client.sendToClient(response);
+				} catch (IOException e) {
+					ServerLog.getInstance().log(String.format("IOException occured in handleMessageFromClient: %s", e.getMessage()));
+				}
 			}
+		} finally {
+			long finished = System.nanoTime();
+			// a logout sends its own response, and a failed handler none.
+			if (handled == 0)
+				handled = finished;
+			RequestMetrics.getInstance().finishRequest(request, client.getMessageQueueNanos(), handled - start,
+					finished - handled + client.getMessageDecodeNanos());
 		}
 	}
 	
@@ -110,8 +128,9 @@ public class GoNatureServer extends AbstractServer {
 	 * @param user The user object attempting to logout, which can be an instance of Visitor or User.
 	 * @param client The connection to the client that is requesting the logout.
 	 * @param clientIp The IP address of the client requesting the logout, used for logging purposes.
+	 * @param requestId The ID of the logout request, copied into the response.
 	 */
-	private void handleUserLogoutFromApplication(Object user, ConnectionToClient client, String clientIp) {
+	private void handleUserLogoutFromApplication(Object user, ConnectionToClient client, String clientIp, long requestId) {
 		try {
 			if (!(user == null)) {
 				String id = "";
@@ -121,16 +140,20 @@ public class GoNatureServer extends AbstractServer {
 				} else if (user instanceof User) {
 					id = ((User) user).getUsername();
 				}
-				serverController.printToLogConsole(
+				ServerLog.getInstance().log(
 						String.format("User : '%s' with IP : '%s' : Request Logout from Application", id, clientIp));
-				serverController.getClientsList().remove(new ClientConnection("", client));
-				serverController.printToLogConsole(
+				SessionRegistry.getInstance().logout(client);
+				GateFeed.getInstance().unsubscribe(client);
+				AvailabilityWatch.getInstance().unwatch(client);
+				ServerLog.getInstance().log(
 						String.format("User : '%s' with IP : '%s' : Logged Out Successfully", id, clientIp));
 			}
-			client.sendToClient(new ServerResponseBackToClient(ServerResponse.User_Logout_Successfully, null));
+			ServerResponseBackToClient response = new ServerResponseBackToClient(ServerResponse.User_Logout_Successfully, null);
+			response.setRequestId(requestId);
+			client.sendToClient(response);
 		} catch (IOException ex) {
-			Platform.runLater(()->serverController.printToLogConsole(String.format("IOException occured in handleUserLogoutFromApplication: %s", ex.getMessage())));
-			serverController.printToLogConsole("Error while sending update message to client");
+			ServerLog.getInstance().log(String.format("IOException occured in handleUserLogoutFromApplication: %s", ex.getMessage()));
+			ServerLog.getInstance().log("Error while sending update message to client");
 			return;
 		}
 	}
@@ -153,8 +176,10 @@ public class GoNatureServer extends AbstractServer {
 	 */
 	@Override
 	protected void serverStarted() {
-		serverController.printToLogConsole(
+		ServerLog.getInstance().log(
 				String.format("Server listening for connnections on address %s:%s", getServerIpAddress(), getPort()));
+		ServerLog.getInstance().log(String.format("Requests are handled on %s",
+				isUsingVirtualThreads() ? "virtual threads" : String.format("%d worker threads", WORKER_THREADS)));
 	}
 
 	/**
@@ -182,7 +207,7 @@ public class GoNatureServer extends AbstractServer {
 				}
 			}
 		} catch (SocketException ex) {
-			Platform.runLater(()->serverController.printToLogConsole(String.format("SocketExcpetion occured in getServerIpAddress: %s",ex.getMessage())));
+			ServerLog.getInstance().log(String.format("SocketExcpetion occured in getServerIpAddress: %s",ex.getMessage()));
 		}
 		return "Not found network addresses. please use ipconfig in commandline";
 	}
@@ -192,7 +217,7 @@ public class GoNatureServer extends AbstractServer {
 	 */
 	@Override
 	protected void serverStopped() {
-		Platform.runLater(() -> serverController.printToLogConsole("Server has stopped listening for connections\n"));
+		ServerLog.getInstance().log("Server has stopped listening for connections\n");
 	}
 
 	/**
@@ -200,7 +225,9 @@ public class GoNatureServer extends AbstractServer {
 	 */
 	@Override
 	protected void serverClosed() {
-		Platform.runLater(() -> serverController.printToLogConsole("Server has been closed\n"));
+		ServerLog.getInstance().log("Server has been closed\n");
+		// the last lines are written before the application may exit.
+		ServerLog.getInstance().flush();
 	}
 
 	/**
@@ -213,18 +240,16 @@ public class GoNatureServer extends AbstractServer {
 	@Override
 	protected void clientConnected(ConnectionToClient client) {
 		InetAddress details = client.getInetAddress();
-		for (ClientConnection cl : serverController.getClientsList()) {
-			if (cl.getConnection().equals(client)) {
-				return;
-			}
-		}
-		serverController.printToLogConsole(
+		if (SessionRegistry.getInstance().hasSession(client))
+			return;
+		ServerLog.getInstance().log(
 				"Client " + details.getHostName() + " with IP:" + details.getHostAddress() + " Connected");
 	}
 
 	/**
-	 * This method called when a client disconnected from the server. remove the
-	 * client from the server's table view and write to log.
+	 * This method called when a client disconnected from the server. end the
+	 * client's session (the clients table view follows it) and write to log, with
+	 * the amount of data the client was sent.
 	 * 
 	 * @param client - The ConnectionToClient instance which include the details of
 	 *               the client in order to be able send him back answer.
@@ -232,9 +257,28 @@ public class GoNatureServer extends AbstractServer {
 	@Override
 	synchronized protected void clientDisconnected(ConnectionToClient client) {
 		InetAddress details = client.getInetAddress();
-		serverController.printToLogConsole(
-				"Client " + details.getHostName() + " with IP:" + details.getHostAddress() + " Disconnected");
-		serverController.removeFromConnected(client);
+		ServerLog.getInstance().log(String.format("Client %s with IP:%s Disconnected (%d messages, %d bytes sent)",
+				details.getHostName(), details.getHostAddress(), client.getMessagesSent(), client.getBytesSent()));
+		SessionRegistry.getInstance().logout(client);
+		GateFeed.getInstance().unsubscribe(client);
+		AvailabilityWatch.getInstance().unwatch(client);
+	}
+
+	/**
+	 * This method called when the connection with a client was lost (the client quit without logging out, or
+	 * crashed). End the client's session, so the user may log in again, and write to log.
+	 * 
+	 * @param client    - The ConnectionToClient instance of the lost client.
+	 * @param exception - The exception which ended the connection.
+	 */
+	@Override
+	synchronized protected void clientException(ConnectionToClient client, Throwable exception) {
+		InetAddress details = client.getInetAddress();
+		GateFeed.getInstance().unsubscribe(client);
+		AvailabilityWatch.getInstance().unwatch(client);
+		if (SessionRegistry.getInstance().logout(client) != null)
+			ServerLog.getInstance().log(
+					"Client " + details.getHostName() + " with IP:" + details.getHostAddress() + " Connection lost");
 	}
 
 	/**
@@ -253,9 +297,14 @@ public class GoNatureServer extends AbstractServer {
 			clearImportedData();
 			server.stopListening();
 			server.close();
+			SessionRegistry.getInstance().clear();
+			String parkCacheState = QueryControl.parkQueries.getParkCache().toString();
+			ServerLog.getInstance().log(parkCacheState);
+			RequestMetrics.getInstance().dump();
+			RequestMetrics.getInstance().setConnectedClients(null);
 
 		} catch (IOException ex) {
-			Platform.runLater(()->serverController.printToLogConsole(String.format("IOException occured in stopServer: %s",ex.getMessage())));
+			ServerLog.getInstance().log(String.format("IOException occured in stopServer: %s",ex.getMessage()));
 		} finally {
 			MySqlConnection.getInstance().closeConnection();
 			server = null;
@@ -269,13 +318,12 @@ public class GoNatureServer extends AbstractServer {
 	 * the server controller's logging mechanism on the JavaFX Application thread.
 	 */
 	private static void clearImportedData() {
-		try {
-			Connection con = MySqlConnection.getInstance().getConnection();
+		try (Connection con = MySqlConnection.getInstance().getConnection()) {
 			Statement stmt = con.createStatement();
 			stmt.execute("TRUNCATE TABLE users");
 			System.out.println("Imported data cleared successfully");
 		}catch(SQLException ex) {
-			Platform.runLater(()->serverController.printToLogConsole(String.format("SQLException occured in clearImportedData: %s",ex.getMessage())));
+			ServerLog.getInstance().log(String.format("SQLException occured in clearImportedData: %s",ex.getMessage()));
 		}
 	}
 	
@@ -299,49 +347,27 @@ public class GoNatureServer extends AbstractServer {
 			           + "(UserId, Username, Password, FirstName, LastName, Phone, Email, Status, UserType, @ParkId, EmployeeType) "
 			           + "SET ParkId = NULLIF(@ParkId, '')";
 
-			Connection conn = MySqlConnection.getInstance().getConnection();
-			Statement stmt = conn.createStatement();
+			try (Connection conn = MySqlConnection.getInstance().getConnection()) {
+				Statement stmt = conn.createStatement();
 
-			stmt.execute(sql);
+				stmt.execute(sql);
+			}
 			System.out.println("Data imported successfully");
 			return true;
 		} catch (Exception e) {
-			Platform.runLater(()->serverController.printToLogConsole(e.getMessage()));
+			ServerLog.getInstance().log(e.getMessage());
 			e.printStackTrace();
 			return false;
 		}
 	}
 	
 	/**
-	 * Gracefully shuts down all active background threads managed by the application. This method attempts to interrupt
-	 * three specific threads - {@code sendNotifications24HoursBefore}, {@code cancelOrdersNotConfirmedWithin2Hours}, and
-	 * {@code cancelTimePassedWaitingListOrders} - if they are currently alive. It then waits for each of these threads to
-	 * terminate by calling the {@code join} method on them. If the current thread is interrupted while waiting for these
-	 * threads to finish, it restores the interrupted status by calling {@code Thread.currentThread().interrupt()}.
-	 * Note: The commented-out thread variables {@code sendNotifications24HoursBefore} and
-	 * {@code cancelOrdersNotConfirmedWithin2Hours} should be declared and initialized elsewhere in the application for
-	 * this method to function as intended.
+	 * Gracefully shuts down the background scheduler of the orders deadlines (notifications and automatic
+	 * cancellations), and waits for its thread to stop.
 	 */
 	private static void closeAllThreads() {
-//		private static Thread sendNotifications24HoursBefore = null;
-//		private static Thread cancelOrdersNotConfirmedWithin2Hours = null;
-		// Stop the searchAvailableDates thread if it's running
-		try {
-			if (sendNotifications24HoursBefore != null && sendNotifications24HoursBefore.isAlive())
-				sendNotifications24HoursBefore.interrupt();
-
-			if (cancelOrdersNotConfirmedWithin2Hours != null && cancelOrdersNotConfirmedWithin2Hours.isAlive())
-				cancelOrdersNotConfirmedWithin2Hours.interrupt();
-
-			if (cancelTimePassedWaitingListOrders != null && cancelTimePassedWaitingListOrders.isAlive())
-				cancelTimePassedWaitingListOrders.interrupt();
-
-			sendNotifications24HoursBefore.join(); // Wait for the thread to stop
-			cancelOrdersNotConfirmedWithin2Hours.join();
-			cancelTimePassedWaitingListOrders.join();
-		} catch (InterruptedException e) {
-			Thread.currentThread().interrupt(); // Restore interrupted status
-		}
+		if (orderDeadlineScheduler != null)
+			orderDeadlineScheduler.stop();
 	}
 
 	/**
@@ -351,189 +377,81 @@ public class GoNatureServer extends AbstractServer {
 	 * @param db               - The DBConnectionDetails entity which contains all
 	 *                         required data to connect the database.
 	 * @param port             - The port number to connect on
-	 * @param serverController - ServerGuiController to send information to the
-	 *                         server gui view.
+	 * @param view             - The view which started the server, the server gui
+	 *                         screen, or null when the server runs headless.
 	 */
-	public static void startServer(DBConnectionDetails db, Integer port, ServerScreenController serverController) {
-		// try to connect the database
+	public static void startServer(DBConnectionDetails db, Integer port, ServerView view) {
+		// try to connect the database (opens the connection pool)
 		MySqlConnection.setDBConnectionDetails(db);
-		Connection conn = (Connection) MySqlConnection.getInstance(serverController).getConnection();
+		MySqlConnection database = MySqlConnection.getInstance();
 		// if failed -> can't start the server.
-		if (conn == null) {
-			serverController.printToLogConsole("Can't start server! Connection to database failed!");
+		if (database == null) {
+			ServerLog.getInstance().log("Can't start server! Connection to database failed!");
 			return;
 		}
 
 		clearImportedData();
 		
-		Platform.runLater(()->serverController.printToLogConsole("Connection to database succeed"));
+		ServerLog.getInstance().log("Connection to database succeed");
+		// load the parks occupancy into memory, and keep it in sync with every change of the orders from now on.
+		QueryControl.orderQueries.addOrderChangeListener(OccupancyLedger.getInstance());
+		// the parks are cached from now on, the DB may have been changed while the server was stopped.
+		QueryControl.parkQueries.getParkCache().invalidateAll();
+		QueryControl.orderQueries.addOrderChangeListener(QueryControl.parkQueries.getParkCache());
+		// the park entrance screens get the orders of today which changed, instead of asking for all of them.
+		QueryControl.orderQueries.addOrderChangeListener(GateFeed.getInstance());
+		// the clients which watch the available dates get them again when the booked capacity of their days changes.
+		OccupancyLedger.getInstance().addCapacityChangeListener(AvailabilityWatch.getInstance());
+		if (OccupancyLedger.getInstance().rebuild()) {
+			String ledgerState = OccupancyLedger.getInstance().toString();
+			ServerLog.getInstance().log(ledgerState);
+		} else {
+			ServerLog.getInstance().log("Failed to load the occupancy ledger, availability is checked against the database");
+		}
 		// Singleton DesignPattern. Only 1 instance of server is available.
 		if (server != null) {
-			Platform.runLater(()->serverController.printToLogConsole("There is already a connected server"));
+			ServerLog.getInstance().log("There is already a connected server");
 			return;
 		}
 
-		server = new GoNatureServer(port, serverController);
+		serverView = view;
+		server = new GoNatureServer(port);
 
 		try {
 			server.listen();
 			// update connection in server gui.
-			serverController.connectionSuccessfull();
-			// Run the 2 relevant threads
-			sendNotifications24HoursBefore.start();
-			cancelOrdersNotConfirmedWithin2Hours.start();
-			cancelTimePassedWaitingListOrders.start();
+			if (serverView != null)
+				serverView.connectionSuccessfull();
+			// Run the orders deadlines (notifications and automatic cancellations)
+			orderDeadlineScheduler.start();
 		} catch (Exception ex) {
 			ex.printStackTrace();
-			Platform.runLater(()->{
-				serverController.printToLogConsole(String.format("Exception in start Server: %s",ex.getMessage()));
-				serverController.printToLogConsole("Error - could not listen for clients!");
-			});
+			ServerLog.getInstance().log(String.format("Exception in start Server: %s",ex.getMessage()));
+			ServerLog.getInstance().log("Error - could not listen for clients!");
 			server = null;
 		}
 	}
 	
 	/**
-	 * Initializes and starts the background threads responsible for sending notifications, cancelling unconfirmed orders,
-	 * and managing waiting list orders based on specific time criteria. This method first ensures any previously running
-	 * instances of these threads are interrupted and terminated before starting new ones. Each thread performs its
-	 * designated task in a loop until interrupted:
-	 * 
-	 * 1. {@code sendNotifications24HoursBefore} sends notifications for orders 24 hours before their scheduled time.
-	 * 2. {@code cancelOrdersNotConfirmedWithin2Hours} cancels orders not confirmed within 2 hours of notification.
-	 * 3. {@code cancelTimePassedWaitingListOrders} manages waiting list orders, marking irrelevant ones based on the
-	 * current time.
+	 * @return true if the server was started and listens for clients.
+	 */
+	public static boolean isRunning() {
+		return server != null;
+	}
+	
+	/**
+	 * Initializes the background scheduler responsible for sending notifications, cancelling unconfirmed orders, and
+	 * managing waiting list orders based on specific time criteria. Any previously running scheduler is stopped first.
+	 * Instead of scanning the orders every second, the scheduler keeps the next deadline of every open order and runs
+	 * each deadline when it is due (see {@link OrderDeadlineScheduler}):
 	 * 
-	 * If any thread is interrupted during execution, it logs a message to the server console and breaks its execution loop.
+	 * 1. sends notifications for orders 24 hours before their scheduled time.
+	 * 2. cancels orders not confirmed within 2 hours of notification.
+	 * 3. manages waiting list orders, marking irrelevant ones once their time passed.
 	 */
 	private void initializeThreadsAndStartRun() {
-		if (sendNotifications24HoursBefore != null && sendNotifications24HoursBefore.isAlive()) {
-			sendNotifications24HoursBefore.interrupt();
-			try {
-				sendNotifications24HoursBefore.join();
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				Platform.runLater(()->serverController.printToLogConsole("Thread for send notifications was interrupted"));
-			}
-		}
-
-		if (cancelOrdersNotConfirmedWithin2Hours != null && cancelOrdersNotConfirmedWithin2Hours.isAlive()) {
-			cancelOrdersNotConfirmedWithin2Hours.interrupt();
-			try {
-				cancelOrdersNotConfirmedWithin2Hours.join();
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				Platform.runLater(()->serverController.printToLogConsole("Thread for automatically cancelled unconfirmed orders was interrupted"));
-			}
-		}
-
-		if (cancelTimePassedWaitingListOrders != null && cancelTimePassedWaitingListOrders.isAlive()) {
-			cancelTimePassedWaitingListOrders.interrupt();
-			try {
-				cancelTimePassedWaitingListOrders.join();
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				Platform.runLater(()->serverController.printToLogConsole("Thread for cancel time passed waiting list orders was interrupted"));
-			}
-		}
-
-		sendNotifications24HoursBefore = new Thread(() -> {
-			while (!Thread.interrupted()) {
-				try {
-					Thread.sleep(1000);
-					LocalDateTime currentTime = LocalDateTime.now();
-					LocalDateTime relevantTimeTomorrow = currentTime.plusDays(1);
-					ArrayList<Order> ordersToNotify = QueryControl.notificationQueries
-							.CheckAllOrdersAndChangeToNotifedfNeeded(relevantTimeTomorrow);
-
-					if (ordersToNotify != null && !ordersToNotify.isEmpty()) {
-						Platform.runLater(() -> serverController
-								.printToLogConsole("Confirmation Notification was sent to all order 24 before time"));
-						for (Order order : ordersToNotify) {
-							QueryControl.notificationQueries.UpdateAllWaitNotifyOrdersToNotify(order);
-							String message = String.format(
-									"Order: %d, Notification was sent by email to %s and SMS to %s", order.getOrderId(),
-									order.getEmail(), order.getTelephoneNumber());
-							Platform.runLater(() -> serverController.printToLogConsole(message));
-						}
-					}
-
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					break;
-				}
-			}
-		});
-
-		cancelOrdersNotConfirmedWithin2Hours = new Thread(() -> {
-			while (!Thread.interrupted()) {
-				try {
-					Thread.sleep(1000);
-					LocalDateTime currentTime = LocalDateTime.now();
-					LocalDateTime relevantTimeTomorrowMinus2Hours = currentTime.plusHours(22);
-					ArrayList<Order> ordersToNotify = QueryControl.notificationQueries
-							.CheckAllOrdersAndChangeToCancelledIfNeeded(relevantTimeTomorrowMinus2Hours);
-					
-					ArrayList<Order> ordersNotifiedFromWaitingList = QueryControl.notificationQueries
-							.CheckAllWaitingListOrdersAndCancelAutomaticallyIfNotConfirmed();
-					
-					if (ordersToNotify != null && !ordersToNotify.isEmpty()) {
-						for (Order order : ordersToNotify) {
-							QueryControl.notificationQueries.automaticallyCancelAllNotifiedOrders(order);
-							clientRequestHandler.notifyOrdersFromWaitingList(order.getEnterDate(), order.getParkName().getParkId());
-							String message = String.format(
-									"Order: %d, Notification on Automatically cancel becuase of unconfirmed order within 2 hours was sent by email to %s and SMS to %s", order.getOrderId(),
-									order.getEmail(), order.getTelephoneNumber());
-							Platform.runLater(() -> serverController.printToLogConsole(message));
-						}
-					}
-					
-					if(ordersNotifiedFromWaitingList!=null && !ordersNotifiedFromWaitingList.isEmpty()) {
-						for(Order order: ordersNotifiedFromWaitingList) {
-							QueryControl.notificationQueries.automaticallyCancelAllNotifiedOrders(order);
-							clientRequestHandler.notifyOrdersFromWaitingList(order.getEnterDate(), order.getParkName().getParkId());
-							String message = String.format(
-									"Order: %d, Notification on Automatically cancel becuase of unconfirmed order within 2 hours, was sent by email to %s and SMS to %s", order.getOrderId(),
-									order.getEmail(), order.getTelephoneNumber());
-							Platform.runLater(() -> serverController.printToLogConsole(message));
-						}
-					}
-					
-					
-					
-
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					break;
-				}
-			}
-		});
-
-		cancelTimePassedWaitingListOrders = new Thread(() -> {
-			while (!Thread.interrupted()) {
-				try {
-					Thread.sleep(1000);
-					LocalDateTime currentTime = LocalDateTime.now();
-					ArrayList<Order> ordersToNotify = QueryControl.notificationQueries
-							.CheckWaitingListAndRemoveAllIrrelcantOrders(currentTime);
-
-					if (ordersToNotify != null && !ordersToNotify.isEmpty()) {
-						Platform.runLater(() -> serverController.printToLogConsole(String.format(
-								"All orders in waiting list for %s marked as irrelevant", currentTime.toString())));
-						for (Order order : ordersToNotify) {
-							QueryControl.notificationQueries.automaticallyMarkOrdersAsIrrelevant(order);
-							String message = String.format(
-									"Order: %d, Notification on order Irrelevant because date passed was sent by email to %s and SMS to %s", order.getOrderId(),
-									order.getEmail(), order.getTelephoneNumber());
-							Platform.runLater(() -> serverController.printToLogConsole(message));
-						}
-					}
-
-				} catch (InterruptedException e) {
-					Thread.currentThread().interrupt();
-					break;
-				}
-			}
-		});
+		if (orderDeadlineScheduler != null)
+			orderDeadlineScheduler.stop();
+		orderDeadlineScheduler = new OrderDeadlineScheduler(clientRequestHandler);
 	}
 }
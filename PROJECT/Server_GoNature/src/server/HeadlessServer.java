@@ -0,0 +1,160 @@
+package server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import jdbc.DBConnectionDetails;
+
+/**
+ * The {@code HeadlessServer} class is the entry point of the server when it runs without the server screen, on a
+ * machine without a desktop. It doesn't load JavaFX at all: the server writes its log to the standard output and to
+ * a rolling log file (see {@link ServerLog}), and is stopped by stopping the process.
+ * The configuration is read from a properties file, and every property may be overridden by an environment variable
+ * named GONATURE_ and the name of the property in upper case with the dots replaced by underscores (db.password is
+ * GONATURE_DB_PASSWORD, for example):
+ * - port: the port the server listens on, 12345 by default.
+ * - db.name, db.username, db.password: the MySQL schema and user, GoNature and root by default.
+ * - db.pool.maxSize, db.pool.minIdle, db.pool.borrowTimeoutMillis, db.pool.idleTimeoutMillis: the connection pool.
+ * - db.slowQueryMillis: queries which take longer are logged with their parameters, 500 by default, 0 for none.
+ * - log.file: the path of the log file, gonature-server.log by default, or none to write only to the output.
+ * - users.import: true to import the external users data when the server starts, as the Import button does.
+ * - metrics.intervalSeconds: how often the request metrics are written to the log (see {@link RequestMetrics}), 300
+ *   by default, 0 to write them only when the server stops.
+ * - metrics.file: a file which holds the last request metrics, none by default.
+ * The path of the properties file is the first argument, or GONATURE_CONFIG, or gonature-server.properties in the
+ * working directory. The file is optional when the environment variables hold the configuration.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class HeadlessServer {
+
+	private static final String DEFAULT_CONFIG_FILE = "gonature-server.properties";
+	private static final String ENVIRONMENT_PREFIX = "GONATURE_";
+
+	private final Properties properties;
+
+	private HeadlessServer(Properties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Starts the server without the server screen, and runs until the process is stopped.
+	 *
+	 * @param args the path of the properties file, optional.
+	 */
+	public static void main(String[] args) {
+		String configFile = args.length > 0 ? args[0] : System.getenv(ENVIRONMENT_PREFIX + "CONFIG");
+		Properties properties = new Properties();
+		try {
+			loadProperties(properties, configFile);
+		} catch (IOException | IllegalArgumentException ex) {
+			System.err.println("Failed to read the configuration: " + ex.getMessage());
+			System.exit(2);
+		}
+		int exitCode = new HeadlessServer(properties).run();
+		// after a normal stop the process is already shutting down.
+		if (exitCode != 0)
+			System.exit(exitCode);
+	}
+
+	/**
+	 * Starts the server and waits until the process is stopped.
+	 *
+	 * @return the exit code of the process.
+	 */
+	private int run() {
+		String logFile = get("log.file", "gonature-server.log");
+		if (!logFile.equalsIgnoreCase("none"))
+			ServerLog.getInstance().setFile(Paths.get(logFile));
+
+		String metricsFile = get("metrics.file", "none");
+		if (!metricsFile.equalsIgnoreCase("none"))
+			RequestMetrics.getInstance().setFile(Paths.get(metricsFile));
+
+		int port;
+		DBConnectionDetails database;
+		try {
+			port = getInt("port", 12345);
+			database = new DBConnectionDetails(get("db.name", "GoNature"), get("db.username", "root"),
+					get("db.password", ""));
+			database.setMaxPoolSize(getInt("db.pool.maxSize", database.getMaxPoolSize()));
+			database.setMinIdle(getInt("db.pool.minIdle", database.getMinIdle()));
+			database.setBorrowTimeoutMillis(getLong("db.pool.borrowTimeoutMillis", database.getBorrowTimeoutMillis()));
+			database.setIdleTimeoutMillis(getLong("db.pool.idleTimeoutMillis", database.getIdleTimeoutMillis()));
+			database.setSlowQueryMillis(getLong("db.slowQueryMillis", database.getSlowQueryMillis()));
+			RequestMetrics.getInstance().setDumpInterval(getLong("metrics.intervalSeconds", 300));
+		} catch (IllegalArgumentException ex) {
+			ServerLog.getInstance().log("Invalid configuration: " + ex.getMessage());
+			ServerLog.getInstance().flush();
+			return 2;
+		}
+
+		ServerLog.getInstance().log(String.format("Starting the server headless on port %d, database %s", port,
+				database.getName()));
+		GoNatureServer.startServer(database, port, null);
+		if (!GoNatureServer.isRunning()) {
+			ServerLog.getInstance().flush();
+			return 1;
+		}
+		if (Boolean.parseBoolean(get("users.import", "false")))
+			ServerLog.getInstance().log(GoNatureServer.importUsersData() ? "User data imported successfully"
+					: "User data import failed");
+
+		CountDownLatch stopped = new CountDownLatch(1);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			GoNatureServer.stopServer();
+			ServerLog.getInstance().flush();
+			stopped.countDown();
+		}, "Server shutdown"));
+		try {
+			stopped.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		return 0;
+	}
+
+	/**
+	 * Loads the properties file. A missing file is an error only if its path was given.
+	 */
+	private static void loadProperties(Properties properties, String configFile) throws IOException {
+		Path path = Paths.get(configFile != null ? configFile : DEFAULT_CONFIG_FILE);
+		if (!Files.exists(path)) {
+			if (configFile != null)
+				throw new IllegalArgumentException("No such file " + path);
+			return;
+		}
+		try (InputStream in = Files.newInputStream(path)) {
+			properties.load(in);
+		}
+	}
+
+	/**
+	 * @return the value of a property, from the environment if it is set there, from the properties file otherwise.
+	 */
+	private String get(String key, String defaultValue) {
+		String value = System.getenv(ENVIRONMENT_PREFIX + key.toUpperCase().replace('.', '_'));
+		if (value == null)
+			value = properties.getProperty(key);
+		return value == null ? defaultValue : value.trim();
+	}
+
+	private int getInt(String key, int defaultValue) {
+		return (int) getLong(key, defaultValue);
+	}
+
+	private long getLong(String key, long defaultValue) {
+		String value = get(key, null);
+		if (value == null)
+			return defaultValue;
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(key + " must be a number: " + value);
+		}
+	}
+}
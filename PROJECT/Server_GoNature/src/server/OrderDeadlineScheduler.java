@@ -0,0 +1,304 @@
+package server;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import jdbc.query.OrderChangeListener;
+import jdbc.query.QueryControl;
+import logic.ClientRequestHandler;
+import logic.Order;
+import utils.enums.OrderStatusEnum;
+
+/**
+ * The OrderDeadlineScheduler class runs the automatic status changes of orders when they are due, instead of scanning
+ * the preorders table every second:
+ * 1. 24 hours before the visit, a 'Wait Notify' order is notified ('Notified').
+ * 2. 22 hours before the visit (2 hours after the notification), a 'Notified' order which was not confirmed is cancelled,
+ * and the freed spots are offered to the waiting list.
+ * 3. 2 hours after an order from the waiting list was notified, a 'Notified Waiting List' order which was not confirmed
+ * is cancelled, and the freed spots are offered to the next orders in the waiting list.
+ * 4. Once the visit time passed, an order which is still in the waiting list is marked as 'Irrelevant'.
+ *
+ * Each deadline waits in a {@link DelayQueue} ordered by its due time, and a single thread sleeps until the next
+ * deadline is due. All the deadlines which are due together are run as one status change per kind of deadline, so a
+ * mass cancellation costs one transaction and not one update for each order. The queue is loaded from the DB when the scheduler starts, and is fed by listening to the orders
+ * inserted and to their status changes. A deadline does not check the order's status when it is scheduled, the status
+ * change is conditional on the status the order is expected to have when the deadline is due.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class OrderDeadlineScheduler implements OrderChangeListener {
+
+	private static final long NOTIFY_HOURS_BEFORE_VISIT = 24;
+	private static final long CONFIRM_HOURS_BEFORE_VISIT = 22;
+	private static final long WAITING_LIST_CONFIRM_HOURS = 2;
+	// a notification that was missed (the server was down at the time) is not sent late.
+	private static final long NOTIFY_GRACE_MILLIS = 60_000;
+	// an order in the waiting list becomes irrelevant one minute after its enter time.
+	private static final long IRRELEVANT_AFTER_VISIT_MILLIS = 60_000;
+	// deadlines whose status change failed (the DB was not available) are run again after this delay.
+	private static final long RETRY_DELAY_MILLIS = 60_000;
+
+	/**
+	 * The kinds of deadlines an order may have.
+	 */
+	private enum DeadlineType {
+		Send_Notification, Cancel_Unconfirmed_Order, Cancel_Unconfirmed_Waiting_List_Order, Mark_Waiting_List_Irrelevant
+	}
+
+	/**
+	 * A single deadline of an order, ordered in the queue by its due time.
+	 */
+	private static class Deadline implements Delayed {
+		private final int orderId;
+		private final DeadlineType type;
+		private final long dueTimeMillis;
+
+		private Deadline(int orderId, DeadlineType type, long dueTimeMillis) {
+			this.orderId = orderId;
+			this.type = type;
+			this.dueTimeMillis = dueTimeMillis;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(dueTimeMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(dueTimeMillis, ((Deadline) other).dueTimeMillis);
+		}
+	}
+
+	private final ClientRequestHandler clientRequestHandler;
+	private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+	// the enter dates of the orders which may still get a deadline, by order ID.
+	private final HashMap<Integer, LocalDateTime> enterDates = new HashMap<>();
+	private Thread worker = null;
+
+	/**
+	 * Constructs a new scheduler, which does nothing until it is started.
+	 *
+	 * @param clientRequestHandler the handler which offers the freed spots of cancelled orders to the waiting list.
+	 */
+	public OrderDeadlineScheduler(ClientRequestHandler clientRequestHandler) {
+		this.clientRequestHandler = clientRequestHandler;
+	}
+
+	/**
+	 * Loads the deadlines of the open orders from the DB, starts listening to order changes and starts the thread which
+	 * runs the deadlines when they are due.
+	 */
+	public synchronized void start() {
+		if (worker != null)
+			return;
+
+		QueryControl.orderQueries.addOrderChangeListener(this);
+		ArrayList<Order> orders = QueryControl.notificationQueries.fetchOrdersWithDeadlines();
+		if (orders == null) {
+			ServerLog.getInstance().log("Failed to load the orders deadlines");
+		} else {
+			for (Order order : orders) {
+				enterDates.put(order.getOrderId(), order.getEnterDate());
+				LocalDateTime notifiedAt = order.getLastStatusUpdatedTime() == null ? null
+						: LocalDateTime.parse(order.getLastStatusUpdatedTime());
+				scheduleFor(order.getOrderId(), order.getStatus(), notifiedAt);
+			}
+			String message = String.format("Orders deadlines loaded: %d pending", deadlines.size());
+			ServerLog.getInstance().log(message);
+		}
+
+		worker = new Thread(this::runDeadlines, "Order deadlines");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * Stops the scheduler thread and stops listening to order changes.
+	 */
+	public void stop() {
+		Thread workerToStop;
+		synchronized (this) {
+			QueryControl.orderQueries.removeOrderChangeListener(this);
+			workerToStop = worker;
+			worker = null;
+			deadlines.clear();
+			enterDates.clear();
+		}
+		if (workerToStop == null)
+			return;
+		workerToStop.interrupt();
+		try {
+			workerToStop.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public synchronized void orderInserted(Order order) {
+		enterDates.put(order.getOrderId(), order.getEnterDate());
+		scheduleFor(order.getOrderId(), order.getStatus(), LocalDateTime.now());
+	}
+
+	@Override
+	public synchronized void orderStatusChanged(int orderId, OrderStatusEnum newStatus) {
+		scheduleFor(orderId, newStatus, LocalDateTime.now());
+		switch (newStatus) {
+		case Cancelled:
+		case Completed:
+		case Time_Passed:
+		case Irrelevant:
+		case Confirmed:
+		case In_Park:
+			// no deadline follows these statuses.
+			enterDates.remove(orderId);
+			break;
+		default:
+			break;
+		}
+	}
+
+	@Override
+	public synchronized void orderDeleted(int orderId) {
+		enterDates.remove(orderId);
+	}
+
+	/**
+	 * Schedules the deadline which follows the given status of an order.
+	 *
+	 * @param orderId the ID of the order.
+	 * @param status the order's status.
+	 * @param statusChangedAt the time the order got the status (used for orders notified from the waiting list).
+	 */
+	private void scheduleFor(int orderId, OrderStatusEnum status, LocalDateTime statusChangedAt) {
+		LocalDateTime enterDate = enterDates.get(orderId);
+		if (enterDate == null || status == null)
+			return;
+
+		switch (status) {
+		case Wait_Notify:
+			long notifyAt = toMillis(enterDate.minusHours(NOTIFY_HOURS_BEFORE_VISIT));
+			if (notifyAt >= System.currentTimeMillis() - NOTIFY_GRACE_MILLIS)
+				deadlines.add(new Deadline(orderId, DeadlineType.Send_Notification, notifyAt));
+			break;
+		case Notified:
+			deadlines.add(new Deadline(orderId, DeadlineType.Cancel_Unconfirmed_Order,
+					toMillis(enterDate.minusHours(CONFIRM_HOURS_BEFORE_VISIT))));
+			break;
+		case Notified_Waiting_List:
+			if (statusChangedAt != null)
+				deadlines.add(new Deadline(orderId, DeadlineType.Cancel_Unconfirmed_Waiting_List_Order,
+						toMillis(statusChangedAt.plusHours(WAITING_LIST_CONFIRM_HOURS))));
+			deadlines.add(new Deadline(orderId, DeadlineType.Mark_Waiting_List_Irrelevant,
+					toMillis(enterDate) + IRRELEVANT_AFTER_VISIT_MILLIS));
+			break;
+		case In_Waiting_List:
+			deadlines.add(new Deadline(orderId, DeadlineType.Mark_Waiting_List_Irrelevant,
+					toMillis(enterDate) + IRRELEVANT_AFTER_VISIT_MILLIS));
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * The scheduler thread: waits for the next due deadline, and runs it together with every other deadline which is
+	 * due by then, until interrupted.
+	 */
+	private void runDeadlines() {
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				ArrayList<Deadline> dueDeadlines = new ArrayList<>();
+				dueDeadlines.add(deadlines.take());
+				deadlines.drainTo(dueDeadlines);
+				runDeadlines(dueDeadlines);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (RuntimeException e) {
+				// one failed batch must not stop the scheduler.
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Runs the due deadlines, with one status change of all the orders for each kind of deadline.
+	 */
+	private void runDeadlines(ArrayList<Deadline> dueDeadlines) {
+		EnumMap<DeadlineType, ArrayList<Integer>> orderIdsByType = new EnumMap<>(DeadlineType.class);
+		for (Deadline deadline : dueDeadlines)
+			orderIdsByType.computeIfAbsent(deadline.type, type -> new ArrayList<>()).add(deadline.orderId);
+
+		for (DeadlineType type : orderIdsByType.keySet()) {
+			ArrayList<Integer> orderIds = orderIdsByType.get(type);
+			ArrayList<Order> changedOrders;
+			String messageFormat;
+			switch (type) {
+			case Send_Notification:
+				changedOrders = QueryControl.notificationQueries.changeOrdersStatusIfStill(orderIds,
+						OrderStatusEnum.Notified, OrderStatusEnum.Wait_Notify);
+				messageFormat = "Order: %d, Notification was sent by email to %s and SMS to %s";
+				break;
+			case Cancel_Unconfirmed_Order:
+				changedOrders = QueryControl.notificationQueries.changeOrdersStatusIfStill(orderIds,
+						OrderStatusEnum.Cancelled, OrderStatusEnum.Notified);
+				messageFormat = "Order: %d, Notification on Automatically cancel becuase of unconfirmed order within 2 hours was sent by email to %s and SMS to %s";
+				break;
+			case Cancel_Unconfirmed_Waiting_List_Order:
+				changedOrders = QueryControl.notificationQueries.changeOrdersStatusIfStill(orderIds,
+						OrderStatusEnum.Cancelled, OrderStatusEnum.Notified_Waiting_List);
+				messageFormat = "Order: %d, Notification on Automatically cancel becuase of unconfirmed order within 2 hours, was sent by email to %s and SMS to %s";
+				break;
+			case Mark_Waiting_List_Irrelevant:
+				changedOrders = QueryControl.notificationQueries.changeOrdersStatusIfStill(orderIds,
+						OrderStatusEnum.Irrelevant, OrderStatusEnum.In_Waiting_List, OrderStatusEnum.Notified_Waiting_List);
+				messageFormat = "Order: %d, Notification on order Irrelevant because date passed was sent by email to %s and SMS to %s";
+				break;
+			default:
+				continue;
+			}
+
+			if (changedOrders == null) {
+				// the status change failed as a whole, try again in a minute.
+				long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+				for (Integer orderId : orderIds)
+					deadlines.add(new Deadline(orderId, type, retryAt));
+				continue;
+			}
+
+			for (Order order : changedOrders) {
+				String message = String.format(messageFormat, order.getOrderId(), order.getEmail(),
+						order.getTelephoneNumber());
+				ServerLog.getInstance().log(message);
+			}
+
+			if (type == DeadlineType.Cancel_Unconfirmed_Order || type == DeadlineType.Cancel_Unconfirmed_Waiting_List_Order)
+				offerFreedSpotsToWaitingList(changedOrders);
+		}
+	}
+
+	/**
+	 * Offers the spots freed by cancelled orders to the waiting list, once for each park and enter date.
+	 */
+	private void offerFreedSpotsToWaitingList(ArrayList<Order> cancelledOrders) {
+		HashSet<String> handledVisits = new HashSet<>();
+		for (Order order : cancelledOrders) {
+			int parkId = order.getParkName().getParkId();
+			if (handledVisits.add(parkId + "@" + order.getEnterDate()))
+				clientRequestHandler.notifyOrdersFromWaitingList(order.getEnterDate(), parkId);
+		}
+	}
+
+	private static long toMillis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+}
@@ -0,0 +1,346 @@
+package server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+import jdbc.StatementProfiler;
+import utils.enums.ClientRequest;
+
+/**
+ * The RequestMetrics class measures the requests of the clients. For every type of request it counts the requests
+ * and keeps a histogram of each part of their latency:
+ * - queue: the time the request waited for a worker thread after it was read from the client.
+ * - handler: the time the server took to handle the request, the time on the database included.
+ * - database: the time the handler held database connections, waiting for them included.
+ * - serialization: the time the request took to decode and the response to encode and send.
+ * It also follows the number of requests in flight and of connected clients.
+ * Every interval (5 minutes by default) the metrics of the interval are written to the log as a table, the busiest
+ * request types first, and to a metrics file if one was set, which is replaced each time so it always holds the last
+ * interval. Then the metrics start over, so each table shows the load of its interval and not of the whole run.
+ * The dump ends with the statements of the interval by query method, from the {@link StatementProfiler}.
+ * Recording never blocks: the counters are atomic and the histograms have fixed buckets.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class RequestMetrics {
+
+	private static final long DEFAULT_DUMP_INTERVAL_SECONDS = 300;
+
+	private static final RequestMetrics instance = new RequestMetrics();
+
+	/**
+	 * A histogram of durations. Bucket i counts the durations shorter than 2^i microseconds which are not counted by a
+	 * lower bucket, so a percentile is known up to a factor of 2. The average and the maximum are exact.
+	 */
+	private static class Histogram {
+		// the last bucket counts everything from 2^26 microseconds (about a minute).
+		private static final int BUCKETS = 28;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private void record(long nanos) {
+			long micros = Math.max(0, nanos) / 1000;
+			int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+			counts.incrementAndGet(bucket);
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		private boolean isEmpty() {
+			for (int i = 0; i < BUCKETS; i++)
+				if (counts.get(i) != 0)
+					return false;
+			return true;
+		}
+
+		/**
+		 * Takes the durations recorded so far and starts over.
+		 */
+		private Snapshot takeSnapshot() {
+			long[] taken = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++)
+				taken[i] = counts.getAndSet(i, 0);
+			return new Snapshot(taken, totalNanos.getAndSet(0), maxNanos.getAndSet(0));
+		}
+	}
+
+	/**
+	 * The durations recorded by a histogram during one interval.
+	 */
+	private static class Snapshot {
+		private final long[] counts;
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+
+		private Snapshot(long[] counts, long totalNanos, long maxNanos) {
+			long count = 0;
+			for (long bucketCount : counts)
+				count += bucketCount;
+			this.counts = counts;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		private double averageMillis() {
+			return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+		}
+
+		/**
+		 * @return the upper bound of the bucket of the percentile, in milliseconds, no more than the maximum.
+		 */
+		private double percentileMillis(double percentile) {
+			long rank = (long) Math.ceil(count * percentile);
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0)
+					return Math.min(1L << i, maxNanos / 1000.0) / 1000.0;
+			}
+			return maxNanos / 1_000_000.0;
+		}
+	}
+
+	/**
+	 * The metrics of one type of request.
+	 */
+	private static class RequestStats {
+		private final Histogram queue = new Histogram();
+		private final Histogram handler = new Histogram();
+		private final Histogram database = new Histogram();
+		private final Histogram serialization = new Histogram();
+	}
+
+	/**
+	 * The time the request handled by a thread spent on the database so far.
+	 */
+	private static class DatabaseTime {
+		private long nanos;
+	}
+
+	// filled with every type of request once, so it is only read after the constructor.
+	private final EnumMap<ClientRequest, RequestStats> stats = new EnumMap<>(ClientRequest.class);
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+	private final ThreadLocal<DatabaseTime> currentDatabaseTime = new ThreadLocal<>();
+	private final ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Request metrics");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// used only by the dumper.
+	private ScheduledFuture<?> scheduledDump;
+	private long intervalStartMillis = System.currentTimeMillis();
+
+	private volatile IntSupplier connectedClients;
+	private volatile Path file;
+
+	private RequestMetrics() {
+		for (ClientRequest request : ClientRequest.values())
+			stats.put(request, new RequestStats());
+		setDumpInterval(DEFAULT_DUMP_INTERVAL_SECONDS);
+	}
+
+	/**
+	 * @return the single instance of the metrics.
+	 */
+	public static RequestMetrics getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Starts to measure a request on the current thread: counts it in flight and its time on the database from now.
+	 * Must be followed by {@link #finishRequest} on the same thread.
+	 *
+	 * @return the time the request started, for {@link System#nanoTime()}.
+	 */
+	public long startRequest() {
+		peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		currentDatabaseTime.set(new DatabaseTime());
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records a request which the current thread finished to handle.
+	 *
+	 * @param request            the type of the request, or null if it isn't known, then it is only counted out of
+	 *                           flight.
+	 * @param queueNanos         the time the request waited for the thread.
+	 * @param handlerNanos       the time the server took to handle the request.
+	 * @param serializationNanos the time the request took to decode and its response to encode and send.
+	 */
+	public void finishRequest(ClientRequest request, long queueNanos, long handlerNanos, long serializationNanos) {
+		DatabaseTime databaseTime = currentDatabaseTime.get();
+		currentDatabaseTime.remove();
+		inFlight.decrementAndGet();
+		if (request == null)
+			return;
+
+		RequestStats requestStats = stats.get(request);
+		requestStats.queue.record(queueNanos);
+		requestStats.handler.record(handlerNanos);
+		requestStats.database.record(databaseTime == null ? 0 : databaseTime.nanos);
+		requestStats.serialization.record(serializationNanos);
+	}
+
+	/**
+	 * Adds time on the database to the request handled by the current thread. Does nothing on a thread which doesn't
+	 * handle a request, such as the background jobs.
+	 *
+	 * @param nanos the time.
+	 */
+	public void addDatabaseTime(long nanos) {
+		DatabaseTime databaseTime = currentDatabaseTime.get();
+		if (databaseTime != null)
+			databaseTime.nanos += nanos;
+	}
+
+	/**
+	 * Sets how the number of connected clients is known.
+	 *
+	 * @param connectedClients the number of connected clients, or null if there is no server.
+	 */
+	public void setConnectedClients(IntSupplier connectedClients) {
+		this.connectedClients = connectedClients;
+	}
+
+	/**
+	 * Sets how often the metrics are written, from now on.
+	 *
+	 * @param seconds the interval, 0 or less to write them only when {@link #dump()} is called.
+	 */
+	public void setDumpInterval(long seconds) {
+		dumper.execute(() -> {
+			if (scheduledDump != null)
+				scheduledDump.cancel(false);
+			scheduledDump = seconds <= 0 ? null
+					: dumper.scheduleAtFixedRate(this::dumpIfBusy, seconds, seconds, TimeUnit.SECONDS);
+		});
+	}
+
+	/**
+	 * Writes the metrics to a file as well, from the next dump. The file is replaced by every dump.
+	 *
+	 * @param path the path of the metrics file, or null to write them only to the log.
+	 */
+	public void setFile(Path path) {
+		file = path;
+	}
+
+	/**
+	 * Writes the metrics of the interval now, and waits until they are written. Used when the server stops.
+	 */
+	public void dump() {
+		try {
+			dumper.submit(this::writeMetrics).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (Exception ex) {
+			ex.printStackTrace();
+		}
+	}
+
+	/**
+	 * Writes the metrics of the interval, unless the server was idle during all of it.
+	 */
+	private void dumpIfBusy() {
+		boolean busy = inFlight.get() > 0;
+		for (RequestStats requestStats : stats.values())
+			busy |= !requestStats.handler.isEmpty();
+		if (busy)
+			writeMetrics();
+		else
+			intervalStartMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * Takes the metrics of the interval, writes them to the log and to the metrics file, and starts a new interval.
+	 */
+	private void writeMetrics() {
+		long now = System.currentTimeMillis();
+		double intervalSeconds = Math.max(1, now - intervalStartMillis) / 1000.0;
+		intervalStartMillis = now;
+
+		ArrayList<Object[]> rows = new ArrayList<>();
+		long totalRequests = 0;
+		for (ClientRequest request : ClientRequest.values()) {
+			RequestStats requestStats = stats.get(request);
+			Snapshot handler = requestStats.handler.takeSnapshot();
+			Snapshot queue = requestStats.queue.takeSnapshot();
+			Snapshot database = requestStats.database.takeSnapshot();
+			Snapshot serialization = requestStats.serialization.takeSnapshot();
+			if (handler.count == 0)
+				continue;
+			totalRequests += handler.count;
+			rows.add(new Object[] { request, handler, queue, database, serialization });
+		}
+		// the request types which took the most time of the server first.
+		rows.sort((first, second) -> Long.compare(((Snapshot) second[1]).totalNanos, ((Snapshot) first[1]).totalNanos));
+
+		IntSupplier clients = connectedClients;
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(
+				"Request metrics of the last %.0f s: %d requests (%.1f/s), %d clients connected, %d requests in flight (peak %d)%n",
+				intervalSeconds, totalRequests, totalRequests / intervalSeconds, clients == null ? 0 : clients.getAsInt(),
+				inFlight.get(), peakInFlight.getAndSet(inFlight.get())));
+		if (!rows.isEmpty())
+			report.append(String.format("%-36s %8s %8s | %-18s | %-30s | %-18s | %9s%n", "Request", "Count", "/s",
+					"Queue avg/p99 ms", "Handler avg/p50/p95/p99/max ms", "DB avg/p99 ms", "Ser. avg"));
+		for (Object[] row : rows) {
+			Snapshot handler = (Snapshot) row[1];
+			Snapshot queue = (Snapshot) row[2];
+			Snapshot database = (Snapshot) row[3];
+			Snapshot serialization = (Snapshot) row[4];
+			report.append(String.format(
+					"%-36s %8d %8.2f | %8.2f %9.2f | %5.1f %5.1f %5.1f %5.1f %6.1f | %8.2f %9.2f | %9.2f%n", row[0],
+					handler.count, handler.count / intervalSeconds, queue.averageMillis(), queue.percentileMillis(0.99),
+					handler.averageMillis(), handler.percentileMillis(0.5), handler.percentileMillis(0.95),
+					handler.percentileMillis(0.99), handler.maxNanos / 1_000_000.0, database.averageMillis(),
+					database.percentileMillis(0.99), serialization.averageMillis()));
+		}
+
+		// the time of the request types on the database, by the query methods they ran.
+		report.append(StatementProfiler.getInstance().takeReport());
+
+		String text = report.toString();
+		ServerLog.getInstance().log(text.trim());
+		writeFile(text);
+	}
+
+	/**
+	 * Replaces the metrics file, if one was set, so a reader never sees half of a dump.
+	 */
+	private void writeFile(String text) {
+		Path path = file;
+		if (path == null)
+			return;
+		try {
+			if (path.getParent() != null)
+				Files.createDirectories(path.getParent());
+			Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+			try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+				writer.write(text);
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			ServerLog.getInstance().log("Failed to write the request metrics file: " + ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The ServerLog class is the log of the server. Any thread may log a line without a lock and without waiting: the
+ * line is put in a ring buffer of a fixed size, and a single background thread drains the buffer a few times a
+ * second, formats the lines, and writes them in batches to the standard output, to the view of the log (the server
+ * screen) and to a rolling log file, if one was enabled.
+ * If the lines are logged faster than they are drained the oldest lines which were not drained yet are overwritten,
+ * and the log tells how many lines were lost, so a burst of requests never blocks the threads which handle them and
+ * the log never takes more than the buffer.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public class ServerLog {
+
+	// the number of lines the buffer holds, a power of 2.
+	private static final int CAPACITY = 8192;
+	private static final int MASK = CAPACITY - 1;
+	// the view and the file get a batch at most this often.
+	private static final long DRAIN_INTERVAL_MILLIS = 100;
+	// a log file is rolled when it is bigger than this, and this many old files are kept.
+	private static final long MAX_FILE_BYTES = 5 * 1024 * 1024;
+	private static final int KEPT_FILES = 3;
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss")
+			.withZone(ZoneId.systemDefault());
+
+	private static final ServerLog instance = new ServerLog();
+
+	/**
+	 * A logged line and the number it was given, which tells the drainer whether the line in a slot is the one it
+	 * expects, an older one which is not written yet, or a newer one which overwrote it.
+	 */
+	private static class Entry {
+		private final long sequence;
+		private final long time;
+		private final String message;
+
+		private Entry(long sequence, long time, String message) {
+			this.sequence = sequence;
+			this.time = time;
+			this.message = message;
+		}
+	}
+
+	private final AtomicReferenceArray<Entry> slots = new AtomicReferenceArray<>(CAPACITY);
+	// the number of the next line to log.
+	private final AtomicLong nextSequence = new AtomicLong();
+	private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Server log");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// used only by the drainer.
+	private long drainedSequence = 0;
+	private final StringBuilder batch = new StringBuilder();
+	private Writer file;
+	private Path filePath;
+	private long fileBytes;
+
+	private volatile Consumer<String> view;
+	private volatile Path requestedFilePath;
+
+	private ServerLog() {
+		drainer.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MILLIS, DRAIN_INTERVAL_MILLIS,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the single instance of the log.
+	 */
+	public static ServerLog getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Logs a line. May be called by any thread, doesn't wait.
+	 *
+	 * @param message the line to log.
+	 */
+	public void log(String message) {
+		long sequence = nextSequence.getAndIncrement();
+		int slot = (int) (sequence & MASK);
+		Entry entry = new Entry(sequence, System.currentTimeMillis(), message);
+		// a thread which was delayed between taking its number and writing its line must not overwrite a newer line.
+		Entry current;
+		do {
+			current = slots.get(slot);
+			if (current != null && current.sequence > sequence)
+				return;
+		} while (!slots.compareAndSet(slot, current, entry));
+	}
+
+	/**
+	 * Sets the view of the log, which gets the formatted lines in batches on the drainer thread.
+	 *
+	 * @param view the view, or null to stop sending the lines to a view.
+	 */
+	public void setView(Consumer<String> view) {
+		this.view = view;
+	}
+
+	/**
+	 * Writes the log to a file as well, from the next batch. The file is rolled when it grows too big: the old files
+	 * are renamed with the suffixes .1, .2 and .3, and the oldest is deleted.
+	 *
+	 * @param path the path of the log file, or null to stop writing to a file.
+	 */
+	public void setFile(Path path) {
+		requestedFilePath = path;
+	}
+
+	/**
+	 * Writes the lines which were logged so far, and waits until they are written. Used when the server stops, so
+	 * its last lines are not lost.
+	 */
+	public void flush() {
+		try {
+			drainer.submit(this::drain).get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (Exception ex) {
+			ex.printStackTrace();
+		}
+	}
+
+	/**
+	 * Formats the lines which were logged since the last drain, and writes them as one batch.
+	 */
+	private void drain() {
+		long lastSequence = nextSequence.get();
+		while (drainedSequence < lastSequence) {
+			Entry entry = slots.get((int) (drainedSequence & MASK));
+			if (entry == null || entry.sequence < drainedSequence)
+				break; // the line was numbered but not put in the buffer yet, drained on the next run.
+			if (entry.sequence > drainedSequence) {
+				// the line was overwritten by a newer line, so were all the lines up to a buffer before the newest.
+				long firstKept = Math.max(drainedSequence + 1, nextSequence.get() - CAPACITY);
+				formatLine(drainedSequence, entry.time,
+						String.format("%d log lines were lost, the log is too busy", firstKept - drainedSequence));
+				drainedSequence = firstKept;
+				continue;
+			}
+			formatLine(entry.sequence, entry.time, entry.message);
+			drainedSequence++;
+		}
+		if (batch.length() == 0) {
+			updateFile(null);
+			return;
+		}
+
+		String lines = batch.toString();
+		batch.setLength(0);
+		System.out.print(lines);
+		Consumer<String> view = this.view;
+		if (view != null)
+			view.accept(lines);
+		updateFile(lines);
+	}
+
+	private void formatLine(long sequence, long time, String message) {
+		batch.append(sequence + 1).append(". [").append(TIME_FORMAT.format(Instant.ofEpochMilli(time))).append("] - ")
+				.append(message).append('\n');
+	}
+
+	/**
+	 * Opens or closes the log file if it was changed, rolls it if it is too big, and writes the lines to it.
+	 */
+	private void updateFile(String lines) {
+		try {
+			Path requested = requestedFilePath;
+			if (requested == null ? filePath != null : !requested.equals(filePath)) {
+				closeFile();
+				if (requested != null)
+					openFile(requested);
+			}
+			if (file == null || lines == null)
+				return;
+			if (fileBytes >= MAX_FILE_BYTES) {
+				closeFile();
+				roll(requested);
+				openFile(requested);
+			}
+			file.write(lines);
+			file.flush();
+			fileBytes += lines.length();
+		} catch (IOException ex) {
+			System.err.println("Failed to write the server log file: " + ex.getMessage());
+			requestedFilePath = null;
+			try {
+				closeFile();
+			} catch (IOException closeEx) {
+				// already reported.
+			}
+		}
+	}
+
+	private void openFile(Path path) throws IOException {
+		if (path.getParent() != null)
+			Files.createDirectories(path.getParent());
+		file = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+		filePath = path;
+		fileBytes = Files.size(path);
+	}
+
+	private void closeFile() throws IOException {
+		Writer closed = file;
+		file = null;
+		filePath = null;
+		if (closed != null)
+			closed.close();
+	}
+
+	private static void roll(Path path) throws IOException {
+		for (int i = KEPT_FILES; i > 0; i--) {
+			Path older = path.resolveSibling(path.getFileName() + "." + i);
+			Path newer = i == 1 ? path : path.resolveSibling(path.getFileName() + "." + (i - 1));
+			if (Files.exists(newer))
+				Files.move(newer, older, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package server;
+
+/**
+ * The ServerView is the user interface which started the server: the server screen, or none when the server runs
+ * headless (see {@link HeadlessServer}). The server writes its log to the {@link ServerLog}, not to the view, so the
+ * server doesn't depend on JavaFX.
+ * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
+ */
+public interface ServerView {
+
+	/**
+	 * Called when the server started listening for clients, on the thread which started it.
+	 */
+	void connectionSuccessfull();
+}
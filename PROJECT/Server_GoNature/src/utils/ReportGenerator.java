@@ -1,10 +1,7 @@
 package utils;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.YearMonth;
 import java.util.ArrayList;
 
@@ -20,6 +17,7 @@ import org.jfree.data.category.CategoryDataset;
 import org.jfree.data.category.DefaultCategoryDataset;
 import org.jfree.data.general.DefaultPieDataset;
 
+import com.itextpdf.text.BadElementException;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.Element;
 import com.itextpdf.text.Font;
@@ -41,10 +39,32 @@ import logic.VisitsReport;
  * The {@code ReportGenerator} class is responsible for generating various reports related to park visitations,
  * usage, cancellations, and visitor amount divisions. It supports generating these reports in PDF format,
  * utilizing JFreeChart for graphical representations and iTextPDF for PDF generation.
+ * The reports are rendered in memory: each thread writes its PDFs into its own buffer, which is reused by the next
+ * report, and the charts are encoded as PNG images in memory and embedded in the PDF. Nothing is written to disk.
  * @author Tamer Amer, Gal Bitton, Rabea Lahham, Bahaldeen Swied, Ron Sisso, Nadav Reubens.
  */
 public class ReportGenerator {
 	
+	// the fonts are never changed, so all the reports share them.
+	private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
+	private static final Font BOLD_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+	private static final Font NORMAL_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
+	
+	// the initial size of a PDF buffer, about the size of a report.
+	private static final int INITIAL_BUFFER_SIZE = 128 * 1024;
+	// a buffer which grew beyond this size for an unusually large report is not kept for the next report.
+	private static final int MAX_RETAINED_BUFFER_SIZE = 4 * 1024 * 1024;
+	private static final ThreadLocal<ByteArrayOutputStream> PDF_BUFFER = ThreadLocal
+			.withInitial(() -> new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+	
+	/**
+	 * Writes the content of a report into a PDF document.
+	 */
+	@FunctionalInterface
+	private interface ReportContent {
+		void writeTo(Document document) throws Exception;
+	}
+	
 	/**
 	 * Generates a usage report for a specified park and time period as a PDF blob.
 	 * The report includes information on park usage, highlighting days and times
@@ -55,26 +75,12 @@ public class ReportGenerator {
 	*/
 	public static byte[] generateUsageReportAsPdfBlob(UsageReport report)
 	{
-		Document document = new Document();
 		YearMonth yearMonth = YearMonth.of(report.getYear(),report.getMonth());
 		int daysInMonth= yearMonth.lengthOfMonth();
-		// Create a temporary file
-		Path tempFilePath = null;
-		File tempFile = null;
-		try {
-			tempFilePath = Files.createTempFile("usage_report", ".pdf");
-			tempFile = tempFilePath.toFile();
-			// Initialize PdfWriter to write to the temporary file
-			PdfWriter.getInstance(document, new FileOutputStream(tempFile));
-			document.open();
-
-			// Header Font
-			Font headerFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
-			Font boldFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-			Font normalFont = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
+		return renderPdf(document -> {
 
 			// Header
-			Paragraph header = new Paragraph("Usage Report", headerFont);
+			Paragraph header = new Paragraph("Usage Report", HEADER_FONT);
 			header.setAlignment(Element.ALIGN_CENTER);
 			document.add(header);
 
@@ -82,9 +88,9 @@ public class ReportGenerator {
 			document.add(new Paragraph("\n"));
 
 			// Park, Year, Month Info
-			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), boldFont));
-			document.add(new Paragraph("Year: " + report.getYear(), boldFont));
-			document.add(new Paragraph("Month: " + report.getMonth(), boldFont));
+			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), BOLD_FONT));
+			document.add(new Paragraph("Year: " + report.getYear(), BOLD_FONT));
+			document.add(new Paragraph("Month: " + report.getMonth(), BOLD_FONT));
 
 			// Adding some space before the table
 			document.add(new Paragraph("\n"));
@@ -97,7 +103,7 @@ public class ReportGenerator {
 			// Table headers
 			String[] tableHeaders = { "Time", "Days that didnt reach full capacity in specific time","Percentage"};
 			for (String headerText : tableHeaders) {
-				PdfPCell headerCell = new PdfPCell(new Paragraph(headerText, boldFont));
+				PdfPCell headerCell = new PdfPCell(new Paragraph(headerText, BOLD_FONT));
 				headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
 				table.addCell(headerCell);
 			}
@@ -113,9 +119,9 @@ public class ReportGenerator {
 				double notFullPerc=100-perc;
 				String percentageOfFull=String.format("%.2f%%", notFullPerc);
 				
-				table.addCell(new PdfPCell(new Paragraph(specifHour, normalFont)));
-				table.addCell(new PdfPCell(new Paragraph(timesOfFull, normalFont)));
-				table.addCell(new PdfPCell(new Paragraph(percentageOfFull, normalFont)));
+				table.addCell(new PdfPCell(new Paragraph(specifHour, NORMAL_FONT)));
+				table.addCell(new PdfPCell(new Paragraph(timesOfFull, NORMAL_FONT)));
+				table.addCell(new PdfPCell(new Paragraph(percentageOfFull, NORMAL_FONT)));
 			}
 			
 			document.add(table);
@@ -154,11 +160,7 @@ public class ReportGenerator {
 	        
 	        
 	       
-	        // Create and set up the chart panel
-	        Path chartPath1 = Files.createTempFile("chart_", ".png");
-	        
-			ChartUtils.saveChartAsPNG(chartPath1.toFile(), barChart, 500, 300);
-			Image chartImage1 = Image.getInstance(chartPath1.toString());
+	        Image chartImage1 = renderChart(barChart, 500, 300);
 			PdfPTable table1 = new PdfPTable(1);
 			table1.setWidthPercentage(100); // Make table width 100% of the document
 			// Add the chart image to the table cell
@@ -170,23 +172,7 @@ public class ReportGenerator {
 			document.add(chartParagraph);
 			document.add(new Paragraph("\n"));
 	
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			document.close();
-		}
-
-		// Now, read the content of the temporary file into a byte array
-		try (FileInputStream input = new FileInputStream(tempFile)) {
-			byte[] fileAsBytes = new byte[(int) tempFile.length()];
-			input.read(fileAsBytes);
-			return fileAsBytes;
-
-		} catch (Exception e) {
-			e.printStackTrace();
-			return null;
-
-		}
+		});
 	}
 	
 	/**
@@ -199,24 +185,10 @@ public class ReportGenerator {
 	 */
 	public static byte[] generateCancellationsReportAsPdfBlob(CancellationsReport report) {
 
-		Document document = new Document();
-		// Create a temporary file
-		Path tempFilePath = null;
-		File tempFile = null;
-		try {
-			tempFilePath = Files.createTempFile("cancellations_report", ".pdf");
-			tempFile = tempFilePath.toFile();
-			// Initialize PdfWriter to write to the temporary file
-			PdfWriter.getInstance(document, new FileOutputStream(tempFile));
-			document.open();
-
-			// Header Font
-			Font headerFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
-			Font boldFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-			Font normalFont = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
+		return renderPdf(document -> {
 
 			// Header
-			Paragraph header = new Paragraph("Cancellations Report", headerFont);
+			Paragraph header = new Paragraph("Cancellations Report", HEADER_FONT);
 			header.setAlignment(Element.ALIGN_CENTER);
 			document.add(header);
 
@@ -224,9 +196,9 @@ public class ReportGenerator {
 			document.add(new Paragraph("\n"));
 
 			// Park, Year, Month Info
-			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), boldFont));
-			document.add(new Paragraph("Year: " + report.getYear(), boldFont));
-			document.add(new Paragraph("Month: " + report.getMonth(), boldFont));
+			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), BOLD_FONT));
+			document.add(new Paragraph("Year: " + report.getYear(), BOLD_FONT));
+			document.add(new Paragraph("Month: " + report.getMonth(), BOLD_FONT));
 
 			// Adding some space before the table
 			document.add(new Paragraph("\n"));
@@ -239,7 +211,7 @@ public class ReportGenerator {
 			// Table headers
 			String[] tableHeaders = { "Day", "Cancels", "Time Passed", "Total Orders" };
 			for (String headerText : tableHeaders) {
-				PdfPCell headerCell = new PdfPCell(new Paragraph(headerText, boldFont));
+				PdfPCell headerCell = new PdfPCell(new Paragraph(headerText, BOLD_FONT));
 				headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
 				table.addCell(headerCell);
 			}
@@ -248,10 +220,10 @@ public class ReportGenerator {
 			// Assuming reportData is a LinkedHashMap or TreeMap to maintain order
 			for (Integer day : report.getReportData().keySet()) {
 				ParkDailySummary summary = report.getReportData().get(day);
-				table.addCell(new PdfPCell(new Paragraph(day.toString(), normalFont)));
-				table.addCell(new PdfPCell(new Paragraph(String.valueOf(summary.getCancelsOrders()), normalFont)));
-				table.addCell(new PdfPCell(new Paragraph(String.valueOf(summary.getTimePassedOrders()), normalFont)));
-				table.addCell(new PdfPCell(new Paragraph(String.valueOf(summary.getTotalOrders()), normalFont)));
+				table.addCell(new PdfPCell(new Paragraph(day.toString(), NORMAL_FONT)));
+				table.addCell(new PdfPCell(new Paragraph(String.valueOf(summary.getCancelsOrders()), NORMAL_FONT)));
+				table.addCell(new PdfPCell(new Paragraph(String.valueOf(summary.getTimePassedOrders()), NORMAL_FONT)));
+				table.addCell(new PdfPCell(new Paragraph(String.valueOf(summary.getTotalOrders()), NORMAL_FONT)));
 			}
 
 			document.add(table);
@@ -279,41 +251,23 @@ public class ReportGenerator {
 			domainAxis.setLowerMargin(0.01);
 			domainAxis.setCategoryMargin(0.01);
 			// Save chart as image and add to document
-			Path chartPath = Files.createTempFile("chart_", ".png");
-			ChartUtils.saveChartAsPNG(chartPath.toFile(), lineChart, 500, 300);
-			Image chartImage = Image.getInstance(chartPath.toString());
+			Image chartImage = renderChart(lineChart, 500, 300);
 			document.add(chartImage);
 			
 			document.add(new Paragraph("\n"));
 
 			// Cancels Average
-			Paragraph cancelsAveragePara = new Paragraph(String.format("Cancels Average: %.2f", report.getAverageCancels()), normalFont);
+			Paragraph cancelsAveragePara = new Paragraph(String.format("Cancels Average: %.2f", report.getAverageCancels()), NORMAL_FONT);
 			cancelsAveragePara.setAlignment(Element.ALIGN_CENTER);
 			document.add(cancelsAveragePara);
 
 			// Cancels Median
-			Paragraph cancelsMedianPara = new Paragraph(String.format("Cancels Median: %.2f", report.getMedianCancels()), normalFont);
+			Paragraph cancelsMedianPara = new Paragraph(String.format("Cancels Median: %.2f", report.getMedianCancels()), NORMAL_FONT);
 			cancelsMedianPara.setAlignment(Element.ALIGN_CENTER);
 			document.add(cancelsMedianPara);
 
 
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			document.close();
-		}
-
-		// Now, read the content of the temporary file into a byte array
-		try (FileInputStream input = new FileInputStream(tempFile)) {
-			byte[] fileAsBytes = new byte[(int) tempFile.length()];
-			input.read(fileAsBytes);
-			return fileAsBytes;
-
-		} catch (Exception e) {
-			e.printStackTrace();
-			return null;
-
-		}
+		});
 
 	}
 	
@@ -326,36 +280,23 @@ public class ReportGenerator {
 	 * @return A byte array representing the generated PDF report, or {@code null} if an error occurs.
 	 */
 	public static byte[] generateVisitsReportAsPdf(VisitsReport report) {
-		Document document = new Document();
-		// Create a temporary file
-		Path tempFilePath = null;
-		File tempFile = null;
-		try {
-			tempFilePath = Files.createTempFile("visits_report", ".pdf");
-			tempFile = tempFilePath.toFile();
-			// Initialize PdfWriter to write to the temporary file
-			PdfWriter.getInstance(document, new FileOutputStream(tempFile));
-			document.open();
-
-			// Header Font
-			Font headerFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
-			Font boldFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+		return renderPdf(document -> {
 
 			// Header
-			Paragraph header = new Paragraph("Visits Report", headerFont);
+			Paragraph header = new Paragraph("Visits Report", HEADER_FONT);
 			header.setAlignment(Element.ALIGN_CENTER);
 			document.add(header);
 
 			// Adding some space
 			document.add(new Paragraph("\n"));
 
-			document.add(new Paragraph("This report contains total amount of visitors distributed by visitors type. ", boldFont));
-			document.add(new Paragraph("In addition, this report includes the total idle time inside the park. ", boldFont));
+			document.add(new Paragraph("This report contains total amount of visitors distributed by visitors type. ", BOLD_FONT));
+			document.add(new Paragraph("In addition, this report includes the total idle time inside the park. ", BOLD_FONT));
 			
 			// Park, Year, Month Info
-			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), boldFont));
-			document.add(new Paragraph("Year: " + report.getYear(), boldFont));
-			document.add(new Paragraph("Month: " + report.getMonth(), boldFont));
+			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), BOLD_FONT));
+			document.add(new Paragraph("Year: " + report.getYear(), BOLD_FONT));
+			document.add(new Paragraph("Month: " + report.getMonth(), BOLD_FONT));
 
 			// Adding some space before the table
 			document.add(new Paragraph("\n"));
@@ -493,11 +434,7 @@ public class ReportGenerator {
 			}
 
 			JFreeChart chart = createBarChart(dataset,"Total Visits Distributed By Idle Time","Idle Time","Visits");
-			Path chartPath = Files.createTempFile("chart_", ".png");
-			ChartUtils.saveChartAsPNG(chartPath.toFile(), chart, 450, 400);
-			
-			// Add the grouped bar chart image to the PDF
-			Image chartImage = Image.getInstance(chartPath.toString());
+			Image chartImage = renderChart(chart, 450, 400);
 			document.add(chartImage);
 
 			// Add the second grouped bar chart
@@ -517,30 +454,10 @@ public class ReportGenerator {
 			}
 
 			chart = createBarChart(dataset,"Total Visits Distributed By Enter Time","Enter Time","Visits");
-			chartPath = Files.createTempFile("chart_2", ".png");
-			ChartUtils.saveChartAsPNG(chartPath.toFile(), chart, 450, 400);
-			
-			// Add the grouped bar chart image to the PDF
-			chartImage = Image.getInstance(chartPath.toString());
+			chartImage = renderChart(chart, 450, 400);
 			document.add(chartImage);
 			
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			document.close();
-		}
-
-		// Now, read the content of the temporary file into a byte array
-		try (FileInputStream input = new FileInputStream(tempFile)) {
-			byte[] fileAsBytes = new byte[(int) tempFile.length()];
-			input.read(fileAsBytes);
-			return fileAsBytes;
-
-		} catch (Exception e) {
-			e.printStackTrace();
-			return null;
-
-		}
+		});
 	}
 	
 	/**
@@ -553,22 +470,9 @@ public class ReportGenerator {
 	 */
 	@SuppressWarnings("unchecked")
 	public static byte[] generateTotalVisitorsAmountReportAsPdf(AmountDivisionReport report) {
-		Document document = new Document();
-		// Create a temporary file
-		Path tempFilePath = null;
-		File tempFile = null;
-		try {
-			tempFilePath = Files.createTempFile("TotalAmount_report", ".pdf");
-			tempFile = tempFilePath.toFile();
-			// Initialize PdfWriter to write to the temporary file
-			PdfWriter.getInstance(document, new FileOutputStream(tempFile));
-			document.open();
-
-			// Header Font
-			Font headerFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
-			Font boldFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+		return renderPdf(document -> {
 			// Header
-			Paragraph header = new Paragraph("Total amount of travlers report", headerFont);
+			Paragraph header = new Paragraph("Total amount of travlers report", HEADER_FONT);
 			header.setAlignment(Element.ALIGN_CENTER);
 			document.add(header);
 
@@ -576,9 +480,9 @@ public class ReportGenerator {
 			document.add(new Paragraph("\n"));
 
 			// Park, Year, Month Info
-			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), boldFont));
-			document.add(new Paragraph("Year: " + report.getYear(), boldFont));
-			document.add(new Paragraph("Month: " + report.getMonth(), boldFont));
+			document.add(new Paragraph("Park: " + report.getRequestedPark().name(), BOLD_FONT));
+			document.add(new Paragraph("Year: " + report.getYear(), BOLD_FONT));
+			document.add(new Paragraph("Month: " + report.getMonth(), BOLD_FONT));
 
 			// Adding some space before the table
 			document.add(new Paragraph("\n"));
@@ -601,32 +505,54 @@ public class ReportGenerator {
 
 
 			// Save chart as image and add to document
-			Path chartPath = Files.createTempFile("chart_", ".png");
-			ChartUtils.saveChartAsPNG(chartPath.toFile(), pieChart, 500, 300);
-			Image chartImage = Image.getInstance(chartPath.toString());
+			Image chartImage = renderChart(pieChart, 500, 300);
 			document.add(chartImage);
 			document.add(new Paragraph("\n"));
 
 		
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			document.close();
-		}
+		});
 
-		// Now, read the content of the temporary file into a byte array
-		try (FileInputStream input = new FileInputStream(tempFile)) {
-			byte[] pdfAsBytes = new byte[(int) tempFile.length()];
-			input.read(pdfAsBytes);
-			
-			return pdfAsBytes;
 
+	}
+	
+	/**
+	 * Renders a report into a PDF in the buffer of the current thread, and returns a copy of the PDF.
+	 * 
+	 * @param content The content of the report.
+	 * @return The PDF, or {@code null} if an error occurs.
+	 */
+	private static byte[] renderPdf(ReportContent content) {
+		ByteArrayOutputStream buffer = PDF_BUFFER.get();
+		buffer.reset();
+		Document document = new Document();
+		try {
+			PdfWriter.getInstance(document, buffer);
+			document.open();
+			content.writeTo(document);
 		} catch (Exception e) {
 			e.printStackTrace();
 			return null;
+		} finally {
+			// the PDF is complete only after the document was closed.
+			document.close();
+			if (buffer.size() > MAX_RETAINED_BUFFER_SIZE)
+				PDF_BUFFER.remove();
 		}
-
-
+		return buffer.toByteArray();
+	}
+	
+	/**
+	 * Draws a chart and encodes it as a PNG image in memory, ready to be added to a PDF.
+	 * 
+	 * @param chart  The chart to draw.
+	 * @param width  The width of the image.
+	 * @param height The height of the image.
+	 * @return The image of the chart.
+	 * @throws IOException if the image can't be encoded.
+	 * @throws BadElementException if the encoded image can't be read by iText.
+	 */
+	private static Image renderChart(JFreeChart chart, int width, int height) throws IOException, BadElementException {
+		return Image.getInstance(ChartUtils.encodeAsPNG(chart.createBufferedImage(width, height)));
 	}
 	
 	/**